@@ -4,11 +4,13 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Info;
 
 @SpringBootApplication
+@EnableScheduling
 @EnableAutoConfiguration(exclude = { DataSourceAutoConfiguration.class })
 @OpenAPIDefinition(info = @Info(title = "Customer-Feature API", version = "3.0", description = "API's related to customer"))
 public class CustomerApplication {
@@ -0,0 +1,251 @@
+package com.wrappiza.application.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wrappiza.application.model.CreateCustomerResource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process read-through cache for single customer lookups. Customers are kept
+ * by id, and mobile numbers only point at the id, so one write never leaves two
+ * copies of the same customer behind. Eviction is size and time bounded and
+ * frequency aware (W-TinyLFU), so a small set of hot customers stays resident.
+ *
+ * @author Chandan Kumar
+ *
+ */
+@Component
+@Slf4j
+public class CustomerCache implements MeterBinder {
+
+	private final Cache<String, CreateCustomerResource> customersById;
+
+	private final Cache<String, String> customerIdsByMobileNumber;
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	/**
+	 * Bumped by every eviction, a customer loaded by mobile number is only cached
+	 * when no eviction happened while it was loading
+	 */
+	private final AtomicLong evictions = new AtomicLong();
+
+	public CustomerCache(@Value("${wrappiza.customer.cache.maximum-size:10000}") long maximumSize,
+			@Value("${wrappiza.customer.cache.time-to-live:PT5M}") Duration timeToLive,
+			ApplicationEventPublisher eventPublisher) {
+
+		this.customersById = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(timeToLive)
+				.recordStats().build();
+		this.customerIdsByMobileNumber = Caffeine.newBuilder().maximumSize(maximumSize)
+				.expireAfterWrite(timeToLive).recordStats().build();
+		this.eventPublisher = eventPublisher;
+	}
+
+	/**
+	 * Method to get customer by id, loading it on a miss. Missing customers are not
+	 * cached.
+	 *
+	 * @param id
+	 * @param loader
+	 */
+	public CreateCustomerResource getById(String id, Function<String, CreateCustomerResource> loader) {
+
+		CreateCustomerResource resource = customersById.get(id, loader);
+
+		if (null != resource && StringUtils.isNotBlank(resource.getMobileNumber())) {
+			customerIdsByMobileNumber.put(resource.getMobileNumber(), resource.getCustomerId());
+		}
+
+		return resource;
+	}
+
+	/**
+	 * Method to get customer by mobile number, loading it on a miss. A cached
+	 * mapping is only trusted while the customer it points at still carries that
+	 * mobile number. The id is only known once loaded, so the load runs outside
+	 * the cache and its result is dropped rather than cached when an eviction
+	 * came in meanwhile, as it may predate the write that evicted.
+	 *
+	 * @param mobileNumber
+	 * @param loader
+	 */
+	public CreateCustomerResource getByMobileNumber(String mobileNumber,
+			Function<String, CreateCustomerResource> loader) {
+
+		String customerId = customerIdsByMobileNumber.getIfPresent(mobileNumber);
+
+		if (null != customerId) {
+			CreateCustomerResource cached = customersById.getIfPresent(customerId);
+
+			if (null != cached && mobileNumber.equals(cached.getMobileNumber())) {
+				return cached;
+			}
+		}
+
+		long evicted = evictions.get();
+
+		CreateCustomerResource resource = loader.apply(mobileNumber);
+
+		if (null != resource && evicted == evictions.get()) {
+			customersById.put(resource.getCustomerId(), resource);
+			customerIdsByMobileNumber.put(mobileNumber, resource.getCustomerId());
+		}
+
+		return resource;
+	}
+
+	/**
+	 * Method to get many customers by id, loading every miss with a single call.
+	 * Missing customers are left out of the result.
+	 * 
+	 * @param ids
+	 * @param loader
+	 */
+	public Map<String, CreateCustomerResource> getAllById(Collection<String> ids,
+			Function<Set<String>, Map<String, CreateCustomerResource>> loader) {
+
+		Map<String, CreateCustomerResource> resources = customersById.getAll(ids,
+				missing -> loader.apply(new HashSet<>(missing)));
+
+		resources.values().stream().filter(resource -> StringUtils.isNotBlank(resource.getMobileNumber()))
+				.forEach(resource -> customerIdsByMobileNumber.put(resource.getMobileNumber(),
+						resource.getCustomerId()));
+
+		return resources;
+	}
+
+	/**
+	 * Method to get many customers by mobile number, loading every miss with a
+	 * single call. Missing customers are left out of the result, and loaded ones
+	 * are not cached when an eviction came in while they were loading.
+	 * 
+	 * @param mobileNumbers
+	 * @param loader
+	 */
+	public Map<String, CreateCustomerResource> getAllByMobileNumber(Collection<String> mobileNumbers,
+			Function<Set<String>, Map<String, CreateCustomerResource>> loader) {
+
+		Map<String, CreateCustomerResource> resources = new HashMap<>();
+		Set<String> missing = new HashSet<>();
+
+		for (String mobileNumber : mobileNumbers) {
+
+			String customerId = customerIdsByMobileNumber.getIfPresent(mobileNumber);
+			CreateCustomerResource cached = null == customerId ? null : customersById.getIfPresent(customerId);
+
+			if (null != cached && mobileNumber.equals(cached.getMobileNumber())) {
+				resources.put(mobileNumber, cached);
+			} else {
+				missing.add(mobileNumber);
+			}
+		}
+
+		if (!missing.isEmpty()) {
+
+			long evicted = evictions.get();
+
+			Map<String, CreateCustomerResource> loaded = loader.apply(missing);
+
+			if (evicted == evictions.get()) {
+				loaded.forEach((mobileNumber, resource) -> {
+					customersById.put(resource.getCustomerId(), resource);
+					customerIdsByMobileNumber.put(mobileNumber, resource.getCustomerId());
+				});
+			}
+
+			resources.putAll(loaded);
+		}
+
+		return resources;
+	}
+
+	/**
+	 * Method to evict a customer after it was written, here and on every other
+	 * instance listening for evictions
+	 *
+	 * @param customerId
+	 * @param mobileNumber
+	 */
+	public void evict(String customerId, String mobileNumber) {
+
+		evictLocal(customerId, mobileNumber);
+
+		eventPublisher.publishEvent(new CustomerCacheEvictionEvent(customerId, mobileNumber));
+	}
+
+	/**
+	 * Method to evict every customer after a write whose customers are not known
+	 * one by one, here and on every other instance
+	 *
+	 * @param
+	 */
+	public void evictAll() {
+		evict(null, null);
+	}
+
+	/**
+	 * Method to evict a customer from this instance only, every customer when
+	 * neither the id nor the mobile number is given
+	 *
+	 * @param customerId
+	 * @param mobileNumber
+	 */
+	public void evictLocal(String customerId, String mobileNumber) {
+
+		log.debug("Evicting customer id : {} and mobile number : {} from cache", customerId, mobileNumber);
+
+		evictions.incrementAndGet();
+
+		if (null == customerId && null == mobileNumber) {
+			customersById.invalidateAll();
+			customerIdsByMobileNumber.invalidateAll();
+			return;
+		}
+
+		if (null != customerId) {
+			customersById.invalidate(customerId);
+		}
+
+		if (null != mobileNumber) {
+
+			// A write known by its mobile number alone also drops the customer it points at
+			String mappedCustomerId = customerIdsByMobileNumber.getIfPresent(mobileNumber);
+
+			if (null != mappedCustomerId) {
+				customersById.invalidate(mappedCustomerId);
+			}
+
+			customerIdsByMobileNumber.invalidate(mobileNumber);
+		}
+	}
+
+	/**
+	 * Registers hit, miss and eviction statistics of both caches
+	 *
+	 * @param registry
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+
+		CaffeineCacheMetrics.monitor(registry, customersById, "customerById");
+		CaffeineCacheMetrics.monitor(registry, customerIdsByMobileNumber, "customerIdByMobileNumber");
+	}
+}
@@ -0,0 +1,21 @@
+package com.wrappiza.application.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Event raised when a customer is evicted from the cache after a write
+ *
+ * @author Chandan Kumar
+ *
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CustomerCacheEvictionEvent {
+
+	private String customerId;
+	private String mobileNumber;
+
+}
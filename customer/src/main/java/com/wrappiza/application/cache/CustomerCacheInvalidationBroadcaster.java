@@ -0,0 +1,125 @@
+package com.wrappiza.application.cache;
+
+import java.util.Date;
+import java.util.UUID;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.TailableCursorRequest;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Shares cache evictions between service instances through a capped collection.
+ * Every eviction is appended to the collection and every instance tails it with
+ * a tailable cursor, evicting the entries written by the others. Capped
+ * collections and tailable cursors work on a standalone mongod, so no replica
+ * set is needed to run this locally.
+ *
+ * @author Chandan Kumar
+ *
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "wrappiza.customer.cache.invalidation.enabled", havingValue = "true")
+public class CustomerCacheInvalidationBroadcaster implements SmartLifecycle {
+
+	static final String INVALIDATION_COLLECTION = "customer_cache_invalidation";
+
+	private final String instanceId = UUID.randomUUID().toString();
+
+	private final MongoTemplate mongoTemplate;
+
+	private final CustomerCache customerCache;
+
+	private final long collectionSize;
+
+	private MessageListenerContainer container;
+
+	public CustomerCacheInvalidationBroadcaster(MongoTemplate mongoTemplate, CustomerCache customerCache,
+			@Value("${wrappiza.customer.cache.invalidation.collection-size:1048576}") long collectionSize) {
+		this.mongoTemplate = mongoTemplate;
+		this.customerCache = customerCache;
+		this.collectionSize = collectionSize;
+	}
+
+	/**
+	 * Creates the capped collection when missing and starts tailing it from now on
+	 */
+	@Override
+	public void start() {
+
+		if (!mongoTemplate.collectionExists(INVALIDATION_COLLECTION)) {
+			mongoTemplate.createCollection(INVALIDATION_COLLECTION,
+					CollectionOptions.empty().capped().size(collectionSize));
+		}
+
+		Query query = new Query();
+		query.addCriteria(Criteria.where("origin").ne(instanceId));
+		query.addCriteria(Criteria.where("createdAt").gte(new Date()));
+
+		TailableCursorRequest<Object> request = TailableCursorRequest.builder().collection(INVALIDATION_COLLECTION)
+				.filter(query).publishTo(this::onRemoteEviction).build();
+
+		container = new DefaultMessageListenerContainer(mongoTemplate);
+		container.register(request, Document.class);
+		container.start();
+
+		log.info("Customer cache invalidation started for instance : {}", instanceId);
+	}
+
+	@Override
+	public void stop() {
+
+		if (null != container) {
+			container.stop();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return null != container && container.isRunning();
+	}
+
+	/**
+	 * Publishes an eviction made on this instance to the other instances
+	 *
+	 * @param event
+	 */
+	@EventListener
+	public void onEviction(CustomerCacheEvictionEvent event) {
+
+		Document document = new Document("origin", instanceId).append("customerId", event.getCustomerId())
+				.append("mobileNumber", event.getMobileNumber()).append("createdAt", new Date());
+
+		try {
+			mongoTemplate.insert(document, INVALIDATION_COLLECTION);
+		} catch (Exception ex) {
+			// Other instances fall back to the time to live of their entries
+			log.warn("Failed to publish customer cache eviction : {}", event, ex);
+		}
+	}
+
+	/**
+	 * Applies an eviction made on another instance
+	 *
+	 * @param message
+	 */
+	private void onRemoteEviction(Message<Document, Object> message) {
+
+		Document document = message.getRaw();
+
+		customerCache.evictLocal(document.getString("customerId"), document.getString("mobileNumber"));
+	}
+}
@@ -0,0 +1,239 @@
+package com.wrappiza.application.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.wrappiza.application.repository.CustomerRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bloom filter of the mobile numbers of active customers. A negative answer is
+ * exact, so a new customer is created without reading the database first; only
+ * a "maybe present" answer needs a lookup. Until the first build completes
+ * every number is reported as maybe present.
+ *
+ * @author Chandan Kumar
+ *
+ */
+@Component
+@Slf4j
+public class MobileNumberFilter implements MeterBinder {
+
+	private final CustomerRepository repo;
+
+	private final int numberOfBits;
+
+	private final int numberOfHashes;
+
+	private volatile Bits active;
+
+	private volatile Bits building;
+
+	public MobileNumberFilter(CustomerRepository repo,
+			@Value("${wrappiza.customer.mobile-number-filter.expected-insertions:1000000}") long expectedInsertions,
+			@Value("${wrappiza.customer.mobile-number-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+
+		this.repo = repo;
+
+		// Optimal size and hash count for the expected insertions and rate
+		long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		this.numberOfBits = (int) Math.min(Math.max(bits, Long.SIZE), Integer.MAX_VALUE - Long.SIZE);
+		this.numberOfHashes = Math.max(1, (int) Math.round((double) numberOfBits / expectedInsertions * Math.log(2)));
+	}
+
+	/**
+	 * Method to tell whether a mobile number may belong to an active customer
+	 *
+	 * @param mobileNumber
+	 */
+	public boolean mightContain(String mobileNumber) {
+
+		Bits bits = active;
+
+		return null == bits || bits.mightContain(mobileNumber);
+	}
+
+	/**
+	 * Method to add the mobile number of a saved customer
+	 *
+	 * @param mobileNumber
+	 */
+	public void put(String mobileNumber) {
+
+		if (null == mobileNumber) {
+			return;
+		}
+
+		Bits bits = active;
+
+		if (null != bits) {
+			bits.put(mobileNumber);
+		}
+
+		// Numbers saved while a rebuild is running go into the new filter as well
+		bits = building;
+
+		if (null != bits) {
+			bits.put(mobileNumber);
+		}
+	}
+
+	/**
+	 * Method to build a new filter from a streaming scan of the mobile numbers
+	 * and swap it in. Rebuilding also drops the numbers of deleted customers.
+	 *
+	 * @param
+	 */
+	@Scheduled(fixedDelayString = "${wrappiza.customer.mobile-number-filter.rebuild-interval:PT24H}")
+	public synchronized void rebuild() {
+
+		log.info("Mobile number filter rebuild is in progress");
+
+		Bits next = new Bits(numberOfBits, numberOfHashes);
+		building = next;
+
+		try {
+			repo.streamMobileNumber(next::put);
+			active = next;
+
+			log.info("Mobile number filter rebuilt with : {} mobile numbers", next.insertions.get());
+		} catch (Exception ex) {
+			log.warn("Failed to rebuild mobile number filter : {}", ex.getMessage());
+		} finally {
+			building = null;
+		}
+	}
+
+	/**
+	 * Registers the memory footprint, the insertions and the expected false
+	 * positive rate of the filter
+	 *
+	 * @param registry
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+
+		Gauge.builder("customer.mobile.number.filter.size", this, filter -> filter.numberOfBits / Byte.SIZE)
+				.baseUnit(BaseUnits.BYTES).register(registry);
+		Gauge.builder("customer.mobile.number.filter.insertions", this, MobileNumberFilter::insertions)
+				.register(registry);
+		Gauge.builder("customer.mobile.number.filter.false.positive.rate", this,
+				MobileNumberFilter::falsePositiveRate).register(registry);
+	}
+
+	/**
+	 * Method to get the number of mobile numbers added to the active filter
+	 *
+	 * @param
+	 */
+	long insertions() {
+
+		Bits bits = active;
+
+		return null == bits ? 0 : bits.insertions.get();
+	}
+
+	/**
+	 * Method to estimate the false positive rate of the active filter from its
+	 * insertions
+	 *
+	 * @param
+	 */
+	double falsePositiveRate() {
+
+		Bits bits = active;
+
+		if (null == bits) {
+			return 1;
+		}
+
+		return Math.pow(1 - Math.exp(-(double) numberOfHashes * bits.insertions.get() / numberOfBits),
+				numberOfHashes);
+	}
+
+	/**
+	 * Bit array of one filter generation, probed with double hashing
+	 */
+	private static final class Bits {
+
+		private final AtomicLongArray words;
+
+		private final AtomicLong insertions = new AtomicLong();
+
+		private final int numberOfBits;
+
+		private final int numberOfHashes;
+
+		private Bits(int numberOfBits, int numberOfHashes) {
+			this.words = new AtomicLongArray((numberOfBits + Long.SIZE - 1) / Long.SIZE);
+			this.numberOfBits = numberOfBits;
+			this.numberOfHashes = numberOfHashes;
+		}
+
+		private void put(String value) {
+
+			long hash1 = hash(value);
+			long hash2 = mix(hash1);
+
+			for (int i = 0; i < numberOfHashes; i++) {
+				int bit = (int) Long.remainderUnsigned(hash1 + i * hash2, numberOfBits);
+				long mask = 1L << bit;
+				words.getAndUpdate(bit / Long.SIZE, word -> word | mask);
+			}
+
+			insertions.incrementAndGet();
+		}
+
+		private boolean mightContain(String value) {
+
+			long hash1 = hash(value);
+			long hash2 = mix(hash1);
+
+			for (int i = 0; i < numberOfHashes; i++) {
+				int bit = (int) Long.remainderUnsigned(hash1 + i * hash2, numberOfBits);
+
+				if ((words.get(bit / Long.SIZE) & (1L << bit)) == 0) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		/**
+		 * 64 bit FNV-1a hash of the utf-8 bytes
+		 */
+		private static long hash(String value) {
+
+			long hash = 0xcbf29ce484222325L;
+
+			for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+				hash ^= b & 0xff;
+				hash *= 0x100000001b3L;
+			}
+
+			return hash;
+		}
+
+		/**
+		 * SplitMix64 finalizer, derives the second hash from the first
+		 */
+		private static long mix(long hash) {
+
+			hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+			hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+
+			return (hash ^ (hash >>> 31)) | 1;
+		}
+	}
+}
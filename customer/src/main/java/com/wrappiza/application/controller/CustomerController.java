@@ -1,22 +1,56 @@
 package com.wrappiza.application.controller;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.wrappiza.application.model.CreateCustomerRequest;
+import com.wrappiza.application.model.CreateCustomerRequestInfo;
+import com.wrappiza.application.model.CreateCustomerResource;
 import com.wrappiza.application.model.CreateCustomerResponse;
+import com.wrappiza.application.model.CustomerBulkRequest;
+import com.wrappiza.application.model.CustomerLookupRequest;
+import com.wrappiza.application.model.CustomerLookupResponse;
+import com.wrappiza.application.model.CustomerPatchRequest;
+import com.wrappiza.application.model.CustomerSummaryResponse;
+import com.wrappiza.application.model.JobResponse;
 import com.wrappiza.application.service.CustomerService;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
@@ -31,97 +65,482 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class CustomerController {
 
+	private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+	private static final String PREFER = "Prefer";
+
+	private static final String PREFERENCE_APPLIED = "Preference-Applied";
+
+	private static final String RETURN_MINIMAL = "return=minimal";
+
+	private static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
 	@Autowired
 	private final CustomerService customerService;
 
+	@Autowired
+	private final ObjectMapper objectMapper;
+
+	/**
+	 * Time the export may stream for, 0s never timing out as the export runs for
+	 * as long as the collection takes to read. Other async requests keep the
+	 * default timeout.
+	 */
+	@Value("${wrappiza.customer.export.timeout:0s}")
+	private Duration exportTimeout;
+
 	
-	public CustomerController(CustomerService customerService) {
+	public CustomerController(CustomerService customerService, ObjectMapper objectMapper) {
 		this.customerService = customerService;
+		this.objectMapper = objectMapper;
 	}
 
 	/**
-	 * API used for creating a customer service
+	 * API used for creating a customer service. An idempotent create can be
+	 * retried safely, it returns the customer already saved with the same mobile
+	 * number instead of creating it again.
 	 * 
-	 * @param createCustomerRequest
+	 * @param createCustomerRequest,idempotent
 	 */
 	@PostMapping(value = "/addcustomer")
 	public ResponseEntity<CreateCustomerResponse> addCustomer(
-			@RequestBody @Valid CreateCustomerRequest createCustomerRequest) {
+			@RequestBody @Valid CreateCustomerRequest createCustomerRequest,
+			@RequestParam(required = false) boolean idempotent) {
 
 		log.info("Add customer is in progress");
 
-		CreateCustomerResponse response = customerService.createCustomer(createCustomerRequest);
+		CreateCustomerResponse response = customerService.createCustomer(createCustomerRequest, idempotent);
 
 		return ResponseEntity.status(HttpStatus.OK).body(response);
 	}
 
 	/**
-	 * API used for retrieving all customer
+	 * API used for retrieving customers one page at a time. The nextCursor of the
+	 * response is passed as after to fetch the following page. Fields restricts
+	 * each customer to the comma separated fields.
 	 * 
-	 * @param
+	 * @param after,limit,fields
 	 */
 	@GetMapping(value = "/customer")
-	@Tag(name = "Get Customer", description = "All Customer is retrieved")
-	public ResponseEntity<CreateCustomerResponse> retrieveAll() {
+	@Tag(name = "Get Customer", description = "Page of customer is retrieved")
+	public ResponseEntity<CreateCustomerResponse> retrieveAll(@RequestParam(required = false) String after,
+			@RequestParam(required = false) Integer limit, @RequestParam(required = false) String fields) {
 
 		log.info("Retrieve all customer is in progress");
 
-		CreateCustomerResponse response = customerService.retrieveCustomer();
+		CreateCustomerResponse response = customerService.retrieveCustomer(after, limit, fields);
+
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+	/**
+	 * API used for exporting all customer as newline delimited json. Records are
+	 * written to the response as they are read from the database, through a
+	 * fixed size buffer, in an async task carrying the export timeout of its own.
+	 * 
+	 * @param response
+	 */
+	@GetMapping(value = "/customer/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	@Tag(name = "Export Customer", description = "All customer is streamed")
+	public WebAsyncTask<Void> exportCustomer(HttpServletResponse response) {
+
+		log.info("Export customer is in progress");
+
+		// Records are separated by the newline alone, not the default space
+		ObjectWriter writer = objectMapper.writerFor(CreateCustomerResource.class)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE).withRootValueSeparator("");
+
+		return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+
+			response.setStatus(HttpStatus.OK.value());
+			response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+
+			try (JsonGenerator generator = writer
+					.createGenerator(new BufferedOutputStream(response.getOutputStream(), EXPORT_BUFFER_SIZE))) {
+
+				customerService.exportCustomer(resource -> writeLine(writer, generator, resource));
+			}
+
+			return null;
+		});
+	}
+
+	/**
+	 * API used for counting customer, only the counts are returned
+	 * 
+	 * @param
+	 */
+	@GetMapping(value = "/customer/summary")
+	@Tag(name = "Customer Summary", description = "Customer is counted")
+	public ResponseEntity<CustomerSummaryResponse> summarizeCustomer() {
+
+		log.info("Customer summary is in progress");
+
+		CustomerSummaryResponse response = customerService.summarizeCustomer();
 
 		return ResponseEntity.status(HttpStatus.OK).body(response);
 	}
 
 	/**
 	 * API used for retrieving single customer by customer Id or customer mobile
-	 * number
+	 * number, restricted to the comma separated fields when given. The customer
+	 * version and the selected fields are returned as a strong ETag, so a
+	 * projection never revalidates the full customer, and a matching
+	 * If-None-Match is answered with 304 and no body; the customer usually comes
+	 * from the cache, so revalidation does not reach the database.
 	 * 
-	 * @param id,mobileNumber
+	 * @param id,mobileNumber,fields
 	 */
 	@GetMapping(value = "/singlecustomer")
 	@Tag(name = "Get Single Customer", description = "Single customer is retrieved")
 	public ResponseEntity<CreateCustomerResponse> retrieveSingleCustomer(@RequestParam(required = false) String id,
-			@RequestParam(required = false) String mobileNumber) {
+			@RequestParam(required = false) String mobileNumber, @RequestParam(required = false) String fields,
+			WebRequest webRequest) {
 
 		log.info("Retrieve single customer is in progress");
 
-		CreateCustomerResponse response = customerService.getSingleCustomer(id, mobileNumber);
+		CreateCustomerResponse response = customerService.getSingleCustomer(id, mobileNumber, fields);
+
+		String eTag = eTag(response, fields);
+
+		if (null == eTag) {
+			return ResponseEntity.status(HttpStatus.OK).body(response);
+		}
+
+		if (webRequest.checkNotModified(eTag)) {
+			return null;
+		}
+
+		return ResponseEntity.status(HttpStatus.OK).eTag(eTag).body(response);
+	}
+
+	/**
+	 * API used for retrieving many customer by customer Id or by mobile number in
+	 * one call. Results come back in request order and mark the customers that
+	 * were not found.
+	 * 
+	 * @param customerLookupRequest
+	 */
+	@PostMapping(value = "/customer/lookup")
+	@Tag(name = "Lookup Customer", description = "Many customer is retrieved")
+	public ResponseEntity<CustomerLookupResponse> lookupCustomer(
+			@RequestBody CustomerLookupRequest customerLookupRequest) {
+
+		log.info("Lookup customer is in progress");
+
+		CustomerLookupResponse response = customerService.lookupCustomer(customerLookupRequest);
 
 		return ResponseEntity.status(HttpStatus.OK).body(response);
 	}
 
 	/**
-	 * API used for updating single customer by Id or mobile number
+	 * API used for deleting every customer matching the given ids, status and
+	 * date range in one write, answering with the matched and modified counts
+	 * 
+	 * @param customerBulkRequest
+	 */
+	@PostMapping(value = "/customer/bulkdelete")
+	@Tag(name = "Customer Bulk Deletion", description = "Matching customers are deleted")
+	public ResponseEntity<CreateCustomerResponse> deleteCustomers(@RequestBody CustomerBulkRequest customerBulkRequest) {
+
+		log.info("Bulk delete customer is in progress");
+
+		CreateCustomerResponse response = customerService.deleteCustomers(customerBulkRequest);
+
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+	/**
+	 * API used for creating a large customer list as an async job. The job id is
+	 * answered right away, its progress is polled from the Location given.
+	 * 
+	 * @param createCustomerRequest
+	 */
+	@PostMapping(value = "/customer/job/create")
+	@Tag(name = "Customer Creation Job", description = "Customers are created in the background")
+	public ResponseEntity<JobResponse> submitCreateCustomerJob(
+			@RequestBody @Valid CreateCustomerRequest createCustomerRequest) {
+
+		log.info("Submit customer creation job is in progress");
+
+		JobResponse response = customerService.submitCreateCustomerJob(createCustomerRequest);
+
+		return accepted(response);
+	}
+
+	/**
+	 * API used for deleting every customer matching the given ids, status and
+	 * date range as an async job
+	 * 
+	 * @param customerBulkRequest
+	 */
+	@PostMapping(value = "/customer/job/bulkdelete")
+	@Tag(name = "Customer Bulk Deletion Job", description = "Matching customers are deleted in the background")
+	public ResponseEntity<JobResponse> submitDeleteCustomersJob(@RequestBody CustomerBulkRequest customerBulkRequest) {
+
+		log.info("Submit customer bulk deletion job is in progress");
+
+		JobResponse response = customerService.submitDeleteCustomersJob(customerBulkRequest);
+
+		return accepted(response);
+	}
+
+	/**
+	 * API used for importing customers sent as newline delimited json of any
+	 * size. Records are parsed one line at a time from the request body and
+	 * written a chunk at a time, the import being pollable as a job while it
+	 * runs.
+	 * 
+	 * @param body
+	 */
+	@PostMapping(value = "/customer/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+	@Tag(name = "Import Customer", description = "Streamed customers are created")
+	public ResponseEntity<JobResponse> importCustomers(InputStream body) throws IOException {
+
+		log.info("Import customer is in progress");
+
+		try (BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+
+			JobResponse response = customerService
+					.importCustomers(records(lines, objectMapper.readerFor(CreateCustomerRequestInfo.class)));
+
+			return ResponseEntity.status(HttpStatus.OK).body(response);
+		}
+	}
+
+	/**
+	 * Method to read newline delimited records, every line being parsed on its
+	 * own so that a malformed line fails only its own record and the next line
+	 * is read as usual. Blank lines are skipped.
 	 * 
-	 * @param id,String mobileNumber
+	 * @param lines
+	 * @param reader
+	 */
+	static <T> Iterator<T> records(BufferedReader lines, ObjectReader reader) {
+
+		Iterator<String> records = lines.lines().filter(line -> !line.isBlank()).iterator();
+
+		return new Iterator<T>() {
+
+			@Override
+			public boolean hasNext() {
+				return records.hasNext();
+			}
+
+			@Override
+			public T next() {
+				try {
+					return reader.readValue(records.next());
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			}
+		};
+	}
+
+	/**
+	 * API used for listing the progress of every retained job, running imports
+	 * included
+	 * 
+	 * @param
+	 */
+	@GetMapping(value = "/customer/jobs")
+	@Tag(name = "Get Customer Jobs", description = "Progress of every customer job is retrieved")
+	public ResponseEntity<List<JobResponse>> retrieveJobs() {
+
+		log.info("Retrieve customer jobs is in progress");
+
+		List<JobResponse> response = customerService.getJobs();
+
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+	/**
+	 * API used for polling the progress, partial results and errors of an async
+	 * job
+	 * 
+	 * @param id
+	 */
+	@GetMapping(value = "/customer/job")
+	@Tag(name = "Get Customer Job", description = "Progress of a customer job is retrieved")
+	public ResponseEntity<JobResponse> retrieveJob(@RequestParam String id) {
+
+		log.info("Retrieve customer job is in progress");
+
+		JobResponse response = customerService.getJob(id);
+
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+	/**
+	 * API used for updating single customer by Id or mobile number. With a
+	 * Prefer: return=minimal header only the matched and modified counts are
+	 * returned.
+	 * 
+	 * @param id,String mobileNumber,prefer
 	 */
 	@PutMapping(value = "/updatecustomer")
 	@Tag(name = "Customer Updation", description = "Single Customer is updated")
 	public ResponseEntity<CreateCustomerResponse> updateCustomer(
 			@RequestBody CreateCustomerRequest createCustomerRequest, @RequestParam(required = false) String id,
-			@RequestParam(required = false) String mobileNumber) {
+			@RequestParam(required = false) String mobileNumber,
+			@RequestHeader(value = PREFER, required = false) String prefer) {
 
 		log.info("Update customer is in progress");
 
-		CreateCustomerResponse response = customerService.updateSingleCustomer(id, mobileNumber, createCustomerRequest);
+		boolean minimal = prefersMinimal(prefer);
+
+		CreateCustomerResponse response = customerService.updateSingleCustomer(id, mobileNumber, createCustomerRequest,
+				minimal);
+
+		return written(response, minimal);
+	}
+
+	/**
+	 * API used for patching single customer by customer Id or mobile number. The
+	 * body is a JSON merge patch, only the fields it carries are written.
+	 * 
+	 * @param customerPatchRequest,id,mobileNumber
+	 */
+	@PatchMapping(value = "/updatecustomer", consumes = { MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE })
+	@Tag(name = "Customer Patch", description = "Supplied fields of single Customer are updated")
+	public ResponseEntity<CreateCustomerResponse> patchCustomer(
+			@RequestBody @Valid CustomerPatchRequest customerPatchRequest, @RequestParam(required = false) String id,
+			@RequestParam(required = false) String mobileNumber) {
+
+		log.info("Patch customer is in progress");
+
+		CreateCustomerResponse response = customerService.patchSingleCustomer(id, mobileNumber,
+				customerPatchRequest);
 
 		return ResponseEntity.status(HttpStatus.OK).body(response);
 	}
 
 	/**
-	 * API used for deleting single customer by customer Id or mobile number
+	 * API used for deleting single customer by customer Id or mobile number. With
+	 * a Prefer: return=minimal header only the matched and modified counts are
+	 * returned.
 	 * 
-	 * @param id,name
+	 * @param id,name,prefer
 	 */
 	@DeleteMapping(value = "/deletecustomer")
 	@Tag(name = "Customer Deletion", description = "Single customer is deleted")
 	public ResponseEntity<CreateCustomerResponse> deleteCustomer(@RequestParam(required = false) String id,
-			@RequestParam(required = false) String mobileNumber) {
+			@RequestParam(required = false) String mobileNumber,
+			@RequestHeader(value = PREFER, required = false) String prefer) {
 
 		log.info("Delete customer is in progress");
 
-		CreateCustomerResponse response = customerService.deleteSingleCustomer(id, mobileNumber);
+		boolean minimal = prefersMinimal(prefer);
+
+		CreateCustomerResponse response = customerService.deleteSingleCustomer(id, mobileNumber, minimal);
+
+		return written(response, minimal);
+	}
+
+	/**
+	 * Method to answer a queued job with the location to poll it from
+	 * 
+	 * @param response
+	 */
+	private static ResponseEntity<JobResponse> accepted(JobResponse response) {
+		return ResponseEntity.status(HttpStatus.ACCEPTED)
+				.location(URI.create("/wrappiza/customer/job?id=" + response.getJobId())).body(response);
+	}
+
+	/**
+	 * Method to tell whether the Prefer header asks for a minimal return, among
+	 * any other preferences it carries
+	 * 
+	 * @param prefer
+	 */
+	private static boolean prefersMinimal(String prefer) {
+
+		if (null == prefer) {
+			return false;
+		}
+
+		for (String preference : prefer.split(",")) {
+			if (RETURN_MINIMAL.equalsIgnoreCase(preference.split(";")[0].trim())) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Method to build the response of a write, telling the client when its
+	 * minimal return preference was applied
+	 * 
+	 * @param response
+	 * @param minimal
+	 */
+	private static ResponseEntity<CreateCustomerResponse> written(CreateCustomerResponse response, boolean minimal) {
+
+		if (minimal) {
+			return ResponseEntity.status(HttpStatus.OK).header(PREFERENCE_APPLIED, RETURN_MINIMAL).body(response);
+		}
 
 		return ResponseEntity.status(HttpStatus.OK).body(response);
 	}
 
+	/**
+	 * Method to build the strong ETag of a single customer response from the id,
+	 * version and selected fields, null when the customer or its version is
+	 * missing
+	 * 
+	 * @param response
+	 * @param fields
+	 */
+	private String eTag(CreateCustomerResponse response, String fields) {
+
+		if (null == response || null == response.getCreateCustomerResources()
+				|| response.getCreateCustomerResources().size() != 1) {
+			return null;
+		}
+
+		CreateCustomerResource resource = response.getCreateCustomerResources().get(0);
+
+		if (null == resource || null == resource.getCustomerId() || null == resource.getVersion()) {
+			return null;
+		}
+
+		return "\"" + resource.getCustomerId() + "-" + resource.getVersion() + representation(fields) + "\"";
+	}
+
+	/**
+	 * Method to name the representation selected by the comma separated fields
+	 * within an ETag, empty for the full customer. The same fields in any order name
+	 * the same representation.
+	 * 
+	 * @param fields
+	 */
+	private static String representation(String fields) {
+
+		if (null == fields || fields.trim().isEmpty()) {
+			return "";
+		}
+
+		return "-" + Arrays.stream(fields.split(",")).map(String::trim).filter(field -> !field.isEmpty()).distinct()
+				.sorted().collect(Collectors.joining("."));
+	}
+
+	/**
+	 * Method to write one customer as a single json line
+	 * 
+	 * @param writer
+	 * @param generator
+	 * @param resource
+	 */
+	private void writeLine(ObjectWriter writer, JsonGenerator generator, CreateCustomerResource resource) {
+
+		try {
+			writer.writeValue(generator, resource);
+			generator.writeRaw('\n');
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
 }
\ No newline at end of file
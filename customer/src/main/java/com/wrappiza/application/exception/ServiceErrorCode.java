@@ -22,7 +22,24 @@ public enum ServiceErrorCode {
 	EMPTY_SEARCH_FAILURE("EMPTY.SEARCH.FAILURE", "Failed to search records due to empty id or name",
 			ErrorCategory.BAD_REQUEST),
 	DB_UPDATION_FAILURE("DB_UPDATION_FAILURE", "Failed to update records in database", ErrorCategory.BAD_REQUEST),
-	DB_DELETION_FAILURE("DB.DELETION.FAILURE", "Failed to delete records in database", ErrorCategory.BAD_REQUEST);
+	DB_DELETION_FAILURE("DB.DELETION.FAILURE", "Failed to delete records in database", ErrorCategory.BAD_REQUEST),
+	INVALID_PAGINATION_REQUEST("INVALID.PAGINATION.REQUEST", "Failed to search records due to invalid cursor or limit",
+			ErrorCategory.BAD_REQUEST),
+	INVALID_FIELD_SELECTION("INVALID.FIELD.SELECTION", "Failed to search records due to unknown fields",
+			ErrorCategory.BAD_REQUEST),
+	INVALID_LOOKUP_REQUEST("INVALID.LOOKUP.REQUEST",
+			"Failed to search records due to missing, mixed or too many ids and mobile numbers",
+			ErrorCategory.BAD_REQUEST),
+	DUPLICATE_MOBILE_NUMBER("DUPLICATE.MOBILE.NUMBER", "Failed to save records due to an already used mobile number",
+			ErrorCategory.CONFLICT),
+	INVALID_BULK_REQUEST("INVALID.BULK.REQUEST",
+			"Failed to write records due to a missing filter, an invalid status or too many ids",
+			ErrorCategory.BAD_REQUEST),
+	EMPTY_PATCH_REQUEST("EMPTY.PATCH.REQUEST", "Failed to update records due to a patch without any field",
+			ErrorCategory.BAD_REQUEST),
+	TOO_MANY_JOBS("TOO.MANY.JOBS", "Failed to queue the job due to too many jobs of its type",
+			ErrorCategory.SERVICE_UNAVAILABLE),
+	UNKNOWN_JOB("UNKNOWN.JOB", "Failed to find the job, unknown or no longer retained", ErrorCategory.NOT_FOUND);
 
 	private String code;
 	private String message;
@@ -2,6 +2,8 @@ package com.wrappiza.application.model;
 
 import java.time.LocalDate;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -23,6 +25,7 @@ import lombok.ToString;
 @ToString
 @AllArgsConstructor
 @Document(collection = "customer")
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class CreateCustomerResource {
 
 	@Id
@@ -32,5 +35,6 @@ public class CreateCustomerResource {
 	private String mobileNumber;
 	private LocalDate date;
 	private String status;
+	private Long version;
 
 }
\ No newline at end of file
@@ -4,6 +4,8 @@ import lombok.*;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * Model class for CreateCustomerResponse
  * 
@@ -17,5 +19,28 @@ import java.util.List;
 @AllArgsConstructor
 public class CreateCustomerResponse {
 
+	@JsonInclude(JsonInclude.Include.NON_NULL)
 	private List<CreateCustomerResource> createCustomerResources;
+
+	/**
+	 * Id of the last customer in this page, passed back as {@code after} to fetch
+	 * the next page. Absent when there are no more customers.
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private String nextCursor;
+
+	/**
+	 * Outcome of every customer of a bulk create, in request order
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private List<BulkWriteResult> writeResults;
+
+	/**
+	 * Counts of a write answered without the written customer
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Long matchedCount;
+
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Long modifiedCount;
 }
\ No newline at end of file
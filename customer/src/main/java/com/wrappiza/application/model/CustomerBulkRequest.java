@@ -0,0 +1,30 @@
+package com.wrappiza.application.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model class for CustomerBulkRequest, selecting customers by ids, status and
+ * date range. Every given condition has to match.
+ * 
+ * @author Chandan Kumar
+ * 
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerBulkRequest {
+
+	private List<String> ids;
+	private String status;
+	private LocalDate from;
+	private LocalDate to;
+}
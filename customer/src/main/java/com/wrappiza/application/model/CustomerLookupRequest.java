@@ -0,0 +1,27 @@
+package com.wrappiza.application.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model class for CustomerLookupRequest, carrying either customer ids or mobile
+ * numbers
+ * 
+ * @author Chandan Kumar
+ * 
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerLookupRequest {
+
+	private List<String> ids;
+	private List<String> mobileNumbers;
+}
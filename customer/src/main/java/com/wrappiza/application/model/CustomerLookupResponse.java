@@ -0,0 +1,25 @@
+package com.wrappiza.application.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model class for CustomerLookupResponse, results are in request order
+ * 
+ * @author Chandan Kumar
+ *
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerLookupResponse {
+
+	private List<CustomerLookupResult> customerLookupResults;
+}
@@ -0,0 +1,28 @@
+package com.wrappiza.application.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model class for CustomerLookupResult, one per requested id or mobile number
+ * 
+ * @author Chandan Kumar
+ * 
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CustomerLookupResult {
+
+	private String key;
+	private boolean found;
+	private CreateCustomerResource createCustomerResource;
+}
@@ -0,0 +1,35 @@
+package com.wrappiza.application.model;
+
+import org.hibernate.validator.constraints.Length;
+
+import jakarta.validation.constraints.Email;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model class for CustomerPatchRequest, a JSON merge patch of a customer. A
+ * field left out or null is kept as saved, every field being required on the
+ * customer.
+ * 
+ * @author Chandan Kumar
+ * 
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerPatchRequest {
+
+	@Length(max = 50, message = "Name can't not too long")
+	@Length(min = 3, message = "Name can't not too small")
+	private String name;
+	@Email
+	@Length(max = 200, message = "Email can't not too long")
+	private String email;
+	@Length(max = 10, message = "Mobile Number must be less than 10 digits")
+	private String mobileNumber;
+}
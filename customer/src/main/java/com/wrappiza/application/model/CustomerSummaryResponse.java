@@ -0,0 +1,26 @@
+package com.wrappiza.application.model;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model class for CustomerSummaryResponse
+ * 
+ * @author Chandan Kumar
+ *
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSummaryResponse {
+
+	private long activeCustomers;
+	private Map<String, Long> customersByStatus;
+}
@@ -0,0 +1,40 @@
+package com.wrappiza.application.model;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model class for JobResponse, the progress of an async job. Failures hold the
+ * items that could not be written so far, indexed within the whole job.
+ * 
+ * @author Chandan Kumar
+ *
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JobResponse {
+
+	private String jobId;
+	private JobType type;
+	private JobState state;
+	private Integer total;
+	private long processed;
+	private long succeeded;
+	private long failed;
+	private List<BulkWriteResult> failures;
+	private String error;
+	private Instant submittedAt;
+	private Instant finishedAt;
+}
@@ -0,0 +1,12 @@
+package com.wrappiza.application.model;
+
+/**
+ * Lifecycle of an async job
+ * 
+ * @author Chandan Kumar
+ *
+ */
+public enum JobState {
+
+	QUEUED, RUNNING, COMPLETED, FAILED;
+}
@@ -0,0 +1,12 @@
+package com.wrappiza.application.model;
+
+/**
+ * Kinds of async customer jobs, each running on its own bounded executor
+ * 
+ * @author Chandan Kumar
+ *
+ */
+public enum JobType {
+
+	CREATE, DELETE, IMPORT;
+}
@@ -0,0 +1,195 @@
+package com.wrappiza.application.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.wrappiza.application.exception.ServiceErrorCode;
+import com.wrappiza.application.model.BulkWriteResult;
+import com.wrappiza.application.model.CreateCustomerResource;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Inserts large customer batches as unordered bulk writes. The batch is split
+ * into chunks written in parallel on a bounded executor, and a failing document
+ * only fails itself, so every item gets its own result.
+ *
+ * @author Chandan Kumar
+ *
+ */
+@Component
+@Slf4j
+public class CustomerBulkWriter {
+
+	private final MongoTemplate mongoTemplate;
+
+	private final int chunkSize;
+
+	private final ThreadPoolExecutor executor;
+
+	public CustomerBulkWriter(MongoTemplate mongoTemplate,
+			@Value("${wrappiza.customer.bulk-write.chunk-size:1000}") int chunkSize,
+			@Value("${wrappiza.customer.bulk-write.parallelism:0}") int parallelism,
+			@Value("${wrappiza.customer.bulk-write.queue-capacity:64}") int queueCapacity) {
+
+		this.mongoTemplate = mongoTemplate;
+		this.chunkSize = chunkSize;
+
+		int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+		AtomicInteger threadNumber = new AtomicInteger();
+
+		// A full queue makes the submitting request thread write the chunk itself
+		this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				runnable -> new Thread(runnable, "customer-bulk-writer-" + threadNumber.incrementAndGet()),
+				new ThreadPoolExecutor.CallerRunsPolicy());
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Method to insert every customer, returning one result per customer in
+	 * request order. Ids are assigned up front so failed customers can be
+	 * reported by id as well.
+	 *
+	 * @param createCustomerResources
+	 */
+	public List<BulkWriteResult> insert(List<CreateCustomerResource> createCustomerResources) {
+
+		log.info("Bulk writing {} customers in chunks of {} is in progress", createCustomerResources.size(),
+				chunkSize);
+
+		return write(createCustomerResources, false, BulkOperations::insert);
+	}
+
+	/**
+	 * Method to insert every customer whose mobile number is not used by an
+	 * active customer yet, as one upsert per customer. A customer already saved
+	 * is left untouched and its result is marked as not created.
+	 *
+	 * @param createCustomerResources
+	 */
+	public List<BulkWriteResult> upsert(List<CreateCustomerResource> createCustomerResources) {
+
+		log.info("Bulk upserting {} customers in chunks of {} is in progress", createCustomerResources.size(),
+				chunkSize);
+
+		return write(createCustomerResources, true,
+				(bulkOperations, chunk) -> chunk.forEach(resource -> bulkOperations.upsert(
+						CustomerRepositoryImpl.activeCustomerByMobileNumber(resource.getMobileNumber()),
+						CustomerRepositoryImpl.insertIfAbsent(resource))));
+	}
+
+	/**
+	 * Method to write every customer chunk by chunk with the given operations
+	 *
+	 * @param createCustomerResources
+	 * @param upsert
+	 * @param operations
+	 */
+	private List<BulkWriteResult> write(List<CreateCustomerResource> createCustomerResources, boolean upsert,
+			BiConsumer<BulkOperations, List<CreateCustomerResource>> operations) {
+
+		createCustomerResources.stream().filter(resource -> null == resource.getCustomerId())
+				.forEach(resource -> resource.setCustomerId(new ObjectId().toHexString()));
+
+		List<CompletableFuture<List<BulkWriteResult>>> chunks = new ArrayList<>();
+
+		for (int from = 0; from < createCustomerResources.size(); from += chunkSize) {
+
+			int offset = from;
+			List<CreateCustomerResource> chunk = createCustomerResources.subList(from,
+					Math.min(from + chunkSize, createCustomerResources.size()));
+
+			chunks.add(CompletableFuture.supplyAsync(() -> writeChunk(chunk, offset, upsert, operations), executor));
+		}
+
+		List<BulkWriteResult> results = new ArrayList<>(createCustomerResources.size());
+		chunks.forEach(chunk -> results.addAll(chunk.join()));
+
+		return results;
+	}
+
+	/**
+	 * Method to write one chunk as a single unordered bulk write
+	 *
+	 * @param chunk
+	 * @param offset     index of the first customer of the chunk in the batch
+	 * @param upsert
+	 * @param operations
+	 */
+	private List<BulkWriteResult> writeChunk(List<CreateCustomerResource> chunk, int offset, boolean upsert,
+			BiConsumer<BulkOperations, List<CreateCustomerResource>> operations) {
+
+		List<BulkWriteResult> results = new ArrayList<>(chunk.size());
+
+		for (int i = 0; i < chunk.size(); i++) {
+			results.add(new BulkWriteResult(offset + i, chunk.get(i).getCustomerId(), true, null,
+					upsert ? Boolean.FALSE : null));
+		}
+
+		try {
+			BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+					CreateCustomerResource.class);
+			operations.accept(bulkOperations, chunk);
+
+			com.mongodb.bulk.BulkWriteResult writeResult = bulkOperations.execute();
+
+			if (upsert) {
+				created(results, writeResult.getUpserts());
+			}
+		} catch (BulkOperationException ex) {
+
+			if (upsert) {
+				created(results, ex.getResult().getUpserts());
+			}
+
+			for (BulkWriteError error : ex.getErrors()) {
+				fail(results.get(error.getIndex()));
+			}
+
+			log.warn("Bulk write failed for {} of {} customers", ex.getErrors().size(), chunk.size());
+		} catch (Exception ex) {
+
+			results.forEach(this::fail);
+
+			log.error("Exception occurred while bulk writing customer : ", ex);
+		}
+
+		return results;
+	}
+
+	private void created(List<BulkWriteResult> results, List<BulkWriteUpsert> upserts) {
+
+		for (BulkWriteUpsert upsert : upserts) {
+			results.get(upsert.getIndex()).setCreated(Boolean.TRUE);
+		}
+	}
+
+	private void fail(BulkWriteResult result) {
+
+		result.setWritten(false);
+		result.setError(ServiceErrorCode.DB_INSERTION_FAILURE.getCode());
+		result.setCreated(null);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+}
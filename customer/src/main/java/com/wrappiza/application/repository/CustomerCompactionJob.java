@@ -0,0 +1,223 @@
+package com.wrappiza.application.repository;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.wrappiza.application.model.CreateCustomerResource;
+import com.wrappiza.application.model.Status;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Background job moving soft deleted customers out of the customer collection
+ * into the customer archive, so the live collection and its indexes only hold
+ * active customers. Batches are throttled to a configurable rate so the job
+ * does not compete with online traffic.
+ *
+ * @author Chandan Kumar
+ *
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "wrappiza.customer.compaction.enabled", havingValue = "true")
+public class CustomerCompactionJob {
+
+	static final String ARCHIVE_COLLECTION = "customer_archive";
+
+	private final MongoTemplate mongoTemplate;
+
+	private final int batchSize;
+
+	private final int maxDocumentsPerSecond;
+
+	private final Duration archiveTimeToLive;
+
+	private final Counter archivedCounter;
+
+	private final Counter batchCounter;
+
+	private final Timer runTimer;
+
+	private final AtomicLong archivedInRun = new AtomicLong();
+
+	public CustomerCompactionJob(MongoTemplate mongoTemplate, MeterRegistry meterRegistry,
+			@Value("${wrappiza.customer.compaction.batch-size:500}") int batchSize,
+			@Value("${wrappiza.customer.compaction.max-documents-per-second:2000}") int maxDocumentsPerSecond,
+			@Value("${wrappiza.customer.compaction.archive-time-to-live:0s}") Duration archiveTimeToLive) {
+
+		this.mongoTemplate = mongoTemplate;
+		this.batchSize = batchSize;
+		this.maxDocumentsPerSecond = maxDocumentsPerSecond;
+		this.archiveTimeToLive = archiveTimeToLive;
+
+		this.archivedCounter = meterRegistry.counter("customer.compaction.archived");
+		this.batchCounter = meterRegistry.counter("customer.compaction.batches");
+		this.runTimer = meterRegistry.timer("customer.compaction.run");
+		meterRegistry.gauge("customer.compaction.run.archived", archivedInRun);
+	}
+
+	/**
+	 * Query for the next batch of soft deleted customers in id order, served by
+	 * the partial deleted index
+	 *
+	 * @param after
+	 * @param limit
+	 */
+	static Query deletedCustomerBatch(Object after, int limit) {
+
+		Query query = new Query();
+		query.addCriteria(Criteria.where("status").is(Status.DELETED.name()));
+
+		if (null != after) {
+			query.addCriteria(Criteria.where("_id").gt(after));
+		}
+
+		query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+
+		return query;
+	}
+
+	/**
+	 * Method to move every soft deleted customer into the archive
+	 *
+	 * @param
+	 */
+	@Scheduled(fixedDelayString = "${wrappiza.customer.compaction.interval:PT1H}",
+			initialDelayString = "${wrappiza.customer.compaction.initial-delay:PT5M}")
+	public void compact() {
+
+		log.info("Customer compaction is in progress");
+
+		archivedInRun.set(0);
+
+		runTimer.record(() -> {
+			try {
+				ensureArchiveIndex();
+				archiveDeletedCustomers();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			} catch (Exception ex) {
+				log.error("Exception occured while compacting customer : ", ex);
+			}
+		});
+
+		log.info("Customer compaction archived : {} customers", archivedInRun.get());
+	}
+
+	/**
+	 * Method to move soft deleted customers batch by batch, pausing between
+	 * batches to stay under the configured rate
+	 *
+	 * @param
+	 */
+	void archiveDeletedCustomers() throws InterruptedException {
+
+		String collection = mongoTemplate.getCollectionName(CreateCustomerResource.class);
+		long startNanos = System.nanoTime();
+		Object after = null;
+
+		while (true) {
+
+			List<Document> batch = mongoTemplate.find(deletedCustomerBatch(after, batchSize), Document.class,
+					collection);
+
+			if (batch.isEmpty()) {
+				return;
+			}
+
+			archive(batch, collection);
+
+			after = batch.get(batch.size() - 1).get("_id");
+
+			archivedCounter.increment(batch.size());
+			batchCounter.increment();
+
+			throttle(archivedInRun.addAndGet(batch.size()), startNanos);
+		}
+	}
+
+	/**
+	 * Method to copy one batch into the archive and only then remove it from the
+	 * customer collection. The copy is an upsert, so a batch interrupted between
+	 * both steps is simply copied again on the next run.
+	 *
+	 * @param batch
+	 * @param collection
+	 */
+	private void archive(List<Document> batch, String collection) {
+
+		Date archivedAt = new Date();
+		BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ARCHIVE_COLLECTION);
+
+		for (Document document : batch) {
+			document.put("archivedAt", archivedAt);
+			bulkOperations.replaceOne(new Query(Criteria.where("_id").is(document.get("_id"))), document,
+					FindAndReplaceOptions.options().upsert());
+		}
+
+		bulkOperations.execute();
+
+		List<Object> ids = batch.stream().map(document -> document.get("_id")).collect(Collectors.toList());
+
+		Query query = new Query();
+		query.addCriteria(Criteria.where("_id").in(ids));
+		query.addCriteria(Criteria.where("status").is(Status.DELETED.name()));
+
+		mongoTemplate.remove(query, collection);
+	}
+
+	/**
+	 * Method to sleep until the archived count is back under the allowed rate
+	 *
+	 * @param archived
+	 * @param startNanos
+	 */
+	private void throttle(long archived, long startNanos) throws InterruptedException {
+
+		if (maxDocumentsPerSecond <= 0) {
+			return;
+		}
+
+		long expectedNanos = TimeUnit.SECONDS.toNanos(archived) / maxDocumentsPerSecond;
+		long aheadNanos = expectedNanos - (System.nanoTime() - startNanos);
+
+		if (aheadNanos > 0) {
+			TimeUnit.NANOSECONDS.sleep(aheadNanos);
+		}
+	}
+
+	/**
+	 * Method to purge the archive after its time to live, when one is configured
+	 *
+	 * @param
+	 */
+	private void ensureArchiveIndex() {
+
+		if (archiveTimeToLive.isZero() || archiveTimeToLive.isNegative()) {
+			return;
+		}
+
+		mongoTemplate.indexOps(ARCHIVE_COLLECTION).ensureIndex(
+				new Index().on("archivedAt", Sort.Direction.ASC).expire(archiveTimeToLive).named("archivedAt_ttl"));
+	}
+}
@@ -0,0 +1,229 @@
+package com.wrappiza.application.repository;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.wrappiza.application.model.CreateCustomerResource;
+import com.wrappiza.application.model.Status;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the indexes of the customer collection at startup and checks with
+ * explain() that every repository query shape is served by one of them.
+ *
+ * @author Chandan Kumar
+ *
+ */
+@Component
+@Slf4j
+public class CustomerIndexManager {
+
+	private static final String SAMPLE_ID = "000000000000000000000000";
+
+	private static final String SAMPLE_MOBILE_NUMBER = "0000000000";
+
+	static final String UNIQUE_INDEX = "mobileNumber_active_unique";
+
+	private final MongoTemplate mongoTemplate;
+
+	@Value("${wrappiza.mongo.index.enabled:true}")
+	private boolean enabled;
+
+	@Value("${wrappiza.mongo.index.fail-on-collection-scan:false}")
+	private boolean failOnCollectionScan;
+
+	public CustomerIndexManager(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	/**
+	 * Indexes of the customer collection. The status filter of every query is
+	 * ne(DELETED), which a partial index filter cannot express, so status is
+	 * carried as the trailing key instead. Only the compaction job looks for
+	 * deleted customers, through a partial index holding nothing else. Name and
+	 * id ride along in the mobile number index, so a lookup selecting only those
+	 * fields is a covered query. The unique index keeps one active customer per
+	 * mobile number, which idempotent creates rely on. Its partial filter uses
+	 * $in, which needs MongoDB 6.0 or later, and it cannot be built while active
+	 * customers share a mobile number, so it comes last.
+	 *
+	 * @param
+	 */
+	static List<IndexDefinition> indexes() {
+
+		return List.of(
+				new Index().on("mobileNumber", Sort.Direction.ASC).on("status", Sort.Direction.ASC)
+						.on("name", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)
+						.named("mobileNumber_status_name_id").background(),
+				new Index().on("date", Sort.Direction.ASC).on("status", Sort.Direction.ASC).named("date_status")
+						.background(),
+				new Index().on("status", Sort.Direction.ASC).on("_id", Sort.Direction.ASC).named("deleted_status_id")
+						.partial(PartialIndexFilter.of(Criteria.where("status").is(Status.DELETED.name())))
+						.background(),
+				new Index().on("mobileNumber", Sort.Direction.ASC).unique().named(UNIQUE_INDEX)
+						.partial(PartialIndexFilter.of(Criteria.where("status").in(Status.CREATED.name(),
+								Status.UPDATED.name())))
+						.background());
+	}
+
+	/**
+	 * Query shapes issued by {@link CustomerRepositoryImpl}, keyed by the
+	 * repository method using them
+	 *
+	 * @param
+	 */
+	static Map<String, Query> queryShapes() {
+
+		Map<String, Query> shapes = new LinkedHashMap<>();
+
+		shapes.put("getCustomer", CustomerRepositoryImpl.activeCustomerPage(SAMPLE_ID, 1));
+		shapes.put("getCustomerByMobileNumber",
+				CustomerRepositoryImpl.activeCustomerByMobileNumber(SAMPLE_MOBILE_NUMBER));
+		shapes.put("getCustomerById", CustomerRepositoryImpl.activeCustomerById(SAMPLE_ID));
+		shapes.put("getCustomerByIds", CustomerRepositoryImpl.activeCustomersByIds(List.of(SAMPLE_ID)));
+		shapes.put("getCustomerByMobileNumbers",
+				CustomerRepositoryImpl.activeCustomersByMobileNumbers(List.of(SAMPLE_MOBILE_NUMBER)));
+		shapes.put("deleteCustomerByMobileNumber",
+				CustomerRepositoryImpl.customerByMobileNumber(SAMPLE_MOBILE_NUMBER));
+		shapes.put("deleteCustomerById", CustomerRepositoryImpl.customerById(SAMPLE_ID));
+		shapes.put("deleteCustomerMatching",
+				CustomerRepositoryImpl.activeCustomersMatching(null, null, LocalDate.now(), LocalDate.now()));
+		shapes.put("compact", CustomerCompactionJob.deletedCustomerBatch(new ObjectId(SAMPLE_ID), 1));
+
+		return shapes;
+	}
+
+	/**
+	 * Builds the indexes once the application is ready. Runs in the background
+	 * unless a collection scan must fail the startup.
+	 *
+	 * @param
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+
+		if (!enabled) {
+			return;
+		}
+
+		if (failOnCollectionScan) {
+			ensureIndexes();
+			verifyQueryShapes();
+			return;
+		}
+
+		Thread thread = new Thread(() -> {
+			try {
+				ensureIndexes();
+				verifyQueryShapes();
+			} catch (Exception ex) {
+				log.warn("Failed to bootstrap customer indexes : {}", ex.getMessage());
+			}
+		}, "customer-index-manager");
+
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Method to create the missing indexes, existing ones are left untouched. A
+	 * failing index is logged and the others are still created, so the query
+	 * shapes are verified against whatever is in place.
+	 *
+	 * @param
+	 */
+	void ensureIndexes() {
+
+		IndexOperations indexOperations = mongoTemplate.indexOps(CreateCustomerResource.class);
+
+		for (IndexDefinition index : indexes()) {
+
+			String name = index.getIndexOptions().getString("name");
+
+			try {
+				indexOperations.ensureIndex(index);
+				log.info("Customer index : {} is in place", name);
+			} catch (DuplicateKeyException ex) {
+				log.error("Customer index : {} not created, active customers share a mobile number. Delete or "
+						+ "merge the duplicates found by grouping active customers on mobileNumber, then restart : {}",
+						name, ex.getMessage());
+			} catch (RuntimeException ex) {
+				log.error("Customer index : {} not created{} : {}", name,
+						UNIQUE_INDEX.equals(name) ? ", its partial filter needs MongoDB 6.0 or later" : "",
+						ex.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Method to explain every query shape and report the ones scanning the whole
+	 * collection
+	 *
+	 * @param
+	 */
+	void verifyQueryShapes() {
+
+		QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+		MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+				.getRequiredPersistentEntity(CreateCustomerResource.class);
+
+		for (Map.Entry<String, Query> shape : queryShapes().entrySet()) {
+
+			Query query = shape.getValue();
+
+			Document plan = mongoTemplate.getCollection(mongoTemplate.getCollectionName(CreateCustomerResource.class))
+					.find(queryMapper.getMappedObject(query.getQueryObject(), entity))
+					.sort(queryMapper.getMappedSort(query.getSortObject(), entity)).explain();
+
+			if (containsStage(plan.get("queryPlanner", Document.class).get("winningPlan"), "COLLSCAN")) {
+
+				if (failOnCollectionScan) {
+					throw new IllegalStateException("Customer query " + shape.getKey() + " scans the collection");
+				}
+
+				log.warn("Customer query : {} scans the collection, plan : {}", shape.getKey(), plan.toJson());
+			}
+		}
+	}
+
+	/**
+	 * Method to look for a stage anywhere in an explained plan
+	 *
+	 * @param node
+	 * @param stage
+	 */
+	static boolean containsStage(Object node, String stage) {
+
+		if (node instanceof Document document) {
+			return stage.equals(document.get("stage"))
+					|| document.values().stream().anyMatch(value -> containsStage(value, stage));
+		}
+
+		if (node instanceof List<?> list) {
+			return list.stream().anyMatch(value -> containsStage(value, stage));
+		}
+
+		return false;
+	}
+}
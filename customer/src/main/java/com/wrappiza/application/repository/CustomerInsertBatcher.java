@@ -0,0 +1,296 @@
+package com.wrappiza.application.repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.wrappiza.application.exception.ServiceErrorCode;
+import com.wrappiza.application.exception.TerminalDBException;
+import com.wrappiza.application.model.BulkWriteResult;
+import com.wrappiza.application.model.CreateCustomerResource;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Coalesces concurrent single customer inserts into micro batches written
+ * through {@link CustomerBulkWriter}. A batch is flushed once it is full or
+ * once its first customer has waited the configured delay, which bounds the
+ * latency added to every insert. The queue is bounded, an insert finding it
+ * full fails at once rather than piling up behind a slow database, and a
+ * caller waits for its batch no longer than the insert timeout. Disabled
+ * unless opted in.
+ *
+ * @author Chandan Kumar
+ *
+ */
+@Component
+@Slf4j
+public class CustomerInsertBatcher {
+
+	private final CustomerBulkWriter bulkWriter;
+
+	private final boolean enabled;
+
+	private final int maxBatchSize;
+
+	private final long maxDelayNanos;
+
+	private final long insertTimeoutNanos;
+
+	private final BlockingQueue<PendingInsert> queue;
+
+	private final Thread flusher;
+
+	private volatile boolean running;
+
+	public CustomerInsertBatcher(CustomerBulkWriter bulkWriter,
+			@Value("${wrappiza.customer.insert-batching.enabled:false}") boolean enabled,
+			@Value("${wrappiza.customer.insert-batching.max-batch-size:100}") int maxBatchSize,
+			@Value("${wrappiza.customer.insert-batching.max-delay:PT0.005S}") Duration maxDelay,
+			@Value("${wrappiza.customer.insert-batching.queue-capacity:10000}") int queueCapacity,
+			@Value("${wrappiza.customer.insert-batching.insert-timeout:PT10S}") Duration insertTimeout) {
+
+		this.bulkWriter = bulkWriter;
+		this.enabled = enabled;
+		this.maxBatchSize = maxBatchSize;
+		this.maxDelayNanos = maxDelay.toNanos();
+		this.insertTimeoutNanos = insertTimeout.toNanos();
+		this.queue = new LinkedBlockingQueue<>(queueCapacity);
+
+		this.flusher = new Thread(this::flushLoop, "customer-insert-batcher");
+		this.flusher.setDaemon(true);
+
+		if (enabled) {
+			running = true;
+			flusher.start();
+		}
+	}
+
+	/**
+	 * Method to tell whether single inserts are batched
+	 *
+	 * @param
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Method to insert a customer with the next micro batch and wait for the
+	 * batch to be written, at most for the insert timeout
+	 *
+	 * @param createCustomerResource
+	 */
+	public CreateCustomerResource insert(CreateCustomerResource createCustomerResource) {
+
+		try {
+			return submit(createCustomerResource).get(insertTimeoutNanos, TimeUnit.NANOSECONDS);
+		} catch (ExecutionException ex) {
+
+			if (ex.getCause() instanceof TerminalDBException terminalDBException) {
+				throw terminalDBException;
+			}
+
+			throw new TerminalDBException(ServiceErrorCode.DB_INSERTION_FAILURE.getMessage());
+		} catch (TimeoutException ex) {
+
+			log.warn("Customer insert was not written within the insert timeout");
+
+			throw new TerminalDBException(ServiceErrorCode.DB_INSERTION_FAILURE.getMessage());
+		} catch (InterruptedException ex) {
+
+			Thread.currentThread().interrupt();
+
+			throw new TerminalDBException(ServiceErrorCode.DB_INSERTION_FAILURE.getMessage());
+		}
+	}
+
+	/**
+	 * Method to queue a customer for the next micro batch, the future completes
+	 * with the customer holding its generated id once the batch is written. It
+	 * fails at once when the batcher is stopped or its queue is full.
+	 *
+	 * @param createCustomerResource
+	 */
+	public CompletableFuture<CreateCustomerResource> submit(CreateCustomerResource createCustomerResource) {
+
+		PendingInsert pendingInsert = new PendingInsert(createCustomerResource, new CompletableFuture<>());
+
+		if (!running) {
+			return fail(pendingInsert);
+		}
+
+		if (!queue.offer(pendingInsert)) {
+
+			log.warn("Customer insert batch queue is full, insert is refused");
+
+			return fail(pendingInsert);
+		}
+
+		// A stop racing the enqueue may have drained the queue already, the insert
+		// is failed unless the flusher took it
+		if (!running && queue.remove(pendingInsert)) {
+			return fail(pendingInsert);
+		}
+
+		return pendingInsert.future;
+	}
+
+	private static CompletableFuture<CreateCustomerResource> fail(PendingInsert pendingInsert) {
+
+		pendingInsert.future
+				.completeExceptionally(new TerminalDBException(ServiceErrorCode.DB_INSERTION_FAILURE.getMessage()));
+
+		return pendingInsert.future;
+	}
+
+	/**
+	 * Method run by the flusher thread, collecting batches until stopped
+	 *
+	 * @param
+	 */
+	private void flushLoop() {
+
+		while (running) {
+			try {
+				List<PendingInsert> batch = nextBatch();
+
+				if (!batch.isEmpty()) {
+					flush(batch);
+				}
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+
+		// Whatever was queued before the stop is still written
+		List<PendingInsert> batch = new ArrayList<>();
+
+		while (!queue.isEmpty()) {
+			batch.clear();
+			queue.drainTo(batch, maxBatchSize);
+			flush(batch);
+		}
+	}
+
+	/**
+	 * Method to wait for a first insert and gather more until the batch is full
+	 * or the delay of the first one has elapsed
+	 *
+	 * @param
+	 */
+	List<PendingInsert> nextBatch() throws InterruptedException {
+
+		List<PendingInsert> batch = new ArrayList<>();
+
+		PendingInsert first = queue.poll(1, TimeUnit.SECONDS);
+
+		if (null == first) {
+			return batch;
+		}
+
+		batch.add(first);
+
+		long deadline = System.nanoTime() + maxDelayNanos;
+
+		while (batch.size() < maxBatchSize) {
+
+			queue.drainTo(batch, maxBatchSize - batch.size());
+
+			long remaining = deadline - System.nanoTime();
+
+			if (batch.size() >= maxBatchSize || remaining <= 0) {
+				break;
+			}
+
+			PendingInsert next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+
+			if (null == next) {
+				break;
+			}
+
+			batch.add(next);
+		}
+
+		return batch;
+	}
+
+	/**
+	 * Method to write one batch and complete the future of every insert in it
+	 *
+	 * @param batch
+	 */
+	void flush(List<PendingInsert> batch) {
+
+		log.debug("Flushing micro batch of {} customers", batch.size());
+
+		try {
+			List<BulkWriteResult> writeResults = bulkWriter
+					.insert(batch.stream().map(pendingInsert -> pendingInsert.resource).collect(Collectors.toList()));
+
+			for (BulkWriteResult writeResult : writeResults) {
+
+				PendingInsert pendingInsert = batch.get(writeResult.getIndex());
+
+				if (writeResult.isWritten()) {
+					pendingInsert.future.complete(pendingInsert.resource);
+				} else {
+					pendingInsert.future.completeExceptionally(
+							new TerminalDBException(ServiceErrorCode.DB_INSERTION_FAILURE.getMessage()));
+				}
+			}
+		} catch (Exception ex) {
+
+			log.error("Exception occurred while flushing customer micro batch : ", ex);
+
+			batch.forEach(pendingInsert -> pendingInsert.future.completeExceptionally(
+					new TerminalDBException(ServiceErrorCode.DB_INSERTION_FAILURE.getMessage())));
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+
+		if (!running) {
+			return;
+		}
+
+		running = false;
+		flusher.join(TimeUnit.SECONDS.toMillis(5));
+
+		// Anything left once the flusher is gone will never be written
+		if (!flusher.isAlive()) {
+
+			List<PendingInsert> left = new ArrayList<>();
+			queue.drainTo(left);
+			left.forEach(CustomerInsertBatcher::fail);
+		}
+	}
+
+	/**
+	 * Customer waiting in the queue with the future of its caller
+	 */
+	static final class PendingInsert {
+
+		private final CreateCustomerResource resource;
+
+		private final CompletableFuture<CreateCustomerResource> future;
+
+		private PendingInsert(CreateCustomerResource resource, CompletableFuture<CreateCustomerResource> future) {
+			this.resource = resource;
+			this.future = future;
+		}
+	}
+}
@@ -1,7 +1,12 @@
 package com.wrappiza.application.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import com.mongodb.client.result.UpdateResult;
 import com.wrappiza.application.model.CreateCustomerResource;
 
 /**
@@ -27,11 +32,39 @@ public interface CustomerRepository {
 	CreateCustomerResource saveSingleCustomer(CreateCustomerResource createCustomerResource);
 
 	/**
-	 * Retrieve all customer saved into the repository
+	 * Takes a single customer and save it to the repository unless an active
+	 * customer already uses its mobile number, in which case that customer is
+	 * returned
+	 *
+	 * @param createCustomerResource
+	 */
+	CreateCustomerResource saveSingleCustomerIfAbsent(CreateCustomerResource createCustomerResource);
+
+	/**
+	 * Retrieve one page of customers saved into the repository, ordered by id
 	 * 
-	 * @param
+	 * @param after id of the last customer of the previous page, null for the
+	 *              first page
+	 * @param limit maximum number of customers to return
+	 * @param fields fields to return, every field when empty
+	 */
+	List<CreateCustomerResource> getCustomer(String after, int limit, List<String> fields);
+
+	/**
+	 * Stream every customer saved into the repository to the consumer through a
+	 * database cursor, one record at a time
+	 * 
+	 * @param consumer
+	 */
+	void streamCustomer(Consumer<CreateCustomerResource> consumer);
+
+	/**
+	 * Stream the mobile number of every customer saved into the repository to the
+	 * consumer through a database cursor
+	 * 
+	 * @param consumer
 	 */
-	List<CreateCustomerResource> getCustomer();
+	void streamMobileNumber(Consumer<String> consumer);
 
 	/**
 	 * Retrieve single customer saved from the repository by mobile number
@@ -40,6 +73,15 @@ public interface CustomerRepository {
 	 */
 	CreateCustomerResource getCustomerByMobileNumber(String mobileNumber);
 
+	/**
+	 * Retrieve the selected fields of single customer saved from the repository
+	 * by mobile number
+	 * 
+	 * @param mobileNumber
+	 * @param fields fields to return, every field when empty
+	 */
+	CreateCustomerResource getCustomerByMobileNumber(String mobileNumber, List<String> fields);
+
 	/**
 	 * Retrieve single customer saved from the repository by id
 	 * 
@@ -47,6 +89,38 @@ public interface CustomerRepository {
 	 */
 	CreateCustomerResource getCustomerById(String id);
 
+	/**
+	 * Retrieve the selected fields of single customer saved from the repository
+	 * by id
+	 * 
+	 * @param id
+	 * @param fields fields to return, every field when empty
+	 */
+	CreateCustomerResource getCustomerById(String id, List<String> fields);
+
+	/**
+	 * Retrieve every customer saved from the repository matching one of the ids
+	 * 
+	 * @param ids
+	 */
+	List<CreateCustomerResource> getCustomerByIds(Collection<String> ids);
+
+	/**
+	 * Retrieve every customer saved from the repository matching one of the
+	 * mobile numbers
+	 * 
+	 * @param mobileNumbers
+	 */
+	List<CreateCustomerResource> getCustomerByMobileNumbers(Collection<String> mobileNumbers);
+
+	/**
+	 * Count the customers saved into the repository per status, without reading
+	 * them
+	 * 
+	 * @param
+	 */
+	Map<String, Long> countCustomerByStatus();
+
 	/**
 	 * Update single customer saved from the repository by mobile number
 	 * 
@@ -76,4 +150,65 @@ public interface CustomerRepository {
 	 * @param id
 	 */
 	CreateCustomerResource deleteCustomerById(String id);
+
+	/**
+	 * Update single customer saved from the repository by mobile number, only
+	 * the matched and modified counts are returned
+	 * 
+	 * @param createCustomerResource
+	 */
+	UpdateResult updateCustomerByMobileNumberMinimal(CreateCustomerResource createCustomerResource);
+
+	/**
+	 * Update single customer saved from the repository by id, only the matched
+	 * and modified counts are returned
+	 * 
+	 * @param createCustomerResource
+	 */
+	UpdateResult updateCustomerByIdMinimal(CreateCustomerResource createCustomerResource);
+
+	/**
+	 * Patch single customer saved from the repository by id, writing only the
+	 * fields set on the patch
+	 * 
+	 * @param id
+	 * @param patch
+	 */
+	CreateCustomerResource patchCustomerById(String id, CreateCustomerResource patch);
+
+	/**
+	 * Patch single customer saved from the repository by mobile number, writing
+	 * only the fields set on the patch
+	 * 
+	 * @param mobileNumber
+	 * @param patch
+	 */
+	CreateCustomerResource patchCustomerByMobileNumber(String mobileNumber, CreateCustomerResource patch);
+
+	/**
+	 * Delete single customer saved from the repository by mobile number, only
+	 * the matched and modified counts are returned
+	 * 
+	 * @param mobileNumber
+	 */
+	UpdateResult deleteCustomerByMobileNumberMinimal(String mobileNumber);
+
+	/**
+	 * Delete single customer saved from the repository by id, only the matched
+	 * and modified counts are returned
+	 * 
+	 * @param id
+	 */
+	UpdateResult deleteCustomerByIdMinimal(String id);
+
+	/**
+	 * Delete every active customer matching the given ids, status and date range
+	 * in one write, only the matched and modified counts are returned
+	 * 
+	 * @param ids    ids to match, any id when null
+	 * @param status status to match, any active status when null
+	 * @param from   first day to match, open when null
+	 * @param to     last day to match, open when null
+	 */
+	UpdateResult deleteCustomerMatching(Collection<String> ids, String status, LocalDate from, LocalDate to);
 }
\ No newline at end of file
@@ -1,15 +1,29 @@
 package com.wrappiza.application.repository;
 
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.apache.commons.lang3.StringUtils;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 
+import com.mongodb.client.result.UpdateResult;
 import com.wrappiza.application.exception.ServiceErrorCode;
 import com.wrappiza.application.exception.TerminalDBException;
 import com.wrappiza.application.model.CreateCustomerResource;
@@ -27,6 +41,8 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class CustomerRepositoryImpl implements CustomerRepository {
 
+	private static final int STREAM_BATCH_SIZE = 1000;
+
 	@Autowired
 	private final MongoTemplate mongoTemplate;
 
@@ -79,22 +95,61 @@ public class CustomerRepositoryImpl implements CustomerRepository {
 	}
 
 	/**
-	 * Method to get all customer from the database
+	 * Method to save single customer into the database in one upsert keyed on
+	 * the mobile number, so a retried create returns the customer saved by the
+	 * first attempt instead of inserting it again
 	 * 
-	 * @param
+	 * @param createCustomerResource
 	 */
 	@Override
-	public List<CreateCustomerResource> getCustomer() {
+	public CreateCustomerResource saveSingleCustomerIfAbsent(CreateCustomerResource createCustomerResource) {
 
-		log.info("Retrieving customer is in progress");
+		log.info("Saving single customer if absent is in progress");
 
-		List<CreateCustomerResource> resources = null;
+		if (null == createCustomerResource.getCustomerId()) {
+			createCustomerResource.setCustomerId(new ObjectId().toHexString());
+		}
+
+		Query query = activeCustomerByMobileNumber(createCustomerResource.getMobileNumber());
+		Update update = insertIfAbsent(createCustomerResource);
+		FindAndModifyOptions options = new FindAndModifyOptions().upsert(true).returnNew(true);
+
+		CreateCustomerResource resource = null;
 
 		try {
-			Query query = new Query();
-			query.addCriteria(Criteria.where("status").ne(Status.DELETED));
+			try {
+				resource = mongoTemplate.findAndModify(query, update, options, CreateCustomerResource.class);
+			} catch (DuplicateKeyException ex) {
+				// A concurrent attempt inserted the customer first, the same upsert now finds it
+				resource = mongoTemplate.findAndModify(query, update, options, CreateCustomerResource.class);
+			}
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_INSERTION_FAILURE.getMessage());
+		}
+
+		return resource;
+	}
+
+	/**
+	 * Method to get one page of customers from the database. Uses the _id index
+	 * to seek past the previous page instead of skipping over it, so every page
+	 * costs the same however deep into the collection it is.
+	 * 
+	 * @param after
+	 * @param limit
+	 * @param fields
+	 */
+	@Override
+	public List<CreateCustomerResource> getCustomer(String after, int limit, List<String> fields) {
+
+		log.info("Retrieving customer page after : {} is in progress", after);
+
+		List<CreateCustomerResource> resources = null;
 
-			resources = mongoTemplate.find(query, CreateCustomerResource.class);
+		try {
+			// The id is always kept, the next cursor is taken from it
+			resources = mongoTemplate.find(project(activeCustomerPage(after, limit), fields, true),
+					CreateCustomerResource.class);
 		} catch (Exception ex) {
 			throw new TerminalDBException(ServiceErrorCode.DB_SEARCH_FAILURE.getMessage());
 		}
@@ -102,24 +157,81 @@ public class CustomerRepositoryImpl implements CustomerRepository {
 		return resources;
 	}
 
+	/**
+	 * Method to stream all customer from the database. Documents are pulled from
+	 * the cursor in batches and handed over one at a time, so only a single batch
+	 * is ever held in memory.
+	 * 
+	 * @param consumer
+	 */
+	@Override
+	public void streamCustomer(Consumer<CreateCustomerResource> consumer) {
+
+		log.info("Streaming customer is in progress");
+
+		Query query = new Query();
+		query.addCriteria(Criteria.where("status").ne(Status.DELETED));
+		query.cursorBatchSize(STREAM_BATCH_SIZE);
+
+		try (Stream<CreateCustomerResource> resources = mongoTemplate.stream(query, CreateCustomerResource.class)) {
+			resources.forEach(consumer);
+		} catch (UncheckedIOException ex) {
+			// Failure while writing to the consumer, not while reading the database
+			throw ex;
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_SEARCH_FAILURE.getMessage());
+		}
+	}
+
+	/**
+	 * Method to stream the mobile number of all customer from the database. Only
+	 * the mobile number is read off each document.
+	 * 
+	 * @param consumer
+	 */
+	@Override
+	public void streamMobileNumber(Consumer<String> consumer) {
+
+		log.info("Streaming customer mobile number is in progress");
+
+		Query query = new Query();
+		query.addCriteria(Criteria.where("status").ne(Status.DELETED));
+		query.fields().include("mobileNumber").exclude("customerId");
+		query.cursorBatchSize(STREAM_BATCH_SIZE);
+
+		try (Stream<CreateCustomerResource> resources = mongoTemplate.stream(query, CreateCustomerResource.class)) {
+			resources.map(CreateCustomerResource::getMobileNumber).filter(StringUtils::isNotBlank).forEach(consumer);
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_SEARCH_FAILURE.getMessage());
+		}
+	}
+
 	/**
 	 * Method to get single customer by name from the database
 	 * 
 	 * @param  mobileNumber
 	 */
 	public CreateCustomerResource getCustomerByMobileNumber(String mobileNumber) {
+		return getCustomerByMobileNumber(mobileNumber, null);
+	}
+
+	/**
+	 * Method to get the selected fields of single customer by mobile number from
+	 * the database
+	 * 
+	 * @param mobileNumber
+	 * @param fields
+	 */
+	@Override
+	public CreateCustomerResource getCustomerByMobileNumber(String mobileNumber, List<String> fields) {
 
 		log.info("Retrieving single customer by mobile number is in progress");
 
 		CreateCustomerResource resource = null;
 
 		try {
-			Query query = new Query();
-			
-			query.addCriteria(Criteria.where("status").ne(Status.DELETED));
-			query.addCriteria(Criteria.where("mobileNumber").is(mobileNumber));
-
-			resource = mongoTemplate.findOne(query, CreateCustomerResource.class);
+			resource = mongoTemplate.findOne(project(activeCustomerByMobileNumber(mobileNumber), fields, false),
+					CreateCustomerResource.class);
 		} catch (Exception ex) {
 			throw new TerminalDBException(ServiceErrorCode.DB_SEARCH_FAILURE.getMessage());
 		}
@@ -133,18 +245,26 @@ public class CustomerRepositoryImpl implements CustomerRepository {
 	 * @param  id
 	 */
 	public CreateCustomerResource getCustomerById(String id) {
+		return getCustomerById(id, null);
+	}
+
+	/**
+	 * Method to get the selected fields of single customer by id from the
+	 * database
+	 * 
+	 * @param id
+	 * @param fields
+	 */
+	@Override
+	public CreateCustomerResource getCustomerById(String id, List<String> fields) {
 
 		log.info("Retrieving single customer by id is in progress");
 
 		CreateCustomerResource resource = null;
 
 		try {
-			Query query = new Query();
-			
-			query.addCriteria(Criteria.where("status").ne(Status.DELETED));
-			query.addCriteria(Criteria.where("_id").is(id));
-
-			resource = mongoTemplate.findOne(query, CreateCustomerResource.class);
+			resource = mongoTemplate.findOne(project(activeCustomerById(id), fields, false),
+					CreateCustomerResource.class);
 				
 			//resources = mongoTemplate.findById(id, CreateCustomerResource.class);
 		} catch (Exception ex) {
@@ -154,6 +274,78 @@ public class CustomerRepositoryImpl implements CustomerRepository {
 		return resource;
 	}
 
+	/**
+	 * Method to get many customers by id from the database in one round trip
+	 * 
+	 * @param ids
+	 */
+	@Override
+	public List<CreateCustomerResource> getCustomerByIds(Collection<String> ids) {
+
+		log.info("Retrieving {} customers by id is in progress", ids.size());
+
+		List<CreateCustomerResource> resources = null;
+
+		try {
+			resources = mongoTemplate.find(activeCustomersByIds(ids), CreateCustomerResource.class);
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_SEARCH_FAILURE.getMessage());
+		}
+
+		return resources;
+	}
+
+	/**
+	 * Method to get many customers by mobile number from the database in one round
+	 * trip
+	 * 
+	 * @param mobileNumbers
+	 */
+	@Override
+	public List<CreateCustomerResource> getCustomerByMobileNumbers(Collection<String> mobileNumbers) {
+
+		log.info("Retrieving {} customers by mobile number is in progress", mobileNumbers.size());
+
+		List<CreateCustomerResource> resources = null;
+
+		try {
+			resources = mongoTemplate.find(activeCustomersByMobileNumbers(mobileNumbers),
+					CreateCustomerResource.class);
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_SEARCH_FAILURE.getMessage());
+		}
+
+		return resources;
+	}
+
+	/**
+	 * Method to count customer per status inside the database. Only one count per
+	 * status comes back from the aggregation.
+	 * 
+	 * @param
+	 */
+	@Override
+	public Map<String, Long> countCustomerByStatus() {
+
+		log.info("Counting customer by status is in progress");
+
+		Map<String, Long> counts = new LinkedHashMap<>();
+
+		try {
+			Aggregation aggregation = Aggregation.newAggregation(CreateCustomerResource.class,
+					Aggregation.group("status").count().as("customers"), Aggregation.sort(Sort.Direction.ASC, "_id"));
+
+			for (Document document : mongoTemplate.aggregate(aggregation, CreateCustomerResource.class, Document.class)
+					.getMappedResults()) {
+				counts.put(String.valueOf(document.get("_id")), ((Number) document.get("customers")).longValue());
+			}
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_SEARCH_FAILURE.getMessage());
+		}
+
+		return counts;
+	}
+
 	/**
 	 * Method to update single customer by name from the database
 	 * 
@@ -168,12 +360,8 @@ public class CustomerRepositoryImpl implements CustomerRepository {
 		CreateCustomerResource resource = null;
 
 		try {
-			Query query = new Query();
- 
-			query.addCriteria(Criteria.where("status").ne(Status.DELETED));
-			query.addCriteria(Criteria.where("mobileNumber").is(createCustomerResource.getCustomerId()));
-
-			resource = buildUpdate(createCustomerResource, query);
+			resource = buildUpdate(createCustomerResource,
+					activeCustomerByMobileNumber(createCustomerResource.getCustomerId()));
 		} catch (Exception ex) {
 			throw new TerminalDBException(ServiceErrorCode.DB_UPDATION_FAILURE.getMessage());
 		}
@@ -195,11 +383,7 @@ public class CustomerRepositoryImpl implements CustomerRepository {
 		CreateCustomerResource resource = null;
 
 		try {
-			Query query = new Query();
-			query.addCriteria(Criteria.where("status").ne(Status.DELETED));
-			query.addCriteria(Criteria.where("_id").is(createCustomerResource.getCustomerId()));
-
-			resource = buildUpdate(createCustomerResource, query);
+			resource = buildUpdate(createCustomerResource, activeCustomerById(createCustomerResource.getCustomerId()));
 		} catch (Exception ex) {
 			throw new TerminalDBException(ServiceErrorCode.DB_UPDATION_FAILURE.getMessage());
 		}
@@ -220,10 +404,7 @@ public class CustomerRepositoryImpl implements CustomerRepository {
 		CreateCustomerResource resource = null;
 
 		try {
-			Query query = new Query();
-			query.addCriteria(Criteria.where("mobileNumber").is(mobileNumber));
-
-			resource = buildDelete(query);
+			resource = buildDelete(customerByMobileNumber(mobileNumber));
 		} catch (Exception ex) {
 			throw new TerminalDBException(ServiceErrorCode.DB_DELETION_FAILURE.getMessage());
 		}
@@ -244,10 +425,7 @@ public class CustomerRepositoryImpl implements CustomerRepository {
 		CreateCustomerResource resource = null;
 
 		try {
-			Query query = new Query();
-			query.addCriteria(Criteria.where("_id").is(id));
-
-			resource = buildDelete(query);
+			resource = buildDelete(customerById(id));
 		} catch (Exception ex) {
 			throw new TerminalDBException(ServiceErrorCode.DB_DELETION_FAILURE.getMessage());
 		}
@@ -256,40 +434,437 @@ public class CustomerRepositoryImpl implements CustomerRepository {
 	}
 
 	/**
-	 * Method to build update
+	 * Method to update single customer by mobile number from the database without
+	 * reading it back
+	 * 
+	 * @param CreateCustomerResource createCustomerResource
+	 * 
+	 */
+	@Override
+	public UpdateResult updateCustomerByMobileNumberMinimal(CreateCustomerResource createCustomerResource) {
+
+		log.info("Updating customer by mobile number with minimal return is in progress");
+
+		UpdateResult result = null;
+
+		try {
+			result = mongoTemplate.updateFirst(activeCustomerByMobileNumber(createCustomerResource.getCustomerId()),
+					customerUpdate(createCustomerResource), CreateCustomerResource.class);
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_UPDATION_FAILURE.getMessage());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Method to update single customer by id from the database without reading
+	 * it back
+	 * 
+	 * @param CreateCustomerResource createCustomerResource
+	 * 
+	 */
+	@Override
+	public UpdateResult updateCustomerByIdMinimal(CreateCustomerResource createCustomerResource) {
+
+		log.info("Updating customer by id with minimal return is in progress");
+
+		UpdateResult result = null;
+
+		try {
+			result = mongoTemplate.updateFirst(activeCustomerById(createCustomerResource.getCustomerId()),
+					customerUpdate(createCustomerResource), CreateCustomerResource.class);
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_UPDATION_FAILURE.getMessage());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Method to patch single customer by id from the database
+	 * 
+	 * @param id
+	 * @param patch
+	 */
+	@Override
+	public CreateCustomerResource patchCustomerById(String id, CreateCustomerResource patch) {
+
+		log.info("Patching customer by id is in progress");
+
+		CreateCustomerResource resource = null;
+
+		try {
+			resource = mongoTemplate.findAndModify(activeCustomerById(id), customerPatch(patch),
+					new FindAndModifyOptions().returnNew(true), CreateCustomerResource.class);
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_UPDATION_FAILURE.getMessage());
+		}
+
+		return resource;
+	}
+
+	/**
+	 * Method to patch single customer by mobile number from the database
+	 * 
+	 * @param mobileNumber
+	 * @param patch
+	 */
+	@Override
+	public CreateCustomerResource patchCustomerByMobileNumber(String mobileNumber, CreateCustomerResource patch) {
+
+		log.info("Patching customer by mobile number is in progress");
+
+		CreateCustomerResource resource = null;
+
+		try {
+			resource = mongoTemplate.findAndModify(activeCustomerByMobileNumber(mobileNumber), customerPatch(patch),
+					new FindAndModifyOptions().returnNew(true), CreateCustomerResource.class);
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_UPDATION_FAILURE.getMessage());
+		}
+
+		return resource;
+	}
+
+	/**
+	 * Method to delete single customer by mobile number from the database without
+	 * reading it back
+	 * 
+	 * @param String mobileNumber
+	 */
+	@Override
+	public UpdateResult deleteCustomerByMobileNumberMinimal(String mobileNumber) {
+
+		log.info("Deleting customer by mobile number with minimal return is in progress");
+
+		UpdateResult result = null;
+
+		try {
+			result = mongoTemplate.updateFirst(customerByMobileNumber(mobileNumber), deletion(),
+					CreateCustomerResource.class);
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_DELETION_FAILURE.getMessage());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Method to delete single customer by id from the database without reading it
+	 * back
+	 * 
+	 * @param String id
+	 */
+	@Override
+	public UpdateResult deleteCustomerByIdMinimal(String id) {
+
+		log.info("Deleting customer by id with minimal return is in progress");
+
+		UpdateResult result = null;
+
+		try {
+			result = mongoTemplate.updateFirst(customerById(id), deletion(), CreateCustomerResource.class);
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_DELETION_FAILURE.getMessage());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Method to soft delete every matching customer with a single updateMulti
+	 * 
+	 * @param ids
+	 * @param status
+	 * @param from
+	 * @param to
+	 */
+	@Override
+	public UpdateResult deleteCustomerMatching(Collection<String> ids, String status, LocalDate from, LocalDate to) {
+
+		log.info("Deleting customer matching ids, status : {}, from : {} and to : {} is in progress", status, from, to);
+
+		UpdateResult result = null;
+
+		try {
+			result = mongoTemplate.updateMulti(activeCustomersMatching(ids, status, from, to), deletion(),
+					CreateCustomerResource.class);
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_DELETION_FAILURE.getMessage());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Method to build update, bumping the version in the same atomic write
 	 * 
 	 * @param createCustomerResource
 	 * @param query
 	 */
 	private CreateCustomerResource buildUpdate(CreateCustomerResource createCustomerResource, Query query) {
 
+		CreateCustomerResource resource = mongoTemplate.findAndModify(query, customerUpdate(createCustomerResource),
+				new FindAndModifyOptions().returnNew(true), CreateCustomerResource.class);
+
+		return resource;
+	}
+
+	/**
+	 * Update writing the customer fields and bumping the version
+	 * 
+	 * @param createCustomerResource
+	 */
+	static Update customerUpdate(CreateCustomerResource createCustomerResource) {
+
 		Update update = new Update();
 
 		update.set("name", createCustomerResource.getName());
 		update.set("email", createCustomerResource.getEmail());
 		update.set("mobileNumber", createCustomerResource.getMobileNumber());
 		update.set("status", createCustomerResource.getStatus());
+		update.inc("version", 1);
 
-		CreateCustomerResource resource = mongoTemplate.findAndModify(query, update,
-				new FindAndModifyOptions().returnNew(true), CreateCustomerResource.class);
+		return update;
+	}
 
-		return resource;
+	/**
+	 * Update writing only the customer fields set on the patch, so an unchanged
+	 * mobile number leaves its indexes untouched, and bumping the version
+	 * 
+	 * @param patch
+	 */
+	static Update customerPatch(CreateCustomerResource patch) {
+
+		Update update = new Update();
+
+		if (null != patch.getName()) {
+			update.set("name", patch.getName());
+		}
+
+		if (null != patch.getEmail()) {
+			update.set("email", patch.getEmail());
+		}
+
+		if (null != patch.getMobileNumber()) {
+			update.set("mobileNumber", patch.getMobileNumber());
+		}
+
+		update.set("status", patch.getStatus());
+		update.inc("version", 1);
+
+		return update;
 	}
 
 	/**
-	 * Method to build delete
+	 * Method to build delete, bumping the version in the same atomic write
 	 * 
 	 * @param query
 	 * 
 	 */
 	private CreateCustomerResource buildDelete(Query query) {
 
+		CreateCustomerResource resource = mongoTemplate.findAndModify(query, deletion(),
+				new FindAndModifyOptions().returnNew(true), CreateCustomerResource.class);
+
+		return resource;
+	}
+
+	/**
+	 * Update soft deleting the customer and bumping the version
+	 * 
+	 * @param
+	 */
+	static Update deletion() {
+
 		Update update = new Update();
 		update.set("status", Status.DELETED.name());
+		update.inc("version", 1);
 
-		CreateCustomerResource resource = mongoTemplate.findAndModify(query, update,
-				new FindAndModifyOptions().returnNew(true), CreateCustomerResource.class);
+		return update;
+	}
 
-		return resource;
+	/**
+	 * Method to restrict a query to the selected fields, all fields are returned
+	 * when none is selected. Leaving the id out when it was not asked for lets a
+	 * lookup be answered from the index alone.
+	 * 
+	 * @param query
+	 * @param fields
+	 * @param keepId
+	 */
+	static Query project(Query query, List<String> fields, boolean keepId) {
+
+		if (null == fields || fields.isEmpty()) {
+			return query;
+		}
+
+		fields.forEach(query.fields()::include);
+
+		if (!keepId && !fields.contains("customerId")) {
+			query.fields().exclude("customerId");
+		}
+
+		return query;
+	}
+
+	/**
+	 * Query for one page of active customers in id order. The query shapes below
+	 * are shared with {@link CustomerIndexManager}, which checks at startup that
+	 * each of them is served by an index.
+	 * 
+	 * @param after
+	 * @param limit
+	 */
+	static Query activeCustomerPage(String after, int limit) {
+
+		Query query = new Query();
+		query.addCriteria(Criteria.where("status").ne(Status.DELETED));
+
+		// Ids are only mapped to ObjectId on equality, a range needs the ObjectId itself
+		if (StringUtils.isNotBlank(after)) {
+			query.addCriteria(Criteria.where("_id").gt(new ObjectId(after)));
+		}
+
+		query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+
+		return query;
+	}
+
+	/**
+	 * Update saving the customer only when the upsert inserts it, a customer
+	 * already saved is left as it is. The mobile number comes from the query.
+	 * 
+	 * @param createCustomerResource
+	 */
+	static Update insertIfAbsent(CreateCustomerResource createCustomerResource) {
+
+		Update update = new Update();
+
+		update.setOnInsert("_id", createCustomerResource.getCustomerId());
+		update.setOnInsert("name", createCustomerResource.getName());
+		update.setOnInsert("email", createCustomerResource.getEmail());
+		update.setOnInsert("date", createCustomerResource.getDate());
+		update.setOnInsert("status", createCustomerResource.getStatus());
+		update.setOnInsert("version", 0L);
+
+		return update;
+	}
+
+	/**
+	 * Query for the active customers matching every given condition, a condition
+	 * left null matches any customer
+	 * 
+	 * @param ids
+	 * @param status
+	 * @param from
+	 * @param to
+	 */
+	static Query activeCustomersMatching(Collection<String> ids, String status, LocalDate from, LocalDate to) {
+
+		Query query = new Query();
+
+		if (null != from && null != to) {
+			query.addCriteria(Criteria.where("date").gte(from).lt(to.plusDays(1)));
+		} else if (null != from) {
+			query.addCriteria(Criteria.where("date").gte(from));
+		} else if (null != to) {
+			query.addCriteria(Criteria.where("date").lt(to.plusDays(1)));
+		}
+
+		if (null == status) {
+			query.addCriteria(Criteria.where("status").ne(Status.DELETED));
+		} else {
+			query.addCriteria(Criteria.where("status").is(status));
+		}
+
+		if (null != ids) {
+			query.addCriteria(Criteria.where("_id").in(ids));
+		}
+
+		return query;
+	}
+
+	/**
+	 * Query for an active customer by mobile number
+	 * 
+	 * @param mobileNumber
+	 */
+	static Query activeCustomerByMobileNumber(String mobileNumber) {
+
+		Query query = new Query();
+		query.addCriteria(Criteria.where("status").ne(Status.DELETED));
+		query.addCriteria(Criteria.where("mobileNumber").is(mobileNumber));
+
+		return query;
+	}
+
+	/**
+	 * Query for an active customer by id
+	 * 
+	 * @param id
+	 */
+	static Query activeCustomerById(String id) {
+
+		Query query = new Query();
+		query.addCriteria(Criteria.where("status").ne(Status.DELETED));
+		query.addCriteria(Criteria.where("_id").is(id));
+
+		return query;
+	}
+
+	/**
+	 * Query for the active customers matching one of the ids
+	 * 
+	 * @param ids
+	 */
+	static Query activeCustomersByIds(Collection<String> ids) {
+
+		Query query = new Query();
+		query.addCriteria(Criteria.where("status").ne(Status.DELETED));
+		query.addCriteria(Criteria.where("_id").in(ids));
+
+		return query;
+	}
+
+	/**
+	 * Query for the active customers matching one of the mobile numbers
+	 * 
+	 * @param mobileNumbers
+	 */
+	static Query activeCustomersByMobileNumbers(Collection<String> mobileNumbers) {
+
+		Query query = new Query();
+		query.addCriteria(Criteria.where("status").ne(Status.DELETED));
+		query.addCriteria(Criteria.where("mobileNumber").in(mobileNumbers));
+
+		return query;
+	}
+
+	/**
+	 * Query for a customer by mobile number whatever its status
+	 * 
+	 * @param mobileNumber
+	 */
+	static Query customerByMobileNumber(String mobileNumber) {
+
+		Query query = new Query();
+		query.addCriteria(Criteria.where("mobileNumber").is(mobileNumber));
+
+		return query;
+	}
+
+	/**
+	 * Query for a customer by id whatever its status
+	 * 
+	 * @param id
+	 */
+	static Query customerById(String id) {
+
+		Query query = new Query();
+		query.addCriteria(Criteria.where("_id").is(id));
+
+		return query;
 	}
 }
\ No newline at end of file
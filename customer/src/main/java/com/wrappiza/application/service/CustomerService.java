@@ -1,7 +1,19 @@
 package com.wrappiza.application.service;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
 import com.wrappiza.application.model.CreateCustomerRequest;
+import com.wrappiza.application.model.CreateCustomerRequestInfo;
+import com.wrappiza.application.model.CreateCustomerResource;
 import com.wrappiza.application.model.CreateCustomerResponse;
+import com.wrappiza.application.model.CustomerBulkRequest;
+import com.wrappiza.application.model.CustomerLookupRequest;
+import com.wrappiza.application.model.CustomerLookupResponse;
+import com.wrappiza.application.model.CustomerPatchRequest;
+import com.wrappiza.application.model.CustomerSummaryResponse;
+import com.wrappiza.application.model.JobResponse;
 
 /**
  * Interface for Customer service
@@ -19,19 +31,107 @@ public interface CustomerService {
 	CreateCustomerResponse createCustomer(CreateCustomerRequest createCustomerRequest);
 
 	/**
-	 * Method used to retrieve all customer logic
+	 * Method used to create a customer logic, an idempotent create returns the
+	 * active customer already using a mobile number instead of failing
 	 * 
-	 * @param
+	 * @param createCustomerRequest
+	 * @param idempotent
 	 */
-	CreateCustomerResponse retrieveCustomer();
+	CreateCustomerResponse createCustomer(CreateCustomerRequest createCustomerRequest, boolean idempotent);
+
+	/**
+	 * Method used to retrieve one page of customer logic
+	 * 
+	 * @param after id of the last customer of the previous page
+	 * @param limit page size
+	 * @param fields comma separated fields to return, every field when blank
+	 */
+	CreateCustomerResponse retrieveCustomer(String after, Integer limit, String fields);
 	
+	/**
+	 * Method used to stream all customer logic
+	 * 
+	 * @param consumer
+	 */
+	void exportCustomer(Consumer<CreateCustomerResource> consumer);
+
 	/**
 	 * Method used to retrieve single customer logic
 	 * 
 	 * @param id,mobileNumber
+	 * @param fields comma separated fields to return, every field when blank
 	 */
-	CreateCustomerResponse getSingleCustomer(String id, String mobileNumber);
+	CreateCustomerResponse getSingleCustomer(String id, String mobileNumber, String fields);
 	
+	/**
+	 * Method used to retrieve many customer by id or mobile number logic
+	 * 
+	 * @param customerLookupRequest
+	 */
+	CustomerLookupResponse lookupCustomer(CustomerLookupRequest customerLookupRequest);
+
+	/**
+	 * Method used to patch single customer logic, writing only the supplied
+	 * fields
+	 * 
+	 * @param id
+	 * @param mobileNumber
+	 * @param customerPatchRequest
+	 */
+	CreateCustomerResponse patchSingleCustomer(String id, String mobileNumber,
+			CustomerPatchRequest customerPatchRequest);
+
+	/**
+	 * Method used to delete every customer matching the ids and filter logic,
+	 * answering with the matched and modified counts
+	 * 
+	 * @param customerBulkRequest
+	 */
+	CreateCustomerResponse deleteCustomers(CustomerBulkRequest customerBulkRequest);
+
+	/**
+	 * Method used to queue the creation of a customer list as an async job logic
+	 * 
+	 * @param createCustomerRequest
+	 */
+	JobResponse submitCreateCustomerJob(CreateCustomerRequest createCustomerRequest);
+
+	/**
+	 * Method used to queue the deletion of every customer matching the ids and
+	 * filter as an async job logic
+	 * 
+	 * @param customerBulkRequest
+	 */
+	JobResponse submitDeleteCustomersJob(CustomerBulkRequest customerBulkRequest);
+
+	/**
+	 * Method used to import a stream of customers chunk by chunk logic
+	 * 
+	 * @param records
+	 */
+	JobResponse importCustomers(Iterator<CreateCustomerRequestInfo> records);
+
+	/**
+	 * Method used to retrieve the progress of every retained job logic
+	 * 
+	 * @param
+	 */
+	List<JobResponse> getJobs();
+
+	/**
+	 * Method used to retrieve the progress of an async job logic
+	 * 
+	 * @param id
+	 */
+	JobResponse getJob(String id);
+
+	/**
+	 * Method used to count customer logic
+	 * 
+	 * @param
+	 */
+	CustomerSummaryResponse summarizeCustomer();
+
 	/**
 	 * Method used to update single customer logic
 	 * 
@@ -41,6 +141,18 @@ public interface CustomerService {
 	 * 
 	 */
 	CreateCustomerResponse updateSingleCustomer(String id, String mobileNumber, CreateCustomerRequest createCustomerRequest);
+
+	/**
+	 * Method used to update single customer logic, a minimal update answers
+	 * with the matched and modified counts instead of the updated customer
+	 * 
+	 * @param id
+	 * @param mobileNumber
+	 * @param createCustomerRequest
+	 * @param minimal
+	 */
+	CreateCustomerResponse updateSingleCustomer(String id, String mobileNumber, CreateCustomerRequest createCustomerRequest,
+			boolean minimal);
 	
 	/**
 	 * Method used to delete single customer logic
@@ -48,4 +160,13 @@ public interface CustomerService {
 	 * @param String id,String mobileNumber
 	 */
 	CreateCustomerResponse deleteSingleCustomer(String id, String mobileNumber);
+
+	/**
+	 * Method used to delete single customer logic, a minimal delete answers
+	 * with the matched and modified counts instead of the deleted customer
+	 * 
+	 * @param String id,String mobileNumber
+	 * @param minimal
+	 */
+	CreateCustomerResponse deleteSingleCustomer(String id, String mobileNumber, boolean minimal);
 }
\ No newline at end of file
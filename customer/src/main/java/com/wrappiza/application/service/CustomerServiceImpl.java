@@ -1,21 +1,49 @@
 package com.wrappiza.application.service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.apache.commons.lang3.StringUtils;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.mongodb.client.result.UpdateResult;
+import com.wrappiza.application.cache.CustomerCache;
+import com.wrappiza.application.cache.MobileNumberFilter;
 import com.wrappiza.application.exception.ServiceErrorCode;
 import com.wrappiza.application.exception.ServiceTerminalException;
 import com.wrappiza.application.exception.TerminalDBException;
+import com.wrappiza.application.job.CustomerJobManager;
+import com.wrappiza.application.job.Job;
+import com.wrappiza.application.model.BulkWriteResult;
 import com.wrappiza.application.model.CreateCustomerRequest;
+import com.wrappiza.application.model.CreateCustomerRequestInfo;
 import com.wrappiza.application.model.CreateCustomerResource;
 import com.wrappiza.application.model.CreateCustomerResponse;
+import com.wrappiza.application.model.CustomerBulkRequest;
+import com.wrappiza.application.model.CustomerLookupRequest;
+import com.wrappiza.application.model.CustomerLookupResponse;
+import com.wrappiza.application.model.CustomerPatchRequest;
+import com.wrappiza.application.model.CustomerSummaryResponse;
+import com.wrappiza.application.model.JobResponse;
+import com.wrappiza.application.model.JobType;
 import com.wrappiza.application.model.Status;
+import com.wrappiza.application.repository.CustomerBulkWriter;
+import com.wrappiza.application.repository.CustomerInsertBatcher;
 import com.wrappiza.application.repository.CustomerRepository;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -27,6 +55,17 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 @Slf4j
 public class CustomerServiceImpl implements CustomerService {
+
+	private static final int DEFAULT_PAGE_SIZE = 50;
+
+	private static final int MAX_PAGE_SIZE = 500;
+
+	private static final int MAX_LOOKUP_SIZE = 500;
+
+	private static final int MAX_BULK_SIZE = 50000;
+
+	private static final Set<String> SELECTABLE_FIELDS = Set.of("customerId", "name", "email", "mobileNumber", "date",
+			"status", "version");
 	
 	@Autowired
 	private final CustomerRepository repo;
@@ -34,30 +73,80 @@ public class CustomerServiceImpl implements CustomerService {
 	@Autowired
 	private final CustomerServiceMapper mapper;
 
+	@Autowired
+	private final CustomerCache cache;
+
+	@Autowired
+	private final MobileNumberFilter mobileNumberFilter;
+
+	@Autowired
+	private final CustomerBulkWriter bulkWriter;
+
+	@Autowired
+	private final CustomerInsertBatcher insertBatcher;
+
+	@Autowired
+	private final CustomerJobManager jobManager;
+
+	@Autowired
+	private final Validator validator;
+
 	
-	public CustomerServiceImpl(CustomerRepository repo, CustomerServiceMapper mapper) {
+	public CustomerServiceImpl(CustomerRepository repo, CustomerServiceMapper mapper, CustomerCache cache,
+			MobileNumberFilter mobileNumberFilter, CustomerBulkWriter bulkWriter, CustomerInsertBatcher insertBatcher,
+			CustomerJobManager jobManager, Validator validator) {
 		this.repo = repo;
 		this.mapper = mapper;
+		this.cache = cache;
+		this.mobileNumberFilter = mobileNumberFilter;
+		this.bulkWriter = bulkWriter;
+		this.insertBatcher = insertBatcher;
+		this.jobManager = jobManager;
+		this.validator = validator;
 	}
 
+	/**
+	 * Saving customer to the repository
+	 * 
+	 * @param createCustomerRequest
+	 */
+	@Override
 	public CreateCustomerResponse createCustomer(CreateCustomerRequest createCustomerRequest) {
+		return createCustomer(createCustomerRequest, false);
+	}
+
+	public CreateCustomerResponse createCustomer(CreateCustomerRequest createCustomerRequest, boolean idempotent) {
 		log.debug("Request of CreateCustomerRequest : ", createCustomerRequest);
 
 		CreateCustomerResponse createCustomerResponse = null;
 
 		try {
-			// When request having more than one customer
-			if (createCustomerRequest.getCreateCustomerRequestInfos().size() > 1) {
-				List<CreateCustomerResource> resources = repo.saveCustomer(mapper
-						.createResource(createCustomerRequest.getCreateCustomerRequestInfos(), Status.CREATED.name()));
-				createCustomerResponse = mapper.buildCreateCustomerResponse(resources);
+			rejectUsedMobileNumbers(createCustomerRequest.getCreateCustomerRequestInfos(), !idempotent);
+
+			if (idempotent) {
+				createCustomerResponse = createCustomerIfAbsent(createCustomerRequest.getCreateCustomerRequestInfos());
+			} else if (createCustomerRequest.getCreateCustomerRequestInfos().size() > 1) {
+				// When request having more than one customer, each customer succeeds or fails on its own
+				List<CreateCustomerResource> resources = mapper
+						.createResource(createCustomerRequest.getCreateCustomerRequestInfos(), Status.CREATED.name());
+				List<BulkWriteResult> writeResults = bulkWriter.insert(resources);
+				createCustomerResponse = mapper.buildBulkCreateCustomerResponse(resources, writeResults);
+
+				writeResults.stream().filter(BulkWriteResult::isWritten)
+						.map(writeResult -> resources.get(writeResult.getIndex()).getMobileNumber())
+						.forEach(mobileNumberFilter::put);
 			} else {
 				List<CreateCustomerResource> resources = mapper
 						.createResource(createCustomerRequest.getCreateCustomerRequestInfos(), Status.CREATED.name());
-				CreateCustomerResource resource = repo.saveSingleCustomer(resources.get(0));
+				// Opted in single inserts share a micro batch with concurrent requests
+				CreateCustomerResource resource = insertBatcher.isEnabled() ? insertBatcher.insert(resources.get(0))
+						: repo.saveSingleCustomer(resources.get(0));
 				resources.clear();
 				resources.add(resource);
 				createCustomerResponse = mapper.buildCreateCustomerResponse(resources);
+
+				createCustomerRequest.getCreateCustomerRequestInfos()
+						.forEach(info -> mobileNumberFilter.put(info.getMobileNumber()));
 			}
 		} catch (TerminalDBException ex) {
 
@@ -72,20 +161,39 @@ public class CustomerServiceImpl implements CustomerService {
 	}
 
 	/**
-	 * Retrieving all customer from the repository
+	 * Retrieving one page of customer from the repository
 	 * 
-	 * @param
+	 * @param after
+	 * @param limit
+	 * @param fields
 	 */
 	@Override
-	public CreateCustomerResponse retrieveCustomer() {
+	public CreateCustomerResponse retrieveCustomer(String after, Integer limit, String fields) {
+
+		log.debug("After : {} and limit : {} of retrieving customer", after, limit);
+
+		if (StringUtils.isNotBlank(after) && !ObjectId.isValid(after)) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_PAGINATION_REQUEST);
+		}
+
+		int pageSize = resolvePageSize(limit);
+		List<String> selectedFields = resolveFields(fields);
 
 		List<CreateCustomerResource> createCustomerResource = null;
 		CreateCustomerResponse response = null;
 
 		try {
-			createCustomerResource = repo.getCustomer();
+			// One extra record tells whether another page exists without a count query
+			createCustomerResource = repo.getCustomer(after, pageSize + 1, selectedFields);
+
+			String nextCursor = null;
+
+			if (createCustomerResource.size() > pageSize) {
+				createCustomerResource = new ArrayList<>(createCustomerResource.subList(0, pageSize));
+				nextCursor = createCustomerResource.get(pageSize - 1).getCustomerId();
+			}
 
-			response = mapper.buildCreateCustomerResponse(createCustomerResource);
+			response = mapper.buildCreateCustomerResponse(createCustomerResource, nextCursor);
 
 		} catch (TerminalDBException ex) {
 
@@ -99,25 +207,53 @@ public class CustomerServiceImpl implements CustomerService {
 		return response;
 	}
 
+	/**
+	 * Streaming all customer from the repository
+	 * 
+	 * @param consumer
+	 */
+	@Override
+	public void exportCustomer(Consumer<CreateCustomerResource> consumer) {
+
+		try {
+			repo.streamCustomer(consumer);
+		} catch (TerminalDBException ex) {
+
+			log.error("Exception occured while exporting customer : ", ex);
+
+			throw new ServiceTerminalException(ServiceErrorCode.DB_SEARCH_FAILURE);
+		}
+	}
+
 	/**
 	 * Retrieving single customer from the repository
 	 * 
 	 * @param  id, name
+	 * @param fields
 	 */
 	@Override
-	public CreateCustomerResponse getSingleCustomer(String id, String mobileNumber) {
+	public CreateCustomerResponse getSingleCustomer(String id, String mobileNumber, String fields) {
 
 		log.debug("Id : {} and mobile number : {} of retrieving single customer: ", id, mobileNumber);
 
+		List<String> selectedFields = resolveFields(fields);
+
 		CreateCustomerResource createCustomerResource = null;
 		CreateCustomerResponse response = null;
 
 		try {
-			if (StringUtils.isNotBlank(id)) {
-				createCustomerResource = repo.getCustomerById(id);
+			// Partial customers are read straight from the repository and never cached
+			if (StringUtils.isNotBlank(id) && !selectedFields.isEmpty()) {
+				createCustomerResource = repo.getCustomerById(id, selectedFields);
+
+			} else if (StringUtils.isNotBlank(id)) {
+				createCustomerResource = cache.getById(id, repo::getCustomerById);
+
+			} else if (StringUtils.isNotBlank(mobileNumber) && !selectedFields.isEmpty()) {
+				createCustomerResource = repo.getCustomerByMobileNumber(mobileNumber, selectedFields);
 
 			} else if (StringUtils.isNotBlank(mobileNumber)) {
-				createCustomerResource = repo.getCustomerByMobileNumber(mobileNumber);
+				createCustomerResource = cache.getByMobileNumber(mobileNumber, repo::getCustomerByMobileNumber);
 
 			} else {
 				throw new ServiceTerminalException(ServiceErrorCode.EMPTY_SEARCH_FAILURE);
@@ -138,6 +274,323 @@ public class CustomerServiceImpl implements CustomerService {
 		return response;
 	}
 
+	/**
+	 * Retrieving many customer by id or by mobile number. Cached customers are
+	 * served from the cache and every other one is fetched with a single query.
+	 * 
+	 * @param customerLookupRequest
+	 */
+	@Override
+	public CustomerLookupResponse lookupCustomer(CustomerLookupRequest customerLookupRequest) {
+
+		log.debug("Request of customer lookup : {}", customerLookupRequest);
+
+		List<String> ids = customerLookupRequest.getIds();
+		List<String> mobileNumbers = customerLookupRequest.getMobileNumbers();
+
+		boolean byId = null != ids && !ids.isEmpty();
+		boolean byMobileNumber = null != mobileNumbers && !mobileNumbers.isEmpty();
+		List<String> keys = byId ? ids : mobileNumbers;
+
+		if (byId == byMobileNumber || keys.size() > MAX_LOOKUP_SIZE || keys.stream().anyMatch(StringUtils::isBlank)) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_LOOKUP_REQUEST);
+		}
+
+		Map<String, CreateCustomerResource> resources = null;
+		CustomerLookupResponse response = null;
+
+		try {
+			if (byId) {
+				resources = cache.getAllById(keys, missing -> repo.getCustomerByIds(missing).stream()
+						.collect(Collectors.toMap(CreateCustomerResource::getCustomerId, Function.identity())));
+			} else {
+				resources = cache.getAllByMobileNumber(keys, missing -> repo.getCustomerByMobileNumbers(missing)
+						.stream().collect(Collectors.toMap(CreateCustomerResource::getMobileNumber,
+								Function.identity(), (first, second) -> first)));
+			}
+
+			response = mapper.buildCustomerLookupResponse(keys, resources);
+
+		} catch (TerminalDBException ex) {
+
+			log.error("Exception occured while looking up customer : ", ex);
+
+			throw new ServiceTerminalException(ServiceErrorCode.DB_SEARCH_FAILURE);
+		}
+
+		log.debug("Response of customer lookup : {}", response);
+
+		return response;
+	}
+
+	/**
+	 * Deleting every customer matching the ids and filter with a single write.
+	 * A request without any condition is refused rather than deleting every
+	 * customer.
+	 * 
+	 * @param customerBulkRequest
+	 */
+	@Override
+	public CreateCustomerResponse deleteCustomers(CustomerBulkRequest customerBulkRequest) {
+
+		log.debug("Request of customer bulk delete : {}", customerBulkRequest);
+
+		List<String> ids = matchingIds(customerBulkRequest);
+
+		UpdateResult result = null;
+
+		try {
+			result = repo.deleteCustomerMatching(ids, customerBulkRequest.getStatus(), customerBulkRequest.getFrom(),
+					customerBulkRequest.getTo());
+
+			// The deleted customers are not known one by one
+			cache.evictAll();
+
+		} catch (TerminalDBException ex) {
+
+			log.error("Exception occurred while bulk deleting customer : ", ex);
+
+			throw new ServiceTerminalException(ServiceErrorCode.DB_DELETION_FAILURE);
+		}
+
+		return mapper.buildCreateCustomerResponse(result);
+	}
+
+	/**
+	 * Queuing the creation of a large customer list as an async job. The list is
+	 * written one chunk at a time, a chunk refused as a whole failing only its
+	 * own customers, and the progress can be polled with the returned job id.
+	 * 
+	 * @param createCustomerRequest
+	 */
+	@Override
+	public JobResponse submitCreateCustomerJob(CreateCustomerRequest createCustomerRequest) {
+
+		List<CreateCustomerRequestInfo> infos = createCustomerRequest.getCreateCustomerRequestInfos();
+
+		// Duplicates within the request are refused up front, saved numbers are checked chunk by chunk
+		rejectUsedMobileNumbers(infos, false);
+
+		int chunkSize = jobManager.getChunkSize();
+
+		Job job = jobManager.submit(JobType.CREATE, infos.size(), running -> {
+
+			for (int from = 0; from < infos.size(); from += chunkSize) {
+
+				int to = Math.min(from + chunkSize, infos.size());
+
+				writeChunk(running, IntStream.range(from, to).boxed().collect(Collectors.toList()),
+						new ArrayList<>(infos.subList(from, to)));
+			}
+		});
+
+		return job.toResponse();
+	}
+
+	/**
+	 * Importing a stream of customers of any size. Records are read one at a
+	 * time and validated, a record that cannot be read, is invalid or carries a
+	 * registered mobile number failing only itself, and the valid ones are
+	 * written a fixed size chunk at a time,
+	 * so memory stays bounded by the chunk size. The import is registered as a
+	 * job while it runs, its progress can be polled like any other job.
+	 * 
+	 * @param records
+	 */
+	@Override
+	public JobResponse importCustomers(Iterator<CreateCustomerRequestInfo> records) {
+
+		int chunkSize = jobManager.getChunkSize();
+
+		Job job = jobManager.run(JobType.IMPORT, running -> {
+
+			List<CreateCustomerRequestInfo> chunk = new ArrayList<>(chunkSize);
+			List<Integer> positions = new ArrayList<>(chunkSize);
+			Set<String> chunkMobileNumbers = new HashSet<>();
+
+			try {
+				for (int position = 0; records.hasNext(); position++) {
+
+					CreateCustomerRequestInfo info = null;
+
+					try {
+						info = records.next();
+					} catch (RuntimeException ex) {
+						running.recordFailure(List.of(position), ex.getMessage());
+						continue;
+					}
+
+					String violation = validator.validate(info).stream().map(ConstraintViolation::getMessage)
+							.sorted().collect(Collectors.joining(", "));
+
+					if (!violation.isEmpty()) {
+						running.recordFailure(List.of(position), violation);
+						continue;
+					}
+
+					// A number repeated within a chunk would refuse the whole chunk
+					if (!chunkMobileNumbers.add(info.getMobileNumber())) {
+						running.recordFailure(List.of(position),
+								ServiceErrorCode.DUPLICATE_MOBILE_NUMBER.getMessage());
+						continue;
+					}
+
+					chunk.add(info);
+					positions.add(position);
+
+					if (chunk.size() == chunkSize) {
+						writeChunk(running, positions, chunk);
+						chunk = new ArrayList<>(chunkSize);
+						positions = new ArrayList<>(chunkSize);
+						chunkMobileNumbers.clear();
+					}
+				}
+			} finally {
+				// Records read before a broken stream are still written
+				if (!chunk.isEmpty()) {
+					writeChunk(running, positions, chunk);
+				}
+			}
+		});
+
+		return job.toResponse();
+	}
+
+	/**
+	 * Method to write one chunk of a job through the regular creation, recording
+	 * the outcome of every customer at its position within the job. Customers
+	 * whose mobile number is already registered fail on their own beforehand,
+	 * so they do not refuse the rest of the chunk.
+	 * 
+	 * @param running
+	 * @param positions
+	 * @param chunk
+	 */
+	private void writeChunk(Job running, List<Integer> positions, List<CreateCustomerRequestInfo> chunk) {
+
+		try {
+			Set<String> saved = savedMobileNumbers(chunk);
+
+			if (!saved.isEmpty()) {
+
+				List<Integer> refused = new ArrayList<>();
+				List<Integer> keptPositions = new ArrayList<>();
+				List<CreateCustomerRequestInfo> kept = new ArrayList<>();
+
+				for (int index = 0; index < chunk.size(); index++) {
+
+					if (saved.contains(chunk.get(index).getMobileNumber())) {
+						refused.add(positions.get(index));
+					} else {
+						keptPositions.add(positions.get(index));
+						kept.add(chunk.get(index));
+					}
+				}
+
+				running.recordFailure(refused, ServiceErrorCode.DUPLICATE_MOBILE_NUMBER.getMessage());
+
+				positions = keptPositions;
+				chunk = kept;
+			}
+
+			if (chunk.isEmpty()) {
+				return;
+			}
+
+			CreateCustomerResponse response = createCustomer(new CreateCustomerRequest(chunk), false);
+
+			running.record(positions, null != response.getWriteResults() ? response.getWriteResults()
+					: List.of(new BulkWriteResult(0, response.getCreateCustomerResources().get(0).getCustomerId(),
+							true, null, null)));
+
+		} catch (ServiceTerminalException ex) {
+			running.recordFailure(positions, ex.getMessage());
+		} catch (TerminalDBException ex) {
+			running.recordFailure(positions, ServiceErrorCode.DB_INSERTION_FAILURE.getMessage());
+		}
+
+		log.info("Customer job : {} processed {} customers", running.getId(), running.getProcessed().get());
+	}
+
+	/**
+	 * Queuing the deletion of every customer matching the ids and filter as an
+	 * async job, the request being validated before it is queued
+	 * 
+	 * @param customerBulkRequest
+	 */
+	@Override
+	public JobResponse submitDeleteCustomersJob(CustomerBulkRequest customerBulkRequest) {
+
+		matchingIds(customerBulkRequest);
+
+		Job job = jobManager.submit(JobType.DELETE, null, running -> {
+
+			CreateCustomerResponse response = deleteCustomers(customerBulkRequest);
+
+			running.recordCounts(response.getMatchedCount(), response.getModifiedCount());
+		});
+
+		return job.toResponse();
+	}
+
+	/**
+	 * Retrieving the progress of every retained job
+	 * 
+	 * @param
+	 */
+	@Override
+	public List<JobResponse> getJobs() {
+		return jobManager.list().stream().map(Job::toResponse).collect(Collectors.toList());
+	}
+
+	/**
+	 * Retrieving the progress of an async job
+	 * 
+	 * @param id
+	 */
+	@Override
+	public JobResponse getJob(String id) {
+
+		Job job = jobManager.get(id);
+
+		if (null == job) {
+			throw new ServiceTerminalException(ServiceErrorCode.UNKNOWN_JOB);
+		}
+
+		return job.toResponse();
+	}
+
+	/**
+	 * Counting customer per status in the repository
+	 * 
+	 * @param
+	 */
+	@Override
+	public CustomerSummaryResponse summarizeCustomer() {
+
+		CustomerSummaryResponse response = null;
+
+		try {
+			Map<String, Long> customersByStatus = repo.countCustomerByStatus();
+
+			long activeCustomers = customersByStatus.entrySet().stream()
+					.filter(entry -> !Status.DELETED.name().equals(entry.getKey())).mapToLong(Map.Entry::getValue)
+					.sum();
+
+			response = new CustomerSummaryResponse(activeCustomers, customersByStatus);
+
+		} catch (TerminalDBException ex) {
+
+			log.error("Exception occured while counting customer : ", ex);
+
+			throw new ServiceTerminalException(ServiceErrorCode.DB_SEARCH_FAILURE);
+		}
+
+		log.debug("Response of customer summary : {}", response);
+
+		return response;
+	}
+
 	/**
 	 * Updating single customer from the repository
 	 * 
@@ -165,6 +618,9 @@ public class CustomerServiceImpl implements CustomerService {
 
 				createCustomerResource = repo.updateCustomerById(createCustomerResourceOne.get(0));
 
+				evict(id, createCustomerResource);
+				mobileNumberFilter.put(createCustomerResourceOne.get(0).getMobileNumber());
+
 			} else if (StringUtils.isNotBlank(mobileNumber)) {
 
 				List<CreateCustomerResource> createCustomerResourceOne = mapper
@@ -174,6 +630,10 @@ public class CustomerServiceImpl implements CustomerService {
 
 				createCustomerResource = repo.updateCustomerByMobileNumber(createCustomerResourceOne.get(0));
 
+				cache.evict(null, mobileNumber);
+				evict(null, createCustomerResource);
+				mobileNumberFilter.put(createCustomerResourceOne.get(0).getMobileNumber());
+
 			} else {
 				throw new ServiceTerminalException(ServiceErrorCode.DB_UPDATION_FAILURE);
 			}
@@ -195,6 +655,66 @@ public class CustomerServiceImpl implements CustomerService {
 		return response;
 	}
 
+	/**
+	 * Patching single customer in the repository, only the supplied fields are
+	 * written
+	 * 
+	 * @param id, mobileNumber
+	 * @param customerPatchRequest
+	 */
+	@Override
+	public CreateCustomerResponse patchSingleCustomer(String id, String mobileNumber,
+			CustomerPatchRequest customerPatchRequest) {
+
+		log.debug(" Id : {} and mobile number : {} of patching single customer with request : {}", id, mobileNumber,
+				customerPatchRequest);
+
+		CreateCustomerResource patch = mapper.patchResource(customerPatchRequest, Status.UPDATED.name());
+
+		if (null == patch.getName() && null == patch.getEmail() && null == patch.getMobileNumber()) {
+			throw new ServiceTerminalException(ServiceErrorCode.EMPTY_PATCH_REQUEST);
+		}
+
+		CreateCustomerResponse response = null;
+		CreateCustomerResource createCustomerResource = null;
+
+		try {
+			if (StringUtils.isNotBlank(id)) {
+
+				createCustomerResource = repo.patchCustomerById(id, patch);
+
+				evict(id, createCustomerResource);
+			} else if (StringUtils.isNotBlank(mobileNumber)) {
+
+				createCustomerResource = repo.patchCustomerByMobileNumber(mobileNumber, patch);
+
+				cache.evict(null, mobileNumber);
+				evict(null, createCustomerResource);
+			} else {
+				throw new ServiceTerminalException(ServiceErrorCode.DB_UPDATION_FAILURE);
+			}
+
+			if (null != patch.getMobileNumber()) {
+				mobileNumberFilter.put(patch.getMobileNumber());
+			}
+
+			List<CreateCustomerResource> resources = new ArrayList<>();
+			resources.add(createCustomerResource);
+
+			response = mapper.buildCreateCustomerResponse(resources);
+
+		} catch (TerminalDBException ex) {
+
+			log.error("Exception occured while patching single customer : ", ex);
+
+			throw new ServiceTerminalException(ServiceErrorCode.DB_UPDATION_FAILURE);
+		}
+
+		log.debug("Response of patch single customer : {}", response);
+
+		return response;
+	}
+
 	/**
 	 * Deleting single customer from the repository
 	 * 
@@ -212,9 +732,14 @@ public class CustomerServiceImpl implements CustomerService {
 			if (StringUtils.isNotBlank(id)) {
 
 				createCustomerResource = repo.deleteCustomerById(id);
+
+				evict(id, createCustomerResource);
 			} else if (StringUtils.isNotBlank(mobileNumber)) {
 
 				createCustomerResource = repo.deleteCustomerByMobileNumber(mobileNumber);
+
+				cache.evict(null, mobileNumber);
+				evict(null, createCustomerResource);
 			} else {
 
 				throw new ServiceTerminalException(ServiceErrorCode.DB_DELETION_FAILURE);
@@ -236,4 +761,280 @@ public class CustomerServiceImpl implements CustomerService {
 
 		return response;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Updating single customer from the repository, a minimal update is written
+	 * without reading the customer back and answers with the counts only
+	 * 
+	 * @param id
+	 * @param mobileNumber
+	 * @param minimal
+	 */
+	@Override
+	public CreateCustomerResponse updateSingleCustomer(String id, String mobileNumber,
+			CreateCustomerRequest createCustomerRequest, boolean minimal) {
+
+		if (!minimal) {
+			return updateSingleCustomer(id, mobileNumber, createCustomerRequest);
+		}
+
+		log.debug(" Id : {} and mobile number : {} of minimal updating single customer with request : {}", id,
+				mobileNumber, createCustomerRequest);
+
+		UpdateResult result = null;
+
+		try {
+			List<CreateCustomerResource> createCustomerResourceOne = mapper
+					.createResource(createCustomerRequest.getCreateCustomerRequestInfos(), Status.UPDATED.name());
+			String updatedMobileNumber = createCustomerResourceOne.get(0).getMobileNumber();
+
+			if (StringUtils.isNotBlank(id)) {
+
+				createCustomerResourceOne.get(0).setCustomerId(id);
+
+				result = repo.updateCustomerByIdMinimal(createCustomerResourceOne.get(0));
+
+				cache.evict(id, updatedMobileNumber);
+			} else if (StringUtils.isNotBlank(mobileNumber)) {
+
+				createCustomerResourceOne.get(0).setCustomerId(mobileNumber);
+
+				result = repo.updateCustomerByMobileNumberMinimal(createCustomerResourceOne.get(0));
+
+				cache.evict(null, mobileNumber);
+				cache.evict(null, updatedMobileNumber);
+			} else {
+				throw new ServiceTerminalException(ServiceErrorCode.DB_UPDATION_FAILURE);
+			}
+
+			mobileNumberFilter.put(updatedMobileNumber);
+
+		} catch (TerminalDBException ex) {
+
+			log.error("Exception occured while minimal updating single customer : ", ex);
+
+			throw new ServiceTerminalException(ServiceErrorCode.DB_UPDATION_FAILURE);
+		}
+
+		return mapper.buildCreateCustomerResponse(result);
+	}
+
+	/**
+	 * Deleting single customer from the repository, a minimal delete is written
+	 * without reading the customer back and answers with the counts only
+	 * 
+	 * @param id, mobileNumber
+	 * @param minimal
+	 */
+	@Override
+	public CreateCustomerResponse deleteSingleCustomer(String id, String mobileNumber, boolean minimal) {
+
+		if (!minimal) {
+			return deleteSingleCustomer(id, mobileNumber);
+		}
+
+		log.debug(" Id : {} and mobileNumber : {} of minimal deleting single customer ", id, mobileNumber);
+
+		UpdateResult result = null;
+
+		try {
+			if (StringUtils.isNotBlank(id)) {
+
+				result = repo.deleteCustomerByIdMinimal(id);
+
+				cache.evict(id, null);
+			} else if (StringUtils.isNotBlank(mobileNumber)) {
+
+				result = repo.deleteCustomerByMobileNumberMinimal(mobileNumber);
+
+				cache.evict(null, mobileNumber);
+			} else {
+
+				throw new ServiceTerminalException(ServiceErrorCode.DB_DELETION_FAILURE);
+			}
+
+		} catch (TerminalDBException ex) {
+
+			log.error("Exception occurred while minimal deleting single customer : ", ex);
+
+			throw new ServiceTerminalException(ServiceErrorCode.DB_DELETION_FAILURE);
+		}
+
+		return mapper.buildCreateCustomerResponse(result);
+	}
+
+	/**
+	 * Method to evict a written customer from the cache under its id and its
+	 * current mobile number
+	 * 
+	 * @param id
+	 * @param createCustomerResource
+	 */
+	private void evict(String id, CreateCustomerResource createCustomerResource) {
+
+		if (null == createCustomerResource) {
+			cache.evict(id, null);
+		} else {
+			cache.evict(createCustomerResource.getCustomerId(), createCustomerResource.getMobileNumber());
+		}
+	}
+
+	/**
+	 * Method to save customers keyed on their mobile number, returning the
+	 * active customer already using a number instead of saving it again. Nothing
+	 * is read before writing; only the numbers a batch finds already saved are
+	 * read back afterwards, with a single query.
+	 * 
+	 * @param createCustomerRequestInfos
+	 */
+	private CreateCustomerResponse createCustomerIfAbsent(List<CreateCustomerRequestInfo> createCustomerRequestInfos) {
+
+		List<CreateCustomerResource> resources = mapper.createResource(createCustomerRequestInfos,
+				Status.CREATED.name());
+
+		if (resources.size() == 1) {
+			CreateCustomerResource resource = repo.saveSingleCustomerIfAbsent(resources.get(0));
+			mobileNumberFilter.put(resource.getMobileNumber());
+
+			return mapper.buildCreateCustomerResponse(new ArrayList<>(List.of(resource)));
+		}
+
+		List<BulkWriteResult> writeResults = bulkWriter.upsert(resources);
+
+		List<String> savedMobileNumbers = writeResults.stream()
+				.filter(writeResult -> writeResult.isWritten() && !writeResult.getCreated())
+				.map(writeResult -> resources.get(writeResult.getIndex()).getMobileNumber())
+				.collect(Collectors.toList());
+
+		if (!savedMobileNumbers.isEmpty()) {
+
+			Map<String, CreateCustomerResource> saved = repo.getCustomerByMobileNumbers(savedMobileNumbers).stream()
+					.collect(Collectors.toMap(CreateCustomerResource::getMobileNumber, Function.identity(),
+							(first, second) -> first));
+
+			for (BulkWriteResult writeResult : writeResults) {
+
+				CreateCustomerResource resource = saved.get(resources.get(writeResult.getIndex()).getMobileNumber());
+
+				if (writeResult.isWritten() && !writeResult.getCreated() && null != resource) {
+					resources.set(writeResult.getIndex(), resource);
+					writeResult.setId(resource.getCustomerId());
+				}
+			}
+		}
+
+		writeResults.stream().filter(BulkWriteResult::isWritten)
+				.map(writeResult -> resources.get(writeResult.getIndex()).getMobileNumber())
+				.forEach(mobileNumberFilter::put);
+
+		return mapper.buildBulkCreateCustomerResponse(resources, writeResults);
+	}
+
+	/**
+	 * Method to reject customers whose mobile number is repeated in the request or
+	 * already used. The database is only read for the numbers the mobile number
+	 * filter reports as maybe present, with a single query.
+	 * 
+	 * @param createCustomerRequestInfos
+	 * @param rejectSaved                false to only reject repeated numbers
+	 */
+	private void rejectUsedMobileNumbers(List<CreateCustomerRequestInfo> createCustomerRequestInfos,
+			boolean rejectSaved) {
+
+		Set<String> mobileNumbers = new HashSet<>();
+
+		for (CreateCustomerRequestInfo info : createCustomerRequestInfos) {
+
+			if (!mobileNumbers.add(info.getMobileNumber())) {
+				throw new ServiceTerminalException(ServiceErrorCode.DUPLICATE_MOBILE_NUMBER);
+			}
+		}
+
+		if (rejectSaved && !savedMobileNumbers(createCustomerRequestInfos).isEmpty()) {
+			throw new ServiceTerminalException(ServiceErrorCode.DUPLICATE_MOBILE_NUMBER);
+		}
+	}
+
+	/**
+	 * Method to find the mobile numbers already saved among the requested ones,
+	 * the database being read only for the numbers the filter may have seen
+	 * 
+	 * @param createCustomerRequestInfos
+	 */
+	private Set<String> savedMobileNumbers(List<CreateCustomerRequestInfo> createCustomerRequestInfos) {
+
+		List<String> maybeUsed = createCustomerRequestInfos.stream().map(CreateCustomerRequestInfo::getMobileNumber)
+				.filter(mobileNumberFilter::mightContain).collect(Collectors.toList());
+
+		if (maybeUsed.isEmpty()) {
+			return Set.of();
+		}
+
+		return repo.getCustomerByMobileNumbers(maybeUsed).stream().map(CreateCustomerResource::getMobileNumber)
+				.collect(Collectors.toSet());
+	}
+
+	/**
+	 * Method to validate the conditions of a bulk request and resolve the ids to
+	 * match, null when any id matches. A request without any condition is
+	 * refused rather than writing every customer.
+	 * 
+	 * @param customerBulkRequest
+	 */
+	private List<String> matchingIds(CustomerBulkRequest customerBulkRequest) {
+
+		List<String> ids = customerBulkRequest.getIds();
+		String status = customerBulkRequest.getStatus();
+
+		boolean byId = null != ids && !ids.isEmpty();
+		boolean byFilter = null != status || null != customerBulkRequest.getFrom()
+				|| null != customerBulkRequest.getTo();
+
+		if ((!byId && !byFilter) || (byId && ids.size() > MAX_BULK_SIZE)
+				|| (null != status && !Status.CREATED.name().equals(status) && !Status.UPDATED.name().equals(status))) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_BULK_REQUEST);
+		}
+
+		return byId ? ids : null;
+	}
+
+	/**
+	 * Method to resolve the requested page size within the allowed bounds
+	 * 
+	 * @param limit
+	 */
+	private int resolvePageSize(Integer limit) {
+
+		if (null == limit) {
+			return DEFAULT_PAGE_SIZE;
+		}
+
+		if (limit < 1 || limit > MAX_PAGE_SIZE) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_PAGINATION_REQUEST);
+		}
+
+		return limit;
+	}
+
+	/**
+	 * Method to resolve the comma separated fields to return, an empty list
+	 * selects every field
+	 * 
+	 * @param fields
+	 */
+	private List<String> resolveFields(String fields) {
+
+		if (StringUtils.isBlank(fields)) {
+			return List.of();
+		}
+
+		List<String> selectedFields = Arrays.stream(fields.split(",")).map(String::trim)
+				.filter(StringUtils::isNotEmpty).distinct().collect(Collectors.toList());
+
+		if (!SELECTABLE_FIELDS.containsAll(selectedFields)) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_FIELD_SELECTION);
+		}
+
+		return selectedFields;
+	}
+}
@@ -3,12 +3,18 @@ package com.wrappiza.application.service;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.stereotype.Component;
 
+import com.mongodb.client.result.UpdateResult;
+import com.wrappiza.application.model.BulkWriteResult;
 import com.wrappiza.application.model.CreateCustomerRequestInfo;
 import com.wrappiza.application.model.CreateCustomerResource;
 import com.wrappiza.application.model.CreateCustomerResponse;
+import com.wrappiza.application.model.CustomerLookupResponse;
+import com.wrappiza.application.model.CustomerLookupResult;
+import com.wrappiza.application.model.CustomerPatchRequest;
 
 /**
  * Mapping DTO's to Object entities and visa-versa
@@ -39,6 +45,7 @@ public class CustomerServiceMapper {
 			resource.setMobileNumber(request.getMobileNumber());
 			resource.setStatus(status);
 			resource.setDate(LocalDate.now());
+			resource.setVersion(0L);
 
 			resources.add(resource);
 		}
@@ -59,5 +66,102 @@ public class CustomerServiceMapper {
 
 		return createCustomerResponse;
 	}
-}
 
+	/**
+	 * Method to build CreateCustomerResource for a page of customers
+	 * 
+	 * @param createCustomerResource
+	 * @param nextCursor
+	 *
+	 */
+	public CreateCustomerResponse buildCreateCustomerResponse(List<CreateCustomerResource> createCustomerResource,
+			String nextCursor) {
+
+		CreateCustomerResponse createCustomerResponse = buildCreateCustomerResponse(createCustomerResource);
+		createCustomerResponse.setNextCursor(nextCursor);
+
+		return createCustomerResponse;
+	}
+
+	/**
+	 * Method to build the resource of a patch, holding only the patched fields
+	 * 
+	 * @param customerPatchRequest
+	 * @param status
+	 *
+	 */
+	public CreateCustomerResource patchResource(CustomerPatchRequest customerPatchRequest, String status) {
+
+		CreateCustomerResource resource = new CreateCustomerResource();
+
+		resource.setName(customerPatchRequest.getName());
+		resource.setEmail(customerPatchRequest.getEmail());
+		resource.setMobileNumber(customerPatchRequest.getMobileNumber());
+		resource.setStatus(status);
+
+		return resource;
+	}
+
+	/**
+	 * Method to build CreateCustomerResponse holding only the counts of a write
+	 * 
+	 * @param updateResult
+	 *
+	 */
+	public CreateCustomerResponse buildCreateCustomerResponse(UpdateResult updateResult) {
+
+		CreateCustomerResponse createCustomerResponse = new CreateCustomerResponse();
+		createCustomerResponse.setMatchedCount(updateResult.getMatchedCount());
+		createCustomerResponse.setModifiedCount(updateResult.getModifiedCount());
+
+		return createCustomerResponse;
+	}
+
+	/**
+	 * Method to build CreateCustomerResource for a bulk create, holding the
+	 * written customers and the outcome of every customer
+	 * 
+	 * @param createCustomerResource
+	 * @param writeResults
+	 *
+	 */
+	public CreateCustomerResponse buildBulkCreateCustomerResponse(List<CreateCustomerResource> createCustomerResource,
+			List<BulkWriteResult> writeResults) {
+
+		List<CreateCustomerResource> written = new ArrayList<>();
+
+		for (BulkWriteResult writeResult : writeResults) {
+			if (writeResult.isWritten()) {
+				written.add(createCustomerResource.get(writeResult.getIndex()));
+			}
+		}
+
+		CreateCustomerResponse createCustomerResponse = buildCreateCustomerResponse(written);
+		createCustomerResponse.setWriteResults(writeResults);
+
+		return createCustomerResponse;
+	}
+
+	/**
+	 * Method to build CustomerLookupResponse holding one result per requested key
+	 * in request order, marking the keys nothing was found for
+	 * 
+	 * @param keys
+	 * @param resources
+	 *
+	 */
+	public CustomerLookupResponse buildCustomerLookupResponse(List<String> keys,
+			Map<String, CreateCustomerResource> resources) {
+
+		List<CustomerLookupResult> results = new ArrayList<>();
+
+		for (String key : keys) {
+
+			CreateCustomerResource resource = resources.get(key);
+
+			results.add(new CustomerLookupResult(key, null != resource, resource));
+		}
+
+		return new CustomerLookupResponse(results);
+	}
+}
@@ -0,0 +1,185 @@
+package com.wrappiza.application.cache;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.wrappiza.application.model.CreateCustomerResource;
+
+/**
+ * Test cases for customer cache class
+ * 
+ * @author Chandan Kumar
+ *
+ */
+public class CustomerCacheTest {
+
+	private CustomerCache cache;
+
+	private List<CustomerCacheEvictionEvent> events;
+
+	@BeforeEach
+	void setUp() {
+		events = new ArrayList<>();
+		cache = new CustomerCache(100, Duration.ofMinutes(5), event -> events.add((CustomerCacheEvictionEvent) event));
+	}
+
+	/**
+	 * Test case to validate a customer loaded by id is also found by its mobile
+	 * number without loading again
+	 * 
+	 */
+	@Test
+	@DisplayName("Get By Id Then Mobile Number")
+	void getByIdThenMobileNumberTest() {
+
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.getById("1", id -> {
+			loads.incrementAndGet();
+			return customerResource("1", "1234567891");
+		});
+
+		CreateCustomerResource resource = cache.getByMobileNumber("1234567891", mobileNumber -> {
+			loads.incrementAndGet();
+			return null;
+		});
+
+		assertThat(resource.getCustomerId(), equalTo("1"));
+		assertThat(loads.get(), equalTo(1));
+	}
+
+	/**
+	 * Test case to validate a stale mobile number mapping is not trusted once the
+	 * customer moved to another number
+	 * 
+	 */
+	@Test
+	@DisplayName("Stale Mobile Number Mapping")
+	void staleMobileNumberMappingTest() {
+
+		cache.getByMobileNumber("1234567891", mobileNumber -> customerResource("1", "1234567891"));
+
+		cache.evictLocal("1", null);
+		cache.getById("1", id -> customerResource("1", "1234567899"));
+
+		CreateCustomerResource resource = cache.getByMobileNumber("1234567891", mobileNumber -> null);
+
+		assertThat(resource, nullValue());
+	}
+
+	/**
+	 * Test case to validate a customer loaded by mobile number while it is
+	 * evicted is not cached, the next lookup loading it again
+	 * 
+	 */
+	@Test
+	@DisplayName("Evict While Loading By Mobile Number")
+	void evictWhileLoadingByMobileNumberTest() {
+
+		AtomicInteger loads = new AtomicInteger();
+
+		CreateCustomerResource stale = cache.getByMobileNumber("1234567891", mobileNumber -> {
+			loads.incrementAndGet();
+			// A write lands and evicts after the load read the customer
+			cache.evictLocal("1", mobileNumber);
+			return customerResource("1", mobileNumber);
+		});
+
+		CreateCustomerResource resource = cache.getByMobileNumber("1234567891", mobileNumber -> {
+			loads.incrementAndGet();
+			CreateCustomerResource written = customerResource("1", mobileNumber);
+			written.setName("Dhiraj Kumar");
+			return written;
+		});
+
+		assertThat(stale.getName(), equalTo("Chandan Kumar"));
+		assertThat(resource.getName(), equalTo("Dhiraj Kumar"));
+		assertThat(loads.get(), equalTo(2));
+		assertThat(cache.getById("1", id -> null).getName(), equalTo("Dhiraj Kumar"));
+	}
+
+	/**
+	 * Test case to validate eviction is published for the other instances and
+	 * missing customers are not cached
+	 * 
+	 */
+	@Test
+	@DisplayName("Evict And Missing Customer")
+	void evictAndMissingCustomerTest() {
+
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.getById("2", id -> {
+			loads.incrementAndGet();
+			return null;
+		});
+		cache.getById("2", id -> {
+			loads.incrementAndGet();
+			return null;
+		});
+
+		cache.evict("2", "1234567892");
+
+		assertThat(loads.get(), equalTo(2));
+		assertThat(events.size(), equalTo(1));
+		assertThat(events.get(0).getMobileNumber(), equalTo("1234567892"));
+	}
+
+	/**
+	 * Test case to validate a batch lookup only loads the customers missing from
+	 * the cache, in one call
+	 * 
+	 */
+	@Test
+	@DisplayName("Get All By Id And Mobile Number")
+	void getAllByIdAndMobileNumberTest() {
+
+		cache.getById("1", id -> customerResource("1", "1234567891"));
+
+		List<Set<String>> loads = new ArrayList<>();
+
+		Map<String, CreateCustomerResource> resources = cache.getAllById(List.of("1", "2", "3"), missing -> {
+			loads.add(missing);
+			return Map.of("2", customerResource("2", "1234567892"));
+		});
+
+		assertThat(resources.keySet(), equalTo(Set.of("1", "2")));
+		assertThat(loads, equalTo(List.of(Set.of("2", "3"))));
+
+		resources = cache.getAllByMobileNumber(List.of("1234567891", "1234567892", "1234567893"), missing -> {
+			loads.add(missing);
+			return Map.of();
+		});
+
+		assertThat(resources.keySet(), equalTo(Set.of("1234567891", "1234567892")));
+		assertThat(loads.get(1), equalTo(Set.of("1234567893")));
+	}
+
+	/**
+	 * Build mock to create customer resource
+	 */
+	private CreateCustomerResource customerResource(String id, String mobileNumber) {
+
+		CreateCustomerResource createCustomerResource = new CreateCustomerResource();
+		createCustomerResource.setCustomerId(id);
+		createCustomerResource.setName("Chandan Kumar");
+		createCustomerResource.setEmail("ravchandan15@gmail.com");
+		createCustomerResource.setMobileNumber(mobileNumber);
+		createCustomerResource.setDate(LocalDate.now());
+
+		return createCustomerResource;
+	}
+}
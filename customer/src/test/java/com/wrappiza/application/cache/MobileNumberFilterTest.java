@@ -0,0 +1,92 @@
+package com.wrappiza.application.cache;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.wrappiza.application.exception.TerminalDBException;
+import com.wrappiza.application.repository.CustomerRepository;
+
+/**
+ * Test cases for mobile number filter class
+ * 
+ * @author Chandan Kumar
+ *
+ */
+@ExtendWith(MockitoExtension.class)
+public class MobileNumberFilterTest {
+
+	@Mock
+	private CustomerRepository repo;
+
+	/**
+	 * Test case to validate every number is maybe present until the filter is
+	 * built, and a failed build keeps it that way
+	 * 
+	 */
+	@Test
+	@DisplayName("Not Built Filter")
+	@SuppressWarnings("unchecked")
+	void notBuiltFilterTest() {
+
+		MobileNumberFilter filter = new MobileNumberFilter(repo, 1000, 0.01);
+
+		assertThat(filter.mightContain("1234567891"), equalTo(true));
+
+		doThrow(TerminalDBException.class).when(repo).streamMobileNumber(any(Consumer.class));
+
+		filter.rebuild();
+
+		assertThat(filter.mightContain("1234567891"), equalTo(true));
+	}
+
+	/**
+	 * Test case to validate numbers read by the rebuild and numbers added later
+	 * are never reported missing, and unknown numbers mostly are
+	 * 
+	 */
+	@Test
+	@DisplayName("Rebuild And Put")
+	@SuppressWarnings("unchecked")
+	void rebuildAndPutTest() {
+
+		doAnswer(invocation -> {
+			Consumer<String> consumer = invocation.getArgument(0);
+			for (int i = 0; i < 1000; i++) {
+				consumer.accept(String.valueOf(9000000000L + i));
+			}
+			return null;
+		}).when(repo).streamMobileNumber(any(Consumer.class));
+
+		MobileNumberFilter filter = new MobileNumberFilter(repo, 2000, 0.01);
+		filter.rebuild();
+		filter.put("8000000000");
+
+		for (int i = 0; i < 1000; i++) {
+			assertThat(filter.mightContain(String.valueOf(9000000000L + i)), equalTo(true));
+		}
+
+		assertThat(filter.mightContain("8000000000"), equalTo(true));
+		assertThat(filter.insertions(), equalTo(1001L));
+
+		int falsePositives = 0;
+
+		for (int i = 0; i < 10000; i++) {
+			falsePositives += filter.mightContain(String.valueOf(7000000000L + i)) ? 1 : 0;
+		}
+
+		assertThat(falsePositives, lessThan(100));
+		assertThat(filter.falsePositiveRate(), lessThan(0.01));
+	}
+}
@@ -1,15 +1,30 @@
 package com.wrappiza.application.controller;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
@@ -20,8 +35,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wrappiza.application.CustomerApplication;
@@ -29,6 +46,9 @@ import com.wrappiza.application.model.CreateCustomerRequest;
 import com.wrappiza.application.model.CreateCustomerRequestInfo;
 import com.wrappiza.application.model.CreateCustomerResource;
 import com.wrappiza.application.model.CreateCustomerResponse;
+import com.wrappiza.application.model.CustomerPatchRequest;
+import com.wrappiza.application.model.JobResponse;
+import com.wrappiza.application.model.JobState;
 import com.wrappiza.application.service.CustomerServiceImpl;
 
 /**
@@ -50,12 +70,14 @@ public class CustomerControllerTest {
 
 	private String addCustomer = "/wrappiza/addcustomer";
 	private String retrieveAll = "/wrappiza/customer";
+	private String exportCustomer = "/wrappiza/customer/export";
 	private String getSingleCustomerByMobileNumber = "/wrappiza/singlecustomer?mobileNumber=1234567890";
 	private String getSingleCustomerById = "/wrappiza/singlecustomer?id=2";
 	private String updateCustomerByMobileNumber = "/wrappiza/updatecustomer?mobileNumber=1234567890";
 	private String updateCustomerById = "/wrappiza/updatecustomer?id=1";
 	private String deleteCustomerByMobileNumber = "/wrappiza/deletecustomer?mobileNumber=1234567890";
 	private String deleteCustomerById = "/wrappiza/deletecustomer?id=2";
+	private String importCustomer = "/wrappiza/customer/import";
 
 	@MockBean
 	private CustomerServiceImpl service;
@@ -117,12 +139,46 @@ public class CustomerControllerTest {
 
 		CreateCustomerResponse response = customerResponse();
 
-		when(service.retrieveCustomer()).thenReturn(response);
+		when(service.retrieveCustomer(null, null, null)).thenReturn(response);
 
 		mvc.perform(get(retrieveAll).contentType(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
 
 	}
 
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerController#exportCustomer()} and
+	 * every customer is written as one json line
+	 * 
+	 */
+	@Test
+	@Order(5)
+	@DisplayName("Export Customer")
+	@SuppressWarnings("unchecked")
+	void testExportCustomer() throws Exception {
+
+		doAnswer(invocation -> {
+			Consumer<CreateCustomerResource> consumer = invocation.getArgument(0);
+			customerResources().forEach(consumer);
+			return null;
+		}).when(service).exportCustomer(any(Consumer.class));
+
+		MvcResult result = mvc.perform(get(exportCustomer)).andExpect(request().asyncStarted()).andReturn();
+
+		// The export runs without a timeout of its own, other async requests keep the default
+		assertThat(result.getRequest().getAsyncContext().getTimeout(), equalTo(0L));
+
+		String body = mvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_NDJSON)).andReturn().getResponse()
+				.getContentAsString();
+
+		String[] lines = body.split("\n");
+
+		assertThat(lines.length, equalTo(2));
+		assertThat(lines[1].charAt(0), equalTo('{'));
+		assertThat(mapper.readValue(lines[1], CreateCustomerResource.class).getName(), equalTo("Dhiraj Kumar"));
+	}
+
 	/**
 	 * Test case to validate
 	 * {@link com.wrappiza.application.CustomerController#retrieveSingleCustomer()}
@@ -136,7 +192,7 @@ public class CustomerControllerTest {
 
 		CreateCustomerResponse response = customerResponse();
 
-		when(service.getSingleCustomer(null, "Chandan Kumar")).thenReturn(response);
+		when(service.getSingleCustomer(null, "Chandan Kumar", null)).thenReturn(response);
 
 		mvc.perform(get(getSingleCustomerByMobileNumber).contentType(MediaType.APPLICATION_JSON))
 				.andExpect(status().isOk());
@@ -155,11 +211,61 @@ public class CustomerControllerTest {
 
 		CreateCustomerResponse response = customerResponse();
 
-		when(service.getSingleCustomer("2", null)).thenReturn(response);
+		when(service.getSingleCustomer("2", null, null)).thenReturn(response);
 
 		mvc.perform(get(getSingleCustomerById).contentType(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
 	}
 
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerController#retrieveSingleCustomer()}
+	 * returns the version as ETag and answers a matching If-None-Match with 304
+	 * 
+	 */
+	@Test
+	@Order(7)
+	@DisplayName("Retrieve Single Customer Not Modified")
+	void testRetrieveSingleCustomerNotModified() throws Exception {
+
+		CreateCustomerResponse response = customerResponse();
+		response.getCreateCustomerResources().remove(1);
+		response.getCreateCustomerResources().get(0).setVersion(3L);
+
+		when(service.getSingleCustomer("1", null, null)).thenReturn(response);
+
+		mvc.perform(get("/wrappiza/singlecustomer?id=1")).andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1-3\""));
+
+		mvc.perform(get("/wrappiza/singlecustomer?id=1").header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+				.andExpect(status().isNotModified()).andExpect(content().string(""));
+
+		mvc.perform(get("/wrappiza/singlecustomer?id=1").header(HttpHeaders.IF_NONE_MATCH, "\"1-2\""))
+				.andExpect(status().isOk());
+	}
+
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerController#retrieveSingleCustomer()}
+	 * names the selected fields in the ETag, so the ETag of the full customer
+	 * does not revalidate a projection
+	 * 
+	 */
+	@Test
+	@Order(7)
+	@DisplayName("Retrieve Single Customer Projection ETag")
+	void testRetrieveSingleCustomerProjectionETag() throws Exception {
+
+		CreateCustomerResponse response = customerResponse();
+		response.getCreateCustomerResources().remove(1);
+		response.getCreateCustomerResources().get(0).setVersion(3L);
+
+		when(service.getSingleCustomer("1", null, "name, customerId,version")).thenReturn(response);
+
+		mvc.perform(get("/wrappiza/singlecustomer?id=1&fields=name, customerId,version")
+				.header(HttpHeaders.IF_NONE_MATCH, "\"1-3\"")).andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1-3-customerId.name.version\""));
+	}
+
 	/**
 	 * Test case to validate
 	 * {@link com.wrappiza.application.CustomerController#updateCustomer()} and
@@ -177,7 +283,7 @@ public class CustomerControllerTest {
 		CreateCustomerRequest request = customerRequest();
 		request.getCreateCustomerRequestInfos().remove(1);
 
-		when(service.updateSingleCustomer(null, "1234567891", request)).thenReturn(response);
+		when(service.updateSingleCustomer(null, "1234567891", request, false)).thenReturn(response);
 
 		mvc.perform(put(updateCustomerByMobileNumber).content(mapper.writeValueAsString(request))
 				.contentType(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
@@ -200,7 +306,7 @@ public class CustomerControllerTest {
 		CreateCustomerRequest request = customerRequest();
 		request.getCreateCustomerRequestInfos().remove(1);
 
-		when(service.updateSingleCustomer("1", null, request)).thenReturn(response);
+		when(service.updateSingleCustomer("1", null, request, false)).thenReturn(response);
 
 		mvc.perform(put(updateCustomerById).content(mapper.writeValueAsString(request))
 				.contentType(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
@@ -219,7 +325,7 @@ public class CustomerControllerTest {
 
 		CreateCustomerResponse response = customerResponse();
 
-		when(service.deleteSingleCustomer(null, "1234567891")).thenReturn(response);
+		when(service.deleteSingleCustomer(null, "1234567891", false)).thenReturn(response);
 
 		mvc.perform(delete(deleteCustomerByMobileNumber).contentType(MediaType.APPLICATION_JSON))
 				.andExpect(status().isOk());
@@ -238,11 +344,97 @@ public class CustomerControllerTest {
 
 		CreateCustomerResponse response = customerResponse();
 
-		when(service.deleteSingleCustomer("1", null)).thenReturn(response);
+		when(service.deleteSingleCustomer("1", null, false)).thenReturn(response);
 
 		mvc.perform(delete(deleteCustomerById).contentType(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
 	}
 
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerController#deleteCustomer()} answers
+	 * with the counts only when a minimal return is preferred
+	 * 
+	 */
+	@Test
+	@Order(11)
+	@DisplayName("Delete Customer By Id Minimal")
+	void testDeleteCustomerByIdMinimal() throws Exception {
+
+		CreateCustomerResponse response = new CreateCustomerResponse();
+		response.setMatchedCount(1L);
+		response.setModifiedCount(1L);
+
+		when(service.deleteSingleCustomer("2", null, true)).thenReturn(response);
+
+		mvc.perform(delete(deleteCustomerById).header("Prefer", "respond-async, return=minimal")
+				.contentType(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
+				.andExpect(header().string("Preference-Applied", "return=minimal"))
+				.andExpect(jsonPath("$.matchedCount").value(1))
+				.andExpect(jsonPath("$.createCustomerResources").doesNotExist());
+	}
+
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerController#patchCustomer()} accepts
+	 * a JSON merge patch carrying only the changed fields
+	 * 
+	 */
+	@Test
+	@Order(12)
+	@DisplayName("Patch Customer By Id")
+	void testPatchCustomerById() throws Exception {
+
+		CreateCustomerResponse response = customerResponse();
+		response.getCreateCustomerResources().remove(1);
+
+		when(service.patchSingleCustomer(eq("1"), isNull(), any(CustomerPatchRequest.class))).thenReturn(response);
+
+		mvc.perform(patch(updateCustomerById).content("{\"email\":\"patched@gmail.com\"}")
+				.contentType("application/merge-patch+json")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.createCustomerResources[0].customerId").value("1"));
+	}
+
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerController#importCustomers()} hands
+	 * the newline delimited records to the service one at a time, a malformed
+	 * line failing only its own record
+	 * 
+	 */
+	@Test
+	@Order(13)
+	@DisplayName("Import Customer")
+	void testImportCustomers() throws Exception {
+
+		List<String> mobileNumbers = new ArrayList<>();
+
+		when(service.importCustomers(any())).thenAnswer(invocation -> {
+			Iterator<CreateCustomerRequestInfo> records = invocation.getArgument(0);
+
+			while (records.hasNext()) {
+				try {
+					mobileNumbers.add(records.next().getMobileNumber());
+				} catch (RuntimeException ex) {
+					mobileNumbers.add(null);
+				}
+			}
+
+			JobResponse job = new JobResponse();
+			job.setState(JobState.COMPLETED);
+			job.setProcessed(mobileNumbers.size());
+			return job;
+		});
+
+		String body = "{\"name\":\"Chandan Kumar\",\"email\":\"ravchandan15@gmail.com\",\"mobileNumber\":\"1234567891\"}\n"
+				+ "{\"name\":\"Ravi Kumar\",\"email\n\n"
+				+ "{\"name\":\"Dhiraj Kumar\",\"email\":\"ravchandan16@gmail.com\",\"mobileNumber\":\"1234567892\"}\n";
+
+		mvc.perform(post(importCustomer).content(body).contentType(MediaType.APPLICATION_NDJSON))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.processed").value(3));
+
+		assertThat(mobileNumbers, equalTo(Arrays.asList("1234567891", null, "1234567892")));
+	}
+
 	/**
 	 * Build mock to create customer response
 	 */
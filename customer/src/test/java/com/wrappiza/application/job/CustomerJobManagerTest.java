@@ -0,0 +1,155 @@
+package com.wrappiza.application.job;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.wrappiza.application.exception.ServiceErrorCode;
+import com.wrappiza.application.exception.ServiceTerminalException;
+import com.wrappiza.application.model.BulkWriteResult;
+import com.wrappiza.application.model.JobResponse;
+import com.wrappiza.application.model.JobState;
+import com.wrappiza.application.model.JobType;
+
+/**
+ * Test cases for customer job manager class
+ * 
+ * @author Chandan Kumar
+ *
+ */
+public class CustomerJobManagerTest {
+
+	private final CustomerJobManager jobManager = new CustomerJobManager(2, 1, 1, Duration.ofHours(1));
+
+	@AfterEach
+	void tearDown() {
+		jobManager.shutdown();
+	}
+
+	/**
+	 * Test case to validate a job runs in the background and reports the
+	 * progress it recorded, failures indexed within the whole job
+	 * 
+	 */
+	@Test
+	@DisplayName("Run Job")
+	void submitTest() throws InterruptedException {
+
+		Job job = jobManager.submit(JobType.CREATE, 4, running -> {
+			running.record(List.of(0, 1), List.of(new BulkWriteResult(0, "1", true, null, null),
+					new BulkWriteResult(1, "2", true, null, null)));
+			running.record(List.of(2, 3), List.of(new BulkWriteResult(0, "3", true, null, null),
+					new BulkWriteResult(1, "4", false, "duplicate key", null)));
+		});
+
+		JobResponse response = await(job);
+
+		assertThat(response.getState(), equalTo(JobState.COMPLETED));
+		assertThat(response.getProcessed(), equalTo(4L));
+		assertThat(response.getSucceeded(), equalTo(3L));
+		assertThat(response.getFailed(), equalTo(1L));
+		assertThat(response.getFailures().get(0).getIndex(), equalTo(3));
+		assertThat(jobManager.get(job.getId()), equalTo(job));
+	}
+
+	/**
+	 * Test case to validate a job throwing ends failed with its error
+	 * 
+	 */
+	@Test
+	@DisplayName("Fail Job")
+	void submitFailureTest() throws InterruptedException {
+
+		Job job = jobManager.submit(JobType.DELETE, null, running -> {
+			throw new IllegalStateException("database unavailable");
+		});
+
+		JobResponse response = await(job);
+
+		assertThat(response.getState(), equalTo(JobState.FAILED));
+		assertThat(response.getError(), equalTo("database unavailable"));
+	}
+
+	/**
+	 * Test case to validate a job run on the calling thread is listed while it
+	 * runs and refused beyond the limit of its type
+	 * 
+	 */
+	@Test
+	@DisplayName("Run Job On Caller")
+	void runTest() {
+
+		Job job = jobManager.run(JobType.IMPORT, running -> {
+
+			assertThat(jobManager.list().size(), equalTo(1));
+			assertThat(running.getState(), equalTo(JobState.RUNNING));
+
+			Throwable exception = assertThrows(ServiceTerminalException.class,
+					() -> jobManager.run(JobType.IMPORT, nested -> {
+					}));
+
+			assertThat(exception.getMessage(), equalTo(ServiceErrorCode.TOO_MANY_JOBS.getMessage()));
+
+			running.recordFailure(List.of(7), "Name must not be blank");
+		});
+
+		assertThat(job.getState(), equalTo(JobState.COMPLETED));
+		assertThat(job.toResponse().getFailures().get(0).getIndex(), equalTo(7));
+	}
+
+	/**
+	 * Test case to validate a job type with its thread and queue taken refuses
+	 * more jobs while the other job types still accept them
+	 * 
+	 */
+	@Test
+	@DisplayName("Refuse Job Beyond Queue")
+	void submitQueueFullTest() throws InterruptedException {
+
+		CountDownLatch release = new CountDownLatch(1);
+
+		Job running = jobManager.submit(JobType.CREATE, 1, job -> awaitQuietly(release));
+		Job queued = jobManager.submit(JobType.CREATE, 1, job -> awaitQuietly(release));
+
+		Throwable exception = assertThrows(ServiceTerminalException.class,
+				() -> jobManager.submit(JobType.CREATE, 1, job -> {
+				}));
+
+		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.TOO_MANY_JOBS.getMessage()));
+
+		Job other = jobManager.submit(JobType.DELETE, null, job -> {
+		});
+
+		release.countDown();
+
+		assertThat(await(running).getState(), equalTo(JobState.COMPLETED));
+		assertThat(await(queued).getState(), equalTo(JobState.COMPLETED));
+		assertThat(await(other).getState(), equalTo(JobState.COMPLETED));
+	}
+
+	private static JobResponse await(Job job) throws InterruptedException {
+
+		for (int attempt = 0; attempt < 100 && !job.isFinished(); attempt++) {
+			Thread.sleep(50);
+		}
+
+		return job.toResponse();
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
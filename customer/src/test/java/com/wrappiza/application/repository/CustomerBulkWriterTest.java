@@ -0,0 +1,156 @@
+package com.wrappiza.application.repository;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.wrappiza.application.exception.ServiceErrorCode;
+import com.wrappiza.application.model.BulkWriteResult;
+import com.wrappiza.application.model.CreateCustomerResource;
+import com.wrappiza.application.model.Status;
+
+/**
+ * Test cases for customer bulk writer class
+ * 
+ * @author Chandan Kumar
+ *
+ */
+@ExtendWith(MockitoExtension.class)
+public class CustomerBulkWriterTest {
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	@Mock
+	private BulkOperations bulkOperations;
+
+	private CustomerBulkWriter bulkWriter;
+
+	@BeforeEach
+	void setUp() {
+		bulkWriter = new CustomerBulkWriter(mongoTemplate, 2, 1, 4);
+	}
+
+	@AfterEach
+	void tearDown() {
+		bulkWriter.shutdown();
+	}
+
+	/**
+	 * Test case to validate a batch is written chunk by chunk and a failed
+	 * customer only fails itself, reported at its index in the batch
+	 * 
+	 */
+	@Test
+	@DisplayName("Bulk Write Customers")
+	void insertTest() {
+
+		BulkOperationException exception = mock(BulkOperationException.class);
+		when(exception.getErrors())
+				.thenReturn(List.of(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 0)));
+
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CreateCustomerResource.class))
+				.thenReturn(bulkOperations);
+		when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+		when(bulkOperations.execute()).thenReturn(null).thenThrow(exception);
+
+		List<BulkWriteResult> results = bulkWriter.insert(customerResources(3));
+
+		assertThat(results.size(), equalTo(3));
+		assertThat(results.get(0).isWritten(), equalTo(true));
+		assertThat(results.get(1).isWritten(), equalTo(true));
+		assertThat(results.get(2).isWritten(), equalTo(false));
+		assertThat(results.get(2).getIndex(), equalTo(2));
+		assertThat(results.get(2).getId(), notNullValue());
+		assertThat(results.get(2).getError(), equalTo(ServiceErrorCode.DB_INSERTION_FAILURE.getCode()));
+
+		verify(bulkOperations, times(2)).execute();
+	}
+
+	/**
+	 * Test case to validate every customer of a chunk fails when the chunk
+	 * cannot be written at all
+	 * 
+	 */
+	@Test
+	@DisplayName("Bulk Write Customers Chunk Failure")
+	void insertChunkFailureTest() {
+
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CreateCustomerResource.class))
+				.thenThrow(IllegalStateException.class);
+
+		List<BulkWriteResult> results = bulkWriter.insert(customerResources(2));
+
+		assertThat(results.size(), equalTo(2));
+		assertThat(results.get(0).isWritten(), equalTo(false));
+		assertThat(results.get(1).isWritten(), equalTo(false));
+	}
+
+	/**
+	 * Test case to validate an idempotent bulk create upserts every customer and
+	 * tells the inserted customers from the ones already saved
+	 * 
+	 */
+	@Test
+	@DisplayName("Bulk Upsert Customers")
+	void upsertTest() {
+
+		com.mongodb.bulk.BulkWriteResult writeResult = com.mongodb.bulk.BulkWriteResult.acknowledged(0, 1, 0, 0,
+				List.of(new BulkWriteUpsert(1, new BsonString("id"))), List.of());
+
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CreateCustomerResource.class))
+				.thenReturn(bulkOperations);
+		when(bulkOperations.execute()).thenReturn(writeResult);
+
+		List<BulkWriteResult> results = bulkWriter.upsert(customerResources(2));
+
+		assertThat(results.get(0).isWritten(), equalTo(true));
+		assertThat(results.get(0).getCreated(), equalTo(false));
+		assertThat(results.get(1).getCreated(), equalTo(true));
+
+		verify(bulkOperations, times(2)).upsert(any(Query.class), any(Update.class));
+	}
+
+	private List<CreateCustomerResource> customerResources(int size) {
+
+		List<CreateCustomerResource> resources = new ArrayList<>();
+
+		for (int i = 0; i < size; i++) {
+			CreateCustomerResource resource = new CreateCustomerResource();
+			resource.setName("Customer " + i);
+			resource.setMobileNumber("123456789" + i);
+			resource.setDate(LocalDate.now());
+			resource.setStatus(Status.CREATED.name());
+			resources.add(resource);
+		}
+
+		return resources;
+	}
+}
@@ -0,0 +1,88 @@
+package com.wrappiza.application.repository;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.wrappiza.application.model.CreateCustomerResource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test cases for customer compaction job class
+ * 
+ * @author Chandan Kumar
+ *
+ */
+@ExtendWith(MockitoExtension.class)
+public class CustomerCompactionJobTest {
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	@Mock
+	private BulkOperations bulkOperations;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private CustomerCompactionJob job;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		job = new CustomerCompactionJob(mongoTemplate, meterRegistry, 2, 0, Duration.ZERO);
+	}
+
+	/**
+	 * Test case to validate deleted customers are copied to the archive and then
+	 * removed, batch by batch
+	 * 
+	 */
+	@Test
+	@DisplayName("Archive Deleted Customers")
+	void archiveDeletedCustomersTest() throws InterruptedException {
+
+		ObjectId lastId = new ObjectId();
+
+		List<Document> batch = List.of(new Document("_id", new ObjectId()).append("status", "DELETED"),
+				new Document("_id", lastId).append("status", "DELETED"));
+
+		when(mongoTemplate.getCollectionName(CreateCustomerResource.class)).thenReturn("customer");
+		when(mongoTemplate.find(CustomerCompactionJob.deletedCustomerBatch(null, 2), Document.class, "customer"))
+				.thenReturn(batch);
+		when(mongoTemplate.find(CustomerCompactionJob.deletedCustomerBatch(lastId, 2), Document.class, "customer"))
+				.thenReturn(Collections.emptyList());
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CustomerCompactionJob.ARCHIVE_COLLECTION))
+				.thenReturn(bulkOperations);
+
+		job.archiveDeletedCustomers();
+
+		verify(bulkOperations, times(2)).replaceOne(any(Query.class), any(Document.class),
+				any(FindAndReplaceOptions.class));
+		verify(bulkOperations, times(1)).execute();
+		verify(mongoTemplate, times(1)).remove(any(Query.class), eq("customer"));
+
+		assertThat(meterRegistry.counter("customer.compaction.archived").count(), equalTo(2.0));
+	}
+}
@@ -0,0 +1,102 @@
+package com.wrappiza.application.repository;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import com.wrappiza.application.model.CreateCustomerResource;
+
+/**
+ * Test cases for customer index manager class
+ * 
+ * @author Chandan Kumar
+ *
+ */
+@ExtendWith(MockitoExtension.class)
+public class CustomerIndexManagerTest {
+
+	@InjectMocks
+	private CustomerIndexManager indexManager;
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	@Mock
+	private IndexOperations indexOperations;
+
+	/**
+	 * Test case to validate every declared index is ensured
+	 * 
+	 */
+	@Test
+	@DisplayName("Ensure Indexes")
+	void ensureIndexesTest() {
+
+		when(mongoTemplate.indexOps(CreateCustomerResource.class)).thenReturn(indexOperations);
+
+		indexManager.ensureIndexes();
+
+		verify(indexOperations, times(CustomerIndexManager.indexes().size())).ensureIndex(any(IndexDefinition.class));
+	}
+
+	/**
+	 * Test case to validate an index failing on duplicate mobile numbers is the
+	 * last one tried and does not stop the others from being created
+	 * 
+	 */
+	@Test
+	@DisplayName("Ensure Indexes With Duplicate Mobile Numbers")
+	void ensureIndexesDuplicateTest() {
+
+		List<IndexDefinition> indexes = CustomerIndexManager.indexes();
+
+		when(mongoTemplate.indexOps(CreateCustomerResource.class)).thenReturn(indexOperations);
+		when(indexOperations.ensureIndex(any(IndexDefinition.class))).thenThrow(new IllegalStateException("failed"))
+				.thenReturn("date_status", "deleted_status_id")
+				.thenThrow(new DuplicateKeyException("E11000 duplicate key"));
+
+		indexManager.ensureIndexes();
+
+		ArgumentCaptor<IndexDefinition> ensured = ArgumentCaptor.forClass(IndexDefinition.class);
+		verify(indexOperations, times(indexes.size())).ensureIndex(ensured.capture());
+
+		assertThat(ensured.getAllValues().get(indexes.size() - 1).getIndexOptions().getString("name"),
+				equalTo(CustomerIndexManager.UNIQUE_INDEX));
+	}
+
+	/**
+	 * Test case to validate a collection scan is found in a nested winning plan
+	 * 
+	 */
+	@Test
+	@DisplayName("Contains Collection Scan")
+	void containsStageTest() {
+
+		Document collectionScan = new Document("stage", "FETCH").append("inputStage",
+				new Document("stage", "OR").append("inputStages",
+						List.of(new Document("stage", "IXSCAN"), new Document("stage", "COLLSCAN"))));
+
+		Document indexScan = new Document("stage", "FETCH").append("inputStage", new Document("stage", "IXSCAN"));
+
+		assertThat(CustomerIndexManager.containsStage(collectionScan, "COLLSCAN"), equalTo(true));
+		assertThat(CustomerIndexManager.containsStage(indexScan, "COLLSCAN"), equalTo(false));
+	}
+}
@@ -0,0 +1,185 @@
+package com.wrappiza.application.repository;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.wrappiza.application.exception.ServiceErrorCode;
+import com.wrappiza.application.exception.TerminalDBException;
+import com.wrappiza.application.model.BulkWriteResult;
+import com.wrappiza.application.model.CreateCustomerResource;
+
+/**
+ * Test cases for customer insert batcher class
+ * 
+ * @author Chandan Kumar
+ *
+ */
+@ExtendWith(MockitoExtension.class)
+public class CustomerInsertBatcherTest {
+
+	@Mock
+	private CustomerBulkWriter bulkWriter;
+
+	private CustomerInsertBatcher insertBatcher;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		insertBatcher.shutdown();
+	}
+
+	/**
+	 * Test case to validate concurrent inserts are written as one batch once it
+	 * is full and every caller gets its own customer back
+	 * 
+	 */
+	@Test
+	@DisplayName("Flush Full Micro Batch")
+	void submitFullBatchTest() {
+
+		insertBatcher = new CustomerInsertBatcher(bulkWriter, true, 3, Duration.ofMinutes(1), 100,
+				Duration.ofSeconds(5));
+
+		when(bulkWriter.insert(anyList())).thenAnswer(invocation -> {
+			List<CreateCustomerResource> resources = invocation.getArgument(0);
+			List<BulkWriteResult> writeResults = new ArrayList<>();
+
+			for (int i = 0; i < resources.size(); i++) {
+				resources.get(i).setCustomerId("id-" + i);
+				writeResults.add(new BulkWriteResult(i, "id-" + i, i != 2, null, null));
+			}
+
+			return writeResults;
+		});
+
+		List<CompletableFuture<CreateCustomerResource>> futures = new ArrayList<>();
+
+		for (int i = 0; i < 3; i++) {
+			CreateCustomerResource resource = new CreateCustomerResource();
+			resource.setMobileNumber("123456789" + i);
+			futures.add(insertBatcher.submit(resource));
+		}
+
+		assertThat(futures.get(0).join().getCustomerId(), equalTo("id-0"));
+		assertThat(futures.get(1).join().getCustomerId(), equalTo("id-1"));
+
+		Throwable exception = assertThrows(CompletionException.class, () -> futures.get(2).join());
+
+		assertThat(exception.getCause(), instanceOf(TerminalDBException.class));
+		verify(bulkWriter, times(1)).insert(anyList());
+	}
+
+	/**
+	 * Test case to validate a lone insert is written once the delay has elapsed
+	 * 
+	 */
+	@Test
+	@DisplayName("Flush Micro Batch After Delay")
+	void insertAfterDelayTest() {
+
+		insertBatcher = new CustomerInsertBatcher(bulkWriter, true, 100, Duration.ofMillis(5), 100,
+				Duration.ofSeconds(5));
+
+		when(bulkWriter.insert(anyList())).thenReturn(List.of(new BulkWriteResult(0, "1", true, null, null)));
+
+		CreateCustomerResource resource = insertBatcher.insert(new CreateCustomerResource());
+
+		assertThat(resource, notNullValue());
+		verify(bulkWriter, times(1)).insert(anyList());
+	}
+
+	/**
+	 * Test case to validate inserts are refused when batching is disabled
+	 * 
+	 */
+	@Test
+	@DisplayName("Insert With Batching Disabled")
+	void insertDisabledTest() {
+
+		insertBatcher = new CustomerInsertBatcher(bulkWriter, false, 100, Duration.ofMillis(5), 100,
+				Duration.ofSeconds(5));
+
+		Throwable exception = assertThrows(TerminalDBException.class,
+				() -> insertBatcher.insert(new CreateCustomerResource()));
+
+		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.DB_INSERTION_FAILURE.getMessage()));
+	}
+
+	/**
+	 * Test case to validate an insert is refused at once while the queue is full
+	 * behind a slow write
+	 * 
+	 */
+	@Test
+	@DisplayName("Refuse Insert With Full Queue")
+	void submitFullQueueTest() throws InterruptedException {
+
+		insertBatcher = new CustomerInsertBatcher(bulkWriter, true, 1, Duration.ofMillis(5), 1,
+				Duration.ofSeconds(5));
+
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		when(bulkWriter.insert(anyList())).thenAnswer(invocation -> {
+			writing.countDown();
+			release.await();
+			return List.of(new BulkWriteResult(0, "1", true, null, null));
+		});
+
+		CompletableFuture<CreateCustomerResource> written = insertBatcher.submit(new CreateCustomerResource());
+		writing.await();
+
+		CompletableFuture<CreateCustomerResource> queued = insertBatcher.submit(new CreateCustomerResource());
+		CompletableFuture<CreateCustomerResource> refused = insertBatcher.submit(new CreateCustomerResource());
+
+		Throwable exception = assertThrows(CompletionException.class, () -> refused.join());
+
+		assertThat(exception.getCause(), instanceOf(TerminalDBException.class));
+		assertThat(queued.isDone(), equalTo(false));
+
+		release.countDown();
+
+		assertThat(written.join(), notNullValue());
+		assertThat(queued.join(), notNullValue());
+	}
+
+	/**
+	 * Test case to validate an insert submitted after shutdown fails rather than
+	 * waiting forever
+	 * 
+	 */
+	@Test
+	@DisplayName("Refuse Insert After Shutdown")
+	void submitAfterShutdownTest() throws InterruptedException {
+
+		insertBatcher = new CustomerInsertBatcher(bulkWriter, true, 100, Duration.ofMillis(5), 100,
+				Duration.ofSeconds(5));
+
+		insertBatcher.shutdown();
+
+		Throwable exception = assertThrows(TerminalDBException.class,
+				() -> insertBatcher.insert(new CreateCustomerResource()));
+
+		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.DB_INSERTION_FAILURE.getMessage()));
+	}
+}
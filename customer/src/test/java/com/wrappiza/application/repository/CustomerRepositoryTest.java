@@ -5,6 +5,7 @@ import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -13,7 +14,11 @@ import static org.mockito.Mockito.when;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
 import org.junit.jupiter.api.Order;
@@ -23,12 +28,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 
+import com.mongodb.client.result.UpdateResult;
 import com.wrappiza.application.exception.TerminalDBException;
 import com.wrappiza.application.model.CreateCustomerResource;
 import com.wrappiza.application.model.Status;
@@ -151,6 +161,119 @@ public class CustomerRepositoryTest {
 		assertThrows(TerminalDBException.class, () -> mongoTemplate.insert(resource));
 	}
 
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerRepository#saveSingleCustomerIfAbsent()}
+	 * upserts on the mobile number and repeats the upsert once when a concurrent
+	 * attempt inserted the customer first
+	 * 
+	 */
+	@Test
+	@DisplayName("Save Single Customer If Absent")
+	@Order(4)
+	void saveSingleCustomerIfAbsentTest() {
+
+		CreateCustomerResource resource = customerResources().get(0);
+
+		when(mongoTemplate.findAndModify(eq(CustomerRepositoryImpl.activeCustomerByMobileNumber("1234567891")),
+				any(Update.class), any(FindAndModifyOptions.class), eq(CreateCustomerResource.class)))
+				.thenThrow(new DuplicateKeyException("duplicate key")).thenReturn(resource);
+
+		CreateCustomerResource saved = repo.saveSingleCustomerIfAbsent(resource);
+
+		assertThat(saved.getCustomerId(), equalTo("1"));
+
+		verify(mongoTemplate, times(2)).findAndModify(any(Query.class), any(Update.class),
+				any(FindAndModifyOptions.class), eq(CreateCustomerResource.class));
+
+		Document update = CustomerRepositoryImpl.insertIfAbsent(resource).getUpdateObject();
+
+		assertThat(update.get("$setOnInsert", Document.class).get("_id"), equalTo("1"));
+		assertThat(update.containsKey("$set"), equalTo(false));
+	}
+
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerRepository#updateCustomerByIdMinimal()}
+	 * writes with updateFirst and never reads the customer back
+	 * 
+	 */
+	@Test
+	@DisplayName("Update Customer By Id Minimal")
+	@Order(4)
+	void updateCustomerByIdMinimalTest() {
+
+		CreateCustomerResource resource = customerResources().get(0);
+
+		when(mongoTemplate.updateFirst(CustomerRepositoryImpl.activeCustomerById("1"),
+				CustomerRepositoryImpl.customerUpdate(resource), CreateCustomerResource.class))
+				.thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+		UpdateResult result = repo.updateCustomerByIdMinimal(resource);
+
+		assertThat(result.getMatchedCount(), equalTo(1L));
+		assertThat(result.getModifiedCount(), equalTo(1L));
+
+		verify(mongoTemplate, times(0)).findAndModify(any(Query.class), any(Update.class),
+				any(FindAndModifyOptions.class), eq(CreateCustomerResource.class));
+	}
+
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerRepository#deleteCustomerMatching()}
+	 * soft deletes every matching customer with a single updateMulti
+	 * 
+	 */
+	@Test
+	@DisplayName("Delete Customer Matching")
+	@Order(4)
+	void deleteCustomerMatchingTest() {
+
+		LocalDate from = LocalDate.now().minusDays(7);
+		LocalDate to = LocalDate.now();
+
+		Query query = CustomerRepositoryImpl.activeCustomersMatching(List.of("1", "2"), null, from, to);
+
+		when(mongoTemplate.updateMulti(query, CustomerRepositoryImpl.deletion(), CreateCustomerResource.class))
+				.thenReturn(UpdateResult.acknowledged(2, 2L, null));
+
+		UpdateResult result = repo.deleteCustomerMatching(List.of("1", "2"), null, from, to);
+
+		assertThat(result.getModifiedCount(), equalTo(2L));
+		assertThat(query.getQueryObject().get("date", Document.class).get("$lt"), equalTo(to.plusDays(1)));
+		assertThat(query.getQueryObject().get("status", Document.class).get("$ne"), equalTo(Status.DELETED));
+	}
+
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerRepository#patchCustomerById()}
+	 * sets only the patched fields and leaves the mobile number alone
+	 * 
+	 */
+	@Test
+	@DisplayName("Patch Customer By Id")
+	@Order(4)
+	void patchCustomerByIdTest() {
+
+		CreateCustomerResource patch = new CreateCustomerResource();
+		patch.setEmail("patched@gmail.com");
+		patch.setStatus(Status.UPDATED.name());
+
+		CreateCustomerResource resource = customerResources().get(0);
+
+		when(mongoTemplate.findAndModify(eq(CustomerRepositoryImpl.activeCustomerById("1")),
+				eq(CustomerRepositoryImpl.customerPatch(patch)), any(FindAndModifyOptions.class),
+				eq(CreateCustomerResource.class))).thenReturn(resource);
+
+		CreateCustomerResource patched = repo.patchCustomerById("1", patch);
+
+		assertThat(patched.getCustomerId(), equalTo("1"));
+
+		Document set = CustomerRepositoryImpl.customerPatch(patch).getUpdateObject().get("$set", Document.class);
+
+		assertThat(set.keySet(), equalTo(Set.of("email", "status")));
+	}
+
 	/**
 	 * Test case to validate
 	 * {@link com.wrappiza.application.CustomerRepository#getCustomer()} and
@@ -166,10 +289,11 @@ public class CustomerRepositoryTest {
 
 		Query query = new Query();
 		query.addCriteria(Criteria.where("status").ne(Status.DELETED));
+		query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(51);
 
 		when(mongoTemplate.find(query, CreateCustomerResource.class)).thenReturn(resources);
 
-		List<CreateCustomerResource> resource = repo.getCustomer();
+		List<CreateCustomerResource> resource = repo.getCustomer(null, 51, null);
 
 		assertThat(resource, notNullValue());
 		assertThat(resource.get(0).getName(), equalTo("Chandan Kumar"));
@@ -181,6 +305,85 @@ public class CustomerRepositoryTest {
 		verify(mongoTemplate, times(1)).find(query, CreateCustomerResource.class);
 	}
 
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerRepository#getCustomer()} seeks past
+	 * the cursor instead of skipping
+	 * 
+	 */
+	@Test
+	@DisplayName("Get Customer After Cursor")
+	@Order(5)
+	void getCustomerAfterCursorTest() {
+
+		String after = "64139d8f1e7a2b5c9d0e4f11";
+
+		Query query = new Query();
+		query.addCriteria(Criteria.where("status").ne(Status.DELETED));
+		query.addCriteria(Criteria.where("_id").gt(new ObjectId(after)));
+		query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(11);
+
+		when(mongoTemplate.find(query, CreateCustomerResource.class)).thenReturn(customerResources());
+
+		List<CreateCustomerResource> resource = repo.getCustomer(after, 11, null);
+
+		assertThat(resource.size(), equalTo(2));
+
+		verify(mongoTemplate, times(1)).find(query, CreateCustomerResource.class);
+	}
+
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerRepository#getCustomerByMobileNumber()}
+	 * only fetches the selected fields
+	 * 
+	 */
+	@Test
+	@DisplayName("Get Customer Selected Fields")
+	@Order(5)
+	void getCustomerSelectedFieldsTest() {
+
+		String mobileNumber = "1234567891";
+
+		Query query = new Query();
+		query.addCriteria(Criteria.where("status").ne(Status.DELETED));
+		query.addCriteria(Criteria.where("mobileNumber").is(mobileNumber));
+		query.fields().include("name").exclude("customerId");
+
+		when(mongoTemplate.findOne(query, CreateCustomerResource.class)).thenReturn(customerResources().get(0));
+
+		CreateCustomerResource resource = repo.getCustomerByMobileNumber(mobileNumber, List.of("name"));
+
+		assertThat(resource.getName(), equalTo("Chandan Kumar"));
+
+		Query page = CustomerRepositoryImpl.project(CustomerRepositoryImpl.activeCustomerPage(null, 2),
+				List.of("name"), true);
+
+		assertThat(page.getFieldsObject().toJson(), equalTo("{\"name\": 1}"));
+	}
+
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerRepository#countCustomerByStatus()}
+	 * only reads the counts of the aggregation
+	 * 
+	 */
+	@Test
+	@DisplayName("Count Customer By Status")
+	@Order(6)
+	void countCustomerByStatusTest() {
+
+		List<Document> counts = List.of(new Document("_id", "CREATED").append("customers", 3),
+				new Document("_id", "DELETED").append("customers", 2L));
+
+		when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(CreateCustomerResource.class),
+				eq(Document.class))).thenReturn(new AggregationResults<>(counts, new Document()));
+
+		Map<String, Long> resource = repo.countCustomerByStatus();
+
+		assertThat(resource, equalTo(Map.of("CREATED", 3L, "DELETED", 2L)));
+	}
+
 	/**
 	 * Test case to validate
 	 * {@link com.wrappiza.application.CustomerRepository#getCustomer()} and
@@ -192,10 +395,11 @@ public class CustomerRepositoryTest {
 	@Order(6)
 	void getCustomerTerminalDBExceptionTest() {
 
-		repo.getCustomer();
+		repo.getCustomer(null, 51, null);
 
 		Query query = new Query();
 		query.addCriteria(Criteria.where("status").ne(Status.DELETED));
+		query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(51);
 
 		when(mongoTemplate.find(query, CreateCustomerResource.class)).thenThrow(TerminalDBException.class);
 
@@ -204,6 +408,46 @@ public class CustomerRepositoryTest {
 		assertThrows(TerminalDBException.class, () -> mongoTemplate.find(query, CreateCustomerResource.class));
 	}
 
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerRepository#streamCustomer()} and
+	 * every record is handed to the consumer
+	 * 
+	 */
+	@Test
+	@DisplayName("Stream Customer")
+	@Order(6)
+	void streamCustomerTest() {
+
+		when(mongoTemplate.stream(any(Query.class), eq(CreateCustomerResource.class)))
+				.thenReturn(customerResources().stream());
+
+		List<CreateCustomerResource> streamed = new ArrayList<>();
+
+		repo.streamCustomer(streamed::add);
+
+		assertThat(streamed.size(), equalTo(2));
+		assertThat(streamed.get(1).getName(), equalTo("Dhiraj Kumar"));
+	}
+
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerRepository#streamCustomer()} and
+	 * exception is handled successfully
+	 * 
+	 */
+	@Test
+	@DisplayName("Stream Customer Exception")
+	@Order(6)
+	void streamCustomerTerminalDBExceptionTest() {
+
+		when(mongoTemplate.stream(any(Query.class), eq(CreateCustomerResource.class)))
+				.thenThrow(IllegalStateException.class);
+
+		assertThrows(TerminalDBException.class, () -> repo.streamCustomer(resource -> {
+		}));
+	}
+
 	/**
 	 * Test case to validate
 	 * {@link com.wrappiza.application.CustomerRepository#getCustomerByMobileNumber()}
@@ -8,9 +8,16 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -23,16 +30,32 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.mongodb.client.result.UpdateResult;
+import com.wrappiza.application.cache.CustomerCache;
+import com.wrappiza.application.cache.MobileNumberFilter;
 import com.wrappiza.application.exception.ServiceErrorCode;
 import com.wrappiza.application.exception.ServiceTerminalException;
 import com.wrappiza.application.exception.TerminalDBException;
+import com.wrappiza.application.job.CustomerJobManager;
+import com.wrappiza.application.model.BulkWriteResult;
 import com.wrappiza.application.model.CreateCustomerRequest;
 import com.wrappiza.application.model.CreateCustomerRequestInfo;
 import com.wrappiza.application.model.CreateCustomerResource;
 import com.wrappiza.application.model.CreateCustomerResponse;
+import com.wrappiza.application.model.CustomerBulkRequest;
+import com.wrappiza.application.model.CustomerLookupRequest;
+import com.wrappiza.application.model.CustomerPatchRequest;
+import com.wrappiza.application.model.CustomerSummaryResponse;
+import com.wrappiza.application.model.JobResponse;
+import com.wrappiza.application.model.JobState;
 import com.wrappiza.application.model.Status;
+import com.wrappiza.application.repository.CustomerBulkWriter;
+import com.wrappiza.application.repository.CustomerInsertBatcher;
 import com.wrappiza.application.repository.CustomerRepository;
 
+import jakarta.validation.Validation;
+
 /**
  * Test cases for service class
  * 
@@ -49,12 +72,25 @@ public class CustomerServiceTest {
 	@Mock
 	private CustomerServiceMapper mapper;
 
+	@Mock
+	private CustomerBulkWriter bulkWriter;
+
+	@Mock
+	private CustomerInsertBatcher insertBatcher;
+
 	@InjectMocks
 	private CustomerServiceImpl service;
 
+	private MobileNumberFilter mobileNumberFilter;
+
 	@BeforeEach
 	void setUp() {
-		service = new CustomerServiceImpl(repo, mapper);
+		mobileNumberFilter = new MobileNumberFilter(repo, 1000, 0.01);
+		mobileNumberFilter.rebuild();
+
+		service = new CustomerServiceImpl(repo, mapper, new CustomerCache(100, Duration.ofMinutes(5), event -> {
+		}), mobileNumberFilter, bulkWriter, insertBatcher, new CustomerJobManager(1, 1, 4, Duration.ofHours(1)),
+				Validation.buildDefaultValidatorFactory().getValidator());
 	}
 
 	/**
@@ -72,12 +108,15 @@ public class CustomerServiceTest {
 
 		CreateCustomerRequest request = customerRequest();
 
-		when(repo.saveCustomer(resources)).thenReturn(resources);
+		List<BulkWriteResult> writeResults = List.of(new BulkWriteResult(0, "1", true, null, null),
+				new BulkWriteResult(1, "2", true, null, null));
+
+		when(bulkWriter.insert(resources)).thenReturn(writeResults);
 
 		when(mapper.createResource(request.getCreateCustomerRequestInfos(), Status.CREATED.name()))
 				.thenReturn(resources);
 
-		when(mapper.buildCreateCustomerResponse(resources)).thenReturn(customerResponse());
+		when(mapper.buildBulkCreateCustomerResponse(resources, writeResults)).thenReturn(customerResponse());
 
 		CreateCustomerResponse response = service.createCustomer(request);
 
@@ -98,17 +137,19 @@ public class CustomerServiceTest {
 		assertThat(response.getCreateCustomerResources().get(1).getDate(), equalTo(LocalDate.now()));
 		assertThat(response.getCreateCustomerResources().get(1).getMobileNumber(), equalTo("1234567892"));
 
-		verify(repo, times(1)).saveCustomer(resources);
+		verify(bulkWriter, times(1)).insert(resources);
+		assertThat(mobileNumberFilter.mightContain("1234567891"), equalTo(true));
+		assertThat(mobileNumberFilter.mightContain("1234567892"), equalTo(true));
 	}
 
 	/**
 	 * Test case to validate
-	 * {@link com.wrappiza.application.CustomerService#saveCustomer()} and exception
-	 * is handled successfully
+	 * {@link com.wrappiza.application.CustomerService#saveCustomer()} reports a
+	 * failed customer of a bulk create without failing the others
 	 * 
 	 */
 	@Test
-	@DisplayName("Create Customer Exception")
+	@DisplayName("Create Customer Partial Failure")
 	@Order(2)
 	void saveCustomerServiceTerminalExceptionTest() {
 
@@ -116,14 +157,26 @@ public class CustomerServiceTest {
 
 		CreateCustomerRequest request = customerRequest();
 
+		List<BulkWriteResult> writeResults = List.of(new BulkWriteResult(0, "1", true, null, null),
+				new BulkWriteResult(1, "2", false, ServiceErrorCode.DB_INSERTION_FAILURE.getCode(), null));
+
+		CreateCustomerResponse customerResponse = customerResponse();
+		customerResponse.getCreateCustomerResources().remove(1);
+		customerResponse.setWriteResults(writeResults);
+
 		when(mapper.createResource(request.getCreateCustomerRequestInfos(), Status.CREATED.name()))
 				.thenReturn(resources);
 
-		when(repo.saveCustomer(resources)).thenThrow(TerminalDBException.class);
+		when(bulkWriter.insert(resources)).thenReturn(writeResults);
 
-		Throwable exception = assertThrows(ServiceTerminalException.class, () -> service.createCustomer(request));
+		when(mapper.buildBulkCreateCustomerResponse(resources, writeResults)).thenReturn(customerResponse);
 
-		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.DB_INSERTION_FAILURE.getMessage()));
+		CreateCustomerResponse response = service.createCustomer(request);
+
+		assertThat(response.getCreateCustomerResources().size(), equalTo(1));
+		assertThat(response.getWriteResults().get(1).isWritten(), equalTo(false));
+		assertThat(mobileNumberFilter.mightContain("1234567891"), equalTo(true));
+		assertThat(mobileNumberFilter.mightContain("1234567892"), equalTo(false));
 	}
 
 	/**
@@ -163,6 +216,39 @@ public class CustomerServiceTest {
 		verify(repo, times(1)).saveSingleCustomer(resources.get(0));
 	}
 
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerService#saveSingleCustomer()} goes
+	 * through the micro batch when insert batching is enabled
+	 * 
+	 */
+	@Test
+	@DisplayName("Save Single Customer Batched")
+	@Order(3)
+	void saveSingleCustomerBatchedTest() {
+
+		List<CreateCustomerResource> resources = customerResources();
+		resources.remove(1);
+		CreateCustomerRequest request = customerRequest();
+
+		request.getCreateCustomerRequestInfos().remove(1);
+
+		when(insertBatcher.isEnabled()).thenReturn(true);
+		when(insertBatcher.insert(resources.get(0))).thenReturn(resources.get(0));
+
+		when(mapper.createResource(request.getCreateCustomerRequestInfos(), Status.CREATED.name()))
+				.thenReturn(resources);
+
+		when(mapper.buildCreateCustomerResponse(resources)).thenReturn(customerResponse());
+
+		CreateCustomerResponse response = service.createCustomer(request);
+
+		assertThat(response.getCreateCustomerResources().get(0).getCustomerId(), equalTo("1"));
+
+		verify(insertBatcher, times(1)).insert(resources.get(0));
+		verify(repo, times(0)).saveSingleCustomer(resources.get(0));
+	}
+
 	/**
 	 * Test case to validate
 	 * {@link com.wrappiza.application.CustomerService#saveSingleCustomer()} and
@@ -190,6 +276,373 @@ public class CustomerServiceTest {
 		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.DB_INSERTION_FAILURE.getMessage()));
 	}
 
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerService#saveSingleCustomer()} only
+	 * reads the database for a mobile number the filter may contain and rejects
+	 * a used one
+	 * 
+	 */
+	@Test
+	@DisplayName("Save Customer Duplicate Mobile Number")
+	@Order(4)
+	void saveCustomerDuplicateMobileNumberTest() {
+
+		List<CreateCustomerResource> resources = customerResources();
+		resources.remove(1);
+		CreateCustomerRequest request = customerRequest();
+
+		request.getCreateCustomerRequestInfos().remove(1);
+
+		when(mapper.createResource(request.getCreateCustomerRequestInfos(), Status.CREATED.name()))
+				.thenReturn(resources);
+		when(repo.saveSingleCustomer(resources.get(0))).thenReturn(resources.get(0));
+
+		service.createCustomer(request);
+
+		verify(repo, times(0)).getCustomerByMobileNumbers(List.of("1234567891"));
+
+		when(repo.getCustomerByMobileNumbers(List.of("1234567891"))).thenReturn(resources);
+
+		Throwable exception = assertThrows(ServiceTerminalException.class, () -> service.createCustomer(request));
+
+		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.DUPLICATE_MOBILE_NUMBER.getMessage()));
+		verify(repo, times(1)).saveSingleCustomer(resources.get(0));
+	}
+
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerService#createCustomer()} returns
+	 * the customer already saved with the mobile number of an idempotent create
+	 * without reading it first
+	 * 
+	 */
+	@Test
+	@DisplayName("Create Single Customer Idempotent")
+	@Order(4)
+	void saveSingleCustomerIdempotentTest() {
+
+		List<CreateCustomerResource> resources = customerResources();
+		resources.remove(1);
+		CreateCustomerRequest request = customerRequest();
+
+		request.getCreateCustomerRequestInfos().remove(1);
+
+		when(mapper.createResource(request.getCreateCustomerRequestInfos(), Status.CREATED.name()))
+				.thenReturn(resources);
+		when(repo.saveSingleCustomerIfAbsent(resources.get(0))).thenReturn(resources.get(0));
+		when(mapper.buildCreateCustomerResponse(resources)).thenReturn(customerResponse());
+
+		CreateCustomerResponse response = service.createCustomer(request, true);
+
+		assertThat(response.getCreateCustomerResources().get(0).getCustomerId(), equalTo("1"));
+
+		verify(repo, times(0)).getCustomerByMobileNumbers(List.of("1234567891"));
+		verify(repo, times(0)).saveSingleCustomer(resources.get(0));
+	}
+
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerService#createCustomer()} answers an
+	 * idempotent bulk create with the customers already saved in place of the
+	 * ones the upsert did not insert
+	 * 
+	 */
+	@Test
+	@DisplayName("Create Customer Idempotent")
+	@Order(4)
+	void saveCustomerIdempotentTest() {
+
+		List<CreateCustomerResource> resources = customerResources();
+		CreateCustomerRequest request = customerRequest();
+
+		CreateCustomerResource saved = customerResources().get(1);
+		saved.setCustomerId("saved");
+
+		List<BulkWriteResult> writeResults = List.of(new BulkWriteResult(0, "1", true, null, true),
+				new BulkWriteResult(1, "2", true, null, false));
+
+		when(mapper.createResource(request.getCreateCustomerRequestInfos(), Status.CREATED.name()))
+				.thenReturn(resources);
+		when(bulkWriter.upsert(resources)).thenReturn(writeResults);
+		when(repo.getCustomerByMobileNumbers(List.of("1234567892"))).thenReturn(List.of(saved));
+		when(mapper.buildBulkCreateCustomerResponse(resources, writeResults)).thenReturn(customerResponse());
+
+		service.createCustomer(request, true);
+
+		assertThat(resources.get(1).getCustomerId(), equalTo("saved"));
+		assertThat(writeResults.get(1).getId(), equalTo("saved"));
+		assertThat(mobileNumberFilter.mightContain("1234567892"), equalTo(true));
+	}
+
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerService#deleteCustomers()} deletes
+	 * the matching customers in one write and refuses a request without any
+	 * condition
+	 * 
+	 */
+	@Test
+	@DisplayName("Bulk Delete Customer")
+	@Order(4)
+	void deleteCustomersTest() {
+
+		UpdateResult result = UpdateResult.acknowledged(2, 2L, null);
+
+		CreateCustomerResponse countResponse = new CreateCustomerResponse();
+		countResponse.setModifiedCount(2L);
+
+		LocalDate to = LocalDate.now().minusYears(1);
+
+		when(repo.deleteCustomerMatching(null, Status.CREATED.name(), null, to)).thenReturn(result);
+		when(mapper.buildCreateCustomerResponse(result)).thenReturn(countResponse);
+
+		CreateCustomerResponse response = service
+				.deleteCustomers(new CustomerBulkRequest(List.of(), Status.CREATED.name(), null, to));
+
+		assertThat(response.getModifiedCount(), equalTo(2L));
+
+		Throwable exception = assertThrows(ServiceTerminalException.class,
+				() -> service.deleteCustomers(new CustomerBulkRequest()));
+
+		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.INVALID_BULK_REQUEST.getMessage()));
+
+		exception = assertThrows(ServiceTerminalException.class,
+				() -> service.deleteCustomers(new CustomerBulkRequest(null, Status.DELETED.name(), null, null)));
+
+		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.INVALID_BULK_REQUEST.getMessage()));
+	}
+
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerService#submitCreateCustomerJob()}
+	 * writes chunk by chunk in the background, a failing chunk failing only its
+	 * own customers
+	 * 
+	 */
+	@Test
+	@DisplayName("Create Customer Job")
+	@Order(4)
+	void submitCreateCustomerJobTest() throws InterruptedException {
+
+		CreateCustomerRequest request = customerRequest();
+		List<CreateCustomerRequestInfo> infos = request.getCreateCustomerRequestInfos();
+		List<CreateCustomerResource> resources = customerResources();
+
+		List<CreateCustomerResource> firstChunk = new ArrayList<>(List.of(resources.get(0)));
+		List<CreateCustomerResource> secondChunk = new ArrayList<>(List.of(resources.get(1)));
+
+		when(mapper.createResource(List.of(infos.get(0)), Status.CREATED.name())).thenReturn(firstChunk);
+		when(mapper.createResource(List.of(infos.get(1)), Status.CREATED.name())).thenReturn(secondChunk);
+		when(repo.saveSingleCustomer(resources.get(0))).thenReturn(resources.get(0));
+		when(repo.saveSingleCustomer(resources.get(1))).thenThrow(TerminalDBException.class);
+		when(mapper.buildCreateCustomerResponse(List.of(resources.get(0)))).thenReturn(customerResponse());
+
+		JobResponse job = service.submitCreateCustomerJob(request);
+
+		assertThat(job.getTotal(), equalTo(2));
+
+		for (int attempt = 0; attempt < 100 && null == job.getFinishedAt(); attempt++) {
+			Thread.sleep(50);
+			job = service.getJob(job.getJobId());
+		}
+
+		assertThat(job.getState(), equalTo(JobState.COMPLETED));
+		assertThat(job.getProcessed(), equalTo(2L));
+		assertThat(job.getSucceeded(), equalTo(1L));
+		assertThat(job.getFailures().get(0).getIndex(), equalTo(1));
+		assertThat(job.getFailures().get(0).getError(), equalTo(ServiceErrorCode.DB_INSERTION_FAILURE.getMessage()));
+
+		Throwable exception = assertThrows(ServiceTerminalException.class, () -> service.getJob("unknown"));
+
+		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.UNKNOWN_JOB.getMessage()));
+	}
+
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerService#importCustomers()} writes
+	 * the valid records chunk by chunk and fails the invalid ones at their
+	 * position in the stream
+	 * 
+	 */
+	@Test
+	@DisplayName("Import Customer")
+	@Order(4)
+	void importCustomersTest() {
+
+		List<CreateCustomerRequestInfo> infos = customerRequestInfo();
+		List<CreateCustomerResource> resources = customerResources();
+
+		CreateCustomerRequestInfo invalid = new CreateCustomerRequestInfo("", "not an email", "1234567893");
+
+		when(mapper.createResource(List.of(infos.get(0)), Status.CREATED.name()))
+				.thenReturn(new ArrayList<>(List.of(resources.get(0))));
+		when(mapper.createResource(List.of(infos.get(1)), Status.CREATED.name()))
+				.thenReturn(new ArrayList<>(List.of(resources.get(1))));
+		when(repo.saveSingleCustomer(resources.get(0))).thenReturn(resources.get(0));
+		when(repo.saveSingleCustomer(resources.get(1))).thenReturn(resources.get(1));
+		when(mapper.buildCreateCustomerResponse(List.of(resources.get(0)))).thenReturn(customerResponse());
+		when(mapper.buildCreateCustomerResponse(List.of(resources.get(1)))).thenReturn(customerResponse());
+
+		JobResponse job = service.importCustomers(List.of(infos.get(0), invalid, infos.get(1)).iterator());
+
+		assertThat(job.getState(), equalTo(JobState.COMPLETED));
+		assertThat(job.getProcessed(), equalTo(3L));
+		assertThat(job.getSucceeded(), equalTo(2L));
+		assertThat(job.getFailures().size(), equalTo(1));
+		assertThat(job.getFailures().get(0).getIndex(), equalTo(1));
+	}
+
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerService#importCustomers()} fails a
+	 * record that cannot be parsed and a registered mobile number on their own,
+	 * the rest of the chunk being written
+	 * 
+	 */
+	@Test
+	@DisplayName("Import Customer With Broken And Registered Records")
+	@Order(4)
+	void importCustomersRegisteredTest() {
+
+		CustomerServiceImpl chunkedService = new CustomerServiceImpl(repo, mapper,
+				new CustomerCache(100, Duration.ofMinutes(5), event -> {
+				}), mobileNumberFilter, bulkWriter, insertBatcher, new CustomerJobManager(3, 1, 4, Duration.ofHours(1)),
+				Validation.buildDefaultValidatorFactory().getValidator());
+
+		List<CreateCustomerRequestInfo> infos = customerRequestInfo();
+		List<CreateCustomerResource> resources = customerResources();
+
+		CreateCustomerRequestInfo registered = new CreateCustomerRequestInfo("Ravi Kumar", "ravi@gmail.com",
+				"1234567890");
+		mobileNumberFilter.put("1234567890");
+
+		List<BulkWriteResult> writeResults = List.of(new BulkWriteResult(0, "1", true, null, null),
+				new BulkWriteResult(1, "2", true, null, null));
+
+		CreateCustomerResponse response = new CreateCustomerResponse();
+		response.setWriteResults(writeResults);
+
+		CreateCustomerResource saved = new CreateCustomerResource();
+		saved.setMobileNumber("1234567890");
+
+		when(repo.getCustomerByMobileNumbers(List.of("1234567890"))).thenReturn(List.of(saved));
+		when(mapper.createResource(infos, Status.CREATED.name())).thenReturn(resources);
+		when(bulkWriter.insert(resources)).thenReturn(writeResults);
+		when(mapper.buildBulkCreateCustomerResponse(resources, writeResults)).thenReturn(response);
+
+		Iterator<CreateCustomerRequestInfo> lines = Arrays.asList(registered, null, infos.get(0), infos.get(1))
+				.iterator();
+
+		// A malformed line fails when its record is read, like a line parsed on its own
+		Iterator<CreateCustomerRequestInfo> records = new Iterator<>() {
+
+			@Override
+			public boolean hasNext() {
+				return lines.hasNext();
+			}
+
+			@Override
+			public CreateCustomerRequestInfo next() {
+
+				CreateCustomerRequestInfo info = lines.next();
+
+				if (null == info) {
+					throw new UncheckedIOException(new JsonParseException(null, "Unexpected end-of-input"));
+				}
+
+				return info;
+			}
+		};
+
+		JobResponse job = chunkedService.importCustomers(records);
+
+		Map<Integer, String> failures = job.getFailures().stream()
+				.collect(Collectors.toMap(BulkWriteResult::getIndex, BulkWriteResult::getError));
+
+		assertThat(job.getState(), equalTo(JobState.COMPLETED));
+		assertThat(job.getProcessed(), equalTo(4L));
+		assertThat(job.getSucceeded(), equalTo(2L));
+		assertThat(failures.keySet(), equalTo(Set.of(0, 1)));
+		assertThat(failures.get(0), equalTo(ServiceErrorCode.DUPLICATE_MOBILE_NUMBER.getMessage()));
+	}
+
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerService#patchSingleCustomer()}
+	 * writes the supplied fields only and refuses an empty patch
+	 * 
+	 */
+	@Test
+	@DisplayName("Patch Single Customer")
+	@Order(4)
+	void patchSingleCustomerTest() {
+
+		CustomerPatchRequest request = new CustomerPatchRequest(null, "patched@gmail.com", null);
+
+		CreateCustomerResource patch = new CreateCustomerResource();
+		patch.setEmail("patched@gmail.com");
+		patch.setStatus(Status.UPDATED.name());
+
+		CreateCustomerResource resource = customerResources().get(0);
+
+		when(mapper.patchResource(request, Status.UPDATED.name())).thenReturn(patch);
+		when(repo.patchCustomerById("1", patch)).thenReturn(resource);
+		when(mapper.buildCreateCustomerResponse(List.of(resource))).thenReturn(customerResponse());
+
+		CreateCustomerResponse response = service.patchSingleCustomer("1", null, request);
+
+		assertThat(response.getCreateCustomerResources().get(0).getCustomerId(), equalTo("1"));
+
+		verify(repo, times(0)).updateCustomerById(resource);
+
+		CustomerPatchRequest emptyRequest = new CustomerPatchRequest();
+
+		when(mapper.patchResource(emptyRequest, Status.UPDATED.name())).thenReturn(new CreateCustomerResource());
+
+		Throwable exception = assertThrows(ServiceTerminalException.class,
+				() -> service.patchSingleCustomer("1", null, emptyRequest));
+
+		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.EMPTY_PATCH_REQUEST.getMessage()));
+	}
+
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerService#deleteSingleCustomer()}
+	 * answers a minimal delete with the counts and evicts the customer the
+	 * mobile number pointed at
+	 * 
+	 */
+	@Test
+	@DisplayName("Delete Single Customer Minimal")
+	@Order(4)
+	void deleteSingleCustomerMinimalTest() {
+
+		CreateCustomerResource resource = customerResources().get(0);
+		UpdateResult result = UpdateResult.acknowledged(1, 1L, null);
+
+		CreateCustomerResponse countResponse = new CreateCustomerResponse();
+		countResponse.setMatchedCount(1L);
+
+		when(repo.getCustomerByMobileNumber("1234567891")).thenReturn(resource);
+		when(repo.deleteCustomerByMobileNumberMinimal("1234567891")).thenReturn(result);
+		when(mapper.buildCreateCustomerResponse(result)).thenReturn(countResponse);
+		when(mapper.buildCreateCustomerResponse(List.of(resource))).thenReturn(customerResponse());
+
+		service.getSingleCustomer(null, "1234567891", null);
+
+		CreateCustomerResponse response = service.deleteSingleCustomer(null, "1234567891", true);
+
+		assertThat(response.getMatchedCount(), equalTo(1L));
+
+		when(repo.getCustomerById("1")).thenReturn(null);
+
+		service.getSingleCustomer("1", null, null);
+
+		verify(repo, times(1)).getCustomerById("1");
+		verify(repo, times(0)).deleteCustomerByMobileNumber("1234567891");
+	}
+
 	/**
 	 * Test case to validate {@link com.wrappiza.application.CustomerService#
 	 * getCustomer()} and response is handled successfully
@@ -202,11 +655,11 @@ public class CustomerServiceTest {
 
 		List<CreateCustomerResource> resource = customerResources();
 
-		when(repo.getCustomer()).thenReturn(resource);
+		when(repo.getCustomer(null, 51, List.of())).thenReturn(resource);
 
-		when(mapper.buildCreateCustomerResponse(resource)).thenReturn(customerResponse());
+		when(mapper.buildCreateCustomerResponse(resource, null)).thenReturn(customerResponse());
 
-		CreateCustomerResponse response = service.retrieveCustomer();
+		CreateCustomerResponse response = service.retrieveCustomer(null, null, null);
 
 		assertThat(response, notNullValue());
 		assertThat(response.getCreateCustomerResources(), notNullValue());
@@ -216,7 +669,48 @@ public class CustomerServiceTest {
 		assertThat(response.getCreateCustomerResources().get(0).getDate(), equalTo(LocalDate.now()));
 		assertThat(response.getCreateCustomerResources().get(0).getMobileNumber(), equalTo("1234567891"));
 
-		verify(repo, times(1)).getCustomer();
+		verify(repo, times(1)).getCustomer(null, 51, List.of());
+	}
+
+	/**
+	 * Test case to validate {@link com.wrappiza.application.CustomerService#
+	 * getCustomer()} returns the next cursor when more customers exist
+	 * 
+	 */
+	@Test
+	@DisplayName("Get Customer Next Cursor")
+	@Order(5)
+	void getCustomerNextCursorTest() {
+
+		List<CreateCustomerResource> resource = customerResources();
+
+		when(repo.getCustomer(null, 2, List.of())).thenReturn(resource);
+
+		when(mapper.buildCreateCustomerResponse(resource.subList(0, 1), "1")).thenReturn(customerResponse());
+
+		service.retrieveCustomer(null, 1, null);
+
+		verify(mapper, times(1)).buildCreateCustomerResponse(resource.subList(0, 1), "1");
+	}
+
+	/**
+	 * Test case to validate {@link com.wrappiza.application.CustomerService#
+	 * getCustomer()} rejects a malformed cursor or limit
+	 * 
+	 */
+	@Test
+	@DisplayName("Get Customer Invalid Page")
+	@Order(5)
+	void getCustomerInvalidPageTest() {
+
+		Throwable exception = assertThrows(ServiceTerminalException.class,
+				() -> service.retrieveCustomer("not-an-id", null, null));
+
+		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.INVALID_PAGINATION_REQUEST.getMessage()));
+
+		exception = assertThrows(ServiceTerminalException.class, () -> service.retrieveCustomer(null, 0, null));
+
+		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.INVALID_PAGINATION_REQUEST.getMessage()));
 	}
 
 	/**
@@ -229,9 +723,10 @@ public class CustomerServiceTest {
 	@Order(6)
 	void getCustomerServiceTerminalExceptionTest() {
 
-		when(repo.getCustomer()).thenThrow(TerminalDBException.class);
+		when(repo.getCustomer(null, 51, List.of())).thenThrow(TerminalDBException.class);
 
-		Throwable exception = assertThrows(ServiceTerminalException.class, () -> service.retrieveCustomer());
+		Throwable exception = assertThrows(ServiceTerminalException.class,
+				() -> service.retrieveCustomer(null, null, null));
 
 		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.DB_SEARCH_FAILURE.getMessage()));
 	}
@@ -256,7 +751,7 @@ public class CustomerServiceTest {
 
 		when(mapper.buildCreateCustomerResponse(resources)).thenReturn(customerResponse());
 
-		CreateCustomerResponse response = service.getSingleCustomer(null, mobileNumber);
+		CreateCustomerResponse response = service.getSingleCustomer(null, mobileNumber, null);
 
 		assertThat(response, notNullValue());
 		assertThat(response.getCreateCustomerResources(), notNullValue());
@@ -288,7 +783,7 @@ public class CustomerServiceTest {
 		when(repo.getCustomerByMobileNumber(mobileNumber)).thenThrow(TerminalDBException.class);
 
 		Throwable exception = assertThrows(ServiceTerminalException.class,
-				() -> service.getSingleCustomer(null, mobileNumber));
+				() -> service.getSingleCustomer(null, mobileNumber, null));
 
 		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.DB_SEARCH_FAILURE.getMessage()));
 	}
@@ -313,7 +808,7 @@ public class CustomerServiceTest {
 
 		when(mapper.buildCreateCustomerResponse(resources)).thenReturn(customerResponse());
 
-		CreateCustomerResponse response = service.getSingleCustomer(id, null);
+		CreateCustomerResponse response = service.getSingleCustomer(id, null, null);
 
 		assertThat(response, notNullValue());
 		assertThat(response.getCreateCustomerResources(), notNullValue());
@@ -326,6 +821,121 @@ public class CustomerServiceTest {
 		verify(repo, times(1)).getCustomerById(id);
 	}
 
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerService#getSingleCustomer()} serves
+	 * repeated lookups from the cache until the customer is updated
+	 * 
+	 */
+	@Test
+	@DisplayName("Get Single Customer From Cache")
+	@Order(9)
+	void getCustomerFromCacheTest() {
+
+		String id = "1";
+
+		List<CreateCustomerResource> resources = customerResources();
+		resources.remove(1);
+
+		List<CreateCustomerResource> updated = customerResources();
+		updated.remove(1);
+
+		CreateCustomerRequest request = customerRequest();
+		request.getCreateCustomerRequestInfos().remove(1);
+
+		when(repo.getCustomerById(id)).thenReturn(resources.get(0));
+		when(mapper.createResource(request.getCreateCustomerRequestInfos(), Status.UPDATED.name()))
+				.thenReturn(updated);
+		when(repo.updateCustomerById(updated.get(0))).thenReturn(updated.get(0));
+
+		service.getSingleCustomer(id, null, null);
+		service.getSingleCustomer(null, "1234567891", null);
+
+		verify(repo, times(1)).getCustomerById(id);
+		verify(repo, times(0)).getCustomerByMobileNumber("1234567891");
+
+		service.updateSingleCustomer(id, null, request);
+		service.getSingleCustomer(id, null, null);
+
+		verify(repo, times(2)).getCustomerById(id);
+	}
+
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerService#getSingleCustomer()} reads
+	 * selected fields from the repository and rejects unknown fields
+	 * 
+	 */
+	@Test
+	@DisplayName("Get Single Customer Selected Fields")
+	@Order(9)
+	void getCustomerSelectedFieldsTest() {
+
+		String id = "1";
+
+		List<CreateCustomerResource> resources = customerResources();
+		resources.remove(1);
+
+		when(repo.getCustomerById(id, List.of("customerId", "name"))).thenReturn(resources.get(0));
+
+		service.getSingleCustomer(id, null, "customerId, name");
+		service.getSingleCustomer(id, null, "customerId,name");
+
+		verify(repo, times(2)).getCustomerById(id, List.of("customerId", "name"));
+
+		Throwable exception = assertThrows(ServiceTerminalException.class,
+				() -> service.getSingleCustomer(id, null, "name,password"));
+
+		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.INVALID_FIELD_SELECTION.getMessage()));
+	}
+
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerService#lookupCustomer()} fetches
+	 * every requested customer with one query and rejects invalid requests
+	 * 
+	 */
+	@Test
+	@DisplayName("Lookup Customer")
+	@Order(9)
+	void lookupCustomerTest() {
+
+		List<String> ids = List.of("2", "3", "1");
+		List<CreateCustomerResource> resources = customerResources();
+
+		when(repo.getCustomerByIds(Set.of("1", "2", "3"))).thenReturn(resources);
+
+		service.lookupCustomer(new CustomerLookupRequest(ids, null));
+
+		verify(repo, times(1)).getCustomerByIds(Set.of("1", "2", "3"));
+		verify(mapper, times(1)).buildCustomerLookupResponse(ids,
+				Map.of("1", resources.get(0), "2", resources.get(1)));
+
+		Throwable exception = assertThrows(ServiceTerminalException.class,
+				() -> service.lookupCustomer(new CustomerLookupRequest(ids, List.of("1234567891"))));
+
+		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.INVALID_LOOKUP_REQUEST.getMessage()));
+	}
+
+	/**
+	 * Test case to validate
+	 * {@link com.wrappiza.application.CustomerService#summarizeCustomer()} leaves
+	 * deleted customers out of the active count
+	 * 
+	 */
+	@Test
+	@DisplayName("Summarize Customer")
+	@Order(9)
+	void summarizeCustomerTest() {
+
+		when(repo.countCustomerByStatus()).thenReturn(Map.of("CREATED", 3L, "UPDATED", 1L, "DELETED", 2L));
+
+		CustomerSummaryResponse response = service.summarizeCustomer();
+
+		assertThat(response.getActiveCustomers(), equalTo(4L));
+		assertThat(response.getCustomersByStatus().get("DELETED"), equalTo(2L));
+	}
+
 	/**
 	 * Test case to validate
 	 * {@link com.wrappiza.application.CustomerService#getSingleCustomer()} and
@@ -344,7 +954,8 @@ public class CustomerServiceTest {
 
 		when(repo.getCustomerById(id)).thenThrow(TerminalDBException.class);
 
-		Throwable exception = assertThrows(ServiceTerminalException.class, () -> service.getSingleCustomer(id, null));
+		Throwable exception = assertThrows(ServiceTerminalException.class,
+				() -> service.getSingleCustomer(id, null, null));
 
 		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.DB_SEARCH_FAILURE.getMessage()));
 	}
@@ -609,7 +1220,8 @@ public class CustomerServiceTest {
 	@Order(19)
 	void getCustomerWithNullMobileNumberAndId() {
 
-		Throwable exception = assertThrows(ServiceTerminalException.class, () -> service.getSingleCustomer(null, null));
+		Throwable exception = assertThrows(ServiceTerminalException.class,
+				() -> service.getSingleCustomer(null, null, null));
 
 		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.EMPTY_SEARCH_FAILURE.getMessage()));
 	}
@@ -6,9 +6,11 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 @SpringBootApplication
+@EnableScheduling
 @EnableAutoConfiguration(exclude = { DataSourceAutoConfiguration.class })
 @OpenAPIDefinition(info = @Info(title = "Order API", version = "3.0", description = "API's related to Order"))
 public class OrderApplication {
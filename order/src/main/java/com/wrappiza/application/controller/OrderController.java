@@ -1,19 +1,53 @@
 package com.wrappiza.application.controller;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.wrappiza.application.model.CreateOrderRequest;
+import com.wrappiza.application.model.CreateOrderRequestInfo;
+import com.wrappiza.application.model.CreateOrderResource;
 import com.wrappiza.application.model.CreateOrderResponse;
+import com.wrappiza.application.model.DeliveryTransition;
+import com.wrappiza.application.model.JobResponse;
+import com.wrappiza.application.model.OrderBulkRequest;
+import com.wrappiza.application.model.OrderItemEditRequest;
+import com.wrappiza.application.model.OrderItemsResponse;
+import com.wrappiza.application.model.OrderRevenueResponse;
+import com.wrappiza.application.model.OrderSearchRequest;
+import com.wrappiza.application.model.OrderSliceRequest;
+import com.wrappiza.application.model.OrderSliceResponse;
+import com.wrappiza.application.model.OrderSummaryResponse;
 import com.wrappiza.application.service.OrderServiceImpl;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -24,9 +58,20 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class OrderController {
 
+	private static final String VERSION_FIELDS = "orderId,version";
+
+	private static final String PREFER = "Prefer";
+
+	private static final String PREFERENCE_APPLIED = "Preference-Applied";
+
+	private static final String RETURN_MINIMAL = "return=minimal";
+
 	@Autowired
 	private OrderServiceImpl service;
 
+	@Autowired
+	private ObjectMapper objectMapper;
+
 	OrderController(OrderServiceImpl service) {
 		this.service = service;
 	}
@@ -47,70 +92,565 @@ public class OrderController {
 	}
 
 	/**
-	 * API used for retrieving all order
+	 * API used for retrieving all order, restricted to the comma separated fields
+	 * when given
 	 * 
-	 * @param
+	 * @param fields
 	 */
 	@GetMapping(value = "/order")
 	@Tag(name = "Get Order", description = "All Order is retrieved")
-	public ResponseEntity<CreateOrderResponse> retrieveAll() {
+	public ResponseEntity<CreateOrderResponse> retrieveAll(@RequestParam(required = false) String fields) {
 
 		log.info("Retrieve all order is in progress");
 
-		CreateOrderResponse response = service.retrieveOrder();
+		CreateOrderResponse response = service.retrieveOrder(fields);
+
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+	/**
+	 * API used for searching order by customer name, status, delivery status,
+	 * date range and price range, sorted by date or totalPrice, one page at a
+	 * time. The nextCursor of the response is passed as after to fetch the
+	 * following page.
+	 * 
+	 * @param search,after,limit,fields
+	 */
+	@GetMapping(value = "/order/search")
+	@Tag(name = "Search Order", description = "Page of matching order is retrieved")
+	public ResponseEntity<CreateOrderResponse> searchOrder(OrderSearchRequest search,
+			@RequestParam(required = false) String after, @RequestParam(required = false) Integer limit,
+			@RequestParam(required = false) String fields) {
+
+		log.info("Search order is in progress");
+
+		CreateOrderResponse response = service.searchOrder(search, after, limit, fields);
+
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+	/**
+	 * API used for counting order and summing their revenue per delivery status,
+	 * optionally within a date range. Only the numbers are returned.
+	 * 
+	 * @param from,to
+	 */
+	@GetMapping(value = "/order/summary")
+	@Tag(name = "Order Summary", description = "Order is counted")
+	public ResponseEntity<OrderSummaryResponse> summarizeOrder(
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+		log.info("Order summary is in progress");
+
+		OrderSummaryResponse response = service.summarizeOrder(from, to);
+
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+	/**
+	 * API used for summing the revenue and averaging the order value of every
+	 * day, optionally within a date range
+	 * 
+	 * @param from,to
+	 */
+	@GetMapping(value = "/order/analytics/revenue")
+	@Tag(name = "Order Revenue Analytics", description = "Revenue is summed per day")
+	public ResponseEntity<OrderRevenueResponse> analyzeRevenue(
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+		log.info("Order revenue analytics is in progress");
+
+		OrderRevenueResponse response = service.analyzeRevenue(from, to);
+
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+	/**
+	 * API used for rebuilding the daily rollups of a date range from the orders
+	 * as an async job, repairing any drift of the incremental updates
+	 * 
+	 * @param from,to
+	 */
+	@PostMapping(value = "/order/job/rollup")
+	@Tag(name = "Order Rollup Rebuild Job", description = "Daily rollups are rebuilt in the background")
+	public ResponseEntity<JobResponse> submitRebuildRollupsJob(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+		log.info("Submit order rollup rebuild job is in progress");
+
+		JobResponse response = service.submitRebuildRollupsJob(from, to);
+
+		return accepted(response);
+	}
+
+	/**
+	 * API used for slicing the active orders in memory, grouping their count,
+	 * item quantity and revenue by any of item, date, orderDeliveryStatus and
+	 * customerName
+	 * 
+	 * @param slice,limit
+	 */
+	@GetMapping(value = "/order/analytics/slice")
+	@Tag(name = "Order Slice Analytics", description = "Order revenue is grouped in memory")
+	public ResponseEntity<OrderSliceResponse> sliceOrder(OrderSliceRequest slice,
+			@RequestParam(required = false) Integer limit) {
+
+		log.info("Order slice analytics is in progress");
+
+		OrderSliceResponse response = service.sliceOrder(slice, limit);
+
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+	/**
+	 * API used for ranking the most ordered items, optionally within a date
+	 * range
+	 * 
+	 * @param from,to,limit
+	 */
+	@GetMapping(value = "/order/analytics/items")
+	@Tag(name = "Order Item Analytics", description = "Most ordered items are ranked")
+	public ResponseEntity<OrderItemsResponse> analyzeItems(
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(required = false) Integer limit) {
+
+		log.info("Order item analytics is in progress");
+
+		OrderItemsResponse response = service.analyzeItems(from, to, limit);
 
 		return ResponseEntity.status(HttpStatus.OK).body(response);
 	}
 
 	/**
-	 * API used for retrieving single order by order Id and customer name
+	 * API used for retrieving single order by order Id, customer name or order
+	 * number, restricted to the comma separated fields when given. The order version
+	 * and the selected fields are returned as a strong ETag, so a projection never
+	 * revalidates the full order. A request carrying If-None-Match first reads
+	 * only the id and version, and gets a 304 without the order being read or
+	 * serialized when it still matches.
 	 * 
-	 * @param String id,String customerName
+	 * @param String id,String customerName,Long orderNumber,String fields
 	 */
 	@GetMapping(value = "/singleorder")
 	@Tag(name = "Get Single Order", description = "Single order is retrieved")
 	public ResponseEntity<CreateOrderResponse> retrieveSingleOrder(@RequestParam(required = false) String id,
-			@RequestParam(required = false) String customerName) {
+			@RequestParam(required = false) String customerName, @RequestParam(required = false) Long orderNumber,
+			@RequestParam(required = false) String fields, WebRequest webRequest) {
 
 		log.info("Retrieve single order is in progress");
 
-		CreateOrderResponse response = service.getSingleOrder(id, customerName);
+		if (StringUtils.isNotBlank(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH))) {
 
-		return ResponseEntity.status(HttpStatus.OK).body(response);
+			String eTag = eTag(service.getSingleOrder(id, customerName, orderNumber, VERSION_FIELDS), fields);
+
+			if (null != eTag && webRequest.checkNotModified(eTag)) {
+				return null;
+			}
+		}
+
+		CreateOrderResponse response = service.getSingleOrder(id, customerName, orderNumber, fields);
+
+		String eTag = eTag(response, fields);
+
+		if (null == eTag) {
+			return ResponseEntity.status(HttpStatus.OK).body(response);
+		}
+
+		return ResponseEntity.status(HttpStatus.OK).eTag(eTag).body(response);
 	}
 
 	/**
-	 * API used for updating single order by order Id or customer name
+	 * API used for updating single order by order Id or customer name. With a
+	 * Prefer: return=minimal header only the matched and modified counts are
+	 * returned.
 	 * 
-	 * @param String id,String customerName
+	 * @param String id,String customerName,prefer
 	 */
 	@PutMapping(value = "/updateorder")
 	@Tag(name = "Order Updation", description = "Single order is updated")
 	public ResponseEntity<CreateOrderResponse> updateOrder(@RequestBody CreateOrderRequest createOrderRequest,
-			@RequestParam(required = false) String id, @RequestParam(required = false) String customerName) {
+			@RequestParam(required = false) String id, @RequestParam(required = false) String customerName,
+			@RequestHeader(value = PREFER, required = false) String prefer) {
 
 		log.info("Update order is in progress");
 
-		CreateOrderResponse response = service.updateSingleOrder(id, customerName, createOrderRequest);
+		boolean minimal = prefersMinimal(prefer);
 
-		return ResponseEntity.status(HttpStatus.OK).body(response);
+		CreateOrderResponse response = service.updateSingleOrder(id, customerName, createOrderRequest, minimal);
+
+		return written(response, minimal);
 	}
 
 	/**
-	 * API used for deleting single order by order Id or customer name
+	 * API used for deleting single order by order Id or customer name. With a
+	 * Prefer: return=minimal header only the matched and modified counts are
+	 * returned.
 	 * 
-	 * @param String id,String customerName
+	 * @param String id,String customerName,prefer
 	 */
 	@DeleteMapping(value = "/deleteorder")
 	@Tag(name = "Order Deletion", description = "Single order is deleted")
 	public ResponseEntity<CreateOrderResponse> deleteMenu(@RequestParam(required = false) String id,
-			@RequestParam(required = false) String customerName) {
+			@RequestParam(required = false) String customerName,
+			@RequestHeader(value = PREFER, required = false) String prefer) {
 
 		log.info("Delete order is in progress");
 
-		CreateOrderResponse response = service.deleteSingleOrder(id, customerName);
+		boolean minimal = prefersMinimal(prefer);
+
+		CreateOrderResponse response = service.deleteSingleOrder(id, customerName, minimal);
+
+		return written(response, minimal);
+	}
+
+	/**
+	 * API used for accepting an order by order Id, moving it from PENDING to
+	 * ACCEPTED. Answers 409 when the order is in another delivery status.
+	 * 
+	 * @param id
+	 */
+	@PatchMapping(value = "/order/accept")
+	@Tag(name = "Accept Order", description = "Pending order is accepted")
+	public ResponseEntity<CreateOrderResponse> acceptOrder(@RequestParam String id) {
+
+		log.info("Accept Order is in progress");
+
+		CreateOrderResponse response = service.moveOrderDeliveryStatus(id, DeliveryTransition.ACCEPT);
+
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+	/**
+	 * API used for starting an order by order Id, moving it from ACCEPTED to
+	 * IN_PROGRESS. Answers 409 when the order is in another delivery status.
+	 * 
+	 * @param id
+	 */
+	@PatchMapping(value = "/order/start")
+	@Tag(name = "Start Order", description = "Accepted order is started")
+	public ResponseEntity<CreateOrderResponse> startOrder(@RequestParam String id) {
+
+		log.info("Start Order is in progress");
+
+		CreateOrderResponse response = service.moveOrderDeliveryStatus(id, DeliveryTransition.START);
 
 		return ResponseEntity.status(HttpStatus.OK).body(response);
 	}
 
+	/**
+	 * API used for dispatching an order by order Id, moving it from IN_PROGRESS to
+	 * DISPATCHED. Answers 409 when the order is in another delivery status.
+	 * 
+	 * @param id
+	 */
+	@PatchMapping(value = "/order/dispatch")
+	@Tag(name = "Dispatch Order", description = "Order in progress is dispatched")
+	public ResponseEntity<CreateOrderResponse> dispatchOrder(@RequestParam String id) {
+
+		log.info("Dispatch Order is in progress");
+
+		CreateOrderResponse response = service.moveOrderDeliveryStatus(id, DeliveryTransition.DISPATCH);
+
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+	/**
+	 * API used for delivering an order by order Id, moving it from DISPATCHED to
+	 * DELIVERED. Answers 409 when the order is in another delivery status.
+	 * 
+	 * @param id
+	 */
+	@PatchMapping(value = "/order/deliver")
+	@Tag(name = "Deliver Order", description = "Dispatched order is delivered")
+	public ResponseEntity<CreateOrderResponse> deliverOrder(@RequestParam String id) {
+
+		log.info("Deliver Order is in progress");
+
+		CreateOrderResponse response = service.moveOrderDeliveryStatus(id, DeliveryTransition.DELIVER);
+
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+	/**
+	 * API used for adding, removing or replacing one item of an order by order
+	 * Id. Only the item and the total price are written, so concurrent edits of
+	 * the same order all apply.
+	 * 
+	 * @param orderItemEditRequest,id
+	 */
+	@PatchMapping(value = "/order/items")
+	@Tag(name = "Order Item Edition", description = "Single item of an order is edited")
+	public ResponseEntity<CreateOrderResponse> editOrderItem(@RequestBody OrderItemEditRequest orderItemEditRequest,
+			@RequestParam(required = false) String id) {
+
+		log.info("Edit order item is in progress");
+
+		CreateOrderResponse response = service.editOrderItem(id, orderItemEditRequest);
+
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+	/**
+	 * API used for updating the delivery status of every order matching the
+	 * given ids, status and date range in one write, answering with the matched
+	 * and modified counts
+	 * 
+	 * @param orderBulkRequest
+	 */
+	@PostMapping(value = "/order/bulkupdate")
+	@Tag(name = "Order Bulk Updation", description = "Matching orders are updated")
+	public ResponseEntity<CreateOrderResponse> updateOrders(@RequestBody OrderBulkRequest orderBulkRequest) {
+
+		log.info("Bulk update order is in progress");
+
+		CreateOrderResponse response = service.updateOrders(orderBulkRequest);
+
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+	/**
+	 * API used for deleting every order matching the given ids, status and date
+	 * range in one write, answering with the matched and modified counts
+	 * 
+	 * @param orderBulkRequest
+	 */
+	@PostMapping(value = "/order/bulkdelete")
+	@Tag(name = "Order Bulk Deletion", description = "Matching orders are deleted")
+	public ResponseEntity<CreateOrderResponse> deleteOrders(@RequestBody OrderBulkRequest orderBulkRequest) {
+
+		log.info("Bulk delete order is in progress");
+
+		CreateOrderResponse response = service.deleteOrders(orderBulkRequest);
+
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+	/**
+	 * API used for creating a large order list as an async job. The job id is
+	 * answered right away, its progress is polled from the Location given.
+	 * 
+	 * @param createOrderRequest
+	 */
+	@PostMapping(value = "/order/job/create")
+	@Tag(name = "Order Creation Job", description = "Orders are created in the background")
+	public ResponseEntity<JobResponse> submitCreateOrderJob(@RequestBody CreateOrderRequest createOrderRequest) {
+
+		log.info("Submit order creation job is in progress");
+
+		JobResponse response = service.submitCreateOrderJob(createOrderRequest);
+
+		return accepted(response);
+	}
+
+	/**
+	 * API used for updating the delivery status of every order matching the
+	 * given ids, status and date range as an async job
+	 * 
+	 * @param orderBulkRequest
+	 */
+	@PostMapping(value = "/order/job/bulkupdate")
+	@Tag(name = "Order Bulk Updation Job", description = "Matching orders are updated in the background")
+	public ResponseEntity<JobResponse> submitUpdateOrdersJob(@RequestBody OrderBulkRequest orderBulkRequest) {
+
+		log.info("Submit order bulk updation job is in progress");
+
+		JobResponse response = service.submitUpdateOrdersJob(orderBulkRequest);
+
+		return accepted(response);
+	}
+
+	/**
+	 * API used for deleting every order matching the given ids, status and date
+	 * range as an async job
+	 * 
+	 * @param orderBulkRequest
+	 */
+	@PostMapping(value = "/order/job/bulkdelete")
+	@Tag(name = "Order Bulk Deletion Job", description = "Matching orders are deleted in the background")
+	public ResponseEntity<JobResponse> submitDeleteOrdersJob(@RequestBody OrderBulkRequest orderBulkRequest) {
+
+		log.info("Submit order bulk deletion job is in progress");
+
+		JobResponse response = service.submitDeleteOrdersJob(orderBulkRequest);
+
+		return accepted(response);
+	}
+
+	/**
+	 * API used for importing orders sent as newline delimited json of any size.
+	 * Records are parsed one line at a time from the request body and written a
+	 * chunk at a time, the import being pollable as a job while it runs.
+	 * 
+	 * @param body
+	 */
+	@PostMapping(value = "/order/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+	@Tag(name = "Import Order", description = "Streamed orders are created")
+	public ResponseEntity<JobResponse> importOrders(InputStream body) throws IOException {
+
+		log.info("Import order is in progress");
+
+		try (BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+
+			JobResponse response = service
+					.importOrders(records(lines, objectMapper.readerFor(CreateOrderRequestInfo.class)));
+
+			return ResponseEntity.status(HttpStatus.OK).body(response);
+		}
+	}
+
+	/**
+	 * Method to read newline delimited records, every line being parsed on its
+	 * own so that a malformed line fails only its own record and the next line
+	 * is read as usual. Blank lines are skipped.
+	 * 
+	 * @param lines
+	 * @param reader
+	 */
+	static <T> Iterator<T> records(BufferedReader lines, ObjectReader reader) {
+
+		Iterator<String> records = lines.lines().filter(StringUtils::isNotBlank).iterator();
+
+		return new Iterator<T>() {
+
+			@Override
+			public boolean hasNext() {
+				return records.hasNext();
+			}
+
+			@Override
+			public T next() {
+				try {
+					return reader.readValue(records.next());
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			}
+		};
+	}
+
+	/**
+	 * API used for listing the progress of every retained job, running imports
+	 * included
+	 * 
+	 * @param
+	 */
+	@GetMapping(value = "/order/jobs")
+	@Tag(name = "Get Order Jobs", description = "Progress of every order job is retrieved")
+	public ResponseEntity<List<JobResponse>> retrieveJobs() {
+
+		log.info("Retrieve order jobs is in progress");
+
+		List<JobResponse> response = service.getJobs();
+
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+	/**
+	 * API used for polling the progress, partial results and errors of an async
+	 * job
+	 * 
+	 * @param id
+	 */
+	@GetMapping(value = "/order/job")
+	@Tag(name = "Get Order Job", description = "Progress of an order job is retrieved")
+	public ResponseEntity<JobResponse> retrieveJob(@RequestParam String id) {
+
+		log.info("Retrieve order job is in progress");
+
+		JobResponse response = service.getJob(id);
+
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+	/**
+	 * Method to answer a queued job with the location to poll it from
+	 * 
+	 * @param response
+	 */
+	private static ResponseEntity<JobResponse> accepted(JobResponse response) {
+		return ResponseEntity.status(HttpStatus.ACCEPTED)
+				.location(URI.create("/wrappiza/order/job?id=" + response.getJobId())).body(response);
+	}
+
+	/**
+	 * Method to tell whether the Prefer header asks for a minimal return, among
+	 * any other preferences it carries
+	 * 
+	 * @param prefer
+	 */
+	private static boolean prefersMinimal(String prefer) {
+
+		if (null == prefer) {
+			return false;
+		}
+
+		for (String preference : prefer.split(",")) {
+			if (RETURN_MINIMAL.equalsIgnoreCase(preference.split(";")[0].trim())) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Method to build the response of a write, telling the client when its
+	 * minimal return preference was applied
+	 * 
+	 * @param response
+	 * @param minimal
+	 */
+	private static ResponseEntity<CreateOrderResponse> written(CreateOrderResponse response, boolean minimal) {
+
+		if (minimal) {
+			return ResponseEntity.status(HttpStatus.OK).header(PREFERENCE_APPLIED, RETURN_MINIMAL).body(response);
+		}
+
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+	/**
+	 * Method to build the strong ETag of a single order response from the id,
+	 * version and selected fields, null when the order or its version is missing
+	 * 
+	 * @param response
+	 * @param fields
+	 */
+	private String eTag(CreateOrderResponse response, String fields) {
+
+		if (null == response || null == response.getCreateOrderResources()
+				|| response.getCreateOrderResources().size() != 1) {
+			return null;
+		}
+
+		CreateOrderResource resource = response.getCreateOrderResources().get(0);
+
+		if (null == resource || null == resource.getOrderId() || null == resource.getVersion()) {
+			return null;
+		}
+
+		return "\"" + resource.getOrderId() + "-" + resource.getVersion() + representation(fields) + "\"";
+	}
+
+	/**
+	 * Method to name the representation selected by the comma separated fields
+	 * within an ETag, empty for the full order. The same fields in any order name
+	 * the same representation.
+	 * 
+	 * @param fields
+	 */
+	private static String representation(String fields) {
+
+		if (null == fields || fields.trim().isEmpty()) {
+			return "";
+		}
+
+		return "-" + Arrays.stream(fields.split(",")).map(String::trim).filter(field -> !field.isEmpty()).distinct()
+				.sorted().collect(Collectors.joining("."));
+	}
+
 }
\ No newline at end of file
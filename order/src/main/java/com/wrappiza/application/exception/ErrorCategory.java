@@ -8,6 +8,6 @@ package com.wrappiza.application.exception;
  */
 public enum ErrorCategory {
 
-	BAD_REQUEST, SERVICE_UNAVAILABLE, INTERNAL_SERVER_ERROR;
+	BAD_REQUEST, NOT_FOUND, CONFLICT, SERVICE_UNAVAILABLE, INTERNAL_SERVER_ERROR;
 
 }
\ No newline at end of file
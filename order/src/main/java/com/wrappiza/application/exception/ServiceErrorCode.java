@@ -22,7 +22,32 @@ public enum ServiceErrorCode {
 	EMPTY_SEARCH_FAILURE("EMPTY.SEARCH.FAILURE", "Failed to search records due to empty id or name",
 			ErrorCategory.BAD_REQUEST),
 	DB_UPDATION_FAILURE("DB.UPDATION.FAILURE", "Failed to update records in database", ErrorCategory.BAD_REQUEST),
-	DB_DELETION_FAILURE("DB.DELETION.FAILURE", "Failed to delete records in database", ErrorCategory.BAD_REQUEST);
+	DB_DELETION_FAILURE("DB.DELETION.FAILURE", "Failed to delete records in database", ErrorCategory.BAD_REQUEST),
+	INVALID_FIELD_SELECTION("INVALID.FIELD.SELECTION", "Failed to search records due to unknown fields",
+			ErrorCategory.BAD_REQUEST),
+	INVALID_SEARCH_REQUEST("INVALID.SEARCH.REQUEST",
+			"Failed to search records due to an invalid filter, sort, price range, cursor or limit",
+			ErrorCategory.BAD_REQUEST),
+	INVALID_DATE_RANGE("INVALID.DATE.RANGE", "Failed to search records due to a date range ending before it starts",
+			ErrorCategory.BAD_REQUEST),
+	INVALID_BULK_REQUEST("INVALID.BULK.REQUEST",
+			"Failed to write records due to a missing filter, an invalid status or too many ids",
+			ErrorCategory.BAD_REQUEST),
+	INVALID_ITEM_EDIT("INVALID.ITEM.EDIT",
+			"Failed to update records due to a missing order or item, or an item edit without item or price",
+			ErrorCategory.BAD_REQUEST),
+	INVALID_SLICE_REQUEST("INVALID.SLICE.REQUEST",
+			"Failed to slice records due to an unknown group, a date range ending before it starts, too many groups or an invalid limit",
+			ErrorCategory.BAD_REQUEST),
+	ANALYTICS_UNAVAILABLE("ANALYTICS.UNAVAILABLE",
+			"Failed to slice records as the analytics engine is disabled or still loading",
+			ErrorCategory.SERVICE_UNAVAILABLE),
+	INVALID_DELIVERY_TRANSITION("INVALID.DELIVERY.TRANSITION",
+			"Failed to move the order as it is unknown, deleted or not in the delivery status the move starts from",
+			ErrorCategory.CONFLICT),
+	TOO_MANY_JOBS("TOO.MANY.JOBS", "Failed to queue the job due to too many jobs of its type",
+			ErrorCategory.SERVICE_UNAVAILABLE),
+	UNKNOWN_JOB("UNKNOWN.JOB", "Failed to find the job, unknown or no longer retained", ErrorCategory.NOT_FOUND);
 
 	private String code;
 	private String message;
@@ -0,0 +1,151 @@
+package com.wrappiza.application.job;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.wrappiza.application.model.BulkWriteResult;
+import com.wrappiza.application.model.JobResponse;
+import com.wrappiza.application.model.JobState;
+import com.wrappiza.application.model.JobType;
+
+import lombok.Getter;
+
+/**
+ * Progress of an async job, written by the job thread and read by the clients
+ * polling it. Only the first failures are kept so a job failing every item
+ * does not hold them all in memory.
+ *
+ * @author Chandan Kumar
+ *
+ */
+@Getter
+public class Job {
+
+	static final int MAX_REPORTED_FAILURES = 1000;
+
+	private final String id;
+
+	private final JobType type;
+
+	private final Integer total;
+
+	private final Instant submittedAt = Instant.now();
+
+	private volatile JobState state = JobState.QUEUED;
+
+	private volatile Instant finishedAt;
+
+	private volatile String error;
+
+	private final AtomicLong processed = new AtomicLong();
+
+	private final AtomicLong succeeded = new AtomicLong();
+
+	private final AtomicLong failed = new AtomicLong();
+
+	private final AtomicInteger reportedFailures = new AtomicInteger();
+
+	private final Queue<BulkWriteResult> failures = new ConcurrentLinkedQueue<>();
+
+	public Job(String id, JobType type, Integer total) {
+		this.id = id;
+		this.type = type;
+		this.total = total;
+	}
+
+	/**
+	 * Method to record the outcome of one chunk, the index of every result being
+	 * mapped to the position of its item within the job
+	 *
+	 * @param positions
+	 * @param writeResults
+	 */
+	public void record(List<Integer> positions, List<BulkWriteResult> writeResults) {
+
+		for (BulkWriteResult writeResult : writeResults) {
+
+			if (writeResult.isWritten()) {
+				succeeded.incrementAndGet();
+			} else {
+				failed.incrementAndGet();
+				report(new BulkWriteResult(positions.get(writeResult.getIndex()), writeResult.getId(), false,
+						writeResult.getError()));
+			}
+		}
+
+		processed.addAndGet(writeResults.size());
+	}
+
+	/**
+	 * Method to record items failing as a whole, a refused chunk or a record
+	 * that could not be read
+	 *
+	 * @param positions
+	 * @param message
+	 */
+	public void recordFailure(List<Integer> positions, String message) {
+
+		for (Integer position : positions) {
+			report(new BulkWriteResult(position, null, false, message));
+		}
+
+		failed.addAndGet(positions.size());
+		processed.addAndGet(positions.size());
+	}
+
+	/**
+	 * Method to record the counts of a job writing every item in one statement
+	 *
+	 * @param matched
+	 * @param modified
+	 */
+	public void recordCounts(long matched, long modified) {
+
+		processed.addAndGet(matched);
+		succeeded.addAndGet(modified);
+	}
+
+	void start() {
+		state = JobState.RUNNING;
+	}
+
+	void complete() {
+		finishedAt = Instant.now();
+		state = JobState.COMPLETED;
+	}
+
+	void fail(String message) {
+		error = message;
+		finishedAt = Instant.now();
+		state = JobState.FAILED;
+	}
+
+	boolean isFinished() {
+		return null != finishedAt;
+	}
+
+	/**
+	 * Method to take a snapshot of the job for a client
+	 *
+	 * @param
+	 */
+	public JobResponse toResponse() {
+
+		List<BulkWriteResult> reported = new ArrayList<>(failures);
+
+		return new JobResponse(id, type, state, total, processed.get(), succeeded.get(), failed.get(),
+				reported.isEmpty() ? null : reported, error, submittedAt, finishedAt);
+	}
+
+	private void report(BulkWriteResult failure) {
+
+		if (reportedFailures.incrementAndGet() <= MAX_REPORTED_FAILURES) {
+			failures.add(failure);
+		}
+	}
+}
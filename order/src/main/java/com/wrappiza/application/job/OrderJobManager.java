@@ -0,0 +1,193 @@
+package com.wrappiza.application.job;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.wrappiza.application.exception.ServiceErrorCode;
+import com.wrappiza.application.exception.ServiceTerminalException;
+import com.wrappiza.application.model.JobType;
+
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs long bulk order work off the request threads. Every job type gets its
+ * own small executor with a bounded queue, so bulk work of one kind can neither
+ * crowd out another kind nor take the threads of the interactive endpoints. A
+ * full queue refuses the job rather than piling it up. Jobs are kept in memory
+ * by the instance running them, finished ones for the retention only, and the
+ * work is written chunk by chunk so progress shows while it runs.
+ *
+ * @author Chandan Kumar
+ *
+ */
+@Component
+@Slf4j
+public class OrderJobManager {
+
+	private final Map<JobType, ThreadPoolExecutor> executors = new EnumMap<>(JobType.class);
+
+	private final Map<JobType, Semaphore> permits = new EnumMap<>(JobType.class);
+
+	private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+	private final Duration retention;
+
+	@Getter
+	private final int chunkSize;
+
+	public OrderJobManager(@Value("${wrappiza.order.job.chunk-size:1000}") int chunkSize,
+			@Value("${wrappiza.order.job.threads-per-type:1}") int threadsPerType,
+			@Value("${wrappiza.order.job.queue-capacity:16}") int queueCapacity,
+			@Value("${wrappiza.order.job.retention:PT1H}") Duration retention) {
+
+		this.chunkSize = chunkSize;
+		this.retention = retention;
+
+		for (JobType type : JobType.values()) {
+
+			AtomicInteger threadNumber = new AtomicInteger();
+
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(threadsPerType, threadsPerType, 60, TimeUnit.SECONDS,
+					new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+						Thread thread = new Thread(runnable,
+								"order-job-" + type.name().toLowerCase() + "-" + threadNumber.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}, new ThreadPoolExecutor.AbortPolicy());
+			executor.allowCoreThreadTimeOut(true);
+
+			executors.put(type, executor);
+			permits.put(type, new Semaphore(threadsPerType));
+		}
+	}
+
+	/**
+	 * Method to queue a job, answering with it before it starts
+	 *
+	 * @param type
+	 * @param total items to process, null when only known once done
+	 * @param work  the job itself, recording its progress on the job
+	 */
+	public Job submit(JobType type, Integer total, Consumer<Job> work) {
+
+		purge();
+
+		Job job = new Job(UUID.randomUUID().toString(), type, total);
+
+		jobs.put(job.getId(), job);
+
+		try {
+			executors.get(type).execute(() -> run(job, work));
+		} catch (RejectedExecutionException ex) {
+
+			jobs.remove(job.getId());
+
+			throw new ServiceTerminalException(ServiceErrorCode.TOO_MANY_JOBS);
+		}
+
+		log.info("Order job : {} of type : {} is queued", job.getId(), type);
+
+		return job;
+	}
+
+	/**
+	 * Method to run a job on the calling thread, for work bound to the request
+	 * such as reading its body. The job is registered while it runs so it can be
+	 * polled, and the same per type limit applies without any queue.
+	 *
+	 * @param type
+	 * @param work the job itself, recording its progress on the job
+	 */
+	public Job run(JobType type, Consumer<Job> work) {
+
+		purge();
+
+		Semaphore permit = permits.get(type);
+
+		if (!permit.tryAcquire()) {
+			throw new ServiceTerminalException(ServiceErrorCode.TOO_MANY_JOBS);
+		}
+
+		Job job = new Job(UUID.randomUUID().toString(), type, null);
+
+		jobs.put(job.getId(), job);
+
+		try {
+			run(job, work);
+		} finally {
+			permit.release();
+		}
+
+		return job;
+	}
+
+	/**
+	 * Method to get every retained job, running ones included
+	 *
+	 * @param
+	 */
+	public List<Job> list() {
+		return new ArrayList<>(jobs.values());
+	}
+
+	/**
+	 * Method to get a job by id, null when unknown or no longer retained
+	 *
+	 * @param id
+	 */
+	public Job get(String id) {
+		return jobs.get(id);
+	}
+
+	private void run(Job job, Consumer<Job> work) {
+
+		job.start();
+
+		try {
+			work.accept(job);
+			job.complete();
+		} catch (Exception ex) {
+
+			log.error("Order job : {} failed : ", job.getId(), ex);
+
+			job.fail(ex.getMessage());
+		}
+
+		log.info("Order job : {} is {}", job.getId(), job.getState());
+	}
+
+	/**
+	 * Method to forget the jobs finished before the retention
+	 *
+	 * @param
+	 */
+	void purge() {
+
+		Instant expiry = Instant.now().minus(retention);
+
+		jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(expiry));
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executors.values().forEach(ThreadPoolExecutor::shutdownNow);
+	}
+}
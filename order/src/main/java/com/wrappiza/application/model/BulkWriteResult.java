@@ -0,0 +1,29 @@
+package com.wrappiza.application.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model class for BulkWriteResult, the outcome of one item of a bulk write
+ * 
+ * @author Chandan Kumar
+ *
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkWriteResult {
+
+	private int index;
+	private String id;
+	private boolean written;
+	private String error;
+}
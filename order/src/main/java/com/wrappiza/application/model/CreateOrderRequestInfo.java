@@ -2,6 +2,9 @@ package com.wrappiza.application.model;
 
 import java.util.List;
 
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -22,9 +25,12 @@ import lombok.ToString;
 public class CreateOrderRequestInfo {
 
 	 
+    @NotBlank(message = "Customer name is mandatory")
     private String customerName;
     private String customerAddress;
+    @NotEmpty(message = "Items are mandatory")
     private List<String> items;
+    @PositiveOrZero(message = "Total price can not be negative")
     private double totalPrice;
     private String orderDeliveryStatus;
     
@@ -7,6 +7,8 @@ import java.util.List;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -25,16 +27,19 @@ import lombok.ToString;
 @ToString
 @AllArgsConstructor
 @Document("order")
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class CreateOrderResource {
 
 	@Id
 	private String orderId;
+    private Long orderNumber;
     private String customerName;
     private String customerAddress;
     private List<String> items;
-    private double totalPrice;
+    private Double totalPrice;
     private LocalDate  date;
     private String orderDeliveryStatus;
     private String status;
+    private Long version;
 
 }
\ No newline at end of file
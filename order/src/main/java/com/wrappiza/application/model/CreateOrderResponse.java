@@ -4,6 +4,8 @@ import lombok.*;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * Model class for CreateOrderResponse
  * 
@@ -17,5 +19,28 @@ import java.util.List;
 @AllArgsConstructor
 public class CreateOrderResponse {
 
+	@JsonInclude(JsonInclude.Include.NON_NULL)
 	private List<CreateOrderResource> createOrderResources;
+
+	/**
+	 * Outcome of every order of a bulk create, in request order
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private List<BulkWriteResult> writeResults;
+
+	/**
+	 * Counts of a write answered without the written order
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Long matchedCount;
+
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Long modifiedCount;
+
+	/**
+	 * Cursor of the last order in this page of a search, passed back as
+	 * {@code after} to fetch the next page. Absent when there are no more orders.
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private String nextCursor;
 }
\ No newline at end of file
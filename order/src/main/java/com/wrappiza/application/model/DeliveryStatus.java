@@ -0,0 +1,19 @@
+package com.wrappiza.application.model;
+
+/**
+ * Delivery states of an order, in the order an order goes through them. An
+ * order is created PENDING and only the delivery transitions move it on.
+ * 
+ * Orders stored before the delivery states left {@link Status} may hold a
+ * delivery status outside these, or none, and may hold PENDING, IN_PROGRESS or
+ * DELIVERED as their status. They are still read and counted as active, but
+ * no transition matches them until they are brought onto these states, e.g.
+ * with the bulk delivery status update over their date range.
+ * 
+ * @author Chandan Kumar
+ *
+ */
+public enum DeliveryStatus {
+
+	PENDING, ACCEPTED, IN_PROGRESS, DISPATCHED, DELIVERED;
+}
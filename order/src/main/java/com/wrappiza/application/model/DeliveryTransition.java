@@ -0,0 +1,24 @@
+package com.wrappiza.application.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Moves of an order from one delivery state to the next, each allowed from a
+ * single state only
+ * 
+ * @author Chandan Kumar
+ *
+ */
+@Getter
+@AllArgsConstructor
+public enum DeliveryTransition {
+
+	ACCEPT(DeliveryStatus.PENDING, DeliveryStatus.ACCEPTED),
+	START(DeliveryStatus.ACCEPTED, DeliveryStatus.IN_PROGRESS),
+	DISPATCH(DeliveryStatus.IN_PROGRESS, DeliveryStatus.DISPATCHED),
+	DELIVER(DeliveryStatus.DISPATCHED, DeliveryStatus.DELIVERED);
+
+	private DeliveryStatus from;
+	private DeliveryStatus to;
+}
@@ -0,0 +1,12 @@
+package com.wrappiza.application.model;
+
+/**
+ * Edits applicable to a single item of an order
+ * 
+ * @author Chandan Kumar
+ *
+ */
+public enum ItemOperation {
+
+	ADD, REMOVE, REPLACE;
+}
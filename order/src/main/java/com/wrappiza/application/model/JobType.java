@@ -0,0 +1,12 @@
+package com.wrappiza.application.model;
+
+/**
+ * Kinds of async order jobs, each running on its own bounded executor
+ * 
+ * @author Chandan Kumar
+ *
+ */
+public enum JobType {
+
+	CREATE, UPDATE, DELETE, IMPORT, ROLLUP;
+}
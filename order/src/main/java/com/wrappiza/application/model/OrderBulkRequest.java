@@ -0,0 +1,32 @@
+package com.wrappiza.application.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model class for OrderBulkRequest, selecting orders by ids, status and date
+ * range. Every given condition has to match. The delivery status is the value
+ * written by a bulk update.
+ * 
+ * @author Chandan Kumar
+ * 
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBulkRequest {
+
+	private List<String> ids;
+	private String status;
+	private LocalDate from;
+	private LocalDate to;
+	private String orderDeliveryStatus;
+}
@@ -0,0 +1,39 @@
+package com.wrappiza.application.model;
+
+import java.time.Instant;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model class for OrderDailyRollup, the count, revenue and delivery status
+ * tallies of the active orders of one day, keyed by the ISO date so days sort
+ * and range in date order. The version is bumped by every write so a rebuild
+ * only replaces a rollup left unchanged since it was read.
+ * 
+ * @author Chandan Kumar
+ *
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("order_daily_rollup")
+public class OrderDailyRollup {
+
+	@Id
+	private String day;
+	private long orders;
+	private double revenue;
+	private Map<String, OrderStatusSummary> deliveryStatuses;
+	private Instant reconciledAt;
+	private Long version;
+}
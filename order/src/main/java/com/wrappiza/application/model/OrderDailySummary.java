@@ -0,0 +1,29 @@
+package com.wrappiza.application.model;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model class for OrderDailySummary, the orders, revenue and average order
+ * value of one day
+ * 
+ * @author Chandan Kumar
+ *
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDailySummary {
+
+	private LocalDate date;
+	private long orders;
+	private double revenue;
+	private double averageOrderValue;
+}
@@ -0,0 +1,29 @@
+package com.wrappiza.application.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model class for OrderItemEditRequest, adding, removing or replacing one item
+ * of an order. The price of the item edited, and of the new item on a replace,
+ * is applied to the total price in the same write.
+ * 
+ * @author Chandan Kumar
+ * 
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItemEditRequest {
+
+	private ItemOperation operation;
+	private String item;
+	private Double price;
+	private String newItem;
+	private Double newPrice;
+}
@@ -0,0 +1,24 @@
+package com.wrappiza.application.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model class for OrderItemSummary, how many times an item was ordered
+ * 
+ * @author Chandan Kumar
+ *
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItemSummary {
+
+	private String item;
+	private long quantity;
+}
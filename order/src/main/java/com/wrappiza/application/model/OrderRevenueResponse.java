@@ -0,0 +1,35 @@
+package com.wrappiza.application.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model class for OrderRevenueResponse, the revenue of a date range in total
+ * and day by day
+ * 
+ * @author Chandan Kumar
+ *
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderRevenueResponse {
+
+	private LocalDate from;
+	private LocalDate to;
+	private long orders;
+	private double revenue;
+	private double averageOrderValue;
+	private List<OrderDailySummary> days;
+}
@@ -0,0 +1,40 @@
+package com.wrappiza.application.model;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model class for OrderSearchRequest, filtering orders by customer name,
+ * status, delivery status, date range and price range. Every given condition
+ * has to match. The orders come back ordered by the sort field, date or
+ * totalPrice, in the given direction.
+ * 
+ * @author Chandan Kumar
+ * 
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSearchRequest {
+
+	private String customerName;
+	private String status;
+	private String orderDeliveryStatus;
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate from;
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate to;
+	private Double minPrice;
+	private Double maxPrice;
+	private String sort;
+	private String direction;
+}
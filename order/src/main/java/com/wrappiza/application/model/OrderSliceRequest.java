@@ -0,0 +1,37 @@
+package com.wrappiza.application.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model class for OrderSliceRequest, filtering the active orders by date range,
+ * delivery status, customer name and item, and grouping them by any of item,
+ * date, orderDeliveryStatus and customerName
+ * 
+ * @author Chandan Kumar
+ * 
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSliceRequest {
+
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate from;
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate to;
+	private String orderDeliveryStatus;
+	private String customerName;
+	private String item;
+	private List<String> groupBy;
+}
@@ -0,0 +1,36 @@
+package com.wrappiza.application.model;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model class for OrderSliceRow, the order count, item quantity and revenue of
+ * one group of a slice. Only the grouped fields are set. Grouped or filtered by
+ * item, the revenue of an order is shared equally by its items.
+ * 
+ * @author Chandan Kumar
+ *
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderSliceRow {
+
+	private String item;
+	private LocalDate date;
+	private String orderDeliveryStatus;
+	private String customerName;
+	private long orders;
+	private long quantity;
+	private double revenue;
+}
@@ -0,0 +1,26 @@
+package com.wrappiza.application.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model class for OrderStatusSummary, the orders and revenue of one delivery
+ * status
+ * 
+ * @author Chandan Kumar
+ *
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusSummary {
+
+	private String orderDeliveryStatus;
+	private long orders;
+	private double revenue;
+}
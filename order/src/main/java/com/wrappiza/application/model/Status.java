@@ -4,5 +4,5 @@ package com.wrappiza.application.model;
 
 public enum Status {
 	
-	PENDING,IN_PROGRESS,DELIVERED,CREATED, UPDATED, DELETED;	
+	CREATED, UPDATED, DELETED;	
 }
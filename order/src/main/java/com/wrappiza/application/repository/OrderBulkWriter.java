@@ -0,0 +1,153 @@
+package com.wrappiza.application.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.wrappiza.application.exception.ServiceErrorCode;
+import com.wrappiza.application.model.BulkWriteResult;
+import com.wrappiza.application.model.CreateOrderResource;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Inserts large order batches as unordered bulk writes. The batch is split
+ * into chunks written in parallel on a bounded executor, and a failing document
+ * only fails itself, so every item gets its own result.
+ *
+ * @author Chandan Kumar
+ *
+ */
+@Component
+@Slf4j
+public class OrderBulkWriter {
+
+	private final MongoTemplate mongoTemplate;
+
+	private final OrderRollupStore rollupStore;
+
+	private final OrderColumnStore columnStore;
+
+	private final int chunkSize;
+
+	private final ThreadPoolExecutor executor;
+
+	public OrderBulkWriter(MongoTemplate mongoTemplate, OrderRollupStore rollupStore, OrderColumnStore columnStore,
+			@Value("${wrappiza.order.bulk-write.chunk-size:1000}") int chunkSize,
+			@Value("${wrappiza.order.bulk-write.parallelism:0}") int parallelism,
+			@Value("${wrappiza.order.bulk-write.queue-capacity:64}") int queueCapacity) {
+
+		this.mongoTemplate = mongoTemplate;
+		this.rollupStore = rollupStore;
+		this.columnStore = columnStore;
+		this.chunkSize = chunkSize;
+
+		int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+		AtomicInteger threadNumber = new AtomicInteger();
+
+		// A full queue makes the submitting request thread write the chunk itself
+		this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				runnable -> new Thread(runnable, "order-bulk-writer-" + threadNumber.incrementAndGet()),
+				new ThreadPoolExecutor.CallerRunsPolicy());
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Method to insert every order, returning one result per order in
+	 * request order. Ids are assigned up front so failed orders can be
+	 * reported by id as well. The written orders are added to their daily
+	 * rollups with one write per day, and to the column store.
+	 *
+	 * @param createOrderResources
+	 */
+	public List<BulkWriteResult> insert(List<CreateOrderResource> createOrderResources) {
+
+		log.info("Bulk writing {} orders in chunks of {} is in progress", createOrderResources.size(),
+				chunkSize);
+
+		createOrderResources.stream().filter(resource -> null == resource.getOrderId())
+				.forEach(resource -> resource.setOrderId(new ObjectId().toHexString()));
+
+		List<CompletableFuture<List<BulkWriteResult>>> chunks = new ArrayList<>();
+
+		for (int from = 0; from < createOrderResources.size(); from += chunkSize) {
+
+			int offset = from;
+			List<CreateOrderResource> chunk = createOrderResources.subList(from,
+					Math.min(from + chunkSize, createOrderResources.size()));
+
+			chunks.add(CompletableFuture.supplyAsync(() -> writeChunk(chunk, offset), executor));
+		}
+
+		List<BulkWriteResult> results = new ArrayList<>(createOrderResources.size());
+		chunks.forEach(chunk -> results.addAll(chunk.join()));
+
+		List<CreateOrderResource> written = results.stream().filter(BulkWriteResult::isWritten)
+				.map(result -> createOrderResources.get(result.getIndex())).collect(Collectors.toList());
+
+		rollupStore.recordCreated(written);
+		columnStore.recordCreated(written);
+
+		return results;
+	}
+
+	/**
+	 * Method to write one chunk as a single unordered bulk write
+	 *
+	 * @param chunk
+	 * @param offset index of the first order of the chunk in the batch
+	 */
+	private List<BulkWriteResult> writeChunk(List<CreateOrderResource> chunk, int offset) {
+
+		List<BulkWriteResult> results = new ArrayList<>(chunk.size());
+
+		for (int i = 0; i < chunk.size(); i++) {
+			results.add(new BulkWriteResult(offset + i, chunk.get(i).getOrderId(), true, null));
+		}
+
+		try {
+			mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CreateOrderResource.class).insert(chunk)
+					.execute();
+		} catch (BulkOperationException ex) {
+
+			for (BulkWriteError error : ex.getErrors()) {
+				fail(results.get(error.getIndex()));
+			}
+
+			log.warn("Bulk write failed for {} of {} orders", ex.getErrors().size(), chunk.size());
+		} catch (Exception ex) {
+
+			results.forEach(this::fail);
+
+			log.error("Exception occurred while bulk writing order : ", ex);
+		}
+
+		return results;
+	}
+
+	private void fail(BulkWriteResult result) {
+
+		result.setWritten(false);
+		result.setError(ServiceErrorCode.DB_INSERTION_FAILURE.getCode());
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+}
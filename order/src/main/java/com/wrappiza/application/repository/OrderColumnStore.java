@@ -0,0 +1,830 @@
+package com.wrappiza.application.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.wrappiza.application.exception.ServiceErrorCode;
+import com.wrappiza.application.exception.TerminalDBException;
+import com.wrappiza.application.model.CreateOrderResource;
+import com.wrappiza.application.model.OrderSliceRequest;
+import com.wrappiza.application.model.OrderSliceRow;
+import com.wrappiza.application.model.Status;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Optional in-memory copy of the active orders, laid out column by column for
+ * ad-hoc slicing of revenue by item, day, delivery status and customer without
+ * loading the database. Total prices are kept as doubles, dates as epoch days
+ * and the delivery statuses, customer names and items as codes of a
+ * dictionary, the items of all orders sharing one array. The orders are loaded
+ * once at startup and kept current by every order write, the same way as the
+ * daily rollups. A slice scans the columns in parallel, each part adding into
+ * its own dense array of groups, so the scan itself allocates nothing.
+ *
+ * @author Chandan Kumar
+ *
+ */
+@Component
+@Slf4j
+public class OrderColumnStore {
+
+	static final List<String> COLUMN_FIELDS = Arrays.asList("orderId", "customerName", "items", "totalPrice", "date",
+			"orderDeliveryStatus", "status");
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private static final int LOAD_BATCH_SIZE = 10000;
+
+	private static final int MIN_ROWS_PER_PART = 16384;
+
+	private final MongoTemplate mongoTemplate;
+
+	private final boolean enabled;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<String, Integer> rowOf = new HashMap<>();
+
+	private final Dictionary items = new Dictionary();
+
+	private final Dictionary deliveryStatuses = new Dictionary();
+
+	private final Dictionary customerNames = new Dictionary();
+
+	private String[] orderIds = new String[INITIAL_CAPACITY];
+
+	private double[] totalPrice = new double[INITIAL_CAPACITY];
+
+	private int[] day = new int[INITIAL_CAPACITY];
+
+	private int[] deliveryStatus = new int[INITIAL_CAPACITY];
+
+	private int[] customerName = new int[INITIAL_CAPACITY];
+
+	private int[] itemStart = new int[INITIAL_CAPACITY];
+
+	private int[] itemCount = new int[INITIAL_CAPACITY];
+
+	private boolean[] live = new boolean[INITIAL_CAPACITY];
+
+	private int[] itemPool = new int[INITIAL_CAPACITY];
+
+	private int itemPoolSize;
+
+	private int itemPoolGarbage;
+
+	private int rows;
+
+	private int[] freeRows = new int[INITIAL_CAPACITY];
+
+	private int freeRowCount;
+
+	private int minDay = Integer.MAX_VALUE;
+
+	private int maxDay = Integer.MIN_VALUE;
+
+	private List<Runnable> pending = new ArrayList<>();
+
+	private Set<String> written;
+
+	private int reloads;
+
+	private volatile boolean ready;
+
+	public OrderColumnStore(MongoTemplate mongoTemplate,
+			@Value("${wrappiza.order.columnar.enabled:false}") boolean enabled) {
+
+		this.mongoTemplate = mongoTemplate;
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Method to load the active orders once the application is up, when the
+	 * engine is enabled
+	 *
+	 * @param
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void loadOnStartup() {
+
+		if (enabled) {
+			load();
+		}
+	}
+
+	/**
+	 * Method to stream the active orders into the columns. Writes made while
+	 * loading are held back and applied once the load is done, each of them
+	 * carrying the whole order so applying one twice does no harm.
+	 *
+	 * @param
+	 */
+	public void load() {
+
+		log.info("Loading orders into the column store is in progress");
+
+		long loaded = 0;
+
+		try (Stream<CreateOrderResource> orders = mongoTemplate.stream(
+				OrderRepositoryImpl.project(new Query(OrderRepositoryImpl.activeOrderBetween(null, null)),
+						COLUMN_FIELDS),
+				CreateOrderResource.class)) {
+
+			List<CreateOrderResource> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+			Iterator<CreateOrderResource> iterator = orders.iterator();
+
+			while (iterator.hasNext()) {
+
+				batch.add(iterator.next());
+
+				if (batch.size() == LOAD_BATCH_SIZE || !iterator.hasNext()) {
+					putAll(batch);
+					loaded += batch.size();
+					batch.clear();
+				}
+			}
+		} catch (Exception ex) {
+
+			log.error("Exception occured while loading orders into the column store", ex);
+
+			lock.writeLock().lock();
+			try {
+				pending = null;
+			} finally {
+				lock.writeLock().unlock();
+			}
+
+			return;
+		}
+
+		lock.writeLock().lock();
+		try {
+			pending.forEach(Runnable::run);
+			pending = null;
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		log.info("Column store is ready with {} orders", loaded);
+	}
+
+	/**
+	 * Method answering whether the engine is enabled, order writes being applied
+	 * to it
+	 *
+	 * @param
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Method answering whether slices can be taken
+	 *
+	 * @param
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * Method to apply one order write, the order before and after the write being
+	 * null when it did not exist or no longer exists
+	 *
+	 * @param before
+	 * @param after
+	 */
+	public void record(CreateOrderResource before, CreateOrderResource after) {
+
+		String id = null != before ? before.getOrderId() : after.getOrderId();
+
+		apply(() -> {
+			if (null != written) {
+				written.add(id);
+			}
+
+			if (null == after) {
+				remove(id);
+			} else {
+				put(id, after);
+			}
+		});
+	}
+
+	/**
+	 * Method to add newly created orders
+	 *
+	 * @param created
+	 */
+	public void recordCreated(List<CreateOrderResource> created) {
+		apply(() -> {
+			if (null != written) {
+				created.forEach(order -> written.add(order.getOrderId()));
+			}
+
+			putAll(created);
+		});
+	}
+
+	/**
+	 * Method to reload the orders of the days a multi-document write touched. The
+	 * orders of all the days are read with one query before the store is held,
+	 * and then replace the rows of those days in a single scan. An order written
+	 * meanwhile already holds its newer copy, which the one read is not allowed
+	 * to overwrite. While the orders are still loading, the reload is held back
+	 * like any other write and reads them once applied.
+	 *
+	 * @param days
+	 */
+	public void reload(List<LocalDate> days) {
+
+		if (!enabled || days.isEmpty()) {
+			return;
+		}
+
+		int[] epochDays = days.stream().mapToInt(date -> (int) date.toEpochDay()).sorted().distinct().toArray();
+
+		if (!ready) {
+			apply(() -> replaceDays(epochDays, find(days), Collections.<String>emptySet()));
+			return;
+		}
+
+		lock.writeLock().lock();
+		try {
+			if (null == written) {
+				written = new HashSet<>();
+			}
+			reloads++;
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		List<CreateOrderResource> orders = null;
+
+		try {
+			orders = find(days);
+		} catch (Exception ex) {
+			log.warn("Failed to apply an order write to the column store : {}", ex.getMessage());
+		}
+
+		lock.writeLock().lock();
+		try {
+			Set<String> writtenMeanwhile = written;
+
+			if (--reloads == 0) {
+				written = null;
+			}
+
+			if (null != orders) {
+				replaceDays(epochDays, orders, writtenMeanwhile);
+			}
+		} catch (Exception ex) {
+			log.warn("Failed to apply an order write to the column store : {}", ex.getMessage());
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Method to count the groups a slice adds into, the product of the number of
+	 * values of each grouped field once the filters are applied
+	 *
+	 * @param slice
+	 */
+	public long countGroups(OrderSliceRequest slice) {
+
+		lock.readLock().lock();
+		try {
+			return new Slice(slice).groups;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Method to slice the active orders, answering the groups with the highest
+	 * revenue first
+	 *
+	 * @param slice
+	 * @param limit
+	 */
+	public List<OrderSliceRow> slice(OrderSliceRequest slice, int limit) {
+
+		lock.readLock().lock();
+		try {
+			if (!ready) {
+				throw new TerminalDBException(ServiceErrorCode.ANALYTICS_UNAVAILABLE.getMessage());
+			}
+
+			Slice scan = new Slice(slice);
+
+			if (scan.groups == 0) {
+				return Collections.emptyList();
+			}
+
+			if (scan.groups > Integer.MAX_VALUE) {
+				throw new TerminalDBException(ServiceErrorCode.INVALID_SLICE_REQUEST.getMessage());
+			}
+
+			int parts = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), rows / MIN_ROWS_PER_PART));
+			int span = (rows + parts - 1) / parts;
+
+			Tally tally = IntStream.range(0, parts).parallel()
+					.mapToObj(part -> scan.run(part * span, Math.min(rows, (part + 1) * span)))
+					.reduce(Tally::merge).orElseGet(() -> new Tally((int) scan.groups, false));
+
+			return scan.toRows(tally, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Method to run a change now, or hold it back while the orders are loading.
+	 * Nothing is kept when the engine is disabled or its load failed.
+	 *
+	 * @param change
+	 */
+	private void apply(Runnable change) {
+
+		if (!enabled) {
+			return;
+		}
+
+		lock.writeLock().lock();
+		try {
+			if (ready) {
+				change.run();
+			} else if (null != pending) {
+				pending.add(change);
+			}
+		} catch (Exception ex) {
+			log.warn("Failed to apply an order write to the column store : {}", ex.getMessage());
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private List<CreateOrderResource> find(List<LocalDate> days) {
+
+		return mongoTemplate.find(OrderRepositoryImpl.project(
+				new Query(OrderRepositoryImpl.activeOrderBetween(null, null).and("date").in(days)), COLUMN_FIELDS),
+				CreateOrderResource.class);
+	}
+
+	/**
+	 * Method to replace the rows of the days by their orders as read, leaving
+	 * alone the orders written since they were read
+	 *
+	 * @param epochDays sorted
+	 * @param orders
+	 * @param writtenMeanwhile
+	 */
+	private void replaceDays(int[] epochDays, List<CreateOrderResource> orders, Set<String> writtenMeanwhile) {
+
+		for (int row = 0; row < rows; row++) {
+			if (live[row] && Arrays.binarySearch(epochDays, day[row]) >= 0
+					&& !writtenMeanwhile.contains(orderIds[row])) {
+				remove(orderIds[row]);
+			}
+		}
+
+		for (CreateOrderResource order : orders) {
+			if (!writtenMeanwhile.contains(order.getOrderId())) {
+				put(order.getOrderId(), order);
+			}
+		}
+	}
+
+	private void putAll(List<CreateOrderResource> orders) {
+
+		lock.writeLock().lock();
+		try {
+			orders.forEach(order -> put(order.getOrderId(), order));
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Method to write an order into its row, taking a free row for an order not
+	 * held yet. An order that no longer counts is removed.
+	 *
+	 * @param id
+	 * @param order
+	 */
+	private void put(String id, CreateOrderResource order) {
+
+		if (null == id || null == order.getDate() || Status.DELETED.name().equals(order.getStatus())) {
+			remove(id);
+			return;
+		}
+
+		Integer held = rowOf.get(id);
+		int row = null != held ? held : allocate(id);
+
+		int epochDay = (int) order.getDate().toEpochDay();
+		List<String> orderItems = null != order.getItems() ? order.getItems() : Collections.<String>emptyList();
+
+		totalPrice[row] = null != order.getTotalPrice() ? order.getTotalPrice() : 0;
+		day[row] = epochDay;
+		deliveryStatus[row] = deliveryStatuses.encode(order.getOrderDeliveryStatus());
+		customerName[row] = customerNames.encode(order.getCustomerName());
+		live[row] = true;
+
+		if (orderItems.size() > itemCount[row]) {
+			itemPoolGarbage += itemCount[row];
+			itemCount[row] = 0;
+			itemStart[row] = reserveItems(orderItems.size());
+		} else {
+			itemPoolGarbage += itemCount[row] - orderItems.size();
+		}
+
+		itemCount[row] = orderItems.size();
+
+		for (int index = 0; index < orderItems.size(); index++) {
+			itemPool[itemStart[row] + index] = items.encode(orderItems.get(index));
+		}
+
+		minDay = Math.min(minDay, epochDay);
+		maxDay = Math.max(maxDay, epochDay);
+	}
+
+	private void remove(String id) {
+
+		Integer row = null != id ? rowOf.remove(id) : null;
+
+		if (null == row) {
+			return;
+		}
+
+		live[row] = false;
+		itemPoolGarbage += itemCount[row];
+		itemCount[row] = 0;
+
+		if (freeRowCount == freeRows.length) {
+			freeRows = Arrays.copyOf(freeRows, freeRows.length * 2);
+		}
+
+		freeRows[freeRowCount++] = row;
+		orderIds[row] = null;
+	}
+
+	private int allocate(String id) {
+
+		int row;
+
+		if (freeRowCount > 0) {
+			row = freeRows[--freeRowCount];
+		} else {
+			if (rows == live.length) {
+				grow(live.length * 2);
+			}
+			row = rows++;
+		}
+
+		orderIds[row] = id;
+		rowOf.put(id, row);
+		itemCount[row] = 0;
+
+		return row;
+	}
+
+	private void grow(int capacity) {
+
+		orderIds = Arrays.copyOf(orderIds, capacity);
+		totalPrice = Arrays.copyOf(totalPrice, capacity);
+		day = Arrays.copyOf(day, capacity);
+		deliveryStatus = Arrays.copyOf(deliveryStatus, capacity);
+		customerName = Arrays.copyOf(customerName, capacity);
+		itemStart = Arrays.copyOf(itemStart, capacity);
+		itemCount = Arrays.copyOf(itemCount, capacity);
+		live = Arrays.copyOf(live, capacity);
+	}
+
+	/**
+	 * Method to reserve room for the items of one order at the end of the item
+	 * array, compacting it first when more than half of it is left over from
+	 * earlier writes
+	 *
+	 * @param count
+	 */
+	private int reserveItems(int count) {
+
+		if (itemPoolGarbage > INITIAL_CAPACITY && itemPoolGarbage * 2 > itemPoolSize) {
+			compactItems();
+		}
+
+		if (itemPoolSize + count > itemPool.length) {
+			itemPool = Arrays.copyOf(itemPool, Math.max(itemPool.length * 2, itemPoolSize + count));
+		}
+
+		int start = itemPoolSize;
+		itemPoolSize += count;
+
+		return start;
+	}
+
+	private void compactItems() {
+
+		int[] compacted = new int[Math.max(INITIAL_CAPACITY, (itemPoolSize - itemPoolGarbage) * 2)];
+		int size = 0;
+
+		for (int row = 0; row < rows; row++) {
+
+			System.arraycopy(itemPool, itemStart[row], compacted, size, itemCount[row]);
+			itemStart[row] = size;
+			size += itemCount[row];
+		}
+
+		itemPool = compacted;
+		itemPoolSize = size;
+		itemPoolGarbage = 0;
+	}
+
+	/**
+	 * One slice over the columns as they are when it starts. The groups are laid
+	 * out densely, item outermost then day, delivery status and customer, a field
+	 * not grouped by taking a single place.
+	 */
+	private class Slice {
+
+		private final boolean byItem;
+
+		private final boolean byDay;
+
+		private final boolean byDeliveryStatus;
+
+		private final boolean byCustomerName;
+
+		private final boolean itemScoped;
+
+		private final boolean spreadItem;
+
+		private final boolean spreadDeliveryStatus;
+
+		private final boolean spreadCustomerName;
+
+		private final int itemFilter;
+
+		private final int deliveryStatusFilter;
+
+		private final int customerNameFilter;
+
+		private final int firstDay;
+
+		private final int lastDay;
+
+		private final int deliveryStatusGroups;
+
+		private final int customerNameGroups;
+
+		private final int itemGroups;
+
+		private final int baseGroups;
+
+		private final long groups;
+
+		Slice(OrderSliceRequest slice) {
+
+			List<String> groupBy = null != slice.getGroupBy() ? slice.getGroupBy() : Collections.<String>emptyList();
+
+			byItem = groupBy.contains("item");
+			byDay = groupBy.contains("date");
+			byDeliveryStatus = groupBy.contains("orderDeliveryStatus");
+			byCustomerName = groupBy.contains("customerName");
+
+			itemFilter = items.find(slice.getItem());
+			deliveryStatusFilter = deliveryStatuses.find(slice.getOrderDeliveryStatus());
+			customerNameFilter = customerNames.find(slice.getCustomerName());
+			itemScoped = byItem || null != slice.getItem();
+
+			firstDay = null != slice.getFrom() ? (int) Math.max(minDay, slice.getFrom().toEpochDay()) : minDay;
+			lastDay = null != slice.getTo() ? (int) Math.min(maxDay, slice.getTo().toEpochDay()) : maxDay;
+
+			spreadItem = byItem && itemFilter < 0;
+			spreadDeliveryStatus = byDeliveryStatus && deliveryStatusFilter < 0;
+			spreadCustomerName = byCustomerName && customerNameFilter < 0;
+
+			itemGroups = spreadItem ? items.size() : 1;
+			deliveryStatusGroups = spreadDeliveryStatus ? deliveryStatuses.size() : 1;
+			customerNameGroups = spreadCustomerName ? customerNames.size() : 1;
+
+			boolean unmatched = firstDay > lastDay || unknown(slice.getItem(), itemFilter)
+					|| unknown(slice.getOrderDeliveryStatus(), deliveryStatusFilter)
+					|| unknown(slice.getCustomerName(), customerNameFilter);
+
+			long dayGroups = byDay ? (long) lastDay - firstDay + 1 : 1;
+
+			baseGroups = (int) Math.min(Integer.MAX_VALUE, dayGroups * deliveryStatusGroups * customerNameGroups);
+			groups = unmatched ? 0 : dayGroups * deliveryStatusGroups * customerNameGroups * itemGroups;
+		}
+
+		private boolean unknown(String value, int code) {
+			return null != value && code < 0;
+		}
+
+		/**
+		 * Method to add the rows of one part into a tally of its own
+		 *
+		 * @param start
+		 * @param end
+		 */
+		Tally run(int start, int end) {
+
+			Tally tally = new Tally((int) groups, itemScoped);
+
+			for (int row = start; row < end; row++) {
+
+				if (!live[row]) {
+					continue;
+				}
+
+				int orderDay = day[row];
+
+				if (orderDay < firstDay || orderDay > lastDay) {
+					continue;
+				}
+
+				int status = deliveryStatus[row];
+
+				if (deliveryStatusFilter >= 0 && status != deliveryStatusFilter) {
+					continue;
+				}
+
+				int customer = customerName[row];
+
+				if (customerNameFilter >= 0 && customer != customerNameFilter) {
+					continue;
+				}
+
+				int group = ((byDay ? orderDay - firstDay : 0) * deliveryStatusGroups
+						+ (spreadDeliveryStatus ? status : 0)) * customerNameGroups + (spreadCustomerName ? customer : 0);
+
+				if (!itemScoped) {
+					tally.orders[group]++;
+					tally.quantity[group] += itemCount[row];
+					tally.revenue[group] += totalPrice[row];
+					continue;
+				}
+
+				double share = totalPrice[row] / itemCount[row];
+
+				for (int index = itemStart[row], last = index + itemCount[row]; index < last; index++) {
+
+					int item = itemPool[index];
+
+					if (itemFilter >= 0 && item != itemFilter) {
+						continue;
+					}
+
+					int itemGroup = spreadItem ? item * baseGroups + group : group;
+
+					if (tally.lastRow[itemGroup] != row) {
+						tally.lastRow[itemGroup] = row;
+						tally.orders[itemGroup]++;
+					}
+
+					tally.quantity[itemGroup]++;
+					tally.revenue[itemGroup] += share;
+				}
+			}
+
+			return tally;
+		}
+
+		/**
+		 * Method to turn the groups holding orders into rows, by revenue
+		 *
+		 * @param tally
+		 * @param limit
+		 */
+		List<OrderSliceRow> toRows(Tally tally, int limit) {
+
+			List<OrderSliceRow> sliced = new ArrayList<>();
+
+			for (int group = 0; group < tally.orders.length; group++) {
+
+				if (tally.orders[group] == 0) {
+					continue;
+				}
+
+				int base = group % baseGroups;
+
+				sliced.add(new OrderSliceRow(
+						byItem ? items.decode(spreadItem ? group / baseGroups : itemFilter) : null,
+						byDay ? LocalDate.ofEpochDay(firstDay + base / (deliveryStatusGroups * customerNameGroups))
+								: null,
+						byDeliveryStatus ? deliveryStatuses.decode(spreadDeliveryStatus
+								? base / customerNameGroups % deliveryStatusGroups : deliveryStatusFilter) : null,
+						byCustomerName ? customerNames
+								.decode(spreadCustomerName ? base % customerNameGroups : customerNameFilter) : null,
+						tally.orders[group], tally.quantity[group], tally.revenue[group]));
+			}
+
+			sliced.sort(Comparator.comparingDouble(OrderSliceRow::getRevenue).reversed());
+
+			return sliced.size() > limit ? new ArrayList<>(sliced.subList(0, limit)) : sliced;
+		}
+	}
+
+	/**
+	 * Order count, item quantity and revenue of every group, added up by one part
+	 * of a slice. The last row seen per group keeps an order holding an item
+	 * twice from being counted twice.
+	 */
+	private static class Tally {
+
+		private final long[] orders;
+
+		private final long[] quantity;
+
+		private final double[] revenue;
+
+		private final int[] lastRow;
+
+		Tally(int groups, boolean itemScoped) {
+
+			orders = new long[groups];
+			quantity = new long[groups];
+			revenue = new double[groups];
+			lastRow = itemScoped ? new int[groups] : null;
+
+			if (itemScoped) {
+				Arrays.fill(lastRow, -1);
+			}
+		}
+
+		Tally merge(Tally other) {
+
+			for (int group = 0; group < orders.length; group++) {
+				orders[group] += other.orders[group];
+				quantity[group] += other.quantity[group];
+				revenue[group] += other.revenue[group];
+			}
+
+			return this;
+		}
+	}
+
+	/**
+	 * Codes handed out in order of first use, a missing value having a code of its
+	 * own
+	 */
+	private static class Dictionary {
+
+		private final Map<String, Integer> codes = new HashMap<>();
+
+		private final List<String> values = new ArrayList<>();
+
+		int encode(String value) {
+
+			Integer code = codes.get(value);
+
+			if (null == code) {
+				code = values.size();
+				codes.put(value, code);
+				values.add(value);
+			}
+
+			return code;
+		}
+
+		int find(String value) {
+
+			Integer code = null != value ? codes.get(value) : null;
+
+			return null != code ? code : -1;
+		}
+
+		String decode(int code) {
+			return values.get(code);
+		}
+
+		int size() {
+			return values.size();
+		}
+	}
+}
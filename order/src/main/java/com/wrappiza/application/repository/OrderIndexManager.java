@@ -0,0 +1,248 @@
+package com.wrappiza.application.repository;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.wrappiza.application.model.CreateOrderResource;
+import com.wrappiza.application.model.DeliveryStatus;
+import com.wrappiza.application.model.OrderSearchRequest;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the indexes of the order collection at startup and checks with
+ * explain() that every repository query shape is served by one of them.
+ *
+ * @author Chandan Kumar
+ *
+ */
+@Component
+@Slf4j
+public class OrderIndexManager {
+
+	private static final String SAMPLE_ID = "000000000000000000000000";
+
+	private static final String SAMPLE_CUSTOMER_NAME = "sample";
+
+	private final MongoTemplate mongoTemplate;
+
+	@Value("${wrappiza.mongo.index.enabled:true}")
+	private boolean enabled;
+
+	@Value("${wrappiza.mongo.index.fail-on-collection-scan:false}")
+	private boolean failOnCollectionScan;
+
+	public OrderIndexManager(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	/**
+	 * Indexes of the order collection. The status filter of every query is
+	 * ne(DELETED), which a partial index filter cannot express, so status is
+	 * carried as the trailing key instead. Delivery status and id ride along in
+	 * the customer name index, so a lookup selecting only those fields is a
+	 * covered query. Order numbers are unique, the index being sparse for the
+	 * orders saved before they were numbered.
+	 * <p>
+	 * The search indexes follow equality, sort, range: an optional equality key,
+	 * then the sort field and id in the order the pages are read, so a page is a
+	 * bounded walk of the index in either direction with no sort stage. Status
+	 * trails, letting ne(DELETED) be checked on the index keys before any order
+	 * is fetched.
+	 * <p>
+	 * The analytics index holds every field the revenue and delivery status
+	 * aggregations read after their date range match, so they are answered from
+	 * the index keys without fetching a single order.
+	 *
+	 * @param
+	 */
+	static List<IndexDefinition> indexes() {
+
+		return Arrays.asList(new Index().on("customerName", Sort.Direction.ASC).on("status", Sort.Direction.ASC)
+				.on("orderDeliveryStatus", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)
+				.named("customerName_status_orderDeliveryStatus_id").background(),
+				new Index().on("orderNumber", Sort.Direction.ASC).named("orderNumber_unique").unique().sparse()
+						.background(),
+				new Index().on("date", Sort.Direction.ASC).on("status", Sort.Direction.ASC)
+						.on("orderDeliveryStatus", Sort.Direction.ASC).on("totalPrice", Sort.Direction.ASC)
+						.named("date_status_orderDeliveryStatus_totalPrice").background(),
+				searchIndex(null, "date"), searchIndex(null, "totalPrice"), searchIndex("customerName", "date"),
+				searchIndex("customerName", "totalPrice"), searchIndex("orderDeliveryStatus", "date"),
+				searchIndex("orderDeliveryStatus", "totalPrice"));
+	}
+
+	/**
+	 * Method to build a search index on the equality key, when any, then the sort
+	 * field, id and status
+	 *
+	 * @param equality
+	 * @param sort
+	 */
+	private static IndexDefinition searchIndex(String equality, String sort) {
+
+		Index index = new Index();
+
+		if (null != equality) {
+			index.on(equality, Sort.Direction.ASC);
+		}
+
+		return index.on(sort, Sort.Direction.ASC).on("_id", Sort.Direction.ASC).on("status", Sort.Direction.ASC)
+				.named((null != equality ? equality + "_" : "") + sort + "_id_status").background();
+	}
+
+	/**
+	 * Query shapes issued by {@link OrderRepositoryImpl}, keyed by the repository
+	 * method using them. The full listing of getOrder reads every order by design
+	 * and is not checked.
+	 *
+	 * @param
+	 */
+	static Map<String, Query> queryShapes() {
+
+		Map<String, Query> shapes = new LinkedHashMap<>();
+
+		shapes.put("getOrderByCustomerName", OrderRepositoryImpl.activeOrderByCustomerName(SAMPLE_CUSTOMER_NAME));
+		shapes.put("getOrderById", OrderRepositoryImpl.activeOrderById(SAMPLE_ID));
+		shapes.put("getOrderByOrderNumber", OrderRepositoryImpl.activeOrderByOrderNumber(1L));
+		shapes.put("moveOrderDeliveryStatus",
+				OrderRepositoryImpl.activeOrderInDeliveryStatus(SAMPLE_ID, DeliveryStatus.PENDING.name()));
+		shapes.put("deleteOrderByCustomerName", OrderRepositoryImpl.orderByCustomerName(SAMPLE_CUSTOMER_NAME));
+		shapes.put("deleteOrderById", OrderRepositoryImpl.orderById(SAMPLE_ID));
+		shapes.put("summarizeOrderByDeliveryStatus",
+				new Query(OrderRepositoryImpl.activeOrderBetween(LocalDate.now(), LocalDate.now())));
+		shapes.put("deleteOrderMatching",
+				OrderRepositoryImpl.activeOrdersMatching(null, null, LocalDate.now(), LocalDate.now()));
+
+		for (String sort : Arrays.asList("date", "totalPrice")) {
+
+			Object sampleValue = "date".equals(sort) ? LocalDate.now() : (Object) 0.0;
+
+			shapes.put("searchOrder by " + sort, OrderRepositoryImpl.activeOrderSearch(
+					new OrderSearchRequest(null, null, null, null, null, null, null, sort, "DESC"), null, null, 1));
+			shapes.put("searchOrder by customerName and " + sort,
+					OrderRepositoryImpl.activeOrderSearch(new OrderSearchRequest(SAMPLE_CUSTOMER_NAME, null, null,
+							null, null, null, null, sort, "ASC"), sampleValue, SAMPLE_ID, 1));
+			shapes.put("searchOrder by orderDeliveryStatus and " + sort,
+					OrderRepositoryImpl.activeOrderSearch(new OrderSearchRequest(null, null, DeliveryStatus.PENDING.name(),
+							null, null, null, null, sort, "DESC"), null, null, 1));
+		}
+
+		return shapes;
+	}
+
+	/**
+	 * Builds the indexes once the application is ready. Runs in the background
+	 * unless a collection scan must fail the startup.
+	 *
+	 * @param
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+
+		if (!enabled) {
+			return;
+		}
+
+		if (failOnCollectionScan) {
+			ensureIndexes();
+			verifyQueryShapes();
+			return;
+		}
+
+		Thread thread = new Thread(() -> {
+			try {
+				ensureIndexes();
+				verifyQueryShapes();
+			} catch (Exception ex) {
+				log.warn("Failed to bootstrap order indexes : {}", ex.getMessage());
+			}
+		}, "order-index-manager");
+
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Method to create the missing indexes, existing ones are left untouched
+	 *
+	 * @param
+	 */
+	void ensureIndexes() {
+
+		IndexOperations indexOperations = mongoTemplate.indexOps(CreateOrderResource.class);
+
+		for (IndexDefinition index : indexes()) {
+			String name = indexOperations.ensureIndex(index);
+			log.info("Order index : {} is in place", name);
+		}
+	}
+
+	/**
+	 * Method to explain every query shape and report the ones scanning the whole
+	 * collection
+	 *
+	 * @param
+	 */
+	void verifyQueryShapes() {
+
+		QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+		MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+				.getRequiredPersistentEntity(CreateOrderResource.class);
+
+		for (Map.Entry<String, Query> shape : queryShapes().entrySet()) {
+
+			Query query = shape.getValue();
+
+			Document plan = mongoTemplate.getCollection(mongoTemplate.getCollectionName(CreateOrderResource.class))
+					.find(queryMapper.getMappedObject(query.getQueryObject(), entity))
+					.sort(queryMapper.getMappedSort(query.getSortObject(), entity)).explain();
+
+			if (containsStage(plan.get("queryPlanner", Document.class).get("winningPlan"), "COLLSCAN")) {
+
+				if (failOnCollectionScan) {
+					throw new IllegalStateException("Order query " + shape.getKey() + " scans the collection");
+				}
+
+				log.warn("Order query : {} scans the collection, plan : {}", shape.getKey(), plan.toJson());
+			}
+		}
+	}
+
+	/**
+	 * Method to look for a stage anywhere in an explained plan
+	 *
+	 * @param node
+	 * @param stage
+	 */
+	static boolean containsStage(Object node, String stage) {
+
+		if (node instanceof Document) {
+			Document document = (Document) node;
+			return stage.equals(document.get("stage"))
+					|| document.values().stream().anyMatch(value -> containsStage(value, stage));
+		}
+
+		if (node instanceof List) {
+			return ((List<?>) node).stream().anyMatch(value -> containsStage(value, stage));
+		}
+
+		return false;
+	}
+}
@@ -0,0 +1,131 @@
+package com.wrappiza.application.repository;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.wrappiza.application.exception.ServiceErrorCode;
+import com.wrappiza.application.exception.TerminalDBException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hands out sequential order numbers with hi/lo allocation. Every instance
+ * reserves a block of numbers with one atomic increment of the order_sequence
+ * counter and hands them out from memory without locking, so only one insert
+ * in a block size pays a round trip. Numbers are unique across instances but
+ * not gapless, the rest of a block is lost when an instance stops.
+ *
+ * @author Chandan Kumar
+ *
+ */
+@Component
+@Slf4j
+public class OrderNumberAllocator {
+
+	static final String SEQUENCE_COLLECTION = "order_sequence";
+
+	static final String SEQUENCE_ID = "orderNumber";
+
+	private final MongoTemplate mongoTemplate;
+
+	private final int blockSize;
+
+	private final AtomicReference<Block> block = new AtomicReference<>(new Block(1, 0));
+
+	public OrderNumberAllocator(MongoTemplate mongoTemplate,
+			@Value("${wrappiza.order.number.block-size:1000}") int blockSize) {
+
+		this.mongoTemplate = mongoTemplate;
+		this.blockSize = blockSize;
+	}
+
+	/**
+	 * Method to take the next order number, reserving a new block once the
+	 * current one is used up
+	 *
+	 * @param
+	 */
+	public long next() {
+
+		while (true) {
+
+			Block current = block.get();
+			long number = current.next.getAndIncrement();
+
+			if (number <= current.last) {
+				return number;
+			}
+
+			refill(current);
+		}
+	}
+
+	/**
+	 * Method to replace an exhausted block, only the first thread finding it
+	 * exhausted reserves the next one
+	 *
+	 * @param exhausted
+	 */
+	private synchronized void refill(Block exhausted) {
+
+		if (block.get() == exhausted) {
+			block.set(reserve());
+		}
+	}
+
+	/**
+	 * Method to reserve the next block of numbers with a single atomic increment
+	 *
+	 * @param
+	 */
+	Block reserve() {
+
+		Document sequence = null;
+
+		try {
+			sequence = mongoTemplate.findAndModify(sequence(), new Update().inc("hi", blockSize),
+					new FindAndModifyOptions().upsert(true).returnNew(true), Document.class, SEQUENCE_COLLECTION);
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_INSERTION_FAILURE.getMessage());
+		}
+
+		long hi = ((Number) sequence.get("hi")).longValue();
+
+		log.info("Order numbers {} to {} are reserved", hi - blockSize + 1, hi);
+
+		return new Block(hi - blockSize + 1, hi);
+	}
+
+	/**
+	 * Query for the counter document of the order numbers
+	 *
+	 * @param
+	 */
+	static Query sequence() {
+		return new Query(Criteria.where("_id").is(SEQUENCE_ID));
+	}
+
+	/**
+	 * Range of numbers reserved by this instance, the last one included
+	 */
+	static final class Block {
+
+		private final AtomicLong next;
+
+		private final long last;
+
+		Block(long first, long last) {
+			this.next = new AtomicLong(first);
+			this.last = last;
+		}
+	}
+}
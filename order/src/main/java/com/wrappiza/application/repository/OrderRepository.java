@@ -1,8 +1,16 @@
 package com.wrappiza.application.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
+import com.mongodb.client.result.UpdateResult;
 import com.wrappiza.application.model.CreateOrderResource;
+import com.wrappiza.application.model.DeliveryTransition;
+import com.wrappiza.application.model.OrderDailySummary;
+import com.wrappiza.application.model.OrderItemSummary;
+import com.wrappiza.application.model.OrderSearchRequest;
+import com.wrappiza.application.model.OrderStatusSummary;
 
 /**
  * Interface for Order Repository
@@ -29,23 +37,74 @@ public interface OrderRepository {
 	/**
 	 * Retrieve all order saved into the repository
 	 * 
-	 * @param
+	 * @param fields fields to return, every field when empty
 	 */
-	List<CreateOrderResource> getOrder();
+	List<CreateOrderResource> getOrder(List<String> fields);
 
 	/**
 	 * Retrieve single order saved from the repository by customerName
 	 * 
 	 * @param String customerName
+	 * @param fields fields to return, every field when empty
 	 */
-	CreateOrderResource getOrderByCustomerName(String customerName);
+	CreateOrderResource getOrderByCustomerName(String customerName, List<String> fields);
 
 	/**
 	 * Retrieve single order saved from the repository by id
 	 * 
 	 * @param String id
+	 * @param fields fields to return, every field when empty
 	 */
-	CreateOrderResource getOrderById(String id);
+	CreateOrderResource getOrderById(String id, List<String> fields);
+
+	/**
+	 * Retrieve single order saved from the repository by order number
+	 * 
+	 * @param orderNumber
+	 * @param fields      fields to return, every field when empty
+	 */
+	CreateOrderResource getOrderByOrderNumber(Long orderNumber, List<String> fields);
+
+	/**
+	 * Retrieve one page of the orders matching a search, seeking past the sort
+	 * value and id of the last order of the previous page
+	 * 
+	 * @param search     filters, sort field and direction
+	 * @param afterValue sort value of the last order seen, null for the first
+	 *                   page
+	 * @param afterId    id of the last order seen, null for the first page
+	 * @param limit      maximum number of orders to return
+	 * @param fields     fields to return, every field when empty
+	 */
+	List<CreateOrderResource> searchOrder(OrderSearchRequest search, Object afterValue, String afterId, int limit,
+			List<String> fields);
+
+	/**
+	 * Count the orders saved into the repository and sum their total price per
+	 * delivery status, without reading them
+	 * 
+	 * @param from first order date, unbounded when null
+	 * @param to   last order date, unbounded when null
+	 */
+	List<OrderStatusSummary> summarizeOrderByDeliveryStatus(LocalDate from, LocalDate to);
+
+	/**
+	 * Count the orders saved into the repository and sum and average their total
+	 * price per day, without reading them
+	 * 
+	 * @param from first order date, unbounded when null
+	 * @param to   last order date, unbounded when null
+	 */
+	List<OrderDailySummary> summarizeOrderByDay(LocalDate from, LocalDate to);
+
+	/**
+	 * Count how many times each item was ordered, the most ordered first
+	 * 
+	 * @param from  first order date, unbounded when null
+	 * @param to    last order date, unbounded when null
+	 * @param limit number of items to return
+	 */
+	List<OrderItemSummary> summarizeOrderByItem(LocalDate from, LocalDate to, int limit);
 
 	/**
 	 * Update single order saved from the repository by customer name
@@ -77,4 +136,107 @@ public interface OrderRepository {
 	 */
 	CreateOrderResource deleteOrderById(String id);
 
+	/**
+	 * Update single order saved from the repository by customer name, only the
+	 * matched and modified counts are returned
+	 * 
+	 * @param createOrderResource
+	 */
+	UpdateResult updateOrderByCustomerNameMinimal(CreateOrderResource createOrderResource);
+
+	/**
+	 * Update single order saved from the repository by id, only the matched and
+	 * modified counts are returned
+	 * 
+	 * @param createOrderResource
+	 */
+	UpdateResult updateOrderByIdMinimal(CreateOrderResource createOrderResource);
+
+	/**
+	 * Delete single order saved from the repository by customer name, only the
+	 * matched and modified counts are returned
+	 * 
+	 * @param customerName
+	 */
+	UpdateResult deleteOrderByCustomerNameMinimal(String customerName);
+
+	/**
+	 * Delete single order saved from the repository by id, only the matched and
+	 * modified counts are returned
+	 * 
+	 * @param id
+	 */
+	UpdateResult deleteOrderByIdMinimal(String id);
+
+	/**
+	 * Update the delivery status of every active order matching the given ids,
+	 * status and date range in one write, only the matched and modified counts
+	 * are returned
+	 * 
+	 * @param ids                 ids to match, any id when null
+	 * @param status              status to match, any active status when null
+	 * @param from                first day to match, open when null
+	 * @param to                  last day to match, open when null
+	 * @param orderDeliveryStatus delivery status to write
+	 */
+	UpdateResult updateOrderDeliveryStatusMatching(Collection<String> ids, String status, LocalDate from,
+			LocalDate to, String orderDeliveryStatus);
+
+	/**
+	 * Delete every active order matching the given ids, status and date range in
+	 * one write, only the matched and modified counts are returned
+	 * 
+	 * @param ids    ids to match, any id when null
+	 * @param status status to match, any active status when null
+	 * @param from   first day to match, open when null
+	 * @param to     last day to match, open when null
+	 */
+	UpdateResult deleteOrderMatching(Collection<String> ids, String status, LocalDate from, LocalDate to);
+
+	/**
+	 * Move an active order to the next delivery status in a single write matching
+	 * the status the move starts from. Answers the moved order, or null when the
+	 * order is unknown, deleted or in another delivery status.
+	 * 
+	 * @param id
+	 * @param transition
+	 */
+	CreateOrderResource moveOrderDeliveryStatus(String id, DeliveryTransition transition);
+
+	/**
+	 * Add an item to an active order, raising the total price by its price in the
+	 * same write
+	 * 
+	 * @param id
+	 * @param item
+	 * @param price
+	 */
+	CreateOrderResource addOrderItem(String id, String item, double price);
+
+	/**
+	 * Remove one occurrence of an item from an active order, lowering the total
+	 * price by its price in the same write. The price is asserted by the client,
+	 * orders not storing one per item. Null is returned when the order does not
+	 * hold the item or its total is lower than the price.
+	 * 
+	 * @param id
+	 * @param item
+	 * @param price
+	 */
+	CreateOrderResource removeOrderItem(String id, String item, double price);
+
+	/**
+	 * Replace the first occurrence of an item of an active order, moving the
+	 * total price by the price difference in the same write. Both prices are
+	 * asserted by the client, orders not storing one per item. Null is returned
+	 * when the order does not hold the item or its total would turn negative.
+	 * 
+	 * @param id
+	 * @param item
+	 * @param price
+	 * @param newItem
+	 * @param newPrice
+	 */
+	CreateOrderResource replaceOrderItem(String id, String item, double price, String newItem, double newPrice);
+
 }
\ No newline at end of file
@@ -1,18 +1,39 @@
 package com.wrappiza.application.repository;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
 import org.springframework.stereotype.Repository;
 
+import com.mongodb.client.result.UpdateResult;
 import com.wrappiza.application.exception.ServiceErrorCode;
 import com.wrappiza.application.exception.TerminalDBException;
 import com.wrappiza.application.model.CreateOrderResource;
+import com.wrappiza.application.model.DeliveryTransition;
+import com.wrappiza.application.model.OrderDailySummary;
+import com.wrappiza.application.model.OrderItemSummary;
+import com.wrappiza.application.model.OrderSearchRequest;
+import com.wrappiza.application.model.OrderStatusSummary;
 import com.wrappiza.application.model.Status;
 
 import lombok.extern.slf4j.Slf4j;
@@ -27,12 +48,35 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class OrderRepositoryImpl implements OrderRepository {
 
+	/**
+	 * Options of the analytics aggregations, a group or sort outgrowing the
+	 * memory limit of a stage spilling to disk rather than failing
+	 */
+	static final AggregationOptions ANALYTICS = AggregationOptions.builder().allowDiskUse(true).build();
+
+	/**
+	 * Fields an order counts for in its daily rollup, with the id the column store
+	 * keys it by and the version the next write bumps, the only ones a minimal
+	 * write reads back
+	 */
+	static final List<String> ROLLUP_FIELDS = Arrays.asList("orderId", "date", "totalPrice", "orderDeliveryStatus",
+			"status", "version");
+
 	@Autowired
 	private MongoTemplate mongoTemplate;
 
-	public OrderRepositoryImpl(MongoTemplate mongoTemplate) {
+	@Autowired
+	private OrderRollupStore rollupStore;
+
+	@Autowired
+	private OrderColumnStore columnStore;
+
+	public OrderRepositoryImpl(MongoTemplate mongoTemplate, OrderRollupStore rollupStore,
+			OrderColumnStore columnStore) {
 		super();
 		this.mongoTemplate = mongoTemplate;
+		this.rollupStore = rollupStore;
+		this.columnStore = columnStore;
 	}
 
 	/**
@@ -53,6 +97,9 @@ public class OrderRepositoryImpl implements OrderRepository {
 			throw new TerminalDBException(ServiceErrorCode.DB_INSERTION_FAILURE.getMessage());
 		}
 
+		rollupStore.recordCreated(resources);
+		columnStore.recordCreated(resources);
+
 		return resources;
 	}
 
@@ -74,16 +121,19 @@ public class OrderRepositoryImpl implements OrderRepository {
 			throw new TerminalDBException(ServiceErrorCode.DB_INSERTION_FAILURE.getMessage());
 		}
 
+		rollupStore.record(null, resource);
+		columnStore.record(null, resource);
+
 		return resource;
 	}
 
 	/**
 	 * Method to get all order from the database
 	 * 
-	 * @param
+	 * @param fields
 	 */
 	@Override
-	public List<CreateOrderResource> getOrder() {
+	public List<CreateOrderResource> getOrder(List<String> fields) {
 
 		log.info("Retrieving order is in progress");
 
@@ -93,7 +143,7 @@ public class OrderRepositoryImpl implements OrderRepository {
 			Query query = new Query();
 			query.addCriteria(Criteria.where("status").ne(Status.DELETED));
 
-			resources = mongoTemplate.find(query, CreateOrderResource.class);
+			resources = mongoTemplate.find(project(query, fields), CreateOrderResource.class);
 		} catch (Exception ex) {
 			throw new TerminalDBException(ServiceErrorCode.DB_SEARCH_FAILURE.getMessage());
 		}
@@ -105,19 +155,17 @@ public class OrderRepositoryImpl implements OrderRepository {
 	 * Method to get single order by customerName from the database
 	 * 
 	 * @param String customerName
+	 * @param fields
 	 */
-	public CreateOrderResource getOrderByCustomerName(String customerName) {
+	public CreateOrderResource getOrderByCustomerName(String customerName, List<String> fields) {
 
 		log.info("Retrieving single order by customerName is in progress");
 
 		CreateOrderResource resource = null;
 
 		try {
-			Query query = new Query();
-			query.addCriteria(Criteria.where("status").ne(Status.DELETED));
-			query.addCriteria(Criteria.where("customerName").is(customerName));
-
-			resource = mongoTemplate.findOne(query, CreateOrderResource.class);
+			resource = mongoTemplate.findOne(project(activeOrderByCustomerName(customerName), fields),
+					CreateOrderResource.class);
 		} catch (Exception ex) {
 			throw new TerminalDBException(ServiceErrorCode.DB_SEARCH_FAILURE.getMessage());
 		}
@@ -129,20 +177,39 @@ public class OrderRepositoryImpl implements OrderRepository {
 	 * Method to get single order by id from the database
 	 * 
 	 * @param String id
+	 * @param fields
 	 */
-	public CreateOrderResource getOrderById(String id) {
+	public CreateOrderResource getOrderById(String id, List<String> fields) {
 
 		log.info("Retrieving single order by id is in progress");
 
 		CreateOrderResource resource = null;
 
 		try {
-			Query query = new Query();
+			resource = mongoTemplate.findOne(project(activeOrderById(id), fields), CreateOrderResource.class);
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_SEARCH_FAILURE.getMessage());
+		}
 
-			query.addCriteria(Criteria.where("status").ne(Status.DELETED));
-			query.addCriteria(Criteria.where("_id").is(id));
+		return resource;
+	}
+
+	/**
+	 * Method to get single order by order number from the database
+	 * 
+	 * @param orderNumber
+	 * @param fields
+	 */
+	@Override
+	public CreateOrderResource getOrderByOrderNumber(Long orderNumber, List<String> fields) {
 
-			resource = mongoTemplate.findOne(query, CreateOrderResource.class);
+		log.info("Retrieving single order by order number is in progress");
+
+		CreateOrderResource resource = null;
+
+		try {
+			resource = mongoTemplate.findOne(project(activeOrderByOrderNumber(orderNumber), fields),
+					CreateOrderResource.class);
 		} catch (Exception ex) {
 			throw new TerminalDBException(ServiceErrorCode.DB_SEARCH_FAILURE.getMessage());
 		}
@@ -150,6 +217,135 @@ public class OrderRepositoryImpl implements OrderRepository {
 		return resource;
 	}
 
+	/**
+	 * Method to get one page of the orders matching a search from the database.
+	 * The page starts right after the last order seen, found by seeking the index
+	 * rather than skipping the orders before it, so every page costs the same
+	 * however deep it is.
+	 * 
+	 * @param search
+	 * @param afterValue
+	 * @param afterId
+	 * @param limit
+	 * @param fields
+	 */
+	@Override
+	public List<CreateOrderResource> searchOrder(OrderSearchRequest search, Object afterValue, String afterId,
+			int limit, List<String> fields) {
+
+		log.info("Searching order after : {} is in progress", afterId);
+
+		List<CreateOrderResource> resources = null;
+
+		try {
+			resources = mongoTemplate.find(project(activeOrderSearch(search, afterValue, afterId, limit), fields),
+					CreateOrderResource.class);
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_SEARCH_FAILURE.getMessage());
+		}
+
+		return resources;
+	}
+
+	/**
+	 * Method to count order and sum their total price per delivery status inside
+	 * the database. Only one line per delivery status comes back from the
+	 * aggregation.
+	 * 
+	 * @param from
+	 * @param to
+	 */
+	@Override
+	public List<OrderStatusSummary> summarizeOrderByDeliveryStatus(LocalDate from, LocalDate to) {
+
+		log.info("Summarizing order from : {} to : {} is in progress", from, to);
+
+		List<OrderStatusSummary> summaries = new ArrayList<>();
+
+		try {
+			Aggregation aggregation = Aggregation.newAggregation(CreateOrderResource.class,
+					Aggregation.match(activeOrderBetween(from, to)),
+					Aggregation.group("orderDeliveryStatus").count().as("orders").sum("totalPrice").as("revenue"),
+					Aggregation.sort(Sort.Direction.ASC, "_id")).withOptions(ANALYTICS);
+
+			for (Document document : mongoTemplate.aggregate(aggregation, CreateOrderResource.class, Document.class)
+					.getMappedResults()) {
+				summaries.add(new OrderStatusSummary(document.getString("_id"),
+						((Number) document.get("orders")).longValue(), ((Number) document.get("revenue")).doubleValue()));
+			}
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_SEARCH_FAILURE.getMessage());
+		}
+
+		return summaries;
+	}
+
+	/**
+	 * Method to count order and sum and average their total price per day inside
+	 * the database. Only one line per day comes back from the aggregation.
+	 * 
+	 * @param from
+	 * @param to
+	 */
+	@Override
+	public List<OrderDailySummary> summarizeOrderByDay(LocalDate from, LocalDate to) {
+
+		log.info("Summarizing order by day from : {} to : {} is in progress", from, to);
+
+		List<OrderDailySummary> summaries = null;
+
+		try {
+			Aggregation aggregation = Aggregation.newAggregation(CreateOrderResource.class,
+					Aggregation.match(activeOrderBetween(from, to)),
+					Aggregation.group("date").count().as("orders").sum("totalPrice").as("revenue").avg("totalPrice")
+							.as("averageOrderValue"),
+					Aggregation.sort(Sort.Direction.ASC, "_id"),
+					Aggregation.project("orders", "revenue", "averageOrderValue").and("_id").as("date")
+							.andExclude("_id")).withOptions(ANALYTICS);
+
+			summaries = mongoTemplate.aggregate(aggregation, CreateOrderResource.class, OrderDailySummary.class)
+					.getMappedResults();
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_SEARCH_FAILURE.getMessage());
+		}
+
+		return summaries;
+	}
+
+	/**
+	 * Method to count how many times each item was ordered inside the database,
+	 * only the most ordered items coming back from the aggregation
+	 * 
+	 * @param from
+	 * @param to
+	 * @param limit
+	 */
+	@Override
+	public List<OrderItemSummary> summarizeOrderByItem(LocalDate from, LocalDate to, int limit) {
+
+		log.info("Summarizing order by item from : {} to : {} is in progress", from, to);
+
+		List<OrderItemSummary> summaries = new ArrayList<>();
+
+		try {
+			Aggregation aggregation = Aggregation.newAggregation(CreateOrderResource.class,
+					Aggregation.match(activeOrderBetween(from, to)), Aggregation.project("items").andExclude("_id"),
+					Aggregation.unwind("items"), Aggregation.group("items").count().as("quantity"),
+					Aggregation.sort(Sort.by(Sort.Direction.DESC, "quantity").and(Sort.by(Sort.Direction.ASC, "_id"))),
+					Aggregation.limit(limit)).withOptions(ANALYTICS);
+
+			for (Document document : mongoTemplate.aggregate(aggregation, CreateOrderResource.class, Document.class)
+					.getMappedResults()) {
+				summaries.add(new OrderItemSummary(document.getString("_id"),
+						((Number) document.get("quantity")).longValue()));
+			}
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_SEARCH_FAILURE.getMessage());
+		}
+
+		return summaries;
+	}
+
 	/**
 	 * Method to update single order by customerName from the database
 	 * 
@@ -164,11 +360,7 @@ public class OrderRepositoryImpl implements OrderRepository {
 		CreateOrderResource resource = null;
 
 		try {
-			Query query = new Query();
-			query.addCriteria(Criteria.where("status").ne(Status.DELETED));
-			query.addCriteria(Criteria.where("customerName").is(createOrderResource.getOrderId()));
-
-			resource = buildUpdate(createOrderResource, query);
+			resource = buildUpdate(createOrderResource, activeOrderByCustomerName(createOrderResource.getOrderId()));
 		} catch (Exception ex) {
 			throw new TerminalDBException(ServiceErrorCode.DB_UPDATION_FAILURE.getMessage());
 		}
@@ -190,11 +382,7 @@ public class OrderRepositoryImpl implements OrderRepository {
 		CreateOrderResource resource = null;
 
 		try {
-			Query query = new Query();
-			query.addCriteria(Criteria.where("status").ne(Status.DELETED));
-			query.addCriteria(Criteria.where("_id").is(createOrderResource.getOrderId()));
-
-			resource = buildUpdate(createOrderResource, query);
+			resource = buildUpdate(createOrderResource, activeOrderById(createOrderResource.getOrderId()));
 		} catch (Exception ex) {
 			throw new TerminalDBException(ServiceErrorCode.DB_UPDATION_FAILURE.getMessage());
 		}
@@ -215,10 +403,7 @@ public class OrderRepositoryImpl implements OrderRepository {
 		CreateOrderResource resource = null;
 
 		try {
-			Query query = new Query();
-			query.addCriteria(Criteria.where("customerName").is(customerName));
-
-			resource = buildDelete(query);
+			resource = buildDelete(orderByCustomerName(customerName));
 		} catch (Exception ex) {
 			throw new TerminalDBException(ServiceErrorCode.DB_DELETION_FAILURE.getMessage());
 		}
@@ -239,54 +424,781 @@ public class OrderRepositoryImpl implements OrderRepository {
 		CreateOrderResource resource = null;
 
 		try {
-			Query query = new Query();
-			query.addCriteria(Criteria.where("_id").is(id));
+			resource = buildDelete(orderById(id));
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_DELETION_FAILURE.getMessage());
+		}
+
+		return resource;
+	}
+
+	/**
+	 * Method to update single order by customerName from the database without
+	 * reading it back
+	 * 
+	 * @param CreateOrderResource createOrderResource
+	 * 
+	 */
+	@Override
+	public UpdateResult updateOrderByCustomerNameMinimal(CreateOrderResource createOrderResource) {
+
+		log.info("Updating order by customer name with minimal return is in progress");
 
-			resource = buildDelete(query);
+		UpdateResult result = null;
+
+		try {
+			result = writeMinimal(activeOrderByCustomerName(createOrderResource.getOrderId()),
+					orderUpdate(createOrderResource), createOrderResource);
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_UPDATION_FAILURE.getMessage());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Method to update single order by id from the database without reading it
+	 * back
+	 * 
+	 * @param CreateOrderResource createOrderResource
+	 * 
+	 */
+	@Override
+	public UpdateResult updateOrderByIdMinimal(CreateOrderResource createOrderResource) {
+
+		log.info("Updating order by id with minimal return is in progress");
+
+		UpdateResult result = null;
+
+		try {
+			result = writeMinimal(activeOrderById(createOrderResource.getOrderId()),
+					orderUpdate(createOrderResource), createOrderResource);
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_UPDATION_FAILURE.getMessage());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Method to delete single order by customerName from the database without
+	 * reading it back
+	 * 
+	 * @param String customerName
+	 */
+	@Override
+	public UpdateResult deleteOrderByCustomerNameMinimal(String customerName) {
+
+		log.info("Deleting order by customerName with minimal return is in progress");
+
+		UpdateResult result = null;
+
+		try {
+			result = writeMinimal(orderByCustomerName(customerName), deletion(), null);
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_DELETION_FAILURE.getMessage());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Method to delete single order by id from the database without reading it
+	 * back
+	 * 
+	 * @param String id
+	 */
+	@Override
+	public UpdateResult deleteOrderByIdMinimal(String id) {
+
+		log.info("Deleting order by id with minimal return is in progress");
+
+		UpdateResult result = null;
+
+		try {
+			result = writeMinimal(orderById(id), deletion(), null);
 		} catch (Exception ex) {
 			throw new TerminalDBException(ServiceErrorCode.DB_DELETION_FAILURE.getMessage());
 		}
 
+		return result;
+	}
+
+	/**
+	 * Method to update the delivery status of every matching order with a single
+	 * updateMulti
+	 * 
+	 * @param ids
+	 * @param status
+	 * @param from
+	 * @param to
+	 * @param orderDeliveryStatus
+	 */
+	@Override
+	public UpdateResult updateOrderDeliveryStatusMatching(Collection<String> ids, String status, LocalDate from,
+			LocalDate to, String orderDeliveryStatus) {
+
+		log.info("Updating order matching ids, status : {}, from : {} and to : {} is in progress", status, from, to);
+
+		UpdateResult result = null;
+		List<LocalDate> days = null;
+
+		try {
+			days = matchingDays(activeOrdersMatching(ids, status, from, to));
+
+			result = mongoTemplate.updateMulti(activeOrdersMatching(ids, status, from, to),
+					deliveryStatusUpdate(orderDeliveryStatus), CreateOrderResource.class);
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_UPDATION_FAILURE.getMessage());
+		}
+
+		days.forEach(rollupStore::rebuild);
+		columnStore.reload(days);
+
+		return result;
+	}
+
+	/**
+	 * Method to soft delete every matching order with a single updateMulti
+	 * 
+	 * @param ids
+	 * @param status
+	 * @param from
+	 * @param to
+	 */
+	@Override
+	public UpdateResult deleteOrderMatching(Collection<String> ids, String status, LocalDate from, LocalDate to) {
+
+		log.info("Deleting order matching ids, status : {}, from : {} and to : {} is in progress", status, from, to);
+
+		UpdateResult result = null;
+		List<LocalDate> days = null;
+
+		try {
+			days = matchingDays(activeOrdersMatching(ids, status, from, to));
+
+			result = mongoTemplate.updateMulti(activeOrdersMatching(ids, status, from, to), deletion(),
+					CreateOrderResource.class);
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_DELETION_FAILURE.getMessage());
+		}
+
+		days.forEach(rollupStore::rebuild);
+		columnStore.reload(days);
+
+		return result;
+	}
+
+	/**
+	 * Method to move an order to the next delivery status with one conditional
+	 * findAndModify. The query matches the delivery status the move starts from,
+	 * so of concurrent moves of the same order only one applies and the others
+	 * match nothing, without reading the order first. The order is read back as
+	 * it was before the move, for the daily rollup, and the moved order derived
+	 * from it.
+	 * 
+	 * @param id
+	 * @param transition
+	 */
+	@Override
+	public CreateOrderResource moveOrderDeliveryStatus(String id, DeliveryTransition transition) {
+
+		log.info("Moving order by id to delivery status : {} is in progress", transition.getTo());
+
+		CreateOrderResource before = null;
+
+		try {
+			before = mongoTemplate.findAndModify(activeOrderInDeliveryStatus(id, transition.getFrom().name()),
+					deliveryStatusUpdate(transition.getTo().name()), new FindAndModifyOptions().returnNew(false),
+					CreateOrderResource.class);
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_UPDATION_FAILURE.getMessage());
+		}
+
+		if (null == before) {
+			return null;
+		}
+
+		CreateOrderResource resource = new CreateOrderResource(before.getOrderId(), before.getOrderNumber(),
+				before.getCustomerName(), before.getCustomerAddress(), before.getItems(), before.getTotalPrice(),
+				before.getDate(), transition.getTo().name(), Status.UPDATED.name(), nextVersion(before));
+
+		rollupStore.record(before, resource);
+		columnStore.record(before, resource);
+
+		return resource;
+	}
+
+	/**
+	 * Method to push an item on an order and raise its total price atomically
+	 * 
+	 * @param id
+	 * @param item
+	 * @param price
+	 */
+	@Override
+	public CreateOrderResource addOrderItem(String id, String item, double price) {
+
+		log.info("Adding item to order by id is in progress");
+
+		return editItem(activeOrderById(id), itemAddition(item, price), price);
+	}
+
+	/**
+	 * Method to take one occurrence of an item off an order and lower its total
+	 * price atomically, as long as the total covers the price
+	 * 
+	 * @param id
+	 * @param item
+	 * @param price
+	 */
+	@Override
+	public CreateOrderResource removeOrderItem(String id, String item, double price) {
+
+		log.info("Removing item from order by id is in progress");
+
+		return editItem(activeOrderHoldingItem(id, item, price), itemRemoval(item, price), -price);
+	}
+
+	/**
+	 * Method to replace an item of an order in place and move its total price
+	 * atomically, as long as the total covers a fall in price
+	 * 
+	 * @param id
+	 * @param item
+	 * @param price
+	 * @param newItem
+	 * @param newPrice
+	 */
+	@Override
+	public CreateOrderResource replaceOrderItem(String id, String item, double price, String newItem,
+			double newPrice) {
+
+		log.info("Replacing item of order by id is in progress");
+
+		return editItem(activeOrderHoldingItem(id, item, price - newPrice),
+				itemReplacement(newItem, newPrice - price), newPrice - price);
+	}
+
+	/**
+	 * Method to run an item edit, reading back the edited order and adding the
+	 * change of its total price to its daily rollup
+	 * 
+	 * @param query
+	 * @param update
+	 * @param priceDifference
+	 */
+	private CreateOrderResource editItem(Query query, UpdateDefinition update, double priceDifference) {
+
+		CreateOrderResource resource = null;
+
+		try {
+			resource = mongoTemplate.findAndModify(query, update, new FindAndModifyOptions().returnNew(true),
+					CreateOrderResource.class);
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_UPDATION_FAILURE.getMessage());
+		}
+
+		if (null != resource) {
+			rollupStore.recordRevenue(resource, priceDifference);
+			columnStore.record(null, resource);
+		}
+
 		return resource;
 	}
 
 	/**
-	 * Method to build update
+	 * Method to run a write answered with counts only. With neither the daily
+	 * rollups nor the column store kept, it is a plain updateFirst and the order
+	 * is not read at all. Otherwise it is a single findAndModify handing back the
+	 * rollup fields of the order as it was just before the write, so the
+	 * difference it made is known exactly in one round trip, and the counts are
+	 * derived from that image, every write bumping the version.
+	 * 
+	 * @param query
+	 * @param update
+	 * @param written the order as written, null when the write deletes it
+	 */
+	private UpdateResult writeMinimal(Query query, UpdateDefinition update, CreateOrderResource written) {
+
+		if (!rollupStore.isEnabled() && !columnStore.isEnabled()) {
+			return mongoTemplate.updateFirst(query, update, CreateOrderResource.class);
+		}
+
+		CreateOrderResource before = mongoTemplate.findAndModify(project(query, ROLLUP_FIELDS), update,
+				new FindAndModifyOptions().returnNew(false), CreateOrderResource.class);
+
+		if (null == before) {
+			return UpdateResult.acknowledged(0, 0L, null);
+		}
+
+		CreateOrderResource after = null != written ? updated(before, written) : null;
+
+		rollupStore.record(before, after);
+		columnStore.record(before, after);
+
+		return UpdateResult.acknowledged(1, 1L, null);
+	}
+
+	/**
+	 * Method to get the distinct days of the orders a query matches, the days a
+	 * write through it touches
+	 * 
+	 * @param query
+	 */
+	private List<LocalDate> matchingDays(Query query) {
+		return mongoTemplate.findDistinct(query, "date", CreateOrderResource.class, LocalDate.class);
+	}
+
+	/**
+	 * Update pushing an item and raising the total price by its price
+	 * 
+	 * @param item
+	 * @param price
+	 */
+	static Update itemAddition(String item, double price) {
+
+		Update update = new Update();
+		update.push("items", item);
+		update.inc("totalPrice", price);
+		update.set("status", Status.UPDATED.name());
+		update.inc("version", 1);
+
+		return update;
+	}
+
+	/**
+	 * Update overwriting the item matched by the query through the positional
+	 * operator and moving the total price by the price difference
+	 * 
+	 * @param newItem
+	 * @param priceDifference
+	 */
+	static Update itemReplacement(String newItem, double priceDifference) {
+
+		Update update = new Update();
+		update.set("items.$", newItem);
+		update.inc("totalPrice", priceDifference);
+		update.set("status", Status.UPDATED.name());
+		update.inc("version", 1);
+
+		return update;
+	}
+
+	/**
+	 * Pipeline update cutting the first occurrence of the item out of the list
+	 * and lowering the total price by its price. A $pull would drop every
+	 * occurrence of an item ordered more than once, while the price only
+	 * accounts for one.
+	 * 
+	 * @param item
+	 * @param price
+	 */
+	static AggregationUpdate itemRemoval(String item, double price) {
+
+		Document index = new Document("$indexOfArray", Arrays.asList("$items", new Document("$literal", item)));
+
+		Document before = new Document("$slice", Arrays.asList("$items", "$$index"));
+		Document after = new Document("$slice", Arrays.asList("$items",
+				new Document("$add", Arrays.asList("$$index", 1)), new Document("$size", "$items")));
+
+		AggregationExpression items = context -> new Document("$let", new Document("vars",
+				new Document("index", index)).append("in",
+						new Document("$concatArrays", Arrays.asList(before, after))));
+
+		return AggregationUpdate.update().set("items").toValue(items).set("totalPrice")
+				.toValue(ArithmeticOperators.Subtract.valueOf("totalPrice").subtract(price)).set("status")
+				.toValue(Status.UPDATED.name()).set("version")
+				.toValue(ArithmeticOperators.Add.valueOf(ConditionalOperators.ifNull("version").then(0)).add(1));
+	}
+
+	/**
+	 * Method to build update, bumping the version in the same atomic write. The
+	 * order is read back as it was before the write, which the daily rollup
+	 * needs, and the written order is derived from it as the update sets every
+	 * field but the id and number.
 	 * 
 	 * @param createOrderResource
 	 * @param query
 	 */
 	private CreateOrderResource buildUpdate(CreateOrderResource createOrderResource, Query query) {
 
+		CreateOrderResource before = mongoTemplate.findAndModify(query, orderUpdate(createOrderResource),
+				new FindAndModifyOptions().returnNew(false), CreateOrderResource.class);
+
+		if (null == before) {
+			return null;
+		}
+
+		CreateOrderResource resource = updated(before, createOrderResource);
+
+		rollupStore.record(before, resource);
+		columnStore.record(before, resource);
+
+		return resource;
+	}
+
+	/**
+	 * Method to derive an order as written by an update, which sets every field
+	 * but the id, number and delivery status and bumps the version
+	 * 
+	 * @param before
+	 * @param createOrderResource
+	 */
+	private static CreateOrderResource updated(CreateOrderResource before, CreateOrderResource createOrderResource) {
+
+		return new CreateOrderResource(before.getOrderId(), before.getOrderNumber(),
+				createOrderResource.getCustomerName(), createOrderResource.getCustomerAddress(),
+				createOrderResource.getItems(), createOrderResource.getTotalPrice(), createOrderResource.getDate(),
+				before.getOrderDeliveryStatus(), createOrderResource.getStatus(), nextVersion(before));
+	}
+
+	/**
+	 * Method to get the version an order has after a write bumping it, a missing
+	 * version being set to 1 by the increment
+	 * 
+	 * @param before
+	 */
+	private static Long nextVersion(CreateOrderResource before) {
+		return null != before.getVersion() ? before.getVersion() + 1 : 1L;
+	}
+
+	/**
+	 * Update writing the order fields and bumping the version. The delivery
+	 * status is left alone, only the delivery transitions move it.
+	 * 
+	 * @param createOrderResource
+	 */
+	static Update orderUpdate(CreateOrderResource createOrderResource) {
+
 		Update update = new Update();
 		update.set("customerName", createOrderResource.getCustomerName());
 		update.set("customerAddress", createOrderResource.getCustomerAddress());
 		update.set("items", createOrderResource.getItems());
 		update.set("totalPrice", createOrderResource.getTotalPrice());
 		update.set("date", createOrderResource.getDate());
-		update.set("orderDeliveryStatus", createOrderResource.getOrderDeliveryStatus());
 		update.set("status", createOrderResource.getStatus());
+		update.inc("version", 1);
 
-		CreateOrderResource resource = mongoTemplate.findAndModify(query, update,
-				new FindAndModifyOptions().returnNew(true), CreateOrderResource.class);
+		return update;
+	}
 
-		return resource;
+	/**
+	 * Update writing the delivery status and bumping the version
+	 * 
+	 * @param orderDeliveryStatus
+	 */
+	static Update deliveryStatusUpdate(String orderDeliveryStatus) {
+
+		Update update = new Update();
+		update.set("orderDeliveryStatus", orderDeliveryStatus);
+		update.set("status", Status.UPDATED.name());
+		update.inc("version", 1);
+
+		return update;
 	}
 
 	/**
-	 * Method to build delete
+	 * Method to build delete, bumping the version in the same atomic write. The
+	 * order is read back as it was before the write, for the daily rollup, and
+	 * answered as deleted.
 	 * 
 	 * @param query
 	 * 
 	 */
 	private CreateOrderResource buildDelete(Query query) {
 
+		CreateOrderResource before = mongoTemplate.findAndModify(query, deletion(),
+				new FindAndModifyOptions().returnNew(false), CreateOrderResource.class);
+
+		if (null == before) {
+			return null;
+		}
+
+		CreateOrderResource resource = new CreateOrderResource(before.getOrderId(), before.getOrderNumber(),
+				before.getCustomerName(), before.getCustomerAddress(), before.getItems(), before.getTotalPrice(),
+				before.getDate(), before.getOrderDeliveryStatus(), Status.DELETED.name(), nextVersion(before));
+
+		rollupStore.record(before, null);
+		columnStore.record(before, null);
+
+		return resource;
+	}
+
+	/**
+	 * Update soft deleting the order and bumping the version
+	 * 
+	 * @param
+	 */
+	static Update deletion() {
+
 		Update update = new Update();
 		update.set("status", Status.DELETED.name());
+		update.inc("version", 1);
 
-		CreateOrderResource resource = mongoTemplate.findAndModify(query, update,
-				new FindAndModifyOptions().returnNew(true), CreateOrderResource.class);
+		return update;
+	}
 
-		return resource;
+	/**
+	 * Method to restrict a query to the selected fields, all fields are returned
+	 * when none is selected. Leaving the id out when it was not asked for lets a
+	 * lookup be answered from the index alone.
+	 * 
+	 * @param query
+	 * @param fields
+	 */
+	static Query project(Query query, List<String> fields) {
+
+		if (null == fields || fields.isEmpty()) {
+			return query;
+		}
+
+		fields.forEach(query.fields()::include);
+
+		if (!fields.contains("orderId")) {
+			query.fields().exclude("orderId");
+		}
+
+		return query;
+	}
+
+	/**
+	 * Query for an active order by customer name. The query shapes below are
+	 * shared with {@link OrderIndexManager}, which checks at startup that each of
+	 * them is served by an index.
+	 * 
+	 * @param customerName
+	 */
+	static Query activeOrderByCustomerName(String customerName) {
+
+		Query query = new Query();
+		query.addCriteria(Criteria.where("status").ne(Status.DELETED));
+		query.addCriteria(Criteria.where("customerName").is(customerName));
+
+		return query;
+	}
+
+	/**
+	 * Query for an active order by id
+	 * 
+	 * @param id
+	 */
+	static Query activeOrderById(String id) {
+
+		Query query = new Query();
+		query.addCriteria(Criteria.where("status").ne(Status.DELETED));
+		query.addCriteria(Criteria.where("_id").is(id));
+
+		return query;
+	}
+
+	/**
+	 * Query for an active order by order number
+	 * 
+	 * @param orderNumber
+	 */
+	static Query activeOrderByOrderNumber(Long orderNumber) {
+
+		Query query = new Query();
+		query.addCriteria(Criteria.where("status").ne(Status.DELETED));
+		query.addCriteria(Criteria.where("orderNumber").is(orderNumber));
+
+		return query;
+	}
+
+	/**
+	 * Query for an active order by id in the given delivery status
+	 * 
+	 * @param id
+	 * @param orderDeliveryStatus
+	 */
+	static Query activeOrderInDeliveryStatus(String id, String orderDeliveryStatus) {
+
+		Query query = activeOrderById(id);
+		query.addCriteria(Criteria.where("orderDeliveryStatus").is(orderDeliveryStatus));
+
+		return query;
+	}
+
+	/**
+	 * Query for an active order by id holding the item, the first matching
+	 * element being the one a positional update writes. When the edit lowers the
+	 * total price, the total must cover the fall so it never turns negative, the
+	 * item prices being asserted by the client rather than stored.
+	 * 
+	 * @param id
+	 * @param item
+	 * @param priceFall
+	 */
+	static Query activeOrderHoldingItem(String id, String item, double priceFall) {
+
+		Query query = activeOrderById(id);
+		query.addCriteria(Criteria.where("items").is(item));
+
+		if (priceFall > 0) {
+			query.addCriteria(Criteria.where("totalPrice").gte(priceFall));
+		}
+
+		return query;
+	}
+
+	/**
+	 * Criteria for the active orders dated within the range, a missing bound
+	 * leaves that side open
+	 * 
+	 * @param from
+	 * @param to
+	 */
+	static Criteria activeOrderBetween(LocalDate from, LocalDate to) {
+
+		Criteria criteria = Criteria.where("status").ne(Status.DELETED);
+
+		if (null != from && null != to) {
+			criteria.and("date").gte(from).lt(to.plusDays(1));
+		} else if (null != from) {
+			criteria.and("date").gte(from);
+		} else if (null != to) {
+			criteria.and("date").lt(to.plusDays(1));
+		}
+
+		return criteria;
+	}
+
+	/**
+	 * Query for the active orders matching every given condition, a condition
+	 * left null matches any order
+	 * 
+	 * @param ids
+	 * @param status
+	 * @param from
+	 * @param to
+	 */
+	static Query activeOrdersMatching(Collection<String> ids, String status, LocalDate from, LocalDate to) {
+
+		Query query = new Query();
+
+		if (null != from && null != to) {
+			query.addCriteria(Criteria.where("date").gte(from).lt(to.plusDays(1)));
+		} else if (null != from) {
+			query.addCriteria(Criteria.where("date").gte(from));
+		} else if (null != to) {
+			query.addCriteria(Criteria.where("date").lt(to.plusDays(1)));
+		}
+
+		if (null == status) {
+			query.addCriteria(Criteria.where("status").ne(Status.DELETED));
+		} else {
+			query.addCriteria(Criteria.where("status").is(status));
+		}
+
+		if (null != ids) {
+			query.addCriteria(Criteria.where("_id").in(ids));
+		}
+
+		return query;
+	}
+
+	/**
+	 * Query for one page of the active orders matching a search, ordered by the
+	 * sort field then id. Past the first page the query keeps the orders sorting
+	 * after the last one seen, the bound on the sort field narrowing the index
+	 * scan and the id breaking ties between orders sharing a sort value. MongoDB
+	 * sorts a null or missing value lowest and matches it with no range, so
+	 * those orders are asked for explicitly: first when ascending, last when
+	 * descending.
+	 * 
+	 * @param search
+	 * @param afterValue
+	 * @param afterId
+	 * @param limit
+	 */
+	static Query activeOrderSearch(OrderSearchRequest search, Object afterValue, String afterId, int limit) {
+
+		List<Criteria> criteria = new ArrayList<>();
+
+		if (null != search.getCustomerName()) {
+			criteria.add(Criteria.where("customerName").is(search.getCustomerName()));
+		}
+
+		if (null != search.getOrderDeliveryStatus()) {
+			criteria.add(Criteria.where("orderDeliveryStatus").is(search.getOrderDeliveryStatus()));
+		}
+
+		if (null != search.getFrom()) {
+			criteria.add(Criteria.where("date").gte(search.getFrom()));
+		}
+
+		if (null != search.getTo()) {
+			criteria.add(Criteria.where("date").lt(search.getTo().plusDays(1)));
+		}
+
+		if (null != search.getMinPrice()) {
+			criteria.add(Criteria.where("totalPrice").gte(search.getMinPrice()));
+		}
+
+		if (null != search.getMaxPrice()) {
+			criteria.add(Criteria.where("totalPrice").lte(search.getMaxPrice()));
+		}
+
+		if (null == search.getStatus()) {
+			criteria.add(Criteria.where("status").ne(Status.DELETED));
+		} else {
+			criteria.add(Criteria.where("status").is(search.getStatus()));
+		}
+
+		Sort.Direction direction = Sort.Direction.fromString(search.getDirection());
+		String sort = search.getSort();
+
+		if (null != afterId) {
+
+			// Ids are only mapped to ObjectId on equality, a range needs the ObjectId itself
+			ObjectId lastId = new ObjectId(afterId);
+
+			if (null == afterValue && direction.isAscending()) {
+				criteria.add(new Criteria().orOperator(Criteria.where(sort).ne(null),
+						Criteria.where(sort).is(null).and("_id").gt(lastId)));
+			} else if (null == afterValue) {
+				criteria.add(Criteria.where(sort).is(null));
+				criteria.add(Criteria.where("_id").lt(lastId));
+			} else if (direction.isAscending()) {
+				criteria.add(Criteria.where(sort).gte(afterValue));
+				criteria.add(new Criteria().orOperator(Criteria.where(sort).gt(afterValue),
+						Criteria.where("_id").gt(lastId)));
+			} else {
+				criteria.add(new Criteria().orOperator(Criteria.where(sort).lt(afterValue),
+						Criteria.where(sort).is(afterValue).and("_id").lt(lastId), Criteria.where(sort).is(null)));
+			}
+		}
+
+		Query query = new Query(new Criteria().andOperator(criteria));
+		query.with(Sort.by(direction, sort, "_id")).limit(limit);
+
+		return query;
+	}
+
+	/**
+	 * Query for an order by customer name whatever its status
+	 * 
+	 * @param customerName
+	 */
+	static Query orderByCustomerName(String customerName) {
+
+		Query query = new Query();
+		query.addCriteria(Criteria.where("customerName").is(customerName));
+
+		return query;
+	}
+
+	/**
+	 * Query for an order by id whatever its status
+	 * 
+	 * @param id
+	 */
+	static Query orderById(String id) {
+
+		Query query = new Query();
+		query.addCriteria(Criteria.where("_id").is(id));
+
+		return query;
 	}
 }
@@ -0,0 +1,423 @@
+package com.wrappiza.application.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.wrappiza.application.exception.ServiceErrorCode;
+import com.wrappiza.application.exception.TerminalDBException;
+import com.wrappiza.application.model.CreateOrderResource;
+import com.wrappiza.application.model.OrderDailyRollup;
+import com.wrappiza.application.model.OrderStatusSummary;
+import com.wrappiza.application.model.Status;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps one small document per day in order_daily_rollup with the count,
+ * revenue and delivery status tallies of the active orders of that day. Every
+ * order write adds the difference it made with $inc, so dashboards read one
+ * document per day instead of aggregating the orders. A rollup write failing
+ * never fails the order write, and any day can be rebuilt from the orders to
+ * repair drift. A rebuild only replaces a rollup no increment touched since it
+ * was read, so the recent days, today included, are reconciled on a schedule.
+ * Nothing is kept when the rollups are disabled.
+ *
+ * @author Chandan Kumar
+ *
+ */
+@Component
+@Slf4j
+public class OrderRollupStore {
+
+	/**
+	 * Attempts of a rebuild whose rollup changed while the orders were aggregated
+	 */
+	private static final int REBUILD_ATTEMPTS = 3;
+
+	private final MongoTemplate mongoTemplate;
+
+	private final boolean enabled;
+
+	private final int reconcileDays;
+
+	public OrderRollupStore(MongoTemplate mongoTemplate,
+			@Value("${wrappiza.order.rollup.enabled:true}") boolean enabled,
+			@Value("${wrappiza.order.rollup.reconcile-days:7}") int reconcileDays) {
+
+		this.mongoTemplate = mongoTemplate;
+		this.enabled = enabled;
+		this.reconcileDays = reconcileDays;
+	}
+
+	/**
+	 * Method answering whether the rollups are kept, order writes adding to them
+	 *
+	 * @param
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Method to add the difference one order write made, the order before and
+	 * after the write being null when it did not exist or no longer exists
+	 *
+	 * @param before
+	 * @param after
+	 */
+	public void record(CreateOrderResource before, CreateOrderResource after) {
+
+		Map<String, Delta> deltas = new TreeMap<>();
+
+		contribute(deltas, before, -1);
+		contribute(deltas, after, 1);
+
+		write(deltas);
+	}
+
+	/**
+	 * Method to add newly created orders, one write per day they fall on
+	 *
+	 * @param created
+	 */
+	public void recordCreated(List<CreateOrderResource> created) {
+
+		Map<String, Delta> deltas = new TreeMap<>();
+
+		created.forEach(order -> contribute(deltas, order, 1));
+
+		write(deltas);
+	}
+
+	/**
+	 * Method to add a change of the total price of an order, its day and delivery
+	 * status being unchanged
+	 *
+	 * @param after
+	 * @param difference
+	 */
+	public void recordRevenue(CreateOrderResource after, double difference) {
+
+		Map<String, Delta> deltas = new TreeMap<>();
+
+		if (counts(after)) {
+			deltas.computeIfAbsent(after.getDate().toString(), day -> new Delta()).add(after, 0, difference);
+		}
+
+		write(deltas);
+	}
+
+	/**
+	 * Method to get the rollups of the days within the range, a missing bound
+	 * leaving that side open. Days without orders have no rollup.
+	 *
+	 * @param from
+	 * @param to
+	 */
+	public List<OrderDailyRollup> find(LocalDate from, LocalDate to) {
+
+		List<OrderDailyRollup> rollups = null;
+
+		try {
+			rollups = mongoTemplate.find(rollupsBetween(from, to), OrderDailyRollup.class);
+		} catch (Exception ex) {
+			throw new TerminalDBException(ServiceErrorCode.DB_SEARCH_FAILURE.getMessage());
+		}
+
+		rollups.forEach(OrderRollupStore::decodeDeliveryStatuses);
+
+		return rollups;
+	}
+
+	/**
+	 * Method to rebuild the rollup of one day from its orders, replacing whatever
+	 * the increments left. A rollup an increment touched while the orders were
+	 * aggregated is not replaced, the rebuild being tried again from the start.
+	 * Answers whether the day could be rebuilt.
+	 *
+	 * @param day
+	 */
+	public boolean rebuild(LocalDate day) {
+
+		if (!enabled) {
+			return false;
+		}
+
+		try {
+			for (int attempt = 1; attempt <= REBUILD_ATTEMPTS; attempt++) {
+
+				if (replace(day)) {
+					return true;
+				}
+
+				log.debug("Order rollup of : {} changed while being rebuilt, attempt : {}", day, attempt);
+			}
+		} catch (Exception ex) {
+
+			log.error("Exception occured while rebuilding order rollup of : {}", day, ex);
+
+			return false;
+		}
+
+		log.warn("Order rollup of : {} kept changing while being rebuilt, left to reconciliation", day);
+
+		return false;
+	}
+
+	/**
+	 * Method to rebuild the recent days, today included
+	 *
+	 * @param
+	 */
+	@Scheduled(cron = "${wrappiza.order.rollup.reconcile-cron:0 30 2 * * *}")
+	public void reconcile() {
+
+		if (!enabled) {
+			return;
+		}
+
+		log.info("Order rollup reconciliation of the last {} days is in progress", reconcileDays);
+
+		LocalDate today = LocalDate.now();
+
+		for (LocalDate day = today.minusDays(reconcileDays); !day.isAfter(today); day = day.plusDays(1)) {
+			rebuild(day);
+		}
+	}
+
+	/**
+	 * Method to aggregate the orders of one day and write the result in place of
+	 * the rollup read just before, only while its version is unchanged. Answers
+	 * false when an increment got in between.
+	 *
+	 * @param day
+	 */
+	private boolean replace(LocalDate day) {
+
+		OrderDailyRollup current = mongoTemplate.findById(day.toString(), OrderDailyRollup.class);
+
+		Aggregation aggregation = Aggregation.newAggregation(CreateOrderResource.class,
+				Aggregation.match(OrderRepositoryImpl.activeOrderBetween(day, day)),
+				Aggregation.group("orderDeliveryStatus").count().as("orders").sum("totalPrice").as("revenue"))
+				.withOptions(OrderRepositoryImpl.ANALYTICS);
+
+		OrderDailyRollup rollup = new OrderDailyRollup(day.toString(), 0, 0, new LinkedHashMap<>(), Instant.now(),
+				null != current && null != current.getVersion() ? current.getVersion() + 1 : 1);
+
+		for (Document document : mongoTemplate.aggregate(aggregation, CreateOrderResource.class, Document.class)
+				.getMappedResults()) {
+
+			long orders = ((Number) document.get("orders")).longValue();
+			double revenue = ((Number) document.get("revenue")).doubleValue();
+
+			rollup.setOrders(rollup.getOrders() + orders);
+			rollup.setRevenue(rollup.getRevenue() + revenue);
+
+			if (StringUtils.isNotEmpty(document.getString("_id"))) {
+				rollup.getDeliveryStatuses().put(statusKey(document.getString("_id")),
+						new OrderStatusSummary(null, orders, revenue));
+			}
+		}
+
+		log.debug("Order rollup of : {} is aggregated with {} orders", day, rollup.getOrders());
+
+		if (null == current) {
+			return rollup.getOrders() == 0 || insert(rollup);
+		}
+
+		Query unchanged = Query
+				.query(Criteria.where("_id").is(current.getDay()).and("version").is(current.getVersion()));
+
+		if (rollup.getOrders() == 0) {
+			return mongoTemplate.remove(unchanged, OrderDailyRollup.class).getDeletedCount() > 0;
+		}
+
+		return null != mongoTemplate.findAndReplace(unchanged, rollup);
+	}
+
+	/**
+	 * Method to insert the rebuilt rollup of a day that had none, answering false
+	 * when an increment created it meanwhile
+	 *
+	 * @param rollup
+	 */
+	private boolean insert(OrderDailyRollup rollup) {
+
+		try {
+			mongoTemplate.insert(rollup);
+		} catch (DuplicateKeyException ex) {
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Query for the rollups of the days within the range, in date order
+	 *
+	 * @param from
+	 * @param to
+	 */
+	static Query rollupsBetween(LocalDate from, LocalDate to) {
+
+		Criteria criteria = Criteria.where("_id");
+
+		if (null != from) {
+			criteria.gte(from.toString());
+		}
+
+		if (null != to) {
+			criteria.lte(to.toString());
+		}
+
+		Query query = null != from || null != to ? new Query(criteria) : new Query();
+
+		return query.with(Sort.by(Sort.Direction.ASC, "_id"));
+	}
+
+	/**
+	 * Method to add what an order counts for to the deltas of its day, only
+	 * active orders counting
+	 *
+	 * @param deltas
+	 * @param order
+	 * @param sign   1 for the order after a write, -1 for the order before it
+	 */
+	static void contribute(Map<String, Delta> deltas, CreateOrderResource order, int sign) {
+
+		if (counts(order)) {
+			deltas.computeIfAbsent(order.getDate().toString(), day -> new Delta()).add(order, sign,
+					sign * (null != order.getTotalPrice() ? order.getTotalPrice() : 0));
+		}
+	}
+
+	private static boolean counts(CreateOrderResource order) {
+		return null != order && null != order.getDate() && !Status.DELETED.name().equals(order.getStatus());
+	}
+
+	/**
+	 * Method to turn a delivery status into a key of the delivery status tallies.
+	 * The status is free text, so the characters a field name or path cannot hold
+	 * are escaped, the escape character first.
+	 *
+	 * @param orderDeliveryStatus
+	 */
+	static String statusKey(String orderDeliveryStatus) {
+		return orderDeliveryStatus.replace("%", "%25").replace(".", "%2E").replace("$", "%24");
+	}
+
+	/**
+	 * Method to turn the keys of the delivery status tallies of a rollup back into
+	 * delivery statuses
+	 *
+	 * @param rollup
+	 */
+	private static void decodeDeliveryStatuses(OrderDailyRollup rollup) {
+
+		if (null == rollup.getDeliveryStatuses()) {
+			return;
+		}
+
+		Map<String, OrderStatusSummary> deliveryStatuses = new LinkedHashMap<>();
+
+		rollup.getDeliveryStatuses().forEach((key, tally) -> deliveryStatuses
+				.put(key.replace("%24", "$").replace("%2E", ".").replace("%25", "%"), tally));
+
+		rollup.setDeliveryStatuses(deliveryStatuses);
+	}
+
+	/**
+	 * Method to write the deltas, one upsert per day in a single unordered bulk
+	 * write, days left unchanged by the write being skipped
+	 *
+	 * @param deltas
+	 */
+	private void write(Map<String, Delta> deltas) {
+
+		deltas.values().removeIf(Delta::isEmpty);
+
+		if (!enabled || deltas.isEmpty()) {
+			return;
+		}
+
+		try {
+			BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+					OrderDailyRollup.class);
+
+			deltas.forEach((day, delta) -> bulkOperations.upsert(Query.query(Criteria.where("_id").is(day)),
+					delta.toUpdate()));
+
+			bulkOperations.execute();
+		} catch (Exception ex) {
+			log.warn("Failed to write order rollup of days : {}, left to reconciliation : {}", deltas.keySet(),
+					ex.getMessage());
+		}
+	}
+
+	/**
+	 * Counts and amounts added to one day, kept apart so counts stay integers
+	 */
+	static class Delta {
+
+		private final Map<String, Long> counts = new LinkedHashMap<>();
+
+		private final Map<String, Double> amounts = new LinkedHashMap<>();
+
+		void add(CreateOrderResource order, long orders, double revenue) {
+
+			counts.merge("orders", orders, Long::sum);
+			amounts.merge("revenue", revenue, Double::sum);
+
+			if (StringUtils.isNotEmpty(order.getOrderDeliveryStatus())) {
+
+				String tally = "deliveryStatuses." + statusKey(order.getOrderDeliveryStatus());
+
+				counts.merge(tally + ".orders", orders, Long::sum);
+				amounts.merge(tally + ".revenue", revenue, Double::sum);
+			}
+		}
+
+		boolean isEmpty() {
+			return counts.values().stream().allMatch(count -> count == 0)
+					&& amounts.values().stream().allMatch(amount -> amount == 0);
+		}
+
+		Update toUpdate() {
+
+			Update update = new Update();
+			update.inc("version", 1);
+
+			counts.forEach((key, count) -> {
+				if (count != 0) {
+					update.inc(key, count);
+				}
+			});
+
+			amounts.forEach((key, amount) -> {
+				if (amount != 0) {
+					update.inc(key, amount);
+				}
+			});
+
+			return update;
+		}
+	}
+}
@@ -1,7 +1,22 @@
 package com.wrappiza.application.service;
 
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+
 import com.wrappiza.application.model.CreateOrderRequest;
+import com.wrappiza.application.model.CreateOrderRequestInfo;
 import com.wrappiza.application.model.CreateOrderResponse;
+import com.wrappiza.application.model.DeliveryTransition;
+import com.wrappiza.application.model.JobResponse;
+import com.wrappiza.application.model.OrderBulkRequest;
+import com.wrappiza.application.model.OrderItemEditRequest;
+import com.wrappiza.application.model.OrderItemsResponse;
+import com.wrappiza.application.model.OrderRevenueResponse;
+import com.wrappiza.application.model.OrderSearchRequest;
+import com.wrappiza.application.model.OrderSliceRequest;
+import com.wrappiza.application.model.OrderSliceResponse;
+import com.wrappiza.application.model.OrderSummaryResponse;
 
 /**
  * Interface for order service
@@ -21,17 +36,147 @@ public interface OderService {
 	/**
 	 * Method used to retrieve all Order logic
 	 * 
-	 * @param
+	 * @param fields comma separated fields to return, every field when blank
 	 */
-	public CreateOrderResponse retrieveOrder();
+	public CreateOrderResponse retrieveOrder(String fields);
 	
 	/**
 	 * Method used to retrieve single order logic
 	 * 
-	 * @param String id,String customerName
+	 * @param String id,String customerName,Long orderNumber
+	 * @param fields comma separated fields to return, every field when blank
 	 */
-	public CreateOrderResponse getSingleOrder(String id, String customerName);
+	public CreateOrderResponse getSingleOrder(String id, String customerName, Long orderNumber, String fields);
+
+	/**
+	 * Method used to search order one page at a time logic
+	 * 
+	 * @param search filters, sort field and direction
+	 * @param after  cursor of the last order of the previous page, null for the
+	 *               first page
+	 * @param limit  page size, the default page size when null
+	 * @param fields comma separated fields to return, every field when blank
+	 */
+	public CreateOrderResponse searchOrder(OrderSearchRequest search, String after, Integer limit, String fields);
 	
+	/**
+	 * Method used to count order and sum revenue logic
+	 * 
+	 * @param from
+	 * @param to
+	 */
+	public OrderSummaryResponse summarizeOrder(LocalDate from, LocalDate to);
+
+	/**
+	 * Method used to sum revenue and average order value day by day logic
+	 * 
+	 * @param from
+	 * @param to
+	 */
+	public OrderRevenueResponse analyzeRevenue(LocalDate from, LocalDate to);
+
+	/**
+	 * Method used to rank the most ordered items logic
+	 * 
+	 * @param from
+	 * @param to
+	 * @param limit number of items, the default number when null
+	 */
+	public OrderItemsResponse analyzeItems(LocalDate from, LocalDate to, Integer limit);
+
+	/**
+	 * Method used to move an order to the next delivery status logic
+	 * 
+	 * @param id
+	 * @param transition
+	 */
+	public CreateOrderResponse moveOrderDeliveryStatus(String id, DeliveryTransition transition);
+
+	/**
+	 * Method used to slice the active orders in memory logic
+	 * 
+	 * @param slice
+	 * @param limit
+	 */
+	public OrderSliceResponse sliceOrder(OrderSliceRequest slice, Integer limit);
+
+	/**
+	 * Method used to queue the rebuild of the daily rollups of a date range as an
+	 * async job logic
+	 * 
+	 * @param from
+	 * @param to
+	 */
+	public JobResponse submitRebuildRollupsJob(LocalDate from, LocalDate to);
+
+	/**
+	 * Method used to update the delivery status of every order matching the ids
+	 * and filter logic, answering with the matched and modified counts
+	 * 
+	 * @param orderBulkRequest
+	 */
+	public CreateOrderResponse updateOrders(OrderBulkRequest orderBulkRequest);
+
+	/**
+	 * Method used to delete every order matching the ids and filter logic,
+	 * answering with the matched and modified counts
+	 * 
+	 * @param orderBulkRequest
+	 */
+	public CreateOrderResponse deleteOrders(OrderBulkRequest orderBulkRequest);
+
+	/**
+	 * Method used to add, remove or replace one item of an order logic
+	 * 
+	 * @param id
+	 * @param orderItemEditRequest
+	 */
+	public CreateOrderResponse editOrderItem(String id, OrderItemEditRequest orderItemEditRequest);
+
+	/**
+	 * Method used to queue the creation of an order list as an async job logic
+	 * 
+	 * @param createOrderRequest
+	 */
+	public JobResponse submitCreateOrderJob(CreateOrderRequest createOrderRequest);
+
+	/**
+	 * Method used to queue the delivery status update of every order matching
+	 * the ids and filter as an async job logic
+	 * 
+	 * @param orderBulkRequest
+	 */
+	public JobResponse submitUpdateOrdersJob(OrderBulkRequest orderBulkRequest);
+
+	/**
+	 * Method used to queue the deletion of every order matching the ids and
+	 * filter as an async job logic
+	 * 
+	 * @param orderBulkRequest
+	 */
+	public JobResponse submitDeleteOrdersJob(OrderBulkRequest orderBulkRequest);
+
+	/**
+	 * Method used to import a stream of orders chunk by chunk logic
+	 * 
+	 * @param records
+	 */
+	public JobResponse importOrders(Iterator<CreateOrderRequestInfo> records);
+
+	/**
+	 * Method used to retrieve the progress of every retained job logic
+	 * 
+	 * @param
+	 */
+	public List<JobResponse> getJobs();
+
+	/**
+	 * Method used to retrieve the progress of an async job logic
+	 * 
+	 * @param id
+	 */
+	public JobResponse getJob(String id);
+
 	/**
 	 * Method used to update single order logic
 	 * 
@@ -42,6 +187,18 @@ public interface OderService {
 	 */
 	public CreateOrderResponse updateSingleOrder(String id, String customerName, CreateOrderRequest createOrderRequest);
 
+	/**
+	 * Method used to update single order logic, a minimal update answers with
+	 * the matched and modified counts instead of the updated order
+	 * 
+	 * @param id
+	 * @param cutomerName
+	 * @param createOrderRequest
+	 * @param minimal
+	 */
+	public CreateOrderResponse updateSingleOrder(String id, String customerName, CreateOrderRequest createOrderRequest,
+			boolean minimal);
+
 	/**
 	 * Method used to delete single order logic
 	 * 
@@ -49,4 +206,13 @@ public interface OderService {
 	 */
 	public CreateOrderResponse deleteSingleOrder(String id, String customerName);
 
+	/**
+	 * Method used to delete single order logic, a minimal delete answers with
+	 * the matched and modified counts instead of the deleted order
+	 * 
+	 * @param String id,String customerName
+	 * @param minimal
+	 */
+	public CreateOrderResponse deleteSingleOrder(String id, String customerName, boolean minimal);
+
 }
@@ -1,20 +1,67 @@
 package com.wrappiza.application.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import org.apache.commons.lang3.StringUtils;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import com.mongodb.client.result.UpdateResult;
 import com.wrappiza.application.exception.ServiceErrorCode;
 import com.wrappiza.application.exception.ServiceTerminalException;
 import com.wrappiza.application.exception.TerminalDBException;
+import com.wrappiza.application.job.Job;
+import com.wrappiza.application.job.OrderJobManager;
+import com.wrappiza.application.model.BulkWriteResult;
 import com.wrappiza.application.model.CreateOrderRequest;
+import com.wrappiza.application.model.CreateOrderRequestInfo;
 import com.wrappiza.application.model.CreateOrderResource;
 import com.wrappiza.application.model.CreateOrderResponse;
+import com.wrappiza.application.model.DeliveryStatus;
+import com.wrappiza.application.model.DeliveryTransition;
+import com.wrappiza.application.model.ItemOperation;
+import com.wrappiza.application.model.JobResponse;
+import com.wrappiza.application.model.JobType;
+import com.wrappiza.application.model.OrderBulkRequest;
+import com.wrappiza.application.model.OrderDailyRollup;
+import com.wrappiza.application.model.OrderDailySummary;
+import com.wrappiza.application.model.OrderItemEditRequest;
+import com.wrappiza.application.model.OrderItemSummary;
+import com.wrappiza.application.model.OrderItemsResponse;
+import com.wrappiza.application.model.OrderRevenueResponse;
+import com.wrappiza.application.model.OrderSearchRequest;
+import com.wrappiza.application.model.OrderSliceRequest;
+import com.wrappiza.application.model.OrderSliceResponse;
+import com.wrappiza.application.model.OrderSliceRow;
+import com.wrappiza.application.model.OrderStatusSummary;
+import com.wrappiza.application.model.OrderSummaryResponse;
 import com.wrappiza.application.model.Status;
+import com.wrappiza.application.repository.OrderBulkWriter;
+import com.wrappiza.application.repository.OrderNumberAllocator;
 import com.wrappiza.application.repository.OrderRepository;
+import com.wrappiza.application.repository.OrderColumnStore;
+import com.wrappiza.application.repository.OrderRollupStore;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -27,15 +74,77 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class OrderServiceImpl implements OderService {
 
+	private static final int MAX_BULK_SIZE = 50000;
+
+	private static final int DEFAULT_PAGE_SIZE = 50;
+
+	private static final int MAX_PAGE_SIZE = 500;
+
+	private static final int DEFAULT_TOP_ITEMS = 10;
+
+	private static final int MAX_TOP_ITEMS = 100;
+
+	private static final int MAX_ROLLUP_DAYS = 366;
+
+	private static final int DEFAULT_SLICE_ROWS = 100;
+
+	private static final int MAX_SLICE_ROWS = 1000;
+
+	private static final long MAX_SLICE_GROUPS = 1L << 18;
+
+	private static final Set<String> SLICE_DIMENSIONS = new HashSet<>(
+			Arrays.asList("item", "date", "orderDeliveryStatus", "customerName"));
+
+	private static final List<String> SORT_FIELDS = Arrays.asList("date", "totalPrice");
+
+	private static final Set<String> SEARCHABLE_STATUSES = new HashSet<>(
+			Arrays.asList(Status.CREATED.name(), Status.UPDATED.name()));
+
+	private static final Set<String> DELIVERY_STATUSES = Arrays.stream(DeliveryStatus.values()).map(Enum::name)
+			.collect(Collectors.toSet());
+
+	private static final Set<String> SELECTABLE_FIELDS = new HashSet<>(Arrays.asList("orderId", "orderNumber",
+			"customerName", "customerAddress", "items", "totalPrice", "date", "orderDeliveryStatus", "status",
+			"version"));
+
 	@Autowired
 	private OrderRepository repo;
 
 	@Autowired
 	private OrderServiceMapper mapper;
 
-	public OrderServiceImpl(OrderRepository repo, OrderServiceMapper mapper) {
+	@Autowired
+	private OrderBulkWriter bulkWriter;
+
+	@Autowired
+	private OrderNumberAllocator orderNumberAllocator;
+
+	@Autowired
+	private OrderJobManager jobManager;
+
+	@Autowired
+	private Validator validator;
+
+	@Autowired
+	private OrderRollupStore rollupStore;
+
+	@Autowired
+	private OrderColumnStore columnStore;
+
+	@Value("${wrappiza.order.rollup.serve-reads:true}")
+	private boolean rollupReads;
+
+	public OrderServiceImpl(OrderRepository repo, OrderServiceMapper mapper, OrderBulkWriter bulkWriter,
+			OrderNumberAllocator orderNumberAllocator, OrderJobManager jobManager, Validator validator,
+			OrderRollupStore rollupStore, OrderColumnStore columnStore) {
 		this.repo = repo;
 		this.mapper = mapper;
+		this.bulkWriter = bulkWriter;
+		this.orderNumberAllocator = orderNumberAllocator;
+		this.jobManager = jobManager;
+		this.validator = validator;
+		this.rollupStore = rollupStore;
+		this.columnStore = columnStore;
 	}
 
 	/**
@@ -51,15 +160,18 @@ public class OrderServiceImpl implements OderService {
 		CreateOrderResponse createOrderResponse = null;
 
 		try {
-			// When request having more than one order
+			// When request having more than one order, each order succeeds or fails on its own
 
 			if (createOrderRequest.getCreateOrderRequestInfos().size() > 1) {
-				List<CreateOrderResource> resources = repo.saveOrder(
-						mapper.createResource(createOrderRequest.getCreateOrderRequestInfos(), Status.CREATED.name()));
-				createOrderResponse = mapper.buildCreateOrderResponse(resources);
+				List<CreateOrderResource> resources = mapper
+						.createResource(createOrderRequest.getCreateOrderRequestInfos(), Status.CREATED.name());
+				resources.forEach(resource -> resource.setOrderNumber(orderNumberAllocator.next()));
+				List<BulkWriteResult> writeResults = bulkWriter.insert(resources);
+				createOrderResponse = mapper.buildBulkCreateOrderResponse(resources, writeResults);
 			} else {
 				List<CreateOrderResource> resources = mapper
 						.createResource(createOrderRequest.getCreateOrderRequestInfos(), Status.CREATED.name());
+				resources.get(0).setOrderNumber(orderNumberAllocator.next());
 				CreateOrderResource resource = repo.saveSingleOrder(resources.get(0));
 				resources.clear();
 				resources.add(resource);
@@ -81,16 +193,18 @@ public class OrderServiceImpl implements OderService {
 	/**
 	 * Retrieving all order from the repository
 	 * 
-	 * @param
+	 * @param fields
 	 */
 	@Override
-	public CreateOrderResponse retrieveOrder() {
+	public CreateOrderResponse retrieveOrder(String fields) {
+
+		List<String> selectedFields = resolveFields(fields);
 
 		List<CreateOrderResource> createOrderResource = null;
 		CreateOrderResponse response = null;
 
 		try {
-			createOrderResource = repo.getOrder();
+			createOrderResource = repo.getOrder(selectedFields);
 
 			response = mapper.buildCreateOrderResponse(createOrderResource);
 
@@ -109,22 +223,29 @@ public class OrderServiceImpl implements OderService {
 	/**
 	 * Retrieving single order from the repository
 	 * 
-	 * @param Integer id,String customerName
+	 * @param Integer id,String customerName,Long orderNumber
+	 * @param fields
 	 */
 	@Override
-	public CreateOrderResponse getSingleOrder(String id, String customerName) {
+	public CreateOrderResponse getSingleOrder(String id, String customerName, Long orderNumber, String fields) {
 
-		log.debug("Id : {} and customerName : {} of retrieving single order: ", id, customerName);
+		log.debug("Id : {}, customerName : {} and orderNumber : {} of retrieving single order: ", id, customerName,
+				orderNumber);
+
+		List<String> selectedFields = resolveFields(fields);
 
 		CreateOrderResource createOrderResource = null;
 		CreateOrderResponse response = null;
 
 		try {
 			if (StringUtils.isNotBlank(id)) {
-				createOrderResource = repo.getOrderById(id);
+				createOrderResource = repo.getOrderById(id, selectedFields);
 
 			} else if (StringUtils.isNotBlank(customerName)) {
-				createOrderResource = repo.getOrderByCustomerName(customerName);
+				createOrderResource = repo.getOrderByCustomerName(customerName, selectedFields);
+
+			} else if (null != orderNumber) {
+				createOrderResource = repo.getOrderByOrderNumber(orderNumber, selectedFields);
 
 			} else {
 				throw new ServiceTerminalException(ServiceErrorCode.EMPTY_SEARCH_FAILURE);
@@ -145,6 +266,313 @@ public class OrderServiceImpl implements OderService {
 		return response;
 	}
 
+	/**
+	 * Searching order one page at a time. Pages are read by seeking past the sort
+	 * value and id of the last order of the previous page, carried by an opaque
+	 * cursor, and one extra order is fetched to tell whether another page
+	 * follows, so neither skipping nor counting is needed.
+	 * 
+	 * @param search
+	 * @param after
+	 * @param limit
+	 * @param fields
+	 */
+	@Override
+	public CreateOrderResponse searchOrder(OrderSearchRequest search, String after, Integer limit, String fields) {
+
+		log.debug("Search : {}, after : {} and limit : {} of searching order", search, after, limit);
+
+		validateSearch(search);
+
+		int pageSize = resolvePageSize(limit);
+
+		List<String> selectedFields = resolveFields(fields);
+
+		// The cursor is built from the sort value and id of the last order
+		if (!selectedFields.isEmpty()) {
+			selectedFields = new ArrayList<>(selectedFields);
+
+			for (String field : Arrays.asList(search.getSort(), "orderId")) {
+				if (!selectedFields.contains(field)) {
+					selectedFields.add(field);
+				}
+			}
+		}
+
+		Object[] cursor = StringUtils.isNotBlank(after) ? decodeCursor(search.getSort(), after)
+				: new Object[] { null, null };
+
+		CreateOrderResponse response = null;
+
+		try {
+			List<CreateOrderResource> createOrderResource = repo.searchOrder(search, cursor[0], (String) cursor[1],
+					pageSize + 1, selectedFields);
+
+			String nextCursor = null;
+
+			if (createOrderResource.size() > pageSize) {
+				createOrderResource = new ArrayList<>(createOrderResource.subList(0, pageSize));
+				nextCursor = encodeCursor(search.getSort(), createOrderResource.get(pageSize - 1));
+			}
+
+			response = mapper.buildCreateOrderResponse(createOrderResource, nextCursor);
+
+		} catch (TerminalDBException ex) {
+
+			log.error("Exception occured while searching order : ", ex);
+
+			throw new ServiceTerminalException(ServiceErrorCode.DB_SEARCH_FAILURE);
+		}
+
+		log.debug("Response of search order : {}", response);
+
+		return response;
+	}
+
+	/**
+	 * Counting order and summing revenue per delivery status in the repository
+	 * 
+	 * @param from
+	 * @param to
+	 */
+	@Override
+	public OrderSummaryResponse summarizeOrder(LocalDate from, LocalDate to) {
+
+		log.debug("From : {} and to : {} of order summary", from, to);
+
+		if (null != from && null != to && to.isBefore(from)) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_DATE_RANGE);
+		}
+
+		OrderSummaryResponse response = null;
+
+		try {
+			List<OrderStatusSummary> summaries = rollupReads && rollupStore.isEnabled()
+					? summarizeRollupsByDeliveryStatus(from, to)
+					: repo.summarizeOrderByDeliveryStatus(from, to);
+
+			long orders = summaries.stream().mapToLong(OrderStatusSummary::getOrders).sum();
+			double revenue = summaries.stream().mapToDouble(OrderStatusSummary::getRevenue).sum();
+
+			response = new OrderSummaryResponse(from, to, orders, revenue, summaries);
+
+		} catch (TerminalDBException ex) {
+
+			log.error("Exception occured while summarizing order : ", ex);
+
+			throw new ServiceTerminalException(ServiceErrorCode.DB_SEARCH_FAILURE);
+		}
+
+		log.debug("Response of order summary : {}", response);
+
+		return response;
+	}
+
+	/**
+	 * Summing revenue and averaging order value day by day in the repository.
+	 * Only one line per day is read, the totals being added up from them.
+	 * 
+	 * @param from
+	 * @param to
+	 */
+	@Override
+	public OrderRevenueResponse analyzeRevenue(LocalDate from, LocalDate to) {
+
+		log.debug("From : {} and to : {} of revenue analytics", from, to);
+
+		if (null != from && null != to && to.isBefore(from)) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_DATE_RANGE);
+		}
+
+		OrderRevenueResponse response = null;
+
+		try {
+			List<OrderDailySummary> days = rollupReads && rollupStore.isEnabled() ? summarizeRollupsByDay(from, to)
+					: repo.summarizeOrderByDay(from, to);
+
+			long orders = days.stream().mapToLong(OrderDailySummary::getOrders).sum();
+			double revenue = days.stream().mapToDouble(OrderDailySummary::getRevenue).sum();
+
+			response = new OrderRevenueResponse(from, to, orders, revenue, orders > 0 ? revenue / orders : 0, days);
+
+		} catch (TerminalDBException ex) {
+
+			log.error("Exception occured while analyzing revenue : ", ex);
+
+			throw new ServiceTerminalException(ServiceErrorCode.DB_SEARCH_FAILURE);
+		}
+
+		log.debug("Response of revenue analytics : {}", response);
+
+		return response;
+	}
+
+	/**
+	 * Method to add up the delivery status tallies of the daily rollups of a date
+	 * range
+	 * 
+	 * @param from
+	 * @param to
+	 */
+	private List<OrderStatusSummary> summarizeRollupsByDeliveryStatus(LocalDate from, LocalDate to) {
+
+		Map<String, OrderStatusSummary> summaries = new TreeMap<>();
+
+		for (OrderDailyRollup rollup : rollupStore.find(from, to)) {
+
+			if (null == rollup.getDeliveryStatuses()) {
+				continue;
+			}
+
+			rollup.getDeliveryStatuses().forEach((orderDeliveryStatus, tally) -> {
+
+				OrderStatusSummary summary = summaries.computeIfAbsent(orderDeliveryStatus,
+						key -> new OrderStatusSummary(key, 0, 0));
+
+				summary.setOrders(summary.getOrders() + tally.getOrders());
+				summary.setRevenue(summary.getRevenue() + tally.getRevenue());
+			});
+		}
+
+		return summaries.values().stream().filter(summary -> summary.getOrders() > 0)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Method to read the daily rollups of a date range as daily summaries
+	 * 
+	 * @param from
+	 * @param to
+	 */
+	private List<OrderDailySummary> summarizeRollupsByDay(LocalDate from, LocalDate to) {
+
+		return rollupStore.find(from, to).stream().filter(rollup -> rollup.getOrders() > 0)
+				.map(rollup -> new OrderDailySummary(LocalDate.parse(rollup.getDay()), rollup.getOrders(),
+						rollup.getRevenue(), rollup.getRevenue() / rollup.getOrders()))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Slicing the active orders in memory by any of item, date, delivery status
+	 * and customer name. A slice has to fit in a bounded number of groups, the
+	 * filters narrowing a grouped field down.
+	 * 
+	 * @param slice
+	 * @param limit
+	 */
+	@Override
+	public OrderSliceResponse sliceOrder(OrderSliceRequest slice, Integer limit) {
+
+		log.debug("Request of order slice : {} and limit : {}", slice, limit);
+
+		if (null != slice.getGroupBy() && !SLICE_DIMENSIONS.containsAll(slice.getGroupBy())) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_SLICE_REQUEST);
+		}
+
+		if (null != slice.getFrom() && null != slice.getTo() && slice.getTo().isBefore(slice.getFrom())) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_DATE_RANGE);
+		}
+
+		if (null != limit && (limit < 1 || limit > MAX_SLICE_ROWS)) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_SLICE_REQUEST);
+		}
+
+		if (!columnStore.isReady()) {
+			throw new ServiceTerminalException(ServiceErrorCode.ANALYTICS_UNAVAILABLE);
+		}
+
+		if (columnStore.countGroups(slice) > MAX_SLICE_GROUPS) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_SLICE_REQUEST);
+		}
+
+		OrderSliceResponse response = null;
+
+		try {
+			List<OrderSliceRow> rows = columnStore.slice(slice, null != limit ? limit : DEFAULT_SLICE_ROWS);
+
+			response = new OrderSliceResponse(slice.getFrom(), slice.getTo(), slice.getGroupBy(), rows);
+
+		} catch (TerminalDBException ex) {
+
+			log.error("Exception occured while slicing order : ", ex);
+
+			throw new ServiceTerminalException(ServiceErrorCode.DB_SEARCH_FAILURE);
+		}
+
+		log.debug("Response of order slice : {}", response);
+
+		return response;
+	}
+
+	/**
+	 * Queuing the rebuild of the daily rollups of a date range from the orders as
+	 * an async job, one day at a time
+	 * 
+	 * @param from
+	 * @param to
+	 */
+	@Override
+	public JobResponse submitRebuildRollupsJob(LocalDate from, LocalDate to) {
+
+		if (null == from || null == to || to.isBefore(from) || from.plusDays(MAX_ROLLUP_DAYS).isBefore(to)) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_DATE_RANGE);
+		}
+
+		int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+
+		Job job = jobManager.submit(JobType.ROLLUP, days, running -> {
+
+			for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+
+				boolean rebuilt = rollupStore.rebuild(day);
+
+				running.recordCounts(1, rebuilt ? 1 : 0);
+			}
+		});
+
+		return job.toResponse();
+	}
+
+	/**
+	 * Ranking the most ordered items in the repository
+	 * 
+	 * @param from
+	 * @param to
+	 * @param limit
+	 */
+	@Override
+	public OrderItemsResponse analyzeItems(LocalDate from, LocalDate to, Integer limit) {
+
+		log.debug("From : {}, to : {} and limit : {} of item analytics", from, to, limit);
+
+		if (null != from && null != to && to.isBefore(from)) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_DATE_RANGE);
+		}
+
+		if (null != limit && (limit < 1 || limit > MAX_TOP_ITEMS)) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_SEARCH_REQUEST);
+		}
+
+		OrderItemsResponse response = null;
+
+		try {
+			List<OrderItemSummary> items = repo.summarizeOrderByItem(from, to,
+					null != limit ? limit : DEFAULT_TOP_ITEMS);
+
+			response = new OrderItemsResponse(from, to, items);
+
+		} catch (TerminalDBException ex) {
+
+			log.error("Exception occured while analyzing items : ", ex);
+
+			throw new ServiceTerminalException(ServiceErrorCode.DB_SEARCH_FAILURE);
+		}
+
+		log.debug("Response of item analytics : {}", response);
+
+		return response;
+	}
+
 	/**
 	 * Updating single order from the repository
 	 * 
@@ -239,4 +667,596 @@ public class OrderServiceImpl implements OderService {
 		return response;
 	}
 
+	/**
+	 * Updating single order from the repository, a minimal update is written
+	 * without reading the order back and answers with the counts only
+	 * 
+	 * @param id
+	 * @param customerName
+	 * @param minimal
+	 */
+	@Override
+	public CreateOrderResponse updateSingleOrder(String id, String customerName,
+			CreateOrderRequest createOrderRequest, boolean minimal) {
+
+		if (!minimal) {
+			return updateSingleOrder(id, customerName, createOrderRequest);
+		}
+
+		log.debug(" Id : {} and customerName : {} of minimal updating single order with request : {}", id,
+				customerName, createOrderRequest);
+
+		UpdateResult result = null;
+
+		try {
+			List<CreateOrderResource> createOrderResourceOne = mapper
+					.createResource(createOrderRequest.getCreateOrderRequestInfos(), Status.UPDATED.name());
+
+			if (StringUtils.isNotBlank(id)) {
+				createOrderResourceOne.get(0).setOrderId(id);
+				result = repo.updateOrderByIdMinimal(createOrderResourceOne.get(0));
+
+			} else if (StringUtils.isNotBlank(customerName)) {
+				createOrderResourceOne.get(0).setOrderId(customerName);
+				result = repo.updateOrderByCustomerNameMinimal(createOrderResourceOne.get(0));
+
+			} else {
+				throw new ServiceTerminalException(ServiceErrorCode.DB_UPDATION_FAILURE);
+			}
+
+		} catch (TerminalDBException ex) {
+
+			log.error("Exception occured while minimal updating single order : ", ex);
+
+			throw new ServiceTerminalException(ServiceErrorCode.DB_UPDATION_FAILURE);
+		}
+
+		return mapper.buildCreateOrderResponse(result);
+	}
+
+	/**
+	 * Deleting single order from the repository, a minimal delete is written
+	 * without reading the order back and answers with the counts only
+	 * 
+	 * @param id, customerName
+	 * @param minimal
+	 */
+	@Override
+	public CreateOrderResponse deleteSingleOrder(String id, String customerName, boolean minimal) {
+
+		if (!minimal) {
+			return deleteSingleOrder(id, customerName);
+		}
+
+		log.debug(" Id : {} and customerName : {} of minimal deleting single order ", id, customerName);
+
+		UpdateResult result = null;
+
+		try {
+			if (StringUtils.isNotBlank(id)) {
+
+				result = repo.deleteOrderByIdMinimal(id);
+			} else if (StringUtils.isNotBlank(customerName)) {
+
+				result = repo.deleteOrderByCustomerNameMinimal(customerName);
+			} else {
+
+				throw new ServiceTerminalException(ServiceErrorCode.DB_DELETION_FAILURE);
+			}
+
+		} catch (TerminalDBException ex) {
+
+			log.error("Exception occured while minimal deleting single order : ", ex);
+
+			throw new ServiceTerminalException(ServiceErrorCode.DB_DELETION_FAILURE);
+		}
+
+		return mapper.buildCreateOrderResponse(result);
+	}
+
+	/**
+	 * Updating the delivery status of every order matching the ids and filter
+	 * with a single write
+	 * 
+	 * @param orderBulkRequest
+	 */
+	@Override
+	public CreateOrderResponse updateOrders(OrderBulkRequest orderBulkRequest) {
+
+		log.debug("Request of order bulk update : {}", orderBulkRequest);
+
+		List<String> ids = updatedIds(orderBulkRequest);
+
+		UpdateResult result = null;
+
+		try {
+			result = repo.updateOrderDeliveryStatusMatching(ids, orderBulkRequest.getStatus(),
+					orderBulkRequest.getFrom(), orderBulkRequest.getTo(), orderBulkRequest.getOrderDeliveryStatus());
+
+		} catch (TerminalDBException ex) {
+
+			log.error("Exception occured while bulk updating order : ", ex);
+
+			throw new ServiceTerminalException(ServiceErrorCode.DB_UPDATION_FAILURE);
+		}
+
+		return mapper.buildCreateOrderResponse(result);
+	}
+
+	/**
+	 * Deleting every order matching the ids and filter with a single write
+	 * 
+	 * @param orderBulkRequest
+	 */
+	@Override
+	public CreateOrderResponse deleteOrders(OrderBulkRequest orderBulkRequest) {
+
+		log.debug("Request of order bulk delete : {}", orderBulkRequest);
+
+		List<String> ids = matchingIds(orderBulkRequest);
+
+		UpdateResult result = null;
+
+		try {
+			result = repo.deleteOrderMatching(ids, orderBulkRequest.getStatus(), orderBulkRequest.getFrom(),
+					orderBulkRequest.getTo());
+
+		} catch (TerminalDBException ex) {
+
+			log.error("Exception occured while bulk deleting order : ", ex);
+
+			throw new ServiceTerminalException(ServiceErrorCode.DB_DELETION_FAILURE);
+		}
+
+		return mapper.buildCreateOrderResponse(result);
+	}
+
+	/**
+	 * Editing one item of an order in a single write, so that concurrent edits of
+	 * the same order do not overwrite each other and the total price follows the
+	 * items
+	 * 
+	 * @param id
+	 * @param orderItemEditRequest
+	 */
+	@Override
+	public CreateOrderResponse editOrderItem(String id, OrderItemEditRequest orderItemEditRequest) {
+
+		log.debug(" Id : {} of editing order item with request : {}", id, orderItemEditRequest);
+
+		ItemOperation operation = orderItemEditRequest.getOperation();
+
+		if (StringUtils.isBlank(id) || null == operation || StringUtils.isBlank(orderItemEditRequest.getItem())
+				|| !validPrice(orderItemEditRequest.getPrice())
+				|| (ItemOperation.REPLACE == operation && (StringUtils.isBlank(orderItemEditRequest.getNewItem())
+						|| !validPrice(orderItemEditRequest.getNewPrice())))) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_ITEM_EDIT);
+		}
+
+		String item = orderItemEditRequest.getItem();
+		double price = orderItemEditRequest.getPrice();
+
+		CreateOrderResource createOrderResource = null;
+
+		try {
+			switch (operation) {
+			case ADD:
+				createOrderResource = repo.addOrderItem(id, item, price);
+				break;
+			case REMOVE:
+				createOrderResource = repo.removeOrderItem(id, item, price);
+				break;
+			default:
+				createOrderResource = repo.replaceOrderItem(id, item, price, orderItemEditRequest.getNewItem(),
+						orderItemEditRequest.getNewPrice());
+			}
+
+		} catch (TerminalDBException ex) {
+
+			log.error("Exception occured while editing order item : ", ex);
+
+			throw new ServiceTerminalException(ServiceErrorCode.DB_UPDATION_FAILURE);
+		}
+
+		if (null == createOrderResource) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_ITEM_EDIT);
+		}
+
+		List<CreateOrderResource> resources = new ArrayList<>();
+		resources.add(createOrderResource);
+
+		return mapper.buildCreateOrderResponse(resources);
+	}
+
+	/**
+	 * Moving an order to the next delivery status in a single conditional write.
+	 * A move from another status, or of an unknown or deleted order, is rejected
+	 * as a conflict without reading the order.
+	 * 
+	 * @param id
+	 * @param transition
+	 */
+	@Override
+	public CreateOrderResponse moveOrderDeliveryStatus(String id, DeliveryTransition transition) {
+
+		log.debug(" Id : {} of moving order delivery status by : {}", id, transition);
+
+		if (StringUtils.isBlank(id)) {
+			throw new ServiceTerminalException(ServiceErrorCode.EMPTY_SEARCH_FAILURE);
+		}
+
+		CreateOrderResource createOrderResource = null;
+
+		try {
+			createOrderResource = repo.moveOrderDeliveryStatus(id, transition);
+		} catch (TerminalDBException ex) {
+
+			log.error("Exception occured while moving order delivery status : ", ex);
+
+			throw new ServiceTerminalException(ServiceErrorCode.DB_UPDATION_FAILURE);
+		}
+
+		if (null == createOrderResource) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_DELIVERY_TRANSITION);
+		}
+
+		List<CreateOrderResource> resources = new ArrayList<>();
+		resources.add(createOrderResource);
+
+		return mapper.buildCreateOrderResponse(resources);
+	}
+
+	/**
+	 * Method to tell whether an item price is given and not negative
+	 * 
+	 * @param price
+	 */
+	private static boolean validPrice(Double price) {
+		return null != price && price >= 0;
+	}
+
+	/**
+	 * Queuing the creation of a large order list as an async job. The list is
+	 * written one chunk at a time, a chunk refused as a whole failing only its
+	 * own orders, and the progress can be polled with the returned job id.
+	 * 
+	 * @param createOrderRequest
+	 */
+	@Override
+	public JobResponse submitCreateOrderJob(CreateOrderRequest createOrderRequest) {
+
+		List<CreateOrderRequestInfo> infos = createOrderRequest.getCreateOrderRequestInfos();
+
+		int chunkSize = jobManager.getChunkSize();
+
+		Job job = jobManager.submit(JobType.CREATE, infos.size(), running -> {
+
+			for (int from = 0; from < infos.size(); from += chunkSize) {
+
+				int to = Math.min(from + chunkSize, infos.size());
+
+				writeChunk(running, IntStream.range(from, to).boxed().collect(Collectors.toList()),
+						new ArrayList<>(infos.subList(from, to)));
+			}
+		});
+
+		return job.toResponse();
+	}
+
+	/**
+	 * Importing a stream of orders of any size. Records are read one at a time
+	 * and validated, a record that cannot be read or is invalid failing only
+	 * itself, and the valid ones are written a fixed size chunk at a time, so
+	 * memory stays bounded by the chunk size. The import is registered as a job
+	 * while it runs, its progress can be polled like any other job.
+	 * 
+	 * @param records
+	 */
+	@Override
+	public JobResponse importOrders(Iterator<CreateOrderRequestInfo> records) {
+
+		int chunkSize = jobManager.getChunkSize();
+
+		Job job = jobManager.run(JobType.IMPORT, running -> {
+
+			List<CreateOrderRequestInfo> chunk = new ArrayList<>(chunkSize);
+			List<Integer> positions = new ArrayList<>(chunkSize);
+
+			try {
+				for (int position = 0; records.hasNext(); position++) {
+
+					CreateOrderRequestInfo info = null;
+
+					try {
+						info = records.next();
+					} catch (RuntimeException ex) {
+						running.recordFailure(Collections.singletonList(position), ex.getMessage());
+						continue;
+					}
+
+					String violation = validator.validate(info).stream().map(ConstraintViolation::getMessage)
+							.sorted().collect(Collectors.joining(", "));
+
+					if (!violation.isEmpty()) {
+						running.recordFailure(Collections.singletonList(position), violation);
+						continue;
+					}
+
+					chunk.add(info);
+					positions.add(position);
+
+					if (chunk.size() == chunkSize) {
+						writeChunk(running, positions, chunk);
+						chunk = new ArrayList<>(chunkSize);
+						positions = new ArrayList<>(chunkSize);
+					}
+				}
+			} finally {
+				// Records read before a broken stream are still written
+				if (!chunk.isEmpty()) {
+					writeChunk(running, positions, chunk);
+				}
+			}
+		});
+
+		return job.toResponse();
+	}
+
+	/**
+	 * Method to write one chunk of a job through the regular creation, recording
+	 * the outcome of every order at its position within the job
+	 * 
+	 * @param running
+	 * @param positions
+	 * @param chunk
+	 */
+	private void writeChunk(Job running, List<Integer> positions, List<CreateOrderRequestInfo> chunk) {
+
+		try {
+			CreateOrderResponse response = createOrder(new CreateOrderRequest(chunk));
+
+			running.record(positions, null != response.getWriteResults() ? response.getWriteResults()
+					: Collections.singletonList(
+							new BulkWriteResult(0, response.getCreateOrderResources().get(0).getOrderId(), true, null)));
+
+		} catch (ServiceTerminalException ex) {
+			running.recordFailure(positions, ex.getMessage());
+		}
+
+		log.info("Order job : {} processed {} orders", running.getId(), running.getProcessed().get());
+	}
+
+	/**
+	 * Queuing the delivery status update of every order matching the ids and
+	 * filter as an async job, the request being validated before it is queued
+	 * 
+	 * @param orderBulkRequest
+	 */
+	@Override
+	public JobResponse submitUpdateOrdersJob(OrderBulkRequest orderBulkRequest) {
+
+		updatedIds(orderBulkRequest);
+
+		Job job = jobManager.submit(JobType.UPDATE, null, running -> {
+
+			CreateOrderResponse response = updateOrders(orderBulkRequest);
+
+			running.recordCounts(response.getMatchedCount(), response.getModifiedCount());
+		});
+
+		return job.toResponse();
+	}
+
+	/**
+	 * Queuing the deletion of every order matching the ids and filter as an
+	 * async job, the request being validated before it is queued
+	 * 
+	 * @param orderBulkRequest
+	 */
+	@Override
+	public JobResponse submitDeleteOrdersJob(OrderBulkRequest orderBulkRequest) {
+
+		matchingIds(orderBulkRequest);
+
+		Job job = jobManager.submit(JobType.DELETE, null, running -> {
+
+			CreateOrderResponse response = deleteOrders(orderBulkRequest);
+
+			running.recordCounts(response.getMatchedCount(), response.getModifiedCount());
+		});
+
+		return job.toResponse();
+	}
+
+	/**
+	 * Retrieving the progress of every retained job
+	 * 
+	 * @param
+	 */
+	@Override
+	public List<JobResponse> getJobs() {
+		return jobManager.list().stream().map(Job::toResponse).collect(Collectors.toList());
+	}
+
+	/**
+	 * Retrieving the progress of an async job
+	 * 
+	 * @param id
+	 */
+	@Override
+	public JobResponse getJob(String id) {
+
+		Job job = jobManager.get(id);
+
+		if (null == job) {
+			throw new ServiceTerminalException(ServiceErrorCode.UNKNOWN_JOB);
+		}
+
+		return job.toResponse();
+	}
+
+	/**
+	 * Method to validate a bulk delivery status update and resolve the ids to
+	 * match, null when any id matches
+	 * 
+	 * @param orderBulkRequest
+	 */
+	private List<String> updatedIds(OrderBulkRequest orderBulkRequest) {
+
+		if (!DELIVERY_STATUSES.contains(orderBulkRequest.getOrderDeliveryStatus())) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_BULK_REQUEST);
+		}
+
+		return matchingIds(orderBulkRequest);
+	}
+
+	/**
+	 * Method to validate the conditions of a bulk request and resolve the ids to
+	 * match, null when any id matches. A request without any condition is
+	 * refused rather than writing every order.
+	 * 
+	 * @param orderBulkRequest
+	 */
+	private List<String> matchingIds(OrderBulkRequest orderBulkRequest) {
+
+		List<String> ids = orderBulkRequest.getIds();
+		String status = orderBulkRequest.getStatus();
+
+		boolean byId = null != ids && !ids.isEmpty();
+		boolean byFilter = null != status || null != orderBulkRequest.getFrom() || null != orderBulkRequest.getTo();
+
+		if ((!byId && !byFilter) || (byId && ids.size() > MAX_BULK_SIZE)
+				|| (null != status && !Status.CREATED.name().equals(status) && !Status.UPDATED.name().equals(status))) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_BULK_REQUEST);
+		}
+
+		if (null != orderBulkRequest.getFrom() && null != orderBulkRequest.getTo()
+				&& orderBulkRequest.getTo().isBefore(orderBulkRequest.getFrom())) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_DATE_RANGE);
+		}
+
+		return byId ? ids : null;
+	}
+
+	/**
+	 * Method to validate the filters of a search and resolve its sort field and
+	 * direction, the latest orders coming first by default
+	 * 
+	 * @param search
+	 */
+	private void validateSearch(OrderSearchRequest search) {
+
+		if (null == search.getSort()) {
+			search.setSort(SORT_FIELDS.get(0));
+		}
+
+		if (null == search.getDirection()) {
+			search.setDirection(Sort.Direction.DESC.name());
+		}
+
+		if (!SORT_FIELDS.contains(search.getSort())
+				|| !Sort.Direction.fromOptionalString(search.getDirection()).isPresent()) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_SEARCH_REQUEST);
+		}
+
+		if ((null != search.getStatus() && !SEARCHABLE_STATUSES.contains(search.getStatus()))
+				|| (null != search.getOrderDeliveryStatus()
+						&& !DELIVERY_STATUSES.contains(search.getOrderDeliveryStatus()))) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_SEARCH_REQUEST);
+		}
+
+		if ((null != search.getMinPrice() && search.getMinPrice() < 0)
+				|| (null != search.getMaxPrice() && search.getMaxPrice() < 0) || (null != search.getMinPrice()
+						&& null != search.getMaxPrice() && search.getMaxPrice() < search.getMinPrice())) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_SEARCH_REQUEST);
+		}
+
+		if (null != search.getFrom() && null != search.getTo() && search.getTo().isBefore(search.getFrom())) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_DATE_RANGE);
+		}
+	}
+
+	/**
+	 * Method to resolve the page size of a search, refusing a limit out of range
+	 * 
+	 * @param limit
+	 */
+	private int resolvePageSize(Integer limit) {
+
+		if (null == limit) {
+			return DEFAULT_PAGE_SIZE;
+		}
+
+		if (limit < 1 || limit > MAX_PAGE_SIZE) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_SEARCH_REQUEST);
+		}
+
+		return limit;
+	}
+
+	/**
+	 * Method to build the cursor following an order, its sort field, sort value
+	 * and id encoded as url safe base64. A null sort value is left empty.
+	 * 
+	 * @param sort
+	 * @param last
+	 */
+	static String encodeCursor(String sort, CreateOrderResource last) {
+
+		Object value = "date".equals(sort) ? last.getDate() : last.getTotalPrice();
+
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(
+				(sort + "," + (null == value ? "" : value) + "," + last.getOrderId()).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Method to read the sort value and id of a cursor, refusing a cursor that is
+	 * malformed or was issued for another sort field
+	 * 
+	 * @param sort
+	 * @param after
+	 */
+	static Object[] decodeCursor(String sort, String after) {
+
+		String[] cursor;
+
+		try {
+			cursor = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8).split(",", 3);
+
+			if (cursor.length == 3 && sort.equals(cursor[0]) && ObjectId.isValid(cursor[2])) {
+
+				Object value = cursor[1].isEmpty() ? null
+						: "date".equals(sort) ? (Object) LocalDate.parse(cursor[1]) : (Object) Double.valueOf(cursor[1]);
+
+				return new Object[] { value, cursor[2] };
+			}
+		} catch (IllegalArgumentException | DateTimeParseException ex) {
+			log.debug("Malformed cursor : {}", after);
+		}
+
+		throw new ServiceTerminalException(ServiceErrorCode.INVALID_SEARCH_REQUEST);
+	}
+
+	/**
+	 * Method to resolve the comma separated fields to return, an empty list
+	 * selects every field
+	 * 
+	 * @param fields
+	 */
+	private List<String> resolveFields(String fields) {
+
+		if (StringUtils.isBlank(fields)) {
+			return Collections.emptyList();
+		}
+
+		List<String> selectedFields = Arrays.stream(fields.split(",")).map(String::trim)
+				.filter(StringUtils::isNotEmpty).distinct().collect(Collectors.toList());
+
+		if (!SELECTABLE_FIELDS.containsAll(selectedFields)) {
+			throw new ServiceTerminalException(ServiceErrorCode.INVALID_FIELD_SELECTION);
+		}
+
+		return selectedFields;
+	}
+
 }
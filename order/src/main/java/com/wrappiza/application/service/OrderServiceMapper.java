@@ -6,9 +6,12 @@ import java.util.List;
 
 import org.springframework.stereotype.Component;
 
+import com.mongodb.client.result.UpdateResult;
+import com.wrappiza.application.model.BulkWriteResult;
 import com.wrappiza.application.model.CreateOrderRequestInfo;
 import com.wrappiza.application.model.CreateOrderResource;
 import com.wrappiza.application.model.CreateOrderResponse;
+import com.wrappiza.application.model.DeliveryStatus;
 
 
 
@@ -22,7 +25,9 @@ import com.wrappiza.application.model.CreateOrderResponse;
 public class OrderServiceMapper {
 
 	/**
-	 * Method to build createResource
+	 * Method to build createResource. Every order starts PENDING delivery, a
+	 * delivery status sent by the client being ignored, as the delivery
+	 * transitions are the only way it moves on.
 	 * 
 	 * @param createOrderRequestInfo
 	 *
@@ -40,8 +45,9 @@ public class OrderServiceMapper {
 			resource.setItems(request.getItems());
 			resource.setTotalPrice(request.getTotalPrice());
 			resource.setStatus(status);
-			resource.setOrderDeliveryStatus(request.getOrderDeliveryStatus());
+			resource.setOrderDeliveryStatus(DeliveryStatus.PENDING.name());
 			resource.setDate(LocalDate.now());
+			resource.setVersion(0L);
 
 			resources.add(resource);
 		}
@@ -62,4 +68,57 @@ public class OrderServiceMapper {
 
 		return createOrderResponse;
 	}
+
+	/**
+	 * Method to build CreateOrderResponse for one page of orders
+	 * 
+	 * @param createOrderResources
+	 * @param nextCursor
+	 */
+	public CreateOrderResponse buildCreateOrderResponse(List<CreateOrderResource> createOrderResources,
+			String nextCursor) {
+
+		CreateOrderResponse createOrderResponse = buildCreateOrderResponse(createOrderResources);
+		createOrderResponse.setNextCursor(nextCursor);
+
+		return createOrderResponse;
+	}
+
+	/**
+	 * Method to build CreateOrderResponse holding only the counts of a write
+	 * 
+	 * @param updateResult
+	 */
+	public CreateOrderResponse buildCreateOrderResponse(UpdateResult updateResult) {
+
+		CreateOrderResponse createOrderResponse = new CreateOrderResponse();
+		createOrderResponse.setMatchedCount(updateResult.getMatchedCount());
+		createOrderResponse.setModifiedCount(updateResult.getModifiedCount());
+
+		return createOrderResponse;
+	}
+
+	/**
+	 * Method to build CreateOrderResponse for a bulk create, holding the written
+	 * orders and the outcome of every order
+	 * 
+	 * @param createOrderResources
+	 * @param writeResults
+	 */
+	public CreateOrderResponse buildBulkCreateOrderResponse(List<CreateOrderResource> createOrderResources,
+			List<BulkWriteResult> writeResults) {
+
+		List<CreateOrderResource> written = new ArrayList<>();
+
+		for (BulkWriteResult writeResult : writeResults) {
+			if (writeResult.isWritten()) {
+				written.add(createOrderResources.get(writeResult.getIndex()));
+			}
+		}
+
+		CreateOrderResponse createOrderResponse = buildCreateOrderResponse(written);
+		createOrderResponse.setWriteResults(writeResults);
+
+		return createOrderResponse;
+	}
 }
@@ -0,0 +1,163 @@
+package com.wrappiza.application.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.wrappiza.application.model.CreateOrderResource;
+import com.wrappiza.application.model.OrderDailySummary;
+import com.wrappiza.application.model.OrderSliceRequest;
+import com.wrappiza.application.model.OrderSliceRow;
+
+/**
+ * Benchmark of the column store against the aggregation pipeline, over the
+ * same generated orders. It needs a MongoDB, at the uri given by the
+ * wrappiza.benchmark.mongodb-uri system property, and writes into its
+ * wrappiza_benchmark database. It is not run by the tests, run it with
+ *
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt)
+ * com.wrappiza.application.repository.OrderAnalyticsBenchmark
+ *
+ * @author Chandan Kumar
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderAnalyticsBenchmark {
+
+	private static final List<String> ITEMS = Arrays.asList("Paneer Wrap", "Chicken Wrap", "Veg Wrap",
+			"Margherita Pizza", "Farmhouse Pizza", "Pepperoni Pizza", "Garlic Bread", "Fries", "Coke", "Brownie");
+
+	private static final List<String> DELIVERY_STATUSES = Arrays.asList("PLACED", "PREPARING", "OUT_FOR_DELIVERY",
+			"DELIVERED", "CANCELLED");
+
+	private static final OrderSliceRequest BY_DAY = new OrderSliceRequest(null, null, null, null, null,
+			Arrays.asList("date"));
+
+	private static final OrderSliceRequest BY_ITEM_DAY_STATUS = new OrderSliceRequest(null, null, null, null, null,
+			Arrays.asList("item", "date", "orderDeliveryStatus"));
+
+	@Param({ "100000", "1000000" })
+	private int orders;
+
+	private MongoClient mongoClient;
+
+	private MongoTemplate mongoTemplate;
+
+	private OrderRepositoryImpl repository;
+
+	private OrderColumnStore columnStore;
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(OrderAnalyticsBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	@Setup(Level.Trial)
+	public void seed() {
+
+		mongoClient = MongoClients
+				.create(System.getProperty("wrappiza.benchmark.mongodb-uri", "mongodb://localhost:27017"));
+		mongoTemplate = new MongoTemplate(mongoClient, "wrappiza_benchmark");
+		mongoTemplate.dropCollection(CreateOrderResource.class);
+
+		Random random = new Random(42);
+		LocalDate firstDay = LocalDate.of(2025, 1, 1);
+		List<CreateOrderResource> batch = new ArrayList<>();
+
+		for (long number = 1; number <= orders; number++) {
+
+			List<String> items = new ArrayList<>();
+
+			for (int count = 1 + random.nextInt(4); count > 0; count--) {
+				items.add(ITEMS.get(random.nextInt(ITEMS.size())));
+			}
+
+			batch.add(new CreateOrderResource(null, number, "customer-" + random.nextInt(10000), "address", items,
+					50.0 + random.nextInt(950), firstDay.plusDays(random.nextInt(365)),
+					DELIVERY_STATUSES.get(random.nextInt(DELIVERY_STATUSES.size())), "CREATED", 1L));
+
+			if (batch.size() == 10000) {
+				mongoTemplate.insert(batch, CreateOrderResource.class);
+				batch.clear();
+			}
+		}
+
+		mongoTemplate.insert(batch, CreateOrderResource.class);
+
+		columnStore = new OrderColumnStore(mongoTemplate, true);
+		columnStore.load();
+
+		repository = new OrderRepositoryImpl(mongoTemplate, new OrderRollupStore(mongoTemplate, true, 7), columnStore);
+	}
+
+	@TearDown(Level.Trial)
+	public void drop() {
+
+		mongoTemplate.dropCollection(CreateOrderResource.class);
+		mongoClient.close();
+	}
+
+	@Benchmark
+	public List<OrderDailySummary> revenueByDayPipeline() {
+		return repository.summarizeOrderByDay(null, null);
+	}
+
+	@Benchmark
+	public List<OrderSliceRow> revenueByDayColumns() {
+		return columnStore.slice(BY_DAY, Integer.MAX_VALUE);
+	}
+
+	@Benchmark
+	public List<Document> revenueByItemDayStatusPipeline() {
+
+		Aggregation aggregation = Aggregation.newAggregation(CreateOrderResource.class,
+				Aggregation.match(OrderRepositoryImpl.activeOrderBetween(null, null).and("items.0").exists(true)),
+				Aggregation.project("items", "date", "orderDeliveryStatus")
+						.and(ArithmeticOperators.Divide.valueOf("totalPrice")
+								.divideBy(ArrayOperators.Size.lengthOfArray("items")))
+						.as("share"),
+				Aggregation.unwind("items"),
+				Aggregation.group("items", "date", "orderDeliveryStatus").count().as("quantity").sum("share")
+						.as("revenue"))
+				.withOptions(OrderRepositoryImpl.ANALYTICS);
+
+		return mongoTemplate.aggregate(aggregation, CreateOrderResource.class, Document.class).getMappedResults();
+	}
+
+	@Benchmark
+	public List<OrderSliceRow> revenueByItemDayStatusColumns() {
+		return columnStore.slice(BY_ITEM_DAY_STATUS, Integer.MAX_VALUE);
+	}
+}
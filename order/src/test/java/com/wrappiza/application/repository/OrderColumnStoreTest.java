@@ -0,0 +1,380 @@
+package com.wrappiza.application.repository;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.wrappiza.application.model.CreateOrderResource;
+import com.wrappiza.application.model.OrderSliceRequest;
+import com.wrappiza.application.model.OrderSliceRow;
+import com.wrappiza.application.model.Status;
+
+/**
+ * Test cases for order column store class, every slice being checked against
+ * a brute force reference computed from the orders themselves
+ * 
+ * @author Chandan Kumar
+ *
+ */
+@ExtendWith(MockitoExtension.class)
+public class OrderColumnStoreTest {
+
+	private static final List<String> ITEMS = Arrays.asList("Pizza", "Wrap", "Coke", "Fries");
+
+	private static final List<String> DELIVERY_STATUSES = Arrays.asList("PENDING", "DISPATCHED", "DELIVERED");
+
+	private static final LocalDate FIRST_DAY = LocalDate.of(2026, 1, 1);
+
+	private static final List<List<String>> GROUPINGS = Arrays.asList(Collections.<String>emptyList(),
+			Arrays.asList("item"), Arrays.asList("date", "orderDeliveryStatus"),
+			Arrays.asList("item", "date", "orderDeliveryStatus"), Arrays.asList("customerName", "item"),
+			Arrays.asList("orderDeliveryStatus"));
+
+	/**
+	 * Item, delivery status and customer name filters
+	 */
+	private static final String[][] FILTERS = { { null, null, null }, { "Wrap", null, null },
+			{ null, "DISPATCHED", null }, { null, null, "customer-3" }, { "Taco", "PENDING", null },
+			{ "Nope", null, null } };
+
+	private static final LocalDate[][] RANGES = { { null, null },
+			{ LocalDate.of(2026, 1, 10), LocalDate.of(2026, 1, 20) } };
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	private final Random random = new Random(7);
+
+	private OrderColumnStore columnStore;
+
+	private Map<String, CreateOrderResource> orders;
+
+	@BeforeEach
+	void setUp() {
+
+		List<CreateOrderResource> loaded = new ArrayList<>();
+
+		// More orders than one part scans, so slices run over several parts
+		for (int i = 0; i < 40000; i++) {
+			loaded.add(new CreateOrderResource("id" + i, (long) i, "customer-" + random.nextInt(50), null,
+					randomItems(4), 10.0 * (1 + random.nextInt(9)), FIRST_DAY.plusDays(random.nextInt(30)),
+					i % 17 == 0 ? null : randomDeliveryStatus(),
+					i % 13 == 0 ? Status.DELETED.name() : Status.CREATED.name(), 1L));
+		}
+
+		when(mongoTemplate.stream(any(Query.class), eq(CreateOrderResource.class)))
+				.thenAnswer(invocation -> new ArrayList<>(loaded).stream());
+
+		columnStore = new OrderColumnStore(mongoTemplate, true);
+		columnStore.load();
+
+		orders = new LinkedHashMap<>();
+		loaded.forEach(order -> orders.put(order.getOrderId(), order));
+	}
+
+	/**
+	 * Test case to validate every grouping, filter and date range slices the
+	 * orders exactly as a brute force count over them does, after creates,
+	 * updates and deletes applied on top of the load
+	 * 
+	 */
+	@Test
+	@DisplayName("Slice Orders Against Reference")
+	void sliceTest() {
+
+		applyRandomWrites(10000);
+
+		assertSlicesMatchReference();
+	}
+
+	/**
+	 * Test case to validate a reload replaces the orders of the days with the
+	 * ones read in a single query taken without holding the store, an order
+	 * written or created while they were read keeping its newer copy
+	 * 
+	 */
+	@Test
+	@DisplayName("Reload Days Around Concurrent Writes")
+	void reloadTest() throws Exception {
+
+		LocalDate reloaded = FIRST_DAY.plusDays(5);
+		List<LocalDate> days = Arrays.asList(reloaded, reloaded.plusDays(1));
+
+		// The multi-document write moved every active order of the first day to a new price, dropping one
+		List<CreateOrderResource> stored = new ArrayList<>();
+
+		for (CreateOrderResource order : orders.values()) {
+			if (Status.DELETED.name().equals(order.getStatus()) || !days.contains(order.getDate())) {
+				continue;
+			}
+			stored.add(!reloaded.equals(order.getDate()) ? order
+					: new CreateOrderResource(order.getOrderId(), order.getOrderNumber(), order.getCustomerName(),
+							null, order.getItems(), 99.0, order.getDate(), order.getOrderDeliveryStatus(),
+							Status.UPDATED.name(), 2L));
+		}
+
+		CreateOrderResource dropped = stored.remove(0);
+		CreateOrderResource updated = stored.get(0);
+		CreateOrderResource deleted = stored.get(1);
+		CreateOrderResource moved = new CreateOrderResource(updated.getOrderId(), updated.getOrderNumber(),
+				updated.getCustomerName(), null, Arrays.asList("Coke"), 1.0, reloaded.plusDays(2), "DELIVERED",
+				Status.UPDATED.name(), 3L);
+		CreateOrderResource created = new CreateOrderResource("created", 0L, "customer-1", null,
+				Arrays.asList("Pizza"), 12.0, reloaded, "PENDING", Status.CREATED.name(), 1L);
+
+		when(mongoTemplate.find(any(Query.class), eq(CreateOrderResource.class))).thenAnswer(invocation -> {
+
+			// Slices still run while the days are read
+			assertThat(CompletableFuture.supplyAsync(() -> columnStore.countGroups(new OrderSliceRequest()))
+					.get(5, TimeUnit.SECONDS), equalTo(1L));
+
+			// Writes landing after the read, their copies reaching the store first
+			columnStore.record(updated, moved);
+			columnStore.record(deleted, null);
+			columnStore.recordCreated(Collections.singletonList(created));
+
+			return new ArrayList<>(stored);
+		});
+
+		columnStore.reload(days);
+
+		stored.forEach(order -> orders.put(order.getOrderId(), order));
+		orders.remove(dropped.getOrderId());
+		orders.put(moved.getOrderId(), moved);
+		orders.remove(deleted.getOrderId());
+		orders.put(created.getOrderId(), created);
+
+		verify(mongoTemplate, times(1)).find(any(Query.class), eq(CreateOrderResource.class));
+
+		assertSlicesMatchReference();
+	}
+
+	/**
+	 * Method to check every grouping, filter and date range against the brute
+	 * force reference
+	 * 
+	 */
+	private void assertSlicesMatchReference() {
+
+		for (List<String> groupBy : GROUPINGS) {
+			for (String[] filter : FILTERS) {
+				for (LocalDate[] range : RANGES) {
+
+					OrderSliceRequest slice = new OrderSliceRequest(range[0], range[1], filter[1], filter[2],
+							filter[0], groupBy);
+
+					Map<String, double[]> expected = expected(slice);
+					Map<String, double[]> actual = actual(slice, columnStore.slice(slice, Integer.MAX_VALUE));
+
+					assertThat(slice.toString(), actual.keySet(), equalTo(expected.keySet()));
+
+					for (Map.Entry<String, double[]> group : expected.entrySet()) {
+
+						double[] row = actual.get(group.getKey());
+
+						assertThat(group.getKey(), row[0], equalTo(group.getValue()[0]));
+						assertThat(group.getKey(), row[1], equalTo(group.getValue()[1]));
+						assertThat(group.getKey(), row[2], closeTo(group.getValue()[2], 1e-6));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Test case to validate a limited slice answers the groups with the highest
+	 * revenue first
+	 * 
+	 */
+	@Test
+	@DisplayName("Slice Orders With Limit")
+	void sliceLimitTest() {
+
+		OrderSliceRequest slice = new OrderSliceRequest(null, null, null, null, null,
+				Arrays.asList("item", "orderDeliveryStatus"));
+
+		List<OrderSliceRow> all = columnStore.slice(slice, Integer.MAX_VALUE);
+		List<OrderSliceRow> top = columnStore.slice(slice, 3);
+
+		assertThat(top.size(), equalTo(3));
+
+		for (int i = 0; i < top.size(); i++) {
+			assertThat(top.get(i).getRevenue(), equalTo(all.get(i).getRevenue()));
+		}
+
+		for (int i = 1; i < all.size(); i++) {
+			assertThat(all.get(i - 1).getRevenue() >= all.get(i).getRevenue(), equalTo(true));
+		}
+	}
+
+	/**
+	 * Method to apply random creates, updates and deletes to the store and to the
+	 * reference alike
+	 * 
+	 * @param writes
+	 */
+	private void applyRandomWrites(int writes) {
+
+		for (int i = 0; i < writes; i++) {
+
+			String id = "id" + random.nextInt(44000);
+			CreateOrderResource before = orders.get(id);
+
+			if (null == before) {
+
+				CreateOrderResource created = new CreateOrderResource(id, 0L, "customer-" + random.nextInt(60), null,
+						Arrays.asList("Wrap", "Wrap", "Taco"), 5.0, LocalDate.of(2026, 2, 1), "PENDING",
+						Status.CREATED.name(), 1L);
+
+				columnStore.record(null, created);
+				orders.put(id, created);
+
+			} else if (random.nextInt(3) == 0) {
+
+				columnStore.record(before, null);
+				orders.remove(id);
+
+			} else {
+
+				List<String> items = randomItems(6);
+
+				CreateOrderResource after = new CreateOrderResource(id, 0L, before.getCustomerName(), null, items,
+						7.0 * items.size(), before.getDate().plusDays(1), randomDeliveryStatus(),
+						Status.UPDATED.name(), 2L);
+
+				columnStore.record(before, after);
+				orders.put(id, after);
+			}
+		}
+	}
+
+	/**
+	 * Method to count the orders, quantity and revenue of each group of a slice
+	 * straight from the orders. An item counts the order once per group, and its
+	 * share of the revenue is the total price split evenly over the items.
+	 * 
+	 * @param slice
+	 */
+	private Map<String, double[]> expected(OrderSliceRequest slice) {
+
+		List<String> groupBy = slice.getGroupBy();
+		boolean byItem = groupBy.contains("item") || null != slice.getItem();
+
+		Map<String, double[]> groups = new TreeMap<>();
+
+		for (CreateOrderResource order : orders.values()) {
+
+			if (Status.DELETED.name().equals(order.getStatus())
+					|| (null != slice.getFrom() && order.getDate().isBefore(slice.getFrom()))
+					|| (null != slice.getTo() && order.getDate().isAfter(slice.getTo()))
+					|| (null != slice.getOrderDeliveryStatus()
+							&& !slice.getOrderDeliveryStatus().equals(order.getOrderDeliveryStatus()))
+					|| (null != slice.getCustomerName() && !slice.getCustomerName().equals(order.getCustomerName()))) {
+				continue;
+			}
+
+			if (!byItem) {
+
+				double[] group = groups.computeIfAbsent(key(groupBy, null, order.getDate(),
+						order.getOrderDeliveryStatus(), order.getCustomerName()), key -> new double[3]);
+
+				group[0]++;
+				group[1] += order.getItems().size();
+				group[2] += order.getTotalPrice();
+				continue;
+			}
+
+			Set<String> counted = new HashSet<>();
+
+			for (String item : order.getItems()) {
+
+				if (null != slice.getItem() && !slice.getItem().equals(item)) {
+					continue;
+				}
+
+				String key = key(groupBy, item, order.getDate(), order.getOrderDeliveryStatus(),
+						order.getCustomerName());
+				double[] group = groups.computeIfAbsent(key, k -> new double[3]);
+
+				if (counted.add(key)) {
+					group[0]++;
+				}
+
+				group[1]++;
+				group[2] += order.getTotalPrice() / order.getItems().size();
+			}
+		}
+
+		groups.values().removeIf(group -> group[0] == 0);
+
+		return groups;
+	}
+
+	private static Map<String, double[]> actual(OrderSliceRequest slice, List<OrderSliceRow> rows) {
+
+		Map<String, double[]> groups = new TreeMap<>();
+
+		for (OrderSliceRow row : rows) {
+
+			String key = key(slice.getGroupBy(), row.getItem(), row.getDate(), row.getOrderDeliveryStatus(),
+					row.getCustomerName());
+
+			assertThat("Group " + key + " is answered once",
+					groups.put(key, new double[] { row.getOrders(), row.getQuantity(), row.getRevenue() }) == null,
+					equalTo(true));
+		}
+
+		return groups;
+	}
+
+	private static String key(List<String> groupBy, String item, LocalDate date, String orderDeliveryStatus,
+			String customerName) {
+
+		return (groupBy.contains("item") ? item : "") + "|" + (groupBy.contains("date") ? date : "") + "|"
+				+ (groupBy.contains("orderDeliveryStatus") ? orderDeliveryStatus : "") + "|"
+				+ (groupBy.contains("customerName") ? customerName : "");
+	}
+
+	private List<String> randomItems(int bound) {
+
+		List<String> items = new ArrayList<>();
+
+		for (int count = random.nextInt(bound); count > 0; count--) {
+			items.add(ITEMS.get(random.nextInt(ITEMS.size())));
+		}
+
+		return items;
+	}
+
+	private String randomDeliveryStatus() {
+		return DELIVERY_STATUSES.get(random.nextInt(DELIVERY_STATUSES.size()));
+	}
+}
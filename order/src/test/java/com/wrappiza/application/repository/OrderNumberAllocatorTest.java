@@ -0,0 +1,157 @@
+package com.wrappiza.application.repository;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.wrappiza.application.exception.ServiceErrorCode;
+import com.wrappiza.application.exception.TerminalDBException;
+
+/**
+ * Test cases for order number allocator class
+ * 
+ * @author Chandan Kumar
+ *
+ */
+@ExtendWith(MockitoExtension.class)
+public class OrderNumberAllocatorTest {
+
+	private static final int BLOCK_SIZE = 10;
+
+	private static final int THREADS = 8;
+
+	private static final int NUMBERS_PER_THREAD = 1000;
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	/**
+	 * Test case to validate concurrent callers get every number of every block
+	 * exactly once and an exhausted block is replaced by a single reservation
+	 * 
+	 */
+	@Test
+	@DisplayName("Allocate Order Numbers Concurrently")
+	void nextConcurrentTest() throws Exception {
+
+		AtomicLong hi = new AtomicLong();
+
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+				eq(Document.class), eq(OrderNumberAllocator.SEQUENCE_COLLECTION))).thenAnswer(invocation -> {
+					// Widens the window in which other callers find the block exhausted
+					Thread.sleep(1);
+					return new Document("_id", OrderNumberAllocator.SEQUENCE_ID).append("hi",
+							hi.addAndGet(BLOCK_SIZE));
+				});
+
+		OrderNumberAllocator allocator = new OrderNumberAllocator(mongoTemplate, BLOCK_SIZE);
+
+		Set<Long> numbers = ConcurrentHashMap.newKeySet();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<Boolean>> futures = new ArrayList<>();
+
+		for (int thread = 0; thread < THREADS; thread++) {
+			futures.add(executor.submit(() -> {
+
+				start.await();
+
+				boolean unique = true;
+
+				for (int i = 0; i < NUMBERS_PER_THREAD; i++) {
+					unique &= numbers.add(allocator.next());
+				}
+
+				return unique;
+			}));
+		}
+
+		start.countDown();
+
+		for (Future<Boolean> future : futures) {
+			assertThat(future.get(30, TimeUnit.SECONDS), equalTo(true));
+		}
+
+		executor.shutdown();
+
+		long total = THREADS * NUMBERS_PER_THREAD;
+
+		assertThat((long) numbers.size(), equalTo(total));
+		assertThat(numbers.stream().mapToLong(Long::longValue).min().getAsLong(), equalTo(1L));
+		assertThat(numbers.stream().mapToLong(Long::longValue).max().getAsLong(), equalTo(total));
+		verify(mongoTemplate, times((int) total / BLOCK_SIZE)).findAndModify(any(Query.class), any(Update.class),
+				any(FindAndModifyOptions.class), eq(Document.class), eq(OrderNumberAllocator.SEQUENCE_COLLECTION));
+	}
+
+	/**
+	 * Test case to validate numbers continue from a block reserved by another
+	 * instance
+	 * 
+	 */
+	@Test
+	@DisplayName("Allocate Order Numbers After Another Instance")
+	void nextAfterOtherInstanceTest() {
+
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+				eq(Document.class), eq(OrderNumberAllocator.SEQUENCE_COLLECTION)))
+				.thenReturn(new Document("hi", 20), new Document("hi", 40));
+
+		OrderNumberAllocator allocator = new OrderNumberAllocator(mongoTemplate, BLOCK_SIZE);
+
+		List<Long> numbers = new ArrayList<>();
+
+		for (int i = 0; i < 11; i++) {
+			numbers.add(allocator.next());
+		}
+
+		assertThat(numbers.get(0), equalTo(11L));
+		assertThat(numbers.get(9), equalTo(20L));
+		assertThat(numbers.get(10), equalTo(31L));
+	}
+
+	/**
+	 * Test case to validate a failed reservation surfaces as a database failure
+	 * 
+	 */
+	@Test
+	@DisplayName("Allocate Order Number With Database Failure")
+	void nextFailureTest() {
+
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+				eq(Document.class), eq(OrderNumberAllocator.SEQUENCE_COLLECTION)))
+				.thenThrow(new IllegalStateException("down"));
+
+		OrderNumberAllocator allocator = new OrderNumberAllocator(mongoTemplate, BLOCK_SIZE);
+
+		Throwable exception = assertThrows(TerminalDBException.class, () -> allocator.next());
+
+		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.DB_INSERTION_FAILURE.getMessage()));
+	}
+}
@@ -0,0 +1,541 @@
+package com.wrappiza.application.repository;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import com.mongodb.client.result.UpdateResult;
+import com.wrappiza.application.model.CreateOrderResource;
+import com.wrappiza.application.model.DeliveryTransition;
+import com.wrappiza.application.model.OrderDailySummary;
+import com.wrappiza.application.model.OrderItemSummary;
+import com.wrappiza.application.model.OrderSearchRequest;
+import com.wrappiza.application.model.Status;
+
+/**
+ * Test cases for order repository class
+ * 
+ * @author Chandan Kumar
+ *
+ */
+@ExtendWith(MockitoExtension.class)
+public class OrderRepositoryTest {
+
+	private static final String ID = new ObjectId().toHexString();
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	@Mock
+	private OrderRollupStore rollupStore;
+
+	@Mock
+	private OrderColumnStore columnStore;
+
+	@InjectMocks
+	private OrderRepositoryImpl repo;
+
+	/**
+	 * Test case to validate adding an item pushes it and raises the total price
+	 * and the daily revenue by its price
+	 * 
+	 */
+	@Test
+	@DisplayName("Add Order Item")
+	void addOrderItemTest() {
+
+		CreateOrderResource resource = orderResource();
+
+		when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+				any(FindAndModifyOptions.class), eq(CreateOrderResource.class))).thenReturn(resource);
+
+		CreateOrderResource result = repo.addOrderItem(ID, "Fries", 120.0);
+
+		Document update = capturedUpdate().getUpdateObject();
+
+		assertThat(result, equalTo(resource));
+		assertThat(((Document) update.get("$push")).get("items"), equalTo("Fries"));
+		assertThat(((Document) update.get("$inc")).get("totalPrice"), equalTo(120.0));
+		verify(rollupStore, times(1)).recordRevenue(resource, 120.0);
+		verify(columnStore, times(1)).record(null, resource);
+	}
+
+	/**
+	 * Test case to validate replacing an item overwrites the matched item and
+	 * moves the total price and the daily revenue by the price difference
+	 * 
+	 */
+	@Test
+	@DisplayName("Replace Order Item")
+	void replaceOrderItemTest() {
+
+		CreateOrderResource resource = orderResource();
+
+		when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+				any(FindAndModifyOptions.class), eq(CreateOrderResource.class))).thenReturn(resource);
+
+		repo.replaceOrderItem(ID, "Paneer Wrap", 150.0, "Veg Wrap", 120.0);
+
+		Document update = capturedUpdate().getUpdateObject();
+
+		assertThat(capturedQuery().getQueryObject().get("items"), equalTo("Paneer Wrap"));
+		assertThat(capturedQuery().getQueryObject().get("totalPrice"), equalTo(new Document("$gte", 30.0)));
+		assertThat(((Document) update.get("$set")).get("items.$"), equalTo("Veg Wrap"));
+		assertThat(((Document) update.get("$inc")).get("totalPrice"), equalTo(-30.0));
+		verify(rollupStore, times(1)).recordRevenue(resource, -30.0);
+	}
+
+	/**
+	 * Test case to validate removing an item cuts out its first occurrence only
+	 * and lowers the total price and the daily revenue by its price
+	 * 
+	 */
+	@Test
+	@DisplayName("Remove Order Item")
+	void removeOrderItemTest() {
+
+		CreateOrderResource resource = orderResource();
+
+		when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+				any(FindAndModifyOptions.class), eq(CreateOrderResource.class))).thenReturn(resource);
+
+		repo.removeOrderItem(ID, "Fries", 120.0);
+
+		Document set = new Document();
+		((AggregationUpdate) capturedUpdate()).toPipeline(Aggregation.DEFAULT_CONTEXT)
+				.forEach(stage -> set.putAll((Document) stage.get("$set")));
+
+		Document items = (Document) ((Document) set.get("items")).get("$let");
+
+		assertThat(capturedQuery().getQueryObject().get("items"), equalTo("Fries"));
+		assertThat(capturedQuery().getQueryObject().get("totalPrice"), equalTo(new Document("$gte", 120.0)));
+		assertThat(((Document) items.get("vars")).get("index"),
+				equalTo(new Document("$indexOfArray", Arrays.asList("$items", new Document("$literal", "Fries")))));
+		assertThat(set.get("totalPrice"), equalTo(new Document("$subtract", Arrays.asList("$totalPrice", 120.0))));
+		verify(rollupStore, times(1)).recordRevenue(resource, -120.0);
+	}
+
+	/**
+	 * Test case to validate replacing an item by a dearer one places no condition
+	 * on the total price, which only rises
+	 * 
+	 */
+	@Test
+	@DisplayName("Replace Order Item By Dearer Item")
+	void replaceOrderItemDearerTest() {
+
+		when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+				any(FindAndModifyOptions.class), eq(CreateOrderResource.class))).thenReturn(orderResource());
+
+		repo.replaceOrderItem(ID, "Veg Wrap", 120.0, "Paneer Wrap", 150.0);
+
+		assertThat(capturedQuery().getQueryObject().containsKey("totalPrice"), equalTo(false));
+		assertThat(((Document) capturedUpdate().getUpdateObject().get("$inc")).get("totalPrice"), equalTo(30.0));
+	}
+
+	/**
+	 * Test case to validate removing an item the order does not hold matches
+	 * nothing and leaves the rollups untouched
+	 * 
+	 */
+	@Test
+	@DisplayName("Remove Missing Order Item")
+	void removeMissingOrderItemTest() {
+
+		when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+				any(FindAndModifyOptions.class), eq(CreateOrderResource.class))).thenReturn(null);
+
+		CreateOrderResource result = repo.removeOrderItem(ID, "Coke", 60.0);
+
+		assertThat(result, nullValue());
+		assertThat(capturedQuery().getQueryObject().get("items"), equalTo("Coke"));
+		verifyNoInteractions(rollupStore, columnStore);
+	}
+
+	/**
+	 * Test case to validate a page after a cursor, latest first, keeps the orders
+	 * before the last date, breaks ties on that date by a lower id and still
+	 * reaches the orders without a date, which sort last
+	 * 
+	 */
+	@Test
+	@DisplayName("Search Order After Cursor Descending")
+	void activeOrderSearchDescendingTest() {
+
+		LocalDate date = LocalDate.of(2025, 3, 1);
+		OrderSearchRequest search = new OrderSearchRequest(null, null, null, null, null, null, null, "date", "DESC");
+
+		Query query = OrderRepositoryImpl.activeOrderSearch(search, date, ID, 21);
+
+		@SuppressWarnings("unchecked")
+		List<Document> criteria = (List<Document>) query.getQueryObject().get("$and");
+
+		assertThat(criteria, hasItem(new Document("$or",
+				Arrays.asList(new Document("date", new Document("$lt", date)),
+						new Document("date", date).append("_id", new Document("$lt", new ObjectId(ID))),
+						new Document("date", null)))));
+		assertThat(query.getSortObject(), equalTo(new Document("date", -1).append("_id", -1)));
+		assertThat(query.getLimit(), equalTo(21));
+	}
+
+	/**
+	 * Test case to validate a page after a cursor, cheapest first, keeps the
+	 * orders on or above the last price and breaks ties on that price by a
+	 * higher id
+	 * 
+	 */
+	@Test
+	@DisplayName("Search Order After Cursor Ascending")
+	void activeOrderSearchAscendingTest() {
+
+		OrderSearchRequest search = new OrderSearchRequest("Chandan Kumar", null, null, null, null, null, null,
+				"totalPrice", "ASC");
+
+		Query query = OrderRepositoryImpl.activeOrderSearch(search, 240.0, ID, 21);
+
+		@SuppressWarnings("unchecked")
+		List<Document> criteria = (List<Document>) query.getQueryObject().get("$and");
+
+		assertThat(criteria, hasItem(new Document("customerName", "Chandan Kumar")));
+		assertThat(criteria, hasItem(new Document("totalPrice", new Document("$gte", 240.0))));
+		assertThat(criteria,
+				hasItem(new Document("$or", Arrays.asList(new Document("totalPrice", new Document("$gt", 240.0)),
+						new Document("_id", new Document("$gt", new ObjectId(ID)))))));
+		assertThat(query.getSortObject(), equalTo(new Document("totalPrice", 1).append("_id", 1)));
+	}
+
+	/**
+	 * Test case to validate a page after an order without a price, cheapest
+	 * first, breaks ties among such orders by id and then moves on to every
+	 * priced order
+	 * 
+	 */
+	@Test
+	@DisplayName("Search Order After Null Cursor Ascending")
+	void activeOrderSearchNullAscendingTest() {
+
+		OrderSearchRequest search = new OrderSearchRequest(null, null, null, null, null, null, null, "totalPrice",
+				"ASC");
+
+		Query query = OrderRepositoryImpl.activeOrderSearch(search, null, ID, 21);
+
+		@SuppressWarnings("unchecked")
+		List<Document> criteria = (List<Document>) query.getQueryObject().get("$and");
+
+		assertThat(criteria,
+				hasItem(new Document("$or", Arrays.asList(new Document("totalPrice", new Document("$ne", null)),
+						new Document("totalPrice", null).append("_id", new Document("$gt", new ObjectId(ID)))))));
+	}
+
+	/**
+	 * Test case to validate a page after an order without a price, dearest first,
+	 * only holds the remaining orders without a price
+	 * 
+	 */
+	@Test
+	@DisplayName("Search Order After Null Cursor Descending")
+	void activeOrderSearchNullDescendingTest() {
+
+		OrderSearchRequest search = new OrderSearchRequest(null, null, null, null, null, null, null, "totalPrice",
+				"DESC");
+
+		Query query = OrderRepositoryImpl.activeOrderSearch(search, null, ID, 21);
+
+		@SuppressWarnings("unchecked")
+		List<Document> criteria = (List<Document>) query.getQueryObject().get("$and");
+
+		assertThat(criteria, hasItem(new Document("totalPrice", null)));
+		assertThat(criteria, hasItem(new Document("_id", new Document("$lt", new ObjectId(ID)))));
+	}
+
+	/**
+	 * Test case to validate the first page carries no bound from a cursor
+	 * 
+	 */
+	@Test
+	@DisplayName("Search Order First Page")
+	void activeOrderSearchFirstPageTest() {
+
+		OrderSearchRequest search = new OrderSearchRequest(null, null, null, null, null, null, null, "date", "DESC");
+
+		Query query = OrderRepositoryImpl.activeOrderSearch(search, null, null, 21);
+
+		@SuppressWarnings("unchecked")
+		List<Document> criteria = (List<Document>) query.getQueryObject().get("$and");
+
+		assertThat(criteria.size(), equalTo(1));
+		assertThat(criteria.get(0).containsKey("$or"), equalTo(false));
+	}
+
+	/**
+	 * Test case to validate revenue is summed, counted and averaged per day in
+	 * the database, the days coming back in date order
+	 * 
+	 */
+	@Test
+	@DisplayName("Summarize Order By Day")
+	void summarizeOrderByDayTest() {
+
+		List<OrderDailySummary> days = Arrays
+				.asList(new OrderDailySummary(LocalDate.of(2025, 3, 1), 2, 300.0, 150.0));
+
+		when(mongoTemplate.aggregate(any(Aggregation.class), eq(CreateOrderResource.class),
+				eq(OrderDailySummary.class))).thenReturn(new AggregationResults<>(days, new Document()));
+
+		List<OrderDailySummary> result = repo.summarizeOrderByDay(LocalDate.of(2025, 3, 1), null);
+
+		ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+		verify(mongoTemplate).aggregate(aggregation.capture(), eq(CreateOrderResource.class),
+				eq(OrderDailySummary.class));
+
+		List<Document> pipeline = aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+
+		assertThat(result, equalTo(days));
+		assertThat(pipeline.get(1),
+				equalTo(new Document("$group",
+						new Document("_id", "$date").append("orders", new Document("$sum", 1))
+								.append("revenue", new Document("$sum", "$totalPrice"))
+								.append("averageOrderValue", new Document("$avg", "$totalPrice")))));
+		assertThat(pipeline.get(2), equalTo(new Document("$sort", new Document("_id", 1))));
+	}
+
+	/**
+	 * Test case to validate items are counted one per occurrence, the most
+	 * ordered first and ties by name, and only the top of the ranking is read
+	 * 
+	 */
+	@Test
+	@DisplayName("Summarize Order By Item")
+	void summarizeOrderByItemTest() {
+
+		List<Document> items = Arrays.asList(new Document("_id", "Fries").append("quantity", 7),
+				new Document("_id", "Coke").append("quantity", 4L));
+
+		when(mongoTemplate.aggregate(any(Aggregation.class), eq(CreateOrderResource.class), eq(Document.class)))
+				.thenReturn(new AggregationResults<>(items, new Document()));
+
+		List<OrderItemSummary> result = repo.summarizeOrderByItem(null, null, 2);
+
+		ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+		verify(mongoTemplate).aggregate(aggregation.capture(), eq(CreateOrderResource.class), eq(Document.class));
+
+		List<Document> pipeline = aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+
+		assertThat(result.get(0).getItem(), equalTo("Fries"));
+		assertThat(result.get(0).getQuantity(), equalTo(7L));
+		assertThat(result.get(1).getItem(), equalTo("Coke"));
+		assertThat(result.get(1).getQuantity(), equalTo(4L));
+		assertThat(pipeline.get(2), equalTo(new Document("$unwind", "$items")));
+		assertThat(pipeline.get(3), equalTo(
+				new Document("$group", new Document("_id", "$items").append("quantity", new Document("$sum", 1)))));
+		assertThat(pipeline.get(4), equalTo(new Document("$sort", new Document("quantity", -1).append("_id", 1))));
+		assertThat(pipeline.get(5), equalTo(new Document("$limit", 2L)));
+	}
+
+	/**
+	 * Test case to validate a move matches the order only in the delivery status
+	 * it starts from and returns the moved order, recorded in the rollups
+	 * 
+	 */
+	@Test
+	@DisplayName("Move Order Delivery Status")
+	void moveOrderDeliveryStatusTest() {
+
+		CreateOrderResource before = orderResource();
+
+		when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+				any(FindAndModifyOptions.class), eq(CreateOrderResource.class))).thenReturn(before);
+
+		CreateOrderResource result = repo.moveOrderDeliveryStatus(ID, DeliveryTransition.ACCEPT);
+
+		Document query = capturedQuery().getQueryObject();
+
+		assertThat(query.get("_id"), equalTo(ID));
+		assertThat(query.get("status"), equalTo(new Document("$ne", Status.DELETED)));
+		assertThat(query.get("orderDeliveryStatus"), equalTo("PENDING"));
+		assertThat(result.getOrderDeliveryStatus(), equalTo("ACCEPTED"));
+		assertThat(result.getVersion(), equalTo(3L));
+		assertThat(result.getItems(), equalTo(before.getItems()));
+		verify(rollupStore, times(1)).record(before, result);
+		verify(columnStore, times(1)).record(before, result);
+	}
+
+	/**
+	 * Test case to validate a move of an order in another delivery status, or of
+	 * a deleted order, matches nothing and returns null
+	 * 
+	 */
+	@Test
+	@DisplayName("Move Order Delivery Status From Wrong Status")
+	void moveOrderDeliveryStatusConflictTest() {
+
+		when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+				any(FindAndModifyOptions.class), eq(CreateOrderResource.class))).thenReturn(null);
+
+		CreateOrderResource result = repo.moveOrderDeliveryStatus(ID, DeliveryTransition.DELIVER);
+
+		assertThat(result, nullValue());
+		assertThat(capturedQuery().getQueryObject().get("orderDeliveryStatus"), equalTo("DISPATCHED"));
+		verifyNoInteractions(rollupStore, columnStore);
+	}
+
+	/**
+	 * Test case to validate a minimal update is a single findAndModify reading
+	 * back the rollup fields before the write, the counts and the difference
+	 * reaching the rollups both derived from them
+	 * 
+	 */
+	@Test
+	@DisplayName("Update Order By Id Minimal")
+	void updateOrderByIdMinimalTest() {
+
+		CreateOrderResource before = orderResource();
+		CreateOrderResource written = writtenResource();
+
+		when(rollupStore.isEnabled()).thenReturn(true);
+		when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+				any(FindAndModifyOptions.class), eq(CreateOrderResource.class))).thenReturn(before);
+
+		UpdateResult result = repo.updateOrderByIdMinimal(written);
+
+		ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+		verify(mongoTemplate).findAndModify(any(Query.class), any(UpdateDefinition.class), options.capture(),
+				eq(CreateOrderResource.class));
+
+		ArgumentCaptor<CreateOrderResource> after = ArgumentCaptor.forClass(CreateOrderResource.class);
+		verify(rollupStore).record(eq(before), after.capture());
+
+		assertThat(result.getMatchedCount(), equalTo(1L));
+		assertThat(result.getModifiedCount(), equalTo(1L));
+		assertThat(options.getValue().isReturnNew(), equalTo(false));
+		assertThat(capturedQuery().getFieldsObject().keySet(),
+				equalTo(new HashSet<>(OrderRepositoryImpl.ROLLUP_FIELDS)));
+		assertThat(after.getValue().getOrderId(), equalTo(ID));
+		assertThat(after.getValue().getDate(), equalTo(written.getDate()));
+		assertThat(after.getValue().getVersion(), equalTo(3L));
+		assertThat(after.getValue().getOrderDeliveryStatus(), equalTo(before.getOrderDeliveryStatus()));
+		verify(columnStore, times(1)).record(before, after.getValue());
+		verify(mongoTemplate, never()).updateFirst(any(Query.class), any(UpdateDefinition.class),
+				eq(CreateOrderResource.class));
+	}
+
+	/**
+	 * Test case to validate an order update leaves the delivery status to the
+	 * delivery transitions
+	 * 
+	 */
+	@Test
+	@DisplayName("Order Update Without Delivery Status")
+	void orderUpdateTest() {
+
+		Document set = (Document) OrderRepositoryImpl.orderUpdate(writtenResource()).getUpdateObject().get("$set");
+
+		assertThat(set.containsKey("orderDeliveryStatus"), equalTo(false));
+		assertThat(set.get("customerName"), equalTo("Chandan Kumar"));
+	}
+
+	/**
+	 * Test case to validate a minimal delete without rollups or column store is
+	 * a single updateFirst, the order never being read
+	 * 
+	 */
+	@Test
+	@DisplayName("Delete Order By Id Minimal Without Rollups")
+	void deleteOrderByIdMinimalWithoutRollupsTest() {
+
+		UpdateResult updateResult = UpdateResult.acknowledged(1, 1L, null);
+
+		when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(CreateOrderResource.class)))
+				.thenReturn(updateResult);
+
+		UpdateResult result = repo.deleteOrderByIdMinimal(ID);
+
+		assertThat(result, equalTo(updateResult));
+		verify(mongoTemplate, never()).findAndModify(any(Query.class), any(UpdateDefinition.class),
+				any(FindAndModifyOptions.class), eq(CreateOrderResource.class));
+		verify(rollupStore, never()).record(any(), any());
+		verify(columnStore, never()).record(any(), any());
+	}
+
+	/**
+	 * Test case to validate a minimal delete of an unknown order answers the
+	 * count of the write, nothing being recorded
+	 * 
+	 */
+	@Test
+	@DisplayName("Delete Unknown Order By Id Minimal")
+	void deleteUnknownOrderByIdMinimalTest() {
+
+		when(rollupStore.isEnabled()).thenReturn(true);
+		when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+				any(FindAndModifyOptions.class), eq(CreateOrderResource.class))).thenReturn(null);
+
+		UpdateResult result = repo.deleteOrderByIdMinimal(ID);
+
+		assertThat(result.getMatchedCount(), equalTo(0L));
+		assertThat(result.getModifiedCount(), equalTo(0L));
+		verify(rollupStore, never()).record(any(), any());
+	}
+
+	private Query capturedQuery() {
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).findAndModify(query.capture(), any(UpdateDefinition.class),
+				any(FindAndModifyOptions.class), eq(CreateOrderResource.class));
+
+		return query.getValue();
+	}
+
+	private UpdateDefinition capturedUpdate() {
+
+		ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+		verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class),
+				eq(CreateOrderResource.class));
+
+		return update.getValue();
+	}
+
+	private static CreateOrderResource writtenResource() {
+		return new CreateOrderResource(ID, null, "Chandan Kumar", "Bangalore", Arrays.asList("Veg Wrap"), 120.0,
+				LocalDate.now().minusDays(1), "ACCEPTED", "UPDATED", null);
+	}
+
+	private static CreateOrderResource orderResource() {
+
+		List<String> items = new ArrayList<>(Arrays.asList("Paneer Wrap", "Fries", "Fries"));
+
+		return new CreateOrderResource(ID, 1L, "Chandan Kumar", "Bangalore", items, 390.0, LocalDate.now(),
+				"PENDING", "UPDATED", 2L);
+	}
+}
@@ -0,0 +1,262 @@
+package com.wrappiza.application.repository;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.client.result.DeleteResult;
+import com.wrappiza.application.model.CreateOrderResource;
+import com.wrappiza.application.model.OrderDailyRollup;
+import com.wrappiza.application.model.OrderStatusSummary;
+
+/**
+ * Test cases for order rollup store class
+ * 
+ * @author Chandan Kumar
+ *
+ */
+@ExtendWith(MockitoExtension.class)
+public class OrderRollupStoreTest {
+
+	private static final LocalDate DAY = LocalDate.of(2025, 3, 1);
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	@Mock
+	private BulkOperations bulkOperations;
+
+	/**
+	 * Test case to validate a rebuild replaces the rollup only while its version
+	 * is the one read before aggregating, bumping it
+	 * 
+	 */
+	@Test
+	@DisplayName("Rebuild Unchanged Rollup")
+	void rebuildTest() {
+
+		OrderDailyRollup current = rollup(4L);
+
+		when(mongoTemplate.findById(DAY.toString(), OrderDailyRollup.class)).thenReturn(current);
+		aggregated(new Document("_id", "PENDING").append("orders", 2).append("revenue", 300.0),
+				new Document("_id", null).append("orders", 1).append("revenue", 90.0));
+		when(mongoTemplate.findAndReplace(any(Query.class), any(OrderDailyRollup.class))).thenReturn(current);
+
+		boolean rebuilt = store(true).rebuild(DAY);
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<OrderDailyRollup> rollup = ArgumentCaptor.forClass(OrderDailyRollup.class);
+		verify(mongoTemplate).findAndReplace(query.capture(), rollup.capture());
+
+		assertThat(rebuilt, equalTo(true));
+		assertThat(query.getValue().getQueryObject(),
+				equalTo(new Document("_id", DAY.toString()).append("version", 4L)));
+		assertThat(rollup.getValue().getOrders(), equalTo(3L));
+		assertThat(rollup.getValue().getRevenue(), equalTo(390.0));
+		assertThat(rollup.getValue().getVersion(), equalTo(5L));
+		assertThat(rollup.getValue().getDeliveryStatuses().keySet(),
+				equalTo(Collections.singleton("PENDING")));
+	}
+
+	/**
+	 * Test case to validate a rebuild whose rollup an increment changed while the
+	 * orders were aggregated is not written and is tried again
+	 * 
+	 */
+	@Test
+	@DisplayName("Rebuild Changed Rollup")
+	void rebuildChangedTest() {
+
+		when(mongoTemplate.findById(DAY.toString(), OrderDailyRollup.class)).thenReturn(rollup(4L), rollup(5L));
+		aggregated(new Document("_id", "PENDING").append("orders", 2).append("revenue", 300.0));
+		when(mongoTemplate.findAndReplace(any(Query.class), any(OrderDailyRollup.class))).thenReturn(null,
+				rollup(5L));
+
+		boolean rebuilt = store(true).rebuild(DAY);
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate, times(2)).findAndReplace(query.capture(), any(OrderDailyRollup.class));
+
+		assertThat(rebuilt, equalTo(true));
+		assertThat(query.getAllValues().get(1).getQueryObject().get("version"), equalTo(5L));
+	}
+
+	/**
+	 * Test case to validate a rebuild of a rollup that keeps changing gives up
+	 * and is left to reconciliation
+	 * 
+	 */
+	@Test
+	@DisplayName("Rebuild Contended Rollup")
+	void rebuildContendedTest() {
+
+		when(mongoTemplate.findById(DAY.toString(), OrderDailyRollup.class)).thenReturn(rollup(4L));
+		aggregated(new Document("_id", "PENDING").append("orders", 2).append("revenue", 300.0));
+		when(mongoTemplate.findAndReplace(any(Query.class), any(OrderDailyRollup.class))).thenReturn(null);
+
+		assertThat(store(true).rebuild(DAY), equalTo(false));
+		verify(mongoTemplate, times(3)).findAndReplace(any(Query.class), any(OrderDailyRollup.class));
+	}
+
+	/**
+	 * Test case to validate the rollup of a day without one is inserted, an
+	 * increment creating it meanwhile sending the rebuild round again
+	 * 
+	 */
+	@Test
+	@DisplayName("Rebuild Missing Rollup")
+	void rebuildMissingTest() {
+
+		when(mongoTemplate.findById(DAY.toString(), OrderDailyRollup.class)).thenReturn(null, rollup(1L));
+		aggregated(new Document("_id", "PENDING").append("orders", 2).append("revenue", 300.0));
+		when(mongoTemplate.insert(any(OrderDailyRollup.class))).thenThrow(new DuplicateKeyException("duplicate"));
+		when(mongoTemplate.findAndReplace(any(Query.class), any(OrderDailyRollup.class))).thenReturn(rollup(1L));
+
+		assertThat(store(true).rebuild(DAY), equalTo(true));
+		verify(mongoTemplate, times(1)).insert(any(OrderDailyRollup.class));
+		verify(mongoTemplate, times(1)).findAndReplace(any(Query.class), any(OrderDailyRollup.class));
+	}
+
+	/**
+	 * Test case to validate the rollup of a day left without orders is removed
+	 * while unchanged
+	 * 
+	 */
+	@Test
+	@DisplayName("Rebuild Emptied Rollup")
+	void rebuildEmptiedTest() {
+
+		when(mongoTemplate.findById(DAY.toString(), OrderDailyRollup.class)).thenReturn(rollup(4L));
+		aggregated();
+		when(mongoTemplate.remove(any(Query.class), eq(OrderDailyRollup.class)))
+				.thenReturn(DeleteResult.acknowledged(1));
+
+		assertThat(store(true).rebuild(DAY), equalTo(true));
+		verify(mongoTemplate, never()).findAndReplace(any(Query.class), any(OrderDailyRollup.class));
+	}
+
+	/**
+	 * Test case to validate reconciliation rebuilds today along with the recent
+	 * days
+	 * 
+	 */
+	@Test
+	@DisplayName("Reconcile Recent Days")
+	void reconcileTest() {
+
+		aggregated();
+
+		store(true).reconcile();
+
+		verify(mongoTemplate, times(1)).findById(LocalDate.now().minusDays(1).toString(), OrderDailyRollup.class);
+		verify(mongoTemplate, times(1)).findById(LocalDate.now().toString(), OrderDailyRollup.class);
+	}
+
+	/**
+	 * Test case to validate a delivery status holding characters a field path
+	 * cannot hold is escaped in the increments and read back as it was
+	 * 
+	 */
+	@Test
+	@DisplayName("Record Escaped Delivery Status")
+	void recordEscapedStatusTest() {
+
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OrderDailyRollup.class))
+				.thenReturn(bulkOperations);
+
+		OrderRollupStore store = store(true);
+		store.record(null, order("$out.of%stock"));
+
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(bulkOperations).upsert(any(Query.class), update.capture());
+
+		Document inc = (Document) update.getValue().getUpdateObject().get("$inc");
+
+		assertThat(inc.get("deliveryStatuses.%24out%2Eof%25stock.orders"), equalTo(1L));
+		assertThat(inc.get("version"), equalTo(1));
+
+		Map<String, OrderStatusSummary> deliveryStatuses = new HashMap<>();
+		deliveryStatuses.put("%24out%2Eof%25stock", new OrderStatusSummary(null, 1, 120.0));
+
+		OrderDailyRollup rollup = rollup(1L);
+		rollup.setDeliveryStatuses(deliveryStatuses);
+
+		when(mongoTemplate.find(any(Query.class), eq(OrderDailyRollup.class)))
+				.thenReturn(Collections.singletonList(rollup));
+
+		List<OrderDailyRollup> rollups = store.find(DAY, DAY);
+
+		assertThat(rollups.get(0).getDeliveryStatuses().keySet(),
+				equalTo(Collections.singleton("$out.of%stock")));
+	}
+
+	/**
+	 * Test case to validate nothing is kept or rebuilt with the rollups disabled
+	 * 
+	 */
+	@Test
+	@DisplayName("Record With Rollups Disabled")
+	void disabledTest() {
+
+		OrderRollupStore store = store(false);
+		store.record(null, order("PENDING"));
+		store.reconcile();
+
+		assertThat(store.rebuild(DAY), equalTo(false));
+		verifyNoInteractions(mongoTemplate);
+	}
+
+	private OrderRollupStore store(boolean enabled) {
+		return new OrderRollupStore(mongoTemplate, enabled, 1);
+	}
+
+	private void aggregated(Document... documents) {
+
+		when(mongoTemplate.aggregate(any(Aggregation.class), eq(CreateOrderResource.class), eq(Document.class)))
+				.thenReturn(new AggregationResults<>(Arrays.asList(documents), new Document()));
+	}
+
+	private static OrderDailyRollup rollup(Long version) {
+
+		OrderDailyRollup rollup = new OrderDailyRollup();
+		rollup.setDay(DAY.toString());
+		rollup.setOrders(2);
+		rollup.setRevenue(300.0);
+		rollup.setVersion(version);
+
+		return rollup;
+	}
+
+	private static CreateOrderResource order(String orderDeliveryStatus) {
+		return new CreateOrderResource("64b7f0c2e4b0a1a2b3c4d5e6", 1L, "Chandan Kumar", "Bangalore",
+				Arrays.asList("Veg Wrap"), 120.0, DAY, orderDeliveryStatus, "CREATED", 1L);
+	}
+}
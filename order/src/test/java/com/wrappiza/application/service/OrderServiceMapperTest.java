@@ -0,0 +1,46 @@
+package com.wrappiza.application.service;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.wrappiza.application.model.CreateOrderRequestInfo;
+import com.wrappiza.application.model.CreateOrderResource;
+import com.wrappiza.application.model.DeliveryStatus;
+import com.wrappiza.application.model.Status;
+
+/**
+ * Test cases for order service mapper class
+ * 
+ * @author Chandan Kumar
+ *
+ */
+public class OrderServiceMapperTest {
+
+	private final OrderServiceMapper mapper = new OrderServiceMapper();
+
+	/**
+	 * Test case to validate every created order starts pending delivery whatever
+	 * delivery status the client sent, or none
+	 * 
+	 */
+	@Test
+	@DisplayName("Create Resource Pending Delivery")
+	void createResourceTest() {
+
+		List<CreateOrderResource> resources = mapper.createResource(Arrays.asList(
+				new CreateOrderRequestInfo("Chandan Kumar", "Bangalore", Arrays.asList("Veg Wrap"), 120.0,
+						"DELIVERED"),
+				new CreateOrderRequestInfo("Dhiraj Kumar", "Patna", Arrays.asList("Fries"), 90.0, null)),
+				Status.CREATED.name());
+
+		assertThat(resources.get(0).getOrderDeliveryStatus(), equalTo(DeliveryStatus.PENDING.name()));
+		assertThat(resources.get(1).getOrderDeliveryStatus(), equalTo(DeliveryStatus.PENDING.name()));
+		assertThat(resources.get(0).getStatus(), equalTo(Status.CREATED.name()));
+	}
+}
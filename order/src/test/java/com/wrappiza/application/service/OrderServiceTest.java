@@ -0,0 +1,518 @@
+package com.wrappiza.application.service;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.wrappiza.application.controller.GlobalControllerAdvice;
+import com.wrappiza.application.exception.ErrorCategory;
+import com.wrappiza.application.exception.ServiceErrorCode;
+import com.wrappiza.application.exception.ServiceTerminalException;
+import com.wrappiza.application.job.OrderJobManager;
+import com.wrappiza.application.model.BulkWriteResult;
+import com.wrappiza.application.model.CreateOrderRequestInfo;
+import com.wrappiza.application.model.CreateOrderResource;
+import com.wrappiza.application.model.CreateOrderResponse;
+import com.wrappiza.application.model.DeliveryTransition;
+import com.wrappiza.application.model.ItemOperation;
+import com.wrappiza.application.model.JobResponse;
+import com.wrappiza.application.model.JobState;
+import com.wrappiza.application.model.OrderDailyRollup;
+import com.wrappiza.application.model.OrderDailySummary;
+import com.wrappiza.application.model.OrderItemEditRequest;
+import com.wrappiza.application.model.OrderItemSummary;
+import com.wrappiza.application.model.OrderItemsResponse;
+import com.wrappiza.application.model.OrderRevenueResponse;
+import com.wrappiza.application.model.OrderSearchRequest;
+import com.wrappiza.application.model.Status;
+import com.wrappiza.application.repository.OrderBulkWriter;
+import com.wrappiza.application.repository.OrderColumnStore;
+import com.wrappiza.application.repository.OrderNumberAllocator;
+import com.wrappiza.application.repository.OrderRepository;
+import com.wrappiza.application.repository.OrderRollupStore;
+
+import jakarta.validation.Validator;
+
+/**
+ * Test cases for order service class
+ * 
+ * @author Chandan Kumar
+ *
+ */
+@ExtendWith(MockitoExtension.class)
+public class OrderServiceTest {
+
+	private static final String ID = "64b7f0c2e4b0a1a2b3c4d5e6";
+
+	@Mock
+	private OrderRepository repo;
+
+	@Mock
+	private OrderServiceMapper mapper;
+
+	@Mock
+	private OrderBulkWriter bulkWriter;
+
+	@Mock
+	private OrderNumberAllocator orderNumberAllocator;
+
+	@Mock
+	private OrderJobManager jobManager;
+
+	@Mock
+	private Validator validator;
+
+	@Mock
+	private OrderRollupStore rollupStore;
+
+	@Mock
+	private OrderColumnStore columnStore;
+
+	@InjectMocks
+	private OrderServiceImpl service;
+
+	/**
+	 * Test case to validate replacing an item hands both items and prices to the
+	 * repository and returns the edited order
+	 * 
+	 */
+	@Test
+	@DisplayName("Replace Order Item")
+	void replaceOrderItemTest() {
+
+		CreateOrderResource resource = orderResource();
+		CreateOrderResponse response = new CreateOrderResponse();
+
+		when(repo.replaceOrderItem(ID, "Paneer Wrap", 150.0, "Veg Wrap", 120.0)).thenReturn(resource);
+		when(mapper.buildCreateOrderResponse(Collections.singletonList(resource))).thenReturn(response);
+
+		CreateOrderResponse result = service.editOrderItem(ID,
+				new OrderItemEditRequest(ItemOperation.REPLACE, "Paneer Wrap", 150.0, "Veg Wrap", 120.0));
+
+		assertThat(result, equalTo(response));
+		verify(repo, times(1)).replaceOrderItem(ID, "Paneer Wrap", 150.0, "Veg Wrap", 120.0);
+	}
+
+	/**
+	 * Test case to validate removing an item the order does not hold is refused
+	 * as an invalid item edit
+	 * 
+	 */
+	@Test
+	@DisplayName("Remove Missing Order Item")
+	void removeMissingOrderItemTest() {
+
+		when(repo.removeOrderItem(ID, "Coke", 60.0)).thenReturn(null);
+
+		Throwable exception = assertThrows(ServiceTerminalException.class, () -> service.editOrderItem(ID,
+				new OrderItemEditRequest(ItemOperation.REMOVE, "Coke", 60.0, null, null)));
+
+		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.INVALID_ITEM_EDIT.getMessage()));
+	}
+
+	/**
+	 * Test case to validate a negative price is refused before any write
+	 * 
+	 */
+	@Test
+	@DisplayName("Edit Order Item With Negative Price")
+	void editOrderItemNegativePriceTest() {
+
+		Throwable exception = assertThrows(ServiceTerminalException.class, () -> service.editOrderItem(ID,
+				new OrderItemEditRequest(ItemOperation.ADD, "Coke", -60.0, null, null)));
+
+		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.INVALID_ITEM_EDIT.getMessage()));
+		verify(repo, times(0)).addOrderItem(ID, "Coke", -60.0);
+	}
+
+	/**
+	 * Test case to validate a date cursor reads back the date and id it was
+	 * built from
+	 * 
+	 */
+	@Test
+	@DisplayName("Date Cursor Round Trip")
+	void dateCursorTest() {
+
+		Object[] cursor = OrderServiceImpl.decodeCursor("date",
+				OrderServiceImpl.encodeCursor("date", orderResource()));
+
+		assertThat(cursor[0], equalTo(LocalDate.now()));
+		assertThat(cursor[1], equalTo(ID));
+	}
+
+	/**
+	 * Test case to validate a price cursor reads back the price and id it was
+	 * built from
+	 * 
+	 */
+	@Test
+	@DisplayName("Price Cursor Round Trip")
+	void priceCursorTest() {
+
+		CreateOrderResource resource = orderResource();
+		resource.setTotalPrice(240.75);
+
+		Object[] cursor = OrderServiceImpl.decodeCursor("totalPrice",
+				OrderServiceImpl.encodeCursor("totalPrice", resource));
+
+		assertThat(cursor[0], equalTo(240.75));
+		assertThat(cursor[1], equalTo(ID));
+	}
+
+	/**
+	 * Test case to validate a cursor built from an order without a price reads
+	 * back a null price rather than ending the pagination
+	 * 
+	 */
+	@Test
+	@DisplayName("Null Price Cursor Round Trip")
+	void nullPriceCursorTest() {
+
+		CreateOrderResource resource = orderResource();
+		resource.setTotalPrice(null);
+
+		Object[] cursor = OrderServiceImpl.decodeCursor("totalPrice",
+				OrderServiceImpl.encodeCursor("totalPrice", resource));
+
+		assertThat(cursor[0], nullValue());
+		assertThat(cursor[1], equalTo(ID));
+	}
+
+	/**
+	 * Test case to validate a cursor issued for another sort field is refused
+	 * 
+	 */
+	@Test
+	@DisplayName("Cursor Of Another Sort Field")
+	void otherSortCursorTest() {
+
+		String after = OrderServiceImpl.encodeCursor("date", orderResource());
+
+		Throwable exception = assertThrows(ServiceTerminalException.class,
+				() -> OrderServiceImpl.decodeCursor("totalPrice", after));
+
+		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.INVALID_SEARCH_REQUEST.getMessage()));
+	}
+
+	/**
+	 * Test case to validate a cursor that is not one issued by a search is
+	 * refused
+	 * 
+	 */
+	@Test
+	@DisplayName("Malformed Cursor")
+	void malformedCursorTest() {
+
+		Throwable exception = assertThrows(ServiceTerminalException.class,
+				() -> OrderServiceImpl.decodeCursor("date", "not-a-cursor"));
+
+		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.INVALID_SEARCH_REQUEST.getMessage()));
+	}
+
+	/**
+	 * Test case to validate a search continues after its cursor, reads one order
+	 * past the page to know whether another page follows and hands the cursor of
+	 * the last order on
+	 * 
+	 */
+	@Test
+	@DisplayName("Search Order Next Page")
+	void searchOrderNextPageTest() {
+
+		OrderSearchRequest search = new OrderSearchRequest();
+		String after = OrderServiceImpl.encodeCursor("date", orderResource());
+
+		List<CreateOrderResource> resources = new ArrayList<>();
+
+		for (int day = 1; day <= 3; day++) {
+			CreateOrderResource resource = orderResource();
+			resource.setOrderId(ID.substring(0, 23) + day);
+			resource.setDate(LocalDate.now().minusDays(day));
+			resources.add(resource);
+		}
+
+		when(repo.searchOrder(search, LocalDate.now(), ID, 3, Collections.emptyList())).thenReturn(resources);
+
+		service.searchOrder(search, after, 2, null);
+
+		ArgumentCaptor<String> nextCursor = ArgumentCaptor.forClass(String.class);
+		verify(mapper).buildCreateOrderResponse(eq(resources.subList(0, 2)), nextCursor.capture());
+
+		Object[] cursor = OrderServiceImpl.decodeCursor("date", nextCursor.getValue());
+
+		assertThat(search.getSort(), equalTo("date"));
+		assertThat(search.getDirection(), equalTo("DESC"));
+		assertThat(cursor[0], equalTo(LocalDate.now().minusDays(2)));
+		assertThat(cursor[1], equalTo(ID.substring(0, 23) + 2));
+	}
+
+	/**
+	 * Test case to validate the last page hands no cursor on
+	 * 
+	 */
+	@Test
+	@DisplayName("Search Order Last Page")
+	void searchOrderLastPageTest() {
+
+		OrderSearchRequest search = new OrderSearchRequest();
+		List<CreateOrderResource> resources = Collections.singletonList(orderResource());
+
+		when(repo.searchOrder(search, null, null, 3, Collections.emptyList())).thenReturn(resources);
+
+		service.searchOrder(search, null, 2, null);
+
+		ArgumentCaptor<String> nextCursor = ArgumentCaptor.forClass(String.class);
+		verify(mapper).buildCreateOrderResponse(eq(resources), nextCursor.capture());
+
+		assertThat(nextCursor.getValue(), nullValue());
+	}
+
+	/**
+	 * Test case to validate the revenue totals and the average order value are
+	 * added up from the daily summaries
+	 * 
+	 */
+	@Test
+	@DisplayName("Analyze Revenue")
+	void analyzeRevenueTest() {
+
+		LocalDate from = LocalDate.of(2025, 3, 1);
+		LocalDate to = LocalDate.of(2025, 3, 2);
+
+		when(repo.summarizeOrderByDay(from, to)).thenReturn(Arrays.asList(new OrderDailySummary(from, 2, 300.0, 150.0),
+				new OrderDailySummary(to, 1, 90.0, 90.0)));
+
+		OrderRevenueResponse response = service.analyzeRevenue(from, to);
+
+		assertThat(response.getOrders(), equalTo(3L));
+		assertThat(response.getRevenue(), equalTo(390.0));
+		assertThat(response.getAverageOrderValue(), equalTo(130.0));
+		assertThat(response.getDays().size(), equalTo(2));
+	}
+
+	/**
+	 * Test case to validate revenue read from the daily rollups skips the days
+	 * left without orders and averages each day
+	 * 
+	 */
+	@Test
+	@DisplayName("Analyze Revenue From Rollups")
+	void analyzeRevenueRollupTest() {
+
+		ReflectionTestUtils.setField(service, "rollupReads", true);
+
+		when(rollupStore.isEnabled()).thenReturn(true);
+
+		when(rollupStore.find(null, null)).thenReturn(Arrays.asList(dailyRollup("2025-03-01", 4, 500.0),
+				dailyRollup("2025-03-02", 0, 0.0), dailyRollup("2025-03-03", 1, 100.0)));
+
+		OrderRevenueResponse response = service.analyzeRevenue(null, null);
+
+		assertThat(response.getOrders(), equalTo(5L));
+		assertThat(response.getRevenue(), equalTo(600.0));
+		assertThat(response.getAverageOrderValue(), equalTo(120.0));
+		assertThat(response.getDays().size(), equalTo(2));
+		assertThat(response.getDays().get(0).getAverageOrderValue(), equalTo(125.0));
+		assertThat(response.getDays().get(1).getDate(), equalTo(LocalDate.of(2025, 3, 3)));
+	}
+
+	/**
+	 * Test case to validate a range without orders averages to zero
+	 * 
+	 */
+	@Test
+	@DisplayName("Analyze Revenue Without Orders")
+	void analyzeRevenueEmptyTest() {
+
+		when(repo.summarizeOrderByDay(null, null)).thenReturn(Collections.emptyList());
+
+		OrderRevenueResponse response = service.analyzeRevenue(null, null);
+
+		assertThat(response.getOrders(), equalTo(0L));
+		assertThat(response.getAverageOrderValue(), equalTo(0.0));
+	}
+
+	/**
+	 * Test case to validate a date range ending before it starts is refused
+	 * 
+	 */
+	@Test
+	@DisplayName("Analyze Revenue With Invalid Range")
+	void analyzeRevenueInvalidRangeTest() {
+
+		Throwable exception = assertThrows(ServiceTerminalException.class,
+				() -> service.analyzeRevenue(LocalDate.of(2025, 3, 2), LocalDate.of(2025, 3, 1)));
+
+		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.INVALID_DATE_RANGE.getMessage()));
+	}
+
+	/**
+	 * Test case to validate the top items are read with the default limit when
+	 * none is given
+	 * 
+	 */
+	@Test
+	@DisplayName("Analyze Items")
+	void analyzeItemsTest() {
+
+		List<OrderItemSummary> items = Arrays.asList(new OrderItemSummary("Fries", 7),
+				new OrderItemSummary("Coke", 4));
+
+		when(repo.summarizeOrderByItem(null, null, 10)).thenReturn(items);
+
+		OrderItemsResponse response = service.analyzeItems(null, null, null);
+
+		assertThat(response.getItems(), equalTo(items));
+	}
+
+	/**
+	 * Test case to validate a limit past the largest ranking is refused
+	 * 
+	 */
+	@Test
+	@DisplayName("Analyze Items With Invalid Limit")
+	void analyzeItemsInvalidLimitTest() {
+
+		Throwable exception = assertThrows(ServiceTerminalException.class,
+				() -> service.analyzeItems(null, null, 101));
+
+		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.INVALID_SEARCH_REQUEST.getMessage()));
+	}
+
+	/**
+	 * Test case to validate a move returns the moved order
+	 * 
+	 */
+	@Test
+	@DisplayName("Move Order Delivery Status")
+	void moveOrderDeliveryStatusTest() {
+
+		CreateOrderResource resource = orderResource();
+		CreateOrderResponse response = new CreateOrderResponse();
+
+		when(repo.moveOrderDeliveryStatus(ID, DeliveryTransition.START)).thenReturn(resource);
+		when(mapper.buildCreateOrderResponse(Collections.singletonList(resource))).thenReturn(response);
+
+		assertThat(service.moveOrderDeliveryStatus(ID, DeliveryTransition.START), equalTo(response));
+	}
+
+	/**
+	 * Test case to validate a move matching no order, being in another delivery
+	 * status or deleted, is answered as a conflict
+	 * 
+	 */
+	@Test
+	@DisplayName("Move Order Delivery Status Conflict")
+	void moveOrderDeliveryStatusConflictTest() {
+
+		when(repo.moveOrderDeliveryStatus(ID, DeliveryTransition.START)).thenReturn(null);
+
+		ServiceTerminalException exception = assertThrows(ServiceTerminalException.class,
+				() -> service.moveOrderDeliveryStatus(ID, DeliveryTransition.START));
+
+		assertThat(exception.getMessage(), equalTo(ServiceErrorCode.INVALID_DELIVERY_TRANSITION.getMessage()));
+		assertThat(exception.getErrorCategory(), equalTo(ErrorCategory.CONFLICT));
+		assertThat(new GlobalControllerAdvice().handleServiceException(exception).getStatusCode(),
+				equalTo(HttpStatus.CONFLICT));
+	}
+
+	/**
+	 * Test case to validate an import fails a record that cannot be parsed at its
+	 * position and still writes the records around it
+	 * 
+	 */
+	@Test
+	@DisplayName("Import Order With Broken Record")
+	void importOrdersTest() {
+
+		ReflectionTestUtils.setField(service, "jobManager", new OrderJobManager(2, 1, 4, Duration.ofHours(1)));
+
+		CreateOrderRequestInfo first = new CreateOrderRequestInfo("Chandan Kumar", "Bangalore",
+				Arrays.asList("Veg Wrap"), 120.0, null);
+		CreateOrderRequestInfo second = new CreateOrderRequestInfo("Dhiraj Kumar", "Patna", Arrays.asList("Fries"),
+				90.0, null);
+
+		List<CreateOrderResource> resources = new ArrayList<>(Arrays.asList(orderResource(), orderResource()));
+		List<BulkWriteResult> writeResults = Arrays.asList(new BulkWriteResult(0, ID, true, null),
+				new BulkWriteResult(1, ID, true, null));
+
+		CreateOrderResponse response = new CreateOrderResponse();
+		response.setWriteResults(writeResults);
+
+		when(mapper.createResource(Arrays.asList(first, second), Status.CREATED.name())).thenReturn(resources);
+		when(bulkWriter.insert(resources)).thenReturn(writeResults);
+		when(mapper.buildBulkCreateOrderResponse(resources, writeResults)).thenReturn(response);
+
+		Iterator<CreateOrderRequestInfo> lines = Arrays.asList(first, null, second).iterator();
+
+		// A malformed line fails when its record is read, like a line parsed on its own
+		Iterator<CreateOrderRequestInfo> records = new Iterator<CreateOrderRequestInfo>() {
+
+			@Override
+			public boolean hasNext() {
+				return lines.hasNext();
+			}
+
+			@Override
+			public CreateOrderRequestInfo next() {
+
+				CreateOrderRequestInfo info = lines.next();
+
+				if (null == info) {
+					throw new UncheckedIOException(new JsonParseException(null, "Unexpected end-of-input"));
+				}
+
+				return info;
+			}
+		};
+
+		JobResponse job = service.importOrders(records);
+
+		assertThat(job.getState(), equalTo(JobState.COMPLETED));
+		assertThat(job.getProcessed(), equalTo(3L));
+		assertThat(job.getSucceeded(), equalTo(2L));
+		assertThat(job.getFailures().size(), equalTo(1));
+		assertThat(job.getFailures().get(0).getIndex(), equalTo(1));
+	}
+
+	private static OrderDailyRollup dailyRollup(String day, long orders, double revenue) {
+
+		OrderDailyRollup rollup = new OrderDailyRollup();
+		rollup.setDay(day);
+		rollup.setOrders(orders);
+		rollup.setRevenue(revenue);
+
+		return rollup;
+	}
+
+	private static CreateOrderResource orderResource() {
+		return new CreateOrderResource(ID, 1L, "Chandan Kumar", "Bangalore", Arrays.asList("Veg Wrap", "Fries"),
+				240.0, LocalDate.now(), "PENDING", "UPDATED", 2L);
+	}
+}